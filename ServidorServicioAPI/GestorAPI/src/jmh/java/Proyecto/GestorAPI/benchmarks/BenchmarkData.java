@@ -0,0 +1,195 @@
+package Proyecto.GestorAPI.benchmarks;
+
+import Proyecto.GestorAPI.models.CategoryExpense;
+import Proyecto.GestorAPI.models.Spent;
+import Proyecto.GestorAPI.models.Subscription;
+import Proyecto.GestorAPI.models.Ticket;
+import Proyecto.GestorAPI.models.User;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generadores de datos sintéticos para los benchmarks.
+ *
+ * Los datos siguen la forma de los que guarda la aplicación: gastos de un usuario repartidos en el
+ * último año, con la proporción habitual de tipos (sobre todo gastos genéricos y tickets, y algunas
+ * subscripciones), tickets con el JSON de productos del servidor OCR y resultados OCR completos.
+ * Todos los generadores reciben el {@link Random} para que cada ejecución use los mismos datos.
+ */
+final class BenchmarkData {
+
+    private static final String[] PRODUCTS = {
+            "Leche entera 1L", "Pan de molde", "Huevos L docena", "Aceite de oliva 1L", "Tomate triturado",
+            "Yogur natural x4", "Manzana golden", "Pechuga de pollo", "Arroz redondo 1kg", "Detergente líquido",
+            "Café molido", "Agua mineral 1,5L", "Queso curado", "Papel higiénico x12", "Galletas maría"
+    };
+    private static final String[][] PRODUCT_CATEGORIES = {
+            {"alimentacion", "lacteos"}, {"alimentacion", "panaderia"}, {"alimentacion"}, {"alimentacion", "aceites"},
+            {"alimentacion", "conservas"}, {"alimentacion", "lacteos"}, {"fruta"}, {"carne"}, {"alimentacion"},
+            {"limpieza"}, {"alimentacion", "bebidas"}, {"bebidas"}, {"alimentacion", "lacteos"}, {"higiene"},
+            {"alimentacion", "dulces"}
+    };
+    private static final String[] STORES = {
+            "MERCADONA S.A.", "CARREFOUR", "LIDL SUPERMERCADOS", "DIA RETAIL", "ALCAMPO", "EROSKI", "CONSUM"
+    };
+    private static final String[] SPENT_NAMES = {
+            "Gasolina", "Cena restaurante", "Farmacia", "Parking centro", "Peluquería", "Cine", "Regalo cumpleaños",
+            "Taxi aeropuerto", "Material oficina", "Ferretería"
+    };
+    private static final String[] SUBSCRIPTION_NAMES = {
+            "Netflix", "Spotify", "Gimnasio", "Seguro hogar", "Fibra y móvil", "Amazon Prime", "iCloud"
+    };
+    private static final String[] ICONS = {"bi-cart", "bi-fuel-pump", "bi-cup-hot", "bi-capsule", "bi-receipt", null};
+
+    // Fecha fija para que los datos no dependan del día de ejecución
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 17, 18, 42);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Usuario propietario de los gastos generados.
+     */
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("benchmark" + id);
+        user.setName("Benchmark");
+        user.setEmail("benchmark" + id + "@example.com");
+        return user;
+    }
+
+    /**
+     * Categorías de gasto con ID 1..count.
+     */
+    static List<CategoryExpense> categories(int count) {
+        List<CategoryExpense> categories = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            CategoryExpense category = new CategoryExpense();
+            category.setId((long) i);
+            category.setName("Categoría " + i);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    /**
+     * Gastos de un usuario en el último año, ordenados del más reciente al más antiguo como en el
+     * listado paginado: 60 % gastos genéricos, facturas o transferencias, 30 % tickets con entre 1 y
+     * 40 artículos y 10 % subscripciones.
+     */
+    static List<Spent> spents(int count, User user, List<CategoryExpense> categories, Random random) {
+        List<Spent> spents = new ArrayList<>(count);
+        LocalDateTime date = NOW;
+        for (int i = 0; i < count; i++) {
+            date = date.minusMinutes(30 + random.nextInt(60 * 24 * 365 / Math.max(count, 1) + 1));
+            int kind = random.nextInt(10);
+            Spent spent;
+            if (kind < 3) {
+                spent = ticket(random, date);
+            } else if (kind < 4) {
+                spent = subscription(random, date);
+            } else {
+                spent = new Spent();
+                spent.setName(SPENT_NAMES[random.nextInt(SPENT_NAMES.length)]);
+                spent.setTypeExpense(kind < 8 ? ExpenseClass.GASTO_GENERICO : kind < 9 ? ExpenseClass.FACTURA : ExpenseClass.TRANSFERENCIA);
+                spent.setTotal(amount(random, 2, 250));
+                spent.setIva(21);
+            }
+            spent.setSpentId((long) (count - i));
+            spent.setUser(user);
+            spent.setCategory(categories.get(random.nextInt(categories.size())));
+            spent.setExpenseDate(date);
+            spent.setDescription(random.nextInt(3) == 0 ? null : "Sin descripción..");
+            spent.setIcon(ICONS[random.nextInt(ICONS.length)]);
+            spent.setCreatedAt(date);
+            spent.setUpdatedAt(date);
+            spents.add(spent);
+        }
+        return spents;
+    }
+
+    private static Ticket ticket(Random random, LocalDateTime date) {
+        Ticket ticket = new Ticket();
+        String store = STORES[random.nextInt(STORES.length)];
+        StringBuilder products = new StringBuilder();
+        double total = appendProducts(products, 1 + random.nextInt(40), random);
+        ticket.setStore(store);
+        ticket.setName(store);
+        ticket.setProductsJSON(products.toString());
+        ticket.setTotal(total);
+        ticket.setIva(10);
+        ticket.setTypeExpense(ExpenseClass.TICKET);
+        return ticket;
+    }
+
+    private static Subscription subscription(Random random, LocalDateTime date) {
+        Subscription subscription = new Subscription();
+        subscription.setName(SUBSCRIPTION_NAMES[random.nextInt(SUBSCRIPTION_NAMES.length)]);
+        subscription.setTotal(amount(random, 3, 60));
+        subscription.setIva(21);
+        subscription.setStart(date);
+        subscription.setEnd(random.nextInt(4) == 0 ? date.plusYears(1) : null);
+        subscription.setAccumulate(subscription.getTotal() * (1 + random.nextInt(12)));
+        subscription.setRestartDay(date.getDayOfMonth());
+        subscription.setIntervalTime(random.nextInt(5) == 0 ? 7 : 30);
+        subscription.setActiva(random.nextInt(6) != 0);
+        subscription.setTypeExpense(ExpenseClass.SUBSCRIPCION);
+        return subscription;
+    }
+
+    /**
+     * Resultado OCR con el formato del servidor Python: datos del establecimiento, confianza y una
+     * lista de artículos con nombre, cantidad, precio, subtotal y categorías.
+     */
+    static String ocrResult(int items, Random random) {
+        StringBuilder articles = new StringBuilder(items * 150);
+        double total = appendProducts(articles, items, random);
+        return new StringBuilder(articles.length() + 256)
+                .append("{\"establecimiento\":\"").append(STORES[0]).append("\",\"fecha\":\"2025-05-17\",\"hora\":\"18:42\",")
+                .append("\"total\":").append(total)
+                .append(",\"categoria\":1,\"confianza\":0.87,\"iva\":10.0,\"articulos\":")
+                .append(articles)
+                .append('}')
+                .toString();
+    }
+
+    /**
+     * Escribe una lista JSON de artículos y devuelve su importe total.
+     */
+    private static double appendProducts(StringBuilder json, int items, Random random) {
+        double total = 0;
+        json.append('[');
+        for (int i = 0; i < items; i++) {
+            int product = random.nextInt(PRODUCTS.length);
+            int quantity = 1 + random.nextInt(4);
+            double price = amount(random, 0.5, 9.5);
+            double subtotal = Math.round(price * quantity * 100) / 100.0;
+            total += subtotal;
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"nombre\":\"").append(PRODUCTS[product].toUpperCase(Locale.ROOT))
+                    .append("\",\"cantidad\":").append(quantity)
+                    .append(",\"precio\":").append(price)
+                    .append(",\"subtotal\":").append(subtotal)
+                    .append(",\"categorias\":[");
+            String[] categories = PRODUCT_CATEGORIES[product];
+            for (int c = 0; c < categories.length; c++) {
+                json.append(c > 0 ? "," : "").append('"').append(categories[c]).append('"');
+            }
+            json.append("]}");
+        }
+        json.append(']');
+        return Math.round(total * 100) / 100.0;
+    }
+
+    private static double amount(Random random, double min, double max) {
+        return Math.round((min + random.nextDouble() * (max - min)) * 100) / 100.0;
+    }
+}
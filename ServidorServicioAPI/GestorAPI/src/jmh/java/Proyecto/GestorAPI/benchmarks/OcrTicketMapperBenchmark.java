@@ -0,0 +1,158 @@
+package Proyecto.GestorAPI.benchmarks;
+
+import Proyecto.GestorAPI.config.ObjectMapperConfig;
+import Proyecto.GestorAPI.exceptions.ErrorPharseJsonException;
+import Proyecto.GestorAPI.models.CategoryExpense;
+import Proyecto.GestorAPI.models.Ticket;
+import Proyecto.GestorAPI.models.User;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.modelsDTO.ticket.ProductTicketResponse;
+import Proyecto.GestorAPI.modelsDTO.ticket.TicketResponse;
+import Proyecto.GestorAPI.servicesimpl.CategoryExpenseServiceImpl;
+import Proyecto.GestorAPI.servicesimpl.OcrTicketMapper;
+import Proyecto.GestorAPI.servicesimpl.TicketServiceImpl;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de la conversión del resultado OCR en un {@link Ticket}.
+ *
+ * <ul>
+ *     <li>{@code mapperPorLlamada}: comportamiento anterior, un ObjectMapper y dos DateTimeFormatter nuevos
+ *     por resultado, lectura completa de {@link TicketResponse} y nueva serialización de los artículos.</li>
+ *     <li>{@code lectorCompartido}: mismo proceso con el ObjectMapper de la aplicación y un ObjectReader y
+ *     un ObjectWriter creados una sola vez.</li>
+ *     <li>{@code streaming}: {@link OcrTicketMapper#toTicket}, lectura con JsonParser de los campos sueltos.</li>
+ *     <li>{@code servicioTicket}: {@link TicketServiceImpl#mappingCreateTicketbyOCR}, el mapper más la
+ *     asignación de la categoría por defecto.</li>
+ * </ul>
+ *
+ * Los resultados OCR se generan con {@link BenchmarkData#ocrResult}.
+ *
+ * Ejecución: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="OcrTicketMapper"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OcrTicketMapperBenchmark {
+
+    /**
+     * Número de artículos del ticket (ticket pequeño, compra semanal y compra grande).
+     */
+    @Param({"5", "25", "120"})
+    public int articulos;
+
+    private OcrTicketMapper mapper;
+    private ObjectReader ticketReader;
+    private ObjectWriter productsWriter;
+    private TicketServiceImpl ticketService;
+    private User user;
+    private String ocrResult;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+        mapper = new OcrTicketMapper(objectMapper);
+        ticketReader = objectMapper.readerFor(TicketResponse.class);
+        productsWriter = objectMapper.writerFor(new TypeReference<List<ProductTicketResponse>>() {});
+        user = BenchmarkData.user(42L);
+
+        // Servicio fuera de Spring: solo necesita el mapper y la categoría por defecto
+        CategoryExpense category = BenchmarkData.categories(1).get(0);
+        ticketService = new TicketServiceImpl();
+        ReflectionTestUtils.setField(ticketService, "ocrTicketMapper", mapper);
+        ReflectionTestUtils.setField(ticketService, "categoriaService", new CategoryExpenseServiceImpl() {
+            @Override
+            public CategoryExpense getReference(Long id) {
+                return category;
+            }
+        });
+        ocrResult = BenchmarkData.ocrResult(articulos, new Random(articulos));
+    }
+
+    @Benchmark
+    public Ticket mapperPorLlamada() throws ErrorPharseJsonException {
+        return legacyMapping(ocrResult, user);
+    }
+
+    @Benchmark
+    public Ticket lectorCompartido() throws IOException {
+        TicketResponse response = ticketReader.readValue(ocrResult);
+        Ticket ticket = new Ticket();
+        ticket.setUser(user);
+        ticket.setStore(response.getEstablecimiento());
+        ticket.setName(response.getEstablecimiento());
+        ticket.setProductsJSON(productsWriter.writeValueAsString(response.getArticulos()));
+        ticket.setTotal(response.getTotal());
+        ticket.setIva(response.getIva());
+        ticket.setExpenseDate(LocalDateTime.of(LocalDate.parse(response.getFecha()), LocalTime.parse(response.getHora())));
+        ticket.setTypeExpense(ExpenseClass.TICKET);
+        return ticket;
+    }
+
+    @Benchmark
+    public Ticket streaming() throws ErrorPharseJsonException {
+        return mapper.toTicket(ocrResult, user);
+    }
+
+    @Benchmark
+    public Ticket servicioTicket() throws ErrorPharseJsonException {
+        return ticketService.mappingCreateTicketbyOCR(ocrResult, user);
+    }
+
+    /**
+     * Conversión tal como se hacía antes en TicketServiceImpl.mappingCreateTicketbyOCR (sin la categoría).
+     */
+    static Ticket legacyMapping(String ocrResult, User user) throws ErrorPharseJsonException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        TicketResponse ticketOCR;
+        String articulosJson = "[]";
+        try {
+            ticketOCR = objectMapper.readValue(ocrResult, TicketResponse.class);
+            articulosJson = objectMapper.writeValueAsString(ticketOCR.getArticulos());
+        } catch (Exception e) {
+            throw new ErrorPharseJsonException("Error al cargar ocr desde Python: " + e);
+        }
+        Ticket ticket = new Ticket();
+        ticket.setUser(user);
+        ticket.setStore(ticketOCR.getEstablecimiento() != null ? ticketOCR.getEstablecimiento() : "Desconocido");
+        ticket.setProductsJSON(articulosJson);
+        ticket.setTotal(ticketOCR.getTotal() != null ? ticketOCR.getTotal() : 0.0);
+        ticket.setIva(ticketOCR.getIva() != null ? ticketOCR.getIva() : 0.0);
+        ticket.setName(ticketOCR.getEstablecimiento() != null ? ticketOCR.getEstablecimiento() : "Ticket");
+        ticket.setDescription("Sin descripción..");
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+        LocalDate fecha = LocalDate.parse(ticketOCR.getFecha(), dateFormatter);
+        LocalTime hora = LocalTime.parse(ticketOCR.getHora(), timeFormatter);
+        ticket.setExpenseDate(LocalDateTime.of(fecha, hora));
+        ticket.setTypeExpense(ExpenseClass.TICKET);
+        return ticket;
+    }
+}
@@ -0,0 +1,103 @@
+package Proyecto.GestorAPI.benchmarks;
+
+import Proyecto.GestorAPI.config.ObjectMapperConfig;
+import Proyecto.GestorAPI.models.Spent;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentDto;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentFullDto;
+import Proyecto.GestorAPI.servicesimpl.SpentServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de la conversión de gastos en DTOs y de su serialización a JSON, el trabajo que hace
+ * la API en cada listado de gastos además de la consulta.
+ *
+ * <ul>
+ *     <li>{@code spentDtoFrom}: {@link SpentDto#from} para cada gasto (respuesta de alta, consulta y actualización).</li>
+ *     <li>{@code spentFullDtos}: {@link SpentServiceImpl#mappingSpentFullDtosList}, con los campos de ticket y
+ *     subscripción.</li>
+ *     <li>{@code serializarSpentFullDtos}: lista de {@link SpentFullDto} con el ObjectMapper de la aplicación,
+ *     como hace Spring MVC al escribir la respuesta.</li>
+ *     <li>{@code serializarWriterCompartido}: misma lista con un ObjectWriter del tipo creado una sola vez.</li>
+ *     <li>{@code paginaCompleta}: conversión más serialización de una página.</li>
+ * </ul>
+ *
+ * Los gastos se generan con {@link BenchmarkData#spents}: 50 es el tamaño de página por defecto,
+ * 200 el máximo y 5000 un historial completo (exportación o listado sin paginar).
+ *
+ * Ejecución: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SpentMapping"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpentMappingBenchmark {
+
+    /**
+     * Número de gastos de la lista.
+     */
+    @Param({"50", "200", "5000"})
+    public int gastos;
+
+    private SpentServiceImpl spentService;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<Spent> spents;
+    private List<SpentFullDto> fullDtos;
+
+    @Setup
+    public void setup() {
+        // Los métodos de conversión no usan los repositorios ni otros servicios
+        spentService = new SpentServiceImpl();
+        objectMapper = new ObjectMapperConfig().objectMapper();
+        listWriter = objectMapper.writerFor(new TypeReference<List<SpentFullDto>>() {});
+
+        Random random = new Random(gastos);
+        spents = BenchmarkData.spents(gastos, BenchmarkData.user(42L), BenchmarkData.categories(12), random);
+        fullDtos = spentService.mappingSpentFullDtosList(spents);
+    }
+
+    @Benchmark
+    public List<SpentDto> spentDtoFrom() {
+        return spents.stream().map(SpentDto::from).toList();
+    }
+
+    @Benchmark
+    public List<SpentFullDto> spentFullDtos() {
+        return spentService.mappingSpentFullDtosList(spents);
+    }
+
+    @Benchmark
+    public byte[] serializarSpentFullDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(fullDtos);
+    }
+
+    @Benchmark
+    public byte[] serializarWriterCompartido() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(fullDtos);
+    }
+
+    @Benchmark
+    public byte[] paginaCompleta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(spentService.mappingSpentFullDtosList(spents));
+    }
+}
@@ -0,0 +1,120 @@
+package Proyecto.GestorAPI.benchmarks;
+
+import Proyecto.GestorAPI.config.security.CustomUserDetails;
+import Proyecto.GestorAPI.config.security.RoleServer;
+import Proyecto.GestorAPI.config.security.TokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de la validación y generación de JWT en {@link TokenProvider}.
+ *
+ * <ul>
+ *     <li>{@code parserPorPeticion}: comportamiento anterior, deriva la clave y construye el parser en cada llamada.</li>
+ *     <li>{@code parserCompartido}: clave y parser precalculados, sin caché de validación.</li>
+ *     <li>{@code cacheValidacion}: clave y parser precalculados con la caché de tokens validados.</li>
+ *     <li>{@code tokenInvalido}: token con firma incorrecta (la traza está limitada por intervalo).</li>
+ *     <li>{@code generarToken}: {@link TokenProvider#generate}, firma de un token nuevo en el login.</li>
+ * </ul>
+ *
+ * Ejecución: {@code mvn -Pjmh test-compile exec:exec -Djmh.args="TokenProvider"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    static final String SECRET = "IDKNguVNiihte61wmeWTNqAYpXKg2vGpw6iHxFbk7ivQxA1Y19SS+zE7Or1G9T/YqvoHTV048g7M+TuoFV8IMg==";
+
+    private TokenProvider sinCache;
+    private TokenProvider conCache;
+    private String token;
+    private String tokenFirmaIncorrecta;
+    private UsernamePasswordAuthenticationToken authentication;
+
+    @Setup
+    public void setup() {
+        sinCache = newProvider(0);
+        conCache = newProvider(1024);
+
+        authentication = authentication();
+        token = conCache.generate(authentication);
+        // Mismo contenido con la firma alterada
+        char last = token.charAt(token.length() - 2);
+        tokenFirmaIncorrecta = token.substring(0, token.length() - 2) + (last == 'A' ? 'B' : 'A') + token.charAt(token.length() - 1);
+    }
+
+    @Benchmark
+    public Jws<Claims> parserPorPeticion() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token);
+    }
+
+    @Benchmark
+    public Optional<Jws<Claims>> parserCompartido() {
+        return sinCache.validateTokenAndGetJws(token);
+    }
+
+    @Benchmark
+    public Optional<Jws<Claims>> cacheValidacion() {
+        return conCache.validateTokenAndGetJws(token);
+    }
+
+    @Benchmark
+    public Optional<Jws<Claims>> tokenInvalido() {
+        return conCache.validateTokenAndGetJws(tokenFirmaIncorrecta);
+    }
+
+    @Benchmark
+    public String generarToken() {
+        return sinCache.generate(authentication);
+    }
+
+    /**
+     * Crea un {@link TokenProvider} fuera de Spring con las propiedades por defecto de la aplicación.
+     */
+    static TokenProvider newProvider(int cacheSize) {
+        TokenProvider provider = new TokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMinutes", 1440L);
+        ReflectionTestUtils.setField(provider, "validationCacheMaxSize", cacheSize);
+        ReflectionTestUtils.setField(provider, "invalidLogIntervalMillis", 10000L);
+        provider.init();
+        return provider;
+    }
+
+    static UsernamePasswordAuthenticationToken authentication() {
+        CustomUserDetails user = new CustomUserDetails();
+        user.setId(42L);
+        user.setUsername("benchmark");
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setRole(RoleServer.USER);
+        user.setAuthorities(List.of(new SimpleGrantedAuthority(RoleServer.USER.name())));
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
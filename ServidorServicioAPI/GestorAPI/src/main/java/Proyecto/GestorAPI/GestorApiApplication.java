@@ -5,6 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * La clase principal de la aplicación Spring Boot.
@@ -17,8 +18,11 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
  *
  * Esta clase se utiliza para arrancar el contexto de Spring Boot, inicializando todos los beans, configuraciones
  * y la aplicación en general.
+ *
+ * `@EnableScheduling` habilita las tareas programadas (`@Scheduled`) de mantenimiento de la aplicación.
  */
 @SpringBootApplication
+@EnableScheduling
 public class GestorApiApplication {
 
 	/**
@@ -1,26 +1,119 @@
 package Proyecto.GestorAPI.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URISyntaxException;
+
 /**
  * Configuración de RestTemplate para hacer solicitudes HTTP en la aplicación.
  *
  * Esta clase se encarga de crear y exponer un bean de tipo RestTemplate que puede ser inyectado
  * en otras partes de la aplicación para realizar solicitudes HTTP a servicios externos.
+ * Todas las llamadas al servidor Python (OCR, chat IA y estado) comparten este cliente, que
+ * reutiliza conexiones HTTP/1.1 mediante un pool de Apache HttpClient en lugar de abrir
+ * una conexión TCP por petición.
  */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${python.server.url}")
+    private String pythonServerUrl;
+
+    @Value("${python.http.max-total:20}")
+    private int maxTotal;
+
+    @Value("${python.http.max-per-route:10}")
+    private int maxPerRoute;
+
+    @Value("${python.http.connect-timeout:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${python.http.read-timeout:120000}")
+    private long readTimeoutMs;
+
+    @Value("${python.http.pool-timeout:5000}")
+    private long poolTimeoutMs;
+
+    @Value("${python.http.keep-alive:30000}")
+    private long keepAliveMs;
+
+    /**
+     * Pool de conexiones compartido. Se expone como bean para poder consultar su ocupación.
+     *
+     * @return Pool de conexiones configurado con los límites y tiempos de espera.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager pythonConnectionManager() throws URISyntaxException {
+        PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                // LIFO: se reutiliza la conexión más reciente y las demás caducan por inactividad
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(10))
+                        .build())
+                .build();
+        // Límite explícito para la ruta del servidor Python
+        manager.setMaxPerRoute(new HttpRoute(HttpHost.create(pythonServerUrl)), maxPerRoute);
+        return manager;
+    }
+
+    /**
+     * Cliente HTTP con keep-alive acotado y limpieza periódica de conexiones inactivas.
+     *
+     * @param connectionManager Pool de conexiones compartido.
+     * @return Cliente HTTP reutilizable.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient pythonHttpClient(PoolingHttpClientConnectionManager connectionManager) {
+        TimeValue maxKeepAlive = TimeValue.ofMilliseconds(keepAliveMs);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                // Respeta el Keep-Alive del servidor pero sin superar el máximo configurado
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue server = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return TimeValue.isPositive(server) && server.compareTo(maxKeepAlive) < 0 ? server : maxKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(maxKeepAlive)
+                .disableAutomaticRetries()
+                .build();
+    }
+
     /**
      * Crea un bean RestTemplate que se puede inyectar en otras clases de la aplicación.
      * RestTemplate es utilizado para enviar solicitudes HTTP, como GET, POST, PUT, DELETE, etc.
      *
-     * @return Una nueva instancia de RestTemplate.
+     * @param httpClient Cliente HTTP con pool de conexiones.
+     * @return RestTemplate respaldado por el cliente compartido.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate(); // Crear y devolver una instancia de RestTemplate
+    public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 }
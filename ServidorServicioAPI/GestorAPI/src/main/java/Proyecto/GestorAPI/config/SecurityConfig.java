@@ -3,6 +3,7 @@ package Proyecto.GestorAPI.config;
 import Proyecto.GestorAPI.config.security.JwtAuthenticationFilter;
 import Proyecto.GestorAPI.config.security.RoleServer;
 import Proyecto.GestorAPI.config.security.TokenProvider;
+import Proyecto.GestorAPI.config.security.TokenRevocationRegistry;
 import Proyecto.GestorAPI.config.security.oauth2.CustomAuthenticationSuccessHandler;
 import Proyecto.GestorAPI.config.security.oauth2.CustomOAuth2UserService;
 import org.springframework.beans.factory.annotation.Value;
@@ -43,16 +44,19 @@ public class SecurityConfig {
     private final CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler;
     private final TokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     // Constructor para inyección de dependencias
     public SecurityConfig(CustomOAuth2UserService customOauth2UserService,
                           CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler,
                           TokenProvider tokenProvider,
-                          UserDetailsService userDetailsService) {
+                          UserDetailsService userDetailsService,
+                          TokenRevocationRegistry tokenRevocationRegistry) {
         this.customOauth2UserService = customOauth2UserService;
         this.customAuthenticationSuccessHandler = customAuthenticationSuccessHandler;
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     /**
@@ -63,7 +67,7 @@ public class SecurityConfig {
      */
     @Bean
     public JwtAuthenticationFilter tokenAuthenticationFilter() {
-        return new JwtAuthenticationFilter(userDetailsService, tokenProvider);
+        return new JwtAuthenticationFilter(userDetailsService, tokenProvider, tokenRevocationRegistry);
     }
 
     /**
@@ -0,0 +1,87 @@
+package Proyecto.GestorAPI.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Ajusta los generadores de IDs por secuencia a los datos ya existentes.
+ *
+ * Las entidades que pasan de IDENTITY a un generador SEQUENCE "pooled" siguen teniendo filas
+ * con IDs asignados por la base de datos. En MySQL, Hibernate emula la secuencia con una tabla
+ * de una fila ({@code <secuencia>.next_val}) que {@code ddl-auto} crea empezando en 1, lo que
+ * produciría IDs repetidos. Al arrancar, antes de cualquier inserción, se recorre el metamodelo
+ * y se sube {@code next_val} por encima del mayor ID de cada tabla.
+ *
+ * No requiere configuración: basta con declarar la entidad con {@code @SequenceGenerator}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SequenceSeeder {
+
+    // Columna de valor de las tablas que emulan secuencias (valor por defecto de Hibernate)
+    private static final String VALUE_COLUMN = "next_val";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Set<String> seeded = new HashSet<>();
+
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(descriptor -> {
+            // En herencia las subclases comparten el generador y la tabla de IDs de la raíz
+            if (!descriptor.getEntityName().equals(descriptor.getRootEntityName())) {
+                return;
+            }
+            Generator generator = descriptor.getGenerator();
+            if (!(generator instanceof SequenceStyleGenerator sequenceGenerator)
+                    || !(descriptor instanceof AbstractEntityPersister persister)) {
+                return;
+            }
+            DatabaseStructure structure = sequenceGenerator.getDatabaseStructure();
+            String sequence = structure.getPhysicalName().getObjectName().getText();
+            // Varias entidades pueden compartir secuencia; basta con ajustarla una vez
+            if (!seeded.add(sequence)) {
+                return;
+            }
+            if (structure.isPhysicalSequence()) {
+                // Secuencia real (H2, PostgreSQL...): no hay tabla que ajustar
+                log.debug("Secuencia {} nativa, sin ajuste", sequence);
+                return;
+            }
+            seedTable(sequence, persister.getTableName(), persister.getIdentifierColumnNames()[0], structure.getIncrementSize());
+        });
+    }
+
+    /**
+     * Sube el valor de la tabla-secuencia si es menor que el mayor ID existente más un bloque.
+     */
+    private void seedTable(String sequence, String table, String idColumn, int increment) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+            long next = (maxId == null ? 0 : maxId) + increment + 1;
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + sequence + " SET " + VALUE_COLUMN + " = ? WHERE " + VALUE_COLUMN + " < ?", next, next);
+            if (updated > 0) {
+                log.info("Secuencia {} ajustada a {} (máximo ID en {}: {})", sequence, next, table, maxId);
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudo ajustar la secuencia {} de {}: {}", sequence, table, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package Proyecto.GestorAPI.config.http;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cortocircuito sencillo basado en fallos consecutivos.
+ *
+ * CERRADO deja pasar las llamadas; tras {@code failureThreshold} fallos seguidos pasa a ABIERTO
+ * y las llamadas se rechazan sin esperar al servidor. Pasado {@code openMillis}, quien lo gestiona
+ * lo pone en SEMIABIERTO, realiza una comprobación de prueba y lo cierra o lo vuelve a abrir
+ * según el resultado. En SEMIABIERTO las llamadas normales siguen rechazándose.
+ */
+public class CircuitBreaker {
+
+    public enum State { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CERRADO);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * @return true si se pueden realizar llamadas.
+     */
+    public boolean allowsCalls() {
+        return state.get() == State.CERRADO;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Registra un fallo y abre el circuito si se alcanza el umbral.
+     *
+     * @return true si este fallo ha abierto el circuito.
+     */
+    public boolean recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold
+                && state.compareAndSet(State.CERRADO, State.ABIERTO)) {
+            openedAt.set(System.currentTimeMillis());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Pasa de ABIERTO a SEMIABIERTO si ha transcurrido el tiempo de apertura.
+     *
+     * @return true si el llamante debe realizar la comprobación de prueba.
+     */
+    public boolean tryHalfOpen() {
+        return state.get() == State.ABIERTO
+                && System.currentTimeMillis() - openedAt.get() >= openMillis
+                && state.compareAndSet(State.ABIERTO, State.SEMIABIERTO);
+    }
+
+    /**
+     * Resultado de la comprobación de prueba realizada en SEMIABIERTO.
+     *
+     * @param healthy Si el servidor ha respondido correctamente.
+     */
+    public void onProbeResult(boolean healthy) {
+        if (healthy) {
+            consecutiveFailures.set(0);
+            state.set(State.CERRADO);
+        } else {
+            openedAt.set(System.currentTimeMillis());
+            state.set(State.ABIERTO);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package Proyecto.GestorAPI.config.http;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.client.RequestCallback;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Cuerpo multipart/form-data con un único archivo que se escribe directamente en la petición.
+ *
+ * A diferencia de enviar un {@code FileSystemResource} dentro de un {@code MultiValueMap},
+ * el contenido no pasa por ningún búfer intermedio: los archivos en disco se transfieren
+ * con {@link FileChannel#transferTo} y los flujos se copian por bloques. Como el tamaño total
+ * se conoce de antemano se envía {@code Content-Length} y la petición no se trocea.
+ */
+public class FileMultipartRequestCallback implements RequestCallback {
+
+    private final Map<String, String> headers;
+    private final byte[] preamble;
+    private final byte[] epilogue;
+    private final long contentLength;
+    private final String boundary;
+    private final PartSource source;
+
+    private FileMultipartRequestCallback(String fieldName, String fileName, long size,
+                                         Map<String, String> headers, PartSource source) {
+        this.headers = headers;
+        this.source = source;
+        this.boundary = new String(MimeTypeUtils.generateMultipartBoundary(), StandardCharsets.US_ASCII);
+        this.preamble = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + fieldName + "\"; filename=\"" + escape(fileName) + "\"\r\n"
+                + "Content-Type: " + MediaType.APPLICATION_OCTET_STREAM_VALUE + "\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8);
+        this.epilogue = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.contentLength = preamble.length + size + epilogue.length;
+    }
+
+    /**
+     * Crea el cuerpo a partir de un archivo en disco, enviado mediante {@link FileChannel}.
+     *
+     * @param fieldName Nombre del campo del formulario.
+     * @param file Archivo a enviar.
+     * @param headers Cabeceras adicionales de la petición.
+     * @return Callback listo para {@code RestTemplate.execute}.
+     * @throws IOException Si no se puede leer el tamaño del archivo.
+     */
+    public static FileMultipartRequestCallback ofFile(String fieldName, Path file, Map<String, String> headers) throws IOException {
+        long size = Files.size(file);
+        return new FileMultipartRequestCallback(fieldName, file.getFileName().toString(), size, headers, out -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = 0;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+        });
+    }
+
+    /**
+     * Crea el cuerpo a partir de un flujo de tamaño conocido, sin copiarlo antes a disco.
+     *
+     * @param fieldName Nombre del campo del formulario.
+     * @param fileName Nombre de archivo indicado en la parte.
+     * @param size Tamaño exacto del contenido en bytes.
+     * @param input Origen del flujo (por ejemplo un {@code MultipartFile}); se abre y cierra al escribir la petición.
+     * @param headers Cabeceras adicionales de la petición.
+     * @return Callback listo para {@code RestTemplate.execute}.
+     */
+    public static FileMultipartRequestCallback ofStream(String fieldName, String fileName, long size,
+                                                        InputStreamSource input, Map<String, String> headers) {
+        return new FileMultipartRequestCallback(fieldName, fileName, size, headers, out -> {
+            try (InputStream in = input.getInputStream()) {
+                in.transferTo(out);
+            }
+        });
+    }
+
+    @Override
+    public void doWithRequest(ClientHttpRequest request) throws IOException {
+        HttpHeaders requestHeaders = request.getHeaders();
+        requestHeaders.setContentType(new MediaType(MediaType.MULTIPART_FORM_DATA, Map.of("boundary", boundary)));
+        requestHeaders.setContentLength(contentLength);
+        headers.forEach(requestHeaders::set);
+
+        if (request instanceof StreamingHttpOutputMessage streaming) {
+            streaming.setBody(this::writeBody);
+        } else {
+            writeBody(request.getBody());
+        }
+    }
+
+    private void writeBody(OutputStream out) throws IOException {
+        out.write(preamble);
+        source.writeTo(out);
+        out.write(epilogue);
+        out.flush();
+    }
+
+    private static String escape(String fileName) {
+        return fileName.replace("\\", "\\\\").replace("\"", "\\\"").replace("\r", "").replace("\n", "");
+    }
+
+    /**
+     * Origen del contenido del archivo.
+     */
+    @FunctionalInterface
+    private interface PartSource {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
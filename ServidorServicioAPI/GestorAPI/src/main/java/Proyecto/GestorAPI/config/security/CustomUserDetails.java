@@ -63,6 +63,16 @@ public class CustomUserDetails implements OAuth2User, UserDetails {
      */
     private OAuth2Provider provider;
 
+    /**
+     * Rol del usuario en la aplicación, para que los controladores no tengan que volver a consultar el usuario.
+     */
+    private RoleServer role;
+
+    /**
+     * Versión de tokens del usuario, incluida en el JWT para poder revocarlo.
+     */
+    private int tokenVersion;
+
     /**
      * Colección de las autoridades (roles) del usuario. Estos roles determinan los permisos y accesos en la aplicación.
      */
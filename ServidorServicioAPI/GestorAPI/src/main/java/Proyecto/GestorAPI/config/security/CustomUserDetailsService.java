@@ -32,10 +32,16 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     private final UserService userService;
 
+    /**
+     * Caché de detalles de usuario para no consultar la base de datos en cada petición.
+     */
+    private final UserDetailsCache userDetailsCache;
+
     /**
      * Método sobrescrito de {@link UserDetailsService} que carga los detalles de un usuario
-     * a partir de su nombre de usuario. Lanza una excepción {@link UsernameNotFoundException}
-     * si el usuario no se encuentra en la base de datos.
+     * a partir de su nombre de usuario, usando la caché si la entrada sigue vigente.
+     * Lanza una excepción {@link UsernameNotFoundException} si el usuario no se encuentra
+     * en la base de datos.
      *
      * @param username Nombre de usuario utilizado para la búsqueda.
      * @return {@link UserDetails} con la información del usuario.
@@ -43,6 +49,11 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) {
+        CustomUserDetails cached = userDetailsCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+
         // Obtiene el usuario desde la base de datos a través del servicio
         User user = userService.getUserByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(String.format("Username %s not found", username)));
@@ -51,7 +62,9 @@ public class CustomUserDetailsService implements UserDetailsService {
         List<SimpleGrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(user.getRole().name()));
 
         // Mapea el usuario a un objeto CustomUserDetails
-        return mapUserToCustomUserDetails(user, authorities);
+        CustomUserDetails details = mapUserToCustomUserDetails(user, authorities);
+        userDetailsCache.put(details);
+        return details;
     }
 
     /**
@@ -70,6 +83,8 @@ public class CustomUserDetailsService implements UserDetailsService {
         customUserDetails.setPassword(user.getPassword());
         customUserDetails.setName(user.getName());
         customUserDetails.setEmail(user.getEmail());
+        customUserDetails.setRole(user.getRole());
+        customUserDetails.setTokenVersion(user.getTokenVersion());
         customUserDetails.setAuthorities(authorities);
         return customUserDetails;
     }
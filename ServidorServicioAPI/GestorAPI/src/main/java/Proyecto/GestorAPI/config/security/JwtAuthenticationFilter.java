@@ -1,11 +1,13 @@
 package Proyecto.GestorAPI.config.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -29,6 +31,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;  // Servicio para obtener los detalles del usuario
     private final TokenProvider tokenProvider;  // Proveedor de tokens para validar y extraer información
+    private final TokenRevocationRegistry tokenRevocationRegistry;  // Revocación de tokens en modo sin estado
+
+    // Modo sin estado: el usuario se construye a partir de los claims del token, sin consultar la base de datos
+    @Value("${app.jwt.stateless:false}")
+    private boolean stateless;
 
     /**
      * Método que se ejecuta para procesar cada solicitud HTTP y autenticar al usuario si se incluye un token válido.
@@ -46,11 +53,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             getJwtFromRequest(request)
                     // Validamos y extraemos el JWS (JSON Web Signature) usando el tokenProvider
                     .flatMap(tokenProvider::validateTokenAndGetJws)
-                    .ifPresent(jws -> {
-                        // Si el token es válido, extraemos el nombre de usuario del payload del JWS
-                        String username = jws.getPayload().getSubject();
-                        // Obtenemos los detalles del usuario con el nombre de usuario
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    // Obtenemos los detalles del usuario (desde los claims o la base de datos)
+                    .flatMap(jws -> resolveUser(jws.getPayload()))
+                    .ifPresent(userDetails -> {
                         // Creamos un token de autenticación con los detalles del usuario
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                         // Añadimos los detalles de la autenticación (como la IP o el agente de usuario)
@@ -66,6 +71,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    /**
+     * Obtiene los detalles del usuario de un token verificado.
+     *
+     * En modo sin estado se construyen a partir de los claims, comprobando antes que el token no
+     * ha sido revocado. Los tokens sin los claims necesarios (emitidos antes de activar el modo)
+     * y el modo normal cargan el usuario por su nombre.
+     *
+     * @param claims Claims del token.
+     * @return Detalles del usuario, o vacío si el token ha sido revocado.
+     */
+    private Optional<UserDetails> resolveUser(Claims claims) {
+        if (stateless) {
+            Optional<CustomUserDetails> fromClaims = tokenProvider.toUserDetails(claims);
+            if (fromClaims.isPresent()) {
+                CustomUserDetails user = fromClaims.get();
+                return tokenRevocationRegistry.isValid(user.getId(), user.getTokenVersion())
+                        ? Optional.of(user)
+                        : Optional.empty();
+            }
+        }
+        // Si el token es válido, extraemos el nombre de usuario del payload del JWS
+        String username = claims.getSubject();
+        return Optional.of(userDetailsService.loadUserByUsername(username));
+    }
+
     /**
      * Extrae el JWT del encabezado de la solicitud HTTP.
      *
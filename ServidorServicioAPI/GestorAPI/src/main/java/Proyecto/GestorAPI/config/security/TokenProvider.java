@@ -3,29 +3,33 @@ package Proyecto.GestorAPI.config.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Slf4j // Añade la capacidad de registrar logs
 @Component // Marca la clase como un componente gestionado por Spring
-@RequiredArgsConstructor // Genera un constructor con los parámetros necesarios para la inyección de dependencias
 public class TokenProvider {
 
     // Constantes relacionadas con el tipo de token, el emisor y el público
@@ -33,7 +37,13 @@ public class TokenProvider {
     public static final String TOKEN_ISSUER = "order-api";
     public static final String TOKEN_AUDIENCE = "order-app";
 
-    private final UserDetailsService userDetailsService;  // Servicio para obtener los detalles del usuario
+    // Segmentos de la caché de validación, cada uno con su propio cerrojo (potencia de 2)
+    private static final int CACHE_SEGMENTS = 16;
+
+    // Claims con el id del usuario y la versión de sus tokens (modo sin estado)
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_ROLES = "rol";
 
     @Value("${app.jwt.secret}")
     private String jwtSecret;  // Clave secreta utilizada para firmar el JWT
@@ -41,6 +51,46 @@ public class TokenProvider {
     @Value("${app.jwt.expiration.minutes}")
     private Long jwtExpirationMinutes;  // Tiempo de expiración del JWT en minutos
 
+    @Value("${app.jwt.validation-cache.max-size:1024}")
+    private int validationCacheMaxSize;  // Tokens validados recientemente que se recuerdan (0 = sin caché)
+
+    @Value("${app.jwt.invalid-log-interval:10000}")
+    private long invalidLogIntervalMillis;  // Intervalo mínimo entre trazas de tokens inválidos
+
+    // Clave y parser derivados una única vez del secreto; ambos son inmutables y seguros entre hilos
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * Token validado recientemente. Se guarda el token completo para compararlo en cada acierto,
+     * así la firma solo sirve como clave de búsqueda.
+     */
+    private record ValidatedToken(String token, Jws<Claims> jws, long expiresAt) {
+    }
+
+    // LRU de tokens validados, indexada por la firma del token y repartida en segmentos
+    private CacheSegment[] validatedTokens;
+
+    // Limitación de trazas de tokens inválidos
+    private final AtomicLong lastInvalidLog = new AtomicLong();
+    private final AtomicLong suppressedInvalidLogs = new AtomicLong();
+
+    /**
+     * Prepara la clave de firma, el parser y la caché de validación una vez inyectadas las propiedades.
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        int perSegment = Math.max(1, (validationCacheMaxSize + CACHE_SEGMENTS - 1) / CACHE_SEGMENTS);
+        validatedTokens = new CacheSegment[CACHE_SEGMENTS];
+        for (int i = 0; i < CACHE_SEGMENTS; i++) {
+            validatedTokens[i] = new CacheSegment(perSegment);
+        }
+    }
+
     /**
      * Genera un JWT (JSON Web Token) para un usuario autenticado.
      *
@@ -57,9 +107,6 @@ public class TokenProvider {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
-        // Convertimos la clave secreta a bytes
-        byte[] signingKey = jwtSecret.getBytes();
-
         // Obtiene la hora actual
         Instant now = Instant.now();
 
@@ -67,7 +114,7 @@ public class TokenProvider {
         return Jwts.builder()
                 .header().add("typ", TOKEN_TYPE) // Especificamos el tipo de token
                 .and()
-                .signWith(Keys.hmacShaKeyFor(signingKey), Jwts.SIG.HS512) // Firmamos el token con la clave secreta
+                .signWith(signingKey, Jwts.SIG.HS512) // Firmamos el token con la clave secreta
                 .issuedAt(Date.from(now)) // Fecha de emisión del token
                 .expiration(Date.from(now.plusSeconds(60 * jwtExpirationMinutes))) // Fecha de expiración del token
                 .id(UUID.randomUUID().toString()) // ID único para el token
@@ -75,7 +122,9 @@ public class TokenProvider {
                 .audience().add(TOKEN_AUDIENCE) // El público del token
                 .and()
                 .subject(user.getUsername()) // El nombre de usuario (sujeto)
-                .claim("rol", roles) // Añadimos el rol del usuario como un claim
+                .claim(CLAIM_USER_ID, user.getId()) // ID del usuario
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion()) // Versión de tokens, para revocación
+                .claim(CLAIM_ROLES, roles) // Añadimos el rol del usuario como un claim
                 .claim("name", user.getName()) // Añadimos el nombre del usuario como un claim
                 .claim("preferred_username", user.getUsername()) // Nombre de usuario preferido
                 .claim("email", user.getEmail()) // Correo electrónico del usuario
@@ -84,41 +133,156 @@ public class TokenProvider {
 
     /**
      * Valida un token JWT y devuelve su contenido (claims) si es válido.
+     * Los tokens validados recientemente se sirven desde una caché LRU hasta su expiración,
+     * sin volver a verificar la firma. La caché se reparte en segmentos según la firma, así que
+     * las peticiones con tokens distintos casi nunca esperan por el mismo cerrojo.
      *
      * @param token El token JWT que se desea validar
      * @return Un Optional que contiene el JWS (JSON Web Signature) si el token es válido, o un Optional vacío si no lo es
      */
     public Optional<Jws<Claims>> validateTokenAndGetJws(String token) {
-        try {
-            // Convertimos la clave secreta a bytes
-            byte[] signingKey = jwtSecret.getBytes();
+        String signature = signatureOf(token);
+        if (signature != null && validationCacheMaxSize > 0) {
+            CacheSegment segment = segmentFor(signature);
+            ValidatedToken cached = segment.find(signature);
+            if (cached != null && cached.token().equals(token)) {
+                if (cached.expiresAt() > System.currentTimeMillis()) {
+                    return Optional.of(cached.jws());
+                }
+                // Expirado: se descarta y el parser informará del motivo
+                segment.discard(signature, cached);
+            }
+        }
 
+        try {
             // Intentamos analizar y validar el token
-            Jws<Claims> jws = Jwts.parser()
-                    .verifyWith(Keys.hmacShaKeyFor(signingKey)) // Verificación de la firma con la clave secreta
-                    .build()
-                    .parseSignedClaims(token); // Parseo de los claims del token
+            Jws<Claims> jws = parser.parseSignedClaims(token);
+
+            Date expiration = jws.getPayload().getExpiration();
+            if (signature != null && validationCacheMaxSize > 0 && expiration != null) {
+                segmentFor(signature).store(signature, new ValidatedToken(token, jws, expiration.getTime()));
+            }
 
             // Si todo es correcto, devolvemos el JWS (contenido del token)
             return Optional.of(jws);
         } catch (ExpiredJwtException exception) {
-            // Si el token ha expirado, lo registramos en los logs
-            log.error("Request to parse expired JWT : {} failed : {}", token, exception.getMessage());
+            // Si el token ha expirado
+            logInvalidToken("expired", exception);
         } catch (UnsupportedJwtException exception) {
-            // Si el token es de un tipo no soportado, lo registramos en los logs
-            log.error("Request to parse unsupported JWT : {} failed : {}", token, exception.getMessage());
+            // Si el token es de un tipo no soportado
+            logInvalidToken("unsupported", exception);
         } catch (MalformedJwtException exception) {
-            // Si el token está mal formado, lo registramos en los logs
-            log.error("Request to parse invalid JWT : {} failed : {}", token, exception.getMessage());
+            // Si el token está mal formado
+            logInvalidToken("invalid", exception);
         } catch (SignatureException exception) {
-            // Si la firma del token es inválida, lo registramos en los logs
-            log.error("Request to parse JWT with invalid signature : {} failed : {}", token, exception.getMessage());
+            // Si la firma del token es inválida
+            logInvalidToken("wrongly signed", exception);
         } catch (IllegalArgumentException exception) {
-            // Si el token es vacío o nulo, lo registramos en los logs
-            log.error("Request to parse empty or null JWT : {} failed : {}", token, exception.getMessage());
+            // Si el token es vacío o nulo
+            logInvalidToken("empty or null", exception);
         }
         // Si ocurre cualquier error, devolvemos un Optional vacío
         return Optional.empty();
     }
 
+    /**
+     * Registra un token rechazado como mucho una vez por intervalo, indicando cuántos se han omitido.
+     * Nunca se escribe el token: es una credencial.
+     */
+    private void logInvalidToken(String kind, Exception exception) {
+        long now = System.currentTimeMillis();
+        long last = lastInvalidLog.get();
+        if (now - last < invalidLogIntervalMillis || !lastInvalidLog.compareAndSet(last, now)) {
+            suppressedInvalidLogs.incrementAndGet();
+            return;
+        }
+        long suppressed = suppressedInvalidLogs.getAndSet(0);
+        if (suppressed > 0) {
+            log.warn("Request to parse {} JWT failed : {} ({} more rejected tokens not logged)",
+                    kind, exception.getMessage(), suppressed);
+        } else {
+            log.warn("Request to parse {} JWT failed : {}", kind, exception.getMessage());
+        }
+    }
+
+    /**
+     * @return La firma (último segmento) de un JWS compacto, o null si el token no tiene esa forma.
+     */
+    private static String signatureOf(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.lastIndexOf('.');
+        return dot > 0 && dot < token.length() - 1 ? token.substring(dot + 1) : null;
+    }
+
+    private CacheSegment segmentFor(String signature) {
+        int h = signature.hashCode();
+        return validatedTokens[(h ^ (h >>> 16)) & (CACHE_SEGMENTS - 1)];
+    }
+
+    /**
+     * Segmento de la caché de validación: LRU acotada protegida por su propio monitor.
+     */
+    private static final class CacheSegment {
+
+        private final Map<String, ValidatedToken> tokens;
+
+        private CacheSegment(int maxSize) {
+            this.tokens = new LinkedHashMap<>(Math.min(maxSize, 64), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ValidatedToken> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        private synchronized ValidatedToken find(String signature) {
+            return tokens.get(signature);
+        }
+
+        private synchronized void store(String signature, ValidatedToken validated) {
+            tokens.put(signature, validated);
+        }
+
+        // Solo se descarta si nadie lo ha sustituido entretanto por una validación más reciente
+        private synchronized void discard(String signature, ValidatedToken validated) {
+            tokens.remove(signature, validated);
+        }
+    }
+
+    /**
+     * Construye los detalles del usuario directamente a partir de los claims de un token verificado,
+     * sin consultar la base de datos.
+     *
+     * @param claims Claims de un token válido.
+     * @return Detalles del usuario, o vacío si el token no incluye id, versión o un rol válido
+     *         (tokens emitidos antes de añadir estos claims).
+     */
+    public Optional<CustomUserDetails> toUserDetails(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (userId == null || tokenVersion == null || roles == null || roles.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RoleServer role;
+        try {
+            role = RoleServer.valueOf(roles.get(0).toString());
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        CustomUserDetails user = new CustomUserDetails();
+        user.setId(userId);
+        user.setUsername(claims.getSubject());
+        user.setName(claims.get("name", String.class));
+        user.setEmail(claims.get("email", String.class));
+        user.setRole(role);
+        user.setTokenVersion(tokenVersion);
+        user.setAuthorities(roles.stream().map(r -> new SimpleGrantedAuthority(r.toString())).toList());
+        return Optional.of(user);
+    }
+
 }
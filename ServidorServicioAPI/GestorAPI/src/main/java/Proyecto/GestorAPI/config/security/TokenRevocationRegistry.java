@@ -0,0 +1,116 @@
+package Proyecto.GestorAPI.config.security;
+
+import Proyecto.GestorAPI.modelsDTO.user.UserTokenStateDto;
+import Proyecto.GestorAPI.repositories.DeletedUserRepository;
+import Proyecto.GestorAPI.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro en memoria de revocación de tokens JWT para el modo sin estado ({@code app.jwt.stateless}).
+ *
+ * Solo guarda los usuarios con tokens revocados: la versión mínima de token aceptada, o
+ * {@link Integer#MAX_VALUE} si la cuenta está inactiva o eliminada. Los usuarios eliminados se leen
+ * de sus marcas en {@code usuarios_eliminados}, ya que su fila no existe. Los cambios hechos desde
+ * esta instancia se aplican al momento; además se refresca periódicamente con los usuarios cuyo
+ * {@code updatedAt} ha cambiado y los eliminados desde entonces, para recoger modificaciones hechas
+ * por otras vías.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+
+    private static final int REVOKED = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+
+    private final DeletedUserRepository deletedUserRepository;
+
+    @Value("${app.jwt.stateless:false}")
+    private boolean stateless;
+
+    @Value("${app.jwt.expiration.minutes}")
+    private long jwtExpirationMinutes;
+
+    // Versión mínima aceptada por usuario (ausente = cualquier versión)
+    private final ConcurrentHashMap<Long, Integer> minVersions = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastRefresh;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!stateless) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        userRepository.findRevocationStates().forEach(this::apply);
+        // Las marcas anteriores a la caducidad de los tokens ya no protegen nada
+        LocalDateTime oldestLiveToken = startedAt.minusMinutes(jwtExpirationMinutes);
+        deletedUserRepository.deleteByDeletedAtBefore(oldestLiveToken);
+        deletedUserRepository.findUserIdsDeletedSince(oldestLiveToken).forEach(this::revokeAll);
+        lastRefresh = startedAt;
+        log.info("Registro de revocación JWT cargado: {} usuarios", minVersions.size());
+    }
+
+    /**
+     * Refresca el registro con los usuarios modificados desde la última consulta.
+     * Se solapa un margen con la consulta anterior para no perder cambios concurrentes.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.refresh:30000}")
+    public void refresh() {
+        if (!stateless || lastRefresh == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = lastRefresh.minusSeconds(5);
+        userRepository.findTokenStatesUpdatedSince(since).forEach(this::apply);
+        deletedUserRepository.findUserIdsDeletedSince(since).forEach(this::revokeAll);
+        lastRefresh = startedAt;
+    }
+
+    /**
+     * Indica si un token con la versión dada sigue siendo válido para el usuario.
+     *
+     * @param userId ID del usuario (claim {@code uid}).
+     * @param tokenVersion Versión del token (claim {@code ver}).
+     * @return true si el token no ha sido revocado.
+     */
+    public boolean isValid(Long userId, int tokenVersion) {
+        Integer min = minVersions.get(userId);
+        return min == null || tokenVersion >= min;
+    }
+
+    /**
+     * Aplica el estado actual de un usuario.
+     *
+     * @param state Estado de tokens del usuario.
+     */
+    public void apply(UserTokenStateDto state) {
+        int min = state.active() ? state.tokenVersion() : REVOKED;
+        if (min == 0) {
+            minVersions.remove(state.id());
+        } else {
+            minVersions.put(state.id(), min);
+        }
+    }
+
+    /**
+     * Revoca todos los tokens de un usuario en esta instancia (por ejemplo, al eliminarlo). Para
+     * que la revocación se mantenga tras un reinicio y llegue a otras instancias, quien elimina el
+     * usuario debe guardar además su {@link Proyecto.GestorAPI.models.DeletedUser}.
+     *
+     * @param userId ID del usuario.
+     */
+    public void revokeAll(Long userId) {
+        minVersions.put(userId, REVOKED);
+    }
+}
@@ -0,0 +1,78 @@
+package Proyecto.GestorAPI.config.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché acotada en memoria de {@link CustomUserDetails} por nombre de usuario.
+ *
+ * Evita consultar la base de datos en cada petición autenticada con JWT. Las entradas caducan
+ * tras {@code app.security.user-cache.ttl} milisegundos y, si se supera el tamaño máximo, se
+ * descartan las menos usadas. {@code UserServiceImpl} invalida la entrada al guardar o borrar
+ * un usuario, de forma que los cambios de rol o contraseña se aplican de inmediato.
+ */
+@Component
+public class UserDetailsCache {
+
+    private record Entry(CustomUserDetails details, long expiresAt) {
+    }
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public UserDetailsCache(@Value("${app.security.user-cache.ttl:60000}") long ttlMillis,
+                            @Value("${app.security.user-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param username Nombre de usuario.
+     * @return Detalles en caché o null si no están o han caducado.
+     */
+    public synchronized CustomUserDetails get(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(username);
+            return null;
+        }
+        return entry.details();
+    }
+
+    public synchronized void put(CustomUserDetails details) {
+        if (ttlMillis > 0) {
+            entries.put(details.getUsername(), new Entry(details, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * Invalida las entradas de un usuario, tanto por nombre como por id
+     * (por si el nombre de usuario ha cambiado).
+     *
+     * @param userId ID del usuario (puede ser null).
+     * @param username Nombre de usuario (puede ser null).
+     */
+    public synchronized void evict(Long userId, String username) {
+        if (username != null) {
+            entries.remove(username);
+        }
+        if (userId != null) {
+            entries.values().removeIf(entry -> userId.equals(entry.details().getId()));
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
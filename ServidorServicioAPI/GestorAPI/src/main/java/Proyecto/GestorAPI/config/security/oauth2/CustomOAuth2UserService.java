@@ -70,8 +70,10 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         // Actualiza o inserta el usuario en la base de datos
         User user = upsertUser(customUserDetails);
 
-        // Asocia el ID del usuario a los detalles del usuario personalizado
+        // Asocia el ID, rol y versión de tokens del usuario a los detalles del usuario personalizado
         customUserDetails.setId(user.getId());
+        customUserDetails.setRole(user.getRole());
+        customUserDetails.setTokenVersion(user.getTokenVersion());
 
         // Devuelve el usuario autenticado
         return customUserDetails;
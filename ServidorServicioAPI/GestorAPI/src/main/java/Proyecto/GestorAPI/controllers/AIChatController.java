@@ -1,12 +1,15 @@
 package Proyecto.GestorAPI.controllers;
 
 import Proyecto.GestorAPI.config.security.CustomUserDetails;
+import Proyecto.GestorAPI.exceptions.PythonServerUnavailableException;
 import Proyecto.GestorAPI.services.AIChatService;
 import Proyecto.GestorAPI.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -60,6 +63,11 @@ public class AIChatController {
             // Procesa el mensaje con el servicio de IA y obtiene una respuesta
             String aiResponse = aiChatService.enviarMensaje(clientMessage);
             return ResponseEntity.ok(aiResponse); // 200 OK con la respuesta de la IA
+        } catch (PythonServerUnavailableException e) {
+            // Servidor de IA caído o saturado: se responde sin esperar
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(e.getMessage()); // 503 Service Unavailable
         } catch (Exception e) {
             // Devuelve un error en caso de que falle el procesamiento
             return ResponseEntity.badRequest().body("Error al procesar solicitud: " + e.getMessage()); // 400 Bad Request
@@ -1,12 +1,10 @@
 package Proyecto.GestorAPI.controllers;
 
 import Proyecto.GestorAPI.models.CategoryExpense;
-import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.modelsDTO.category.CategoryExpenseDto;
 import Proyecto.GestorAPI.config.security.CustomUserDetails;
 import Proyecto.GestorAPI.config.security.RoleServer;
 import Proyecto.GestorAPI.services.CategoryExpenseService;
-import Proyecto.GestorAPI.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -34,7 +32,6 @@ import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME
 public class CategoryExpenseController {
 
     private final CategoryExpenseService categoryExpenseService;
-    private final UserService userService;
 
     @GetMapping("")
     @Operation(
@@ -51,7 +48,6 @@ public class CategoryExpenseController {
     })
     public ResponseEntity<List<CategoryExpenseDto>> getAllCategories(
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         List<CategoryExpense> categories = categoryExpenseService.getAll();
 
         if (categories.isEmpty()) {
@@ -83,9 +79,7 @@ public class CategoryExpenseController {
             ) CategoryExpenseDto request,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
 
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-
-        if (user.getRole() != RoleServer.ADMIN) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -116,9 +110,7 @@ public class CategoryExpenseController {
             @Valid @RequestBody CategoryExpenseDto request,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
 
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-
-        if (user.getRole() != RoleServer.ADMIN) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -153,9 +145,7 @@ public class CategoryExpenseController {
             @PathVariable Long categoryId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
 
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-
-        if (user.getRole() != RoleServer.ADMIN) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -1,11 +1,9 @@
 package Proyecto.GestorAPI.controllers;
 
 import Proyecto.GestorAPI.models.FormContacto;
-import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.config.security.CustomUserDetails;
 import Proyecto.GestorAPI.config.security.RoleServer;
 import Proyecto.GestorAPI.services.FormContactoService;
-import Proyecto.GestorAPI.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -31,9 +29,6 @@ public class ContactoController {
     @Autowired
     private FormContactoService contactoService;
 
-    @Autowired
-    private UserService userService;
-
     /**
      * Guarda un formulario de contacto. El campo 'revisado' se inicializa en falso.
      * Requiere autenticación con token Bearer.
@@ -73,9 +68,7 @@ public class ContactoController {
         if (currentUser == null) {
             return ResponseEntity.badRequest().build();
         }
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-
-        if (user.getRole() != RoleServer.ADMIN) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
             return ResponseEntity.badRequest().build();
         }
 
@@ -108,9 +101,7 @@ public class ContactoController {
         if (currentUser == null) {
             return ResponseEntity.badRequest().build();
         }
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-
-        if (user.getRole() != RoleServer.ADMIN) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
             return ResponseEntity.badRequest().build();
         }
 
@@ -138,9 +129,7 @@ public class ContactoController {
         if (currentUser == null) {
             return ResponseEntity.badRequest().build();
         }
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-
-        if (user.getRole() != RoleServer.ADMIN) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
             return ResponseEntity.badRequest().build();
         }
         if (contactoService.existsById(id)) {
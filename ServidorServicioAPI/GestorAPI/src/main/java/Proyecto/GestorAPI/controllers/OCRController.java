@@ -1,10 +1,15 @@
 package Proyecto.GestorAPI.controllers;
 
-import Proyecto.GestorAPI.exceptions.ErrorPharseJsonException;
+import Proyecto.GestorAPI.config.security.RoleServer;
+import Proyecto.GestorAPI.exceptions.OcrQueueFullException;
+import Proyecto.GestorAPI.exceptions.PythonServerUnavailableException;
+import Proyecto.GestorAPI.models.OcrJob;
 import Proyecto.GestorAPI.models.User;
+import Proyecto.GestorAPI.modelsDTO.ocr.OcrJobDto;
 import Proyecto.GestorAPI.modelsDTO.ticket.TicketDto;
 import Proyecto.GestorAPI.config.security.CustomUserDetails;
 import Proyecto.GestorAPI.services.OCRService;
+import Proyecto.GestorAPI.services.OcrJobService;
 import Proyecto.GestorAPI.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -12,12 +17,16 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
+
 import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME;
 
 @RestController
@@ -28,25 +37,35 @@ public class OCRController {
     @Autowired
     private OCRService ocrService;
 
+    @Autowired
+    private OcrJobService ocrJobService;
+
     @Autowired
     private UserService userService;
 
+    // Segundos sugeridos al cliente antes de reintentar cuando la cola está llena
+    private static final String RETRY_AFTER_SECONDS = "10";
+
     /**
      * Endpoint para procesar una imagen de ticket mediante OCR.
      * Recibe un archivo de imagen en formato multipart/form-data,
-     * valida que el archivo no esté vacío, procesa la imagen para extraer
-     * los datos del ticket y devuelve la información estructurada.
+     * valida que el archivo no esté vacío y lo encola para su procesamiento.
+     * La respuesta es inmediata (202) e indica en la cabecera Location
+     * dónde consultar el estado del trabajo.
+     *
+     * Si la cola está llena se responde 503, o 429 si es el usuario quien
+     * tiene demasiados tickets pendientes, junto con la cabecera Retry-After.
      *
      * Requiere autenticación con token Bearer.
      *
      * @param file Archivo de imagen del ticket a procesar.
      * @param currentUser Usuario autenticado que realiza la solicitud.
-     * @return Datos estructurados del ticket o mensaje de error.
+     * @return Trabajo OCR creado o mensaje de error.
      */
     @PostMapping(value = "/ticket", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
-            summary = "Procesar imagen de ticket con OCR",
-            description = "Recibe una imagen de ticket, la procesa con OCR y devuelve los datos estructurados.",
+            summary = "Encolar imagen de ticket para OCR",
+            description = "Recibe una imagen de ticket y crea un trabajo OCR asíncrono. El estado se consulta en /api/ocr/jobs/{id}.",
             security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     content = @Content(
@@ -66,12 +85,54 @@ public class OCRController {
         }
 
         try {
-            return ResponseEntity.ok(TicketDto.from(ocrService.processImageTicket(file, user)));
-        } catch (Exception | ErrorPharseJsonException e) {
+            OcrJob job = ocrJobService.submitImageTicket(file, user);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/ocr/jobs/" + job.getId()))
+                    .body(OcrJobDto.from(job));
+        } catch (OcrQueueFullException e) {
+            return ResponseEntity.status(e.isUserLimit() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body(e.getMessage());
+        } catch (PythonServerUnavailableException e) {
+            return serviceUnavailable(e);
+        } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error en el procesamiento OCR: " + e.getMessage());
         }
     }
 
+    /**
+     * Endpoint para consultar el estado de un trabajo OCR.
+     * Cuando el estado es COMPLETADO incluye el id del ticket creado;
+     * si es ERROR incluye el motivo.
+     *
+     * Requiere autenticación con token Bearer.
+     *
+     * @param id ID del trabajo OCR.
+     * @param currentUser Usuario autenticado que realiza la solicitud.
+     * @return Estado del trabajo, 404 si no existe o 403 si pertenece a otro usuario.
+     */
+    @GetMapping("/jobs/{id}")
+    @Operation(
+            summary = "Consultar trabajo OCR",
+            description = "Devuelve el estado de un trabajo OCR del usuario autenticado.",
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME)
+    )
+    public ResponseEntity<OcrJobDto> getJob(
+            @PathVariable Long id,
+            @AuthenticationPrincipal CustomUserDetails currentUser
+    ) {
+        OcrJob job = ocrJobService.getByID(id).orElse(null);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (currentUser.getRole() != RoleServer.ADMIN && !job.getUserId().equals(currentUser.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok(OcrJobDto.from(job));
+    }
+
     /**
      * Endpoint para procesar un ticket digital (archivo) mediante OCR.
      * Recibe un archivo digital (PDF, imagen, etc.) en multipart/form-data,
@@ -108,8 +169,16 @@ public class OCRController {
 
         try {
             return ResponseEntity.ok(TicketDto.from(ocrService.proccessDigitalTicket(file, user)));
+        } catch (PythonServerUnavailableException e) {
+            return serviceUnavailable(e);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error en el procesamiento OCR: " + e.getMessage());
         }
     }
+
+    private ResponseEntity<String> serviceUnavailable(PythonServerUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(e.getMessage());
+    }
 }
@@ -0,0 +1,162 @@
+package Proyecto.GestorAPI.controllers;
+
+import Proyecto.GestorAPI.config.security.CustomUserDetails;
+import Proyecto.GestorAPI.config.security.RoleServer;
+import Proyecto.GestorAPI.modelsDTO.product.ProductReindexResultDto;
+import Proyecto.GestorAPI.modelsDTO.product.ProductSummaryDto;
+import Proyecto.GestorAPI.modelsDTO.product.TicketItemDto;
+import Proyecto.GestorAPI.services.TicketItemService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME;
+
+/**
+ * Controlador REST para consultar los productos comprados en los tickets.
+ *
+ * Trabaja sobre las líneas de producto normalizadas (ticket_items), no sobre el JSON de los tickets,
+ * de modo que preguntas como "cuánto he gastado en leche este año" se resuelven con una consulta
+ * indexada. Los nombres se buscan por prefijo, sin distinguir mayúsculas ni acentos.
+ *
+ * - Si el usuario es ADMIN puede consultar los productos de un cliente mediante clienteId.
+ * - Si no es ADMIN (o no indica clienteId), se consultan los del usuario autenticado.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/productos")
+@Tag(name = "Product Search", description = "Búsqueda y agregados de los productos de los tickets")
+public class ProductController {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    private final TicketItemService ticketItemService;
+
+    /**
+     * Busca las líneas de producto por nombre.
+     *
+     * @param q           Nombre o comienzo del nombre del producto.
+     * @param desde       Fecha mínima de compra, inclusive (opcional).
+     * @param hasta       Fecha máxima de compra, exclusive (opcional).
+     * @param limit       Número máximo de líneas, entre 1 y 500 (por defecto 50).
+     * @param clienteId   Id del cliente (opcional, solo admins).
+     * @param currentUser Usuario autenticado actual.
+     * @return Líneas de la más reciente a la más antigua, o 400 si no se indica el nombre.
+     */
+    @GetMapping("")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Buscar productos comprados por nombre"
+    )
+    public ResponseEntity<List<TicketItemDto>> search(
+            @RequestParam("q") String q,
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ticketItemService.search(userId(currentUser, clienteId), q, desde, hasta, clamp(limit)));
+    }
+
+    /**
+     * Resumen de gasto de los productos cuyo nombre empieza por el texto indicado, ordenados por gasto.
+     *
+     * @param q           Nombre o comienzo del nombre del producto.
+     * @param exacto      true para comparar el nombre completo (por defecto false).
+     * @param desde       Fecha mínima de compra, inclusive (opcional).
+     * @param hasta       Fecha máxima de compra, exclusive (opcional).
+     * @param clienteId   Id del cliente (opcional, solo admins).
+     * @param currentUser Usuario autenticado actual.
+     * @return Productos agregados, o 400 si no se indica el nombre.
+     */
+    @GetMapping("/resumen")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Resumen de gasto de un producto (compras, cantidad, gasto y precios)"
+    )
+    public ResponseEntity<List<ProductSummaryDto>> summary(
+            @RequestParam("q") String q,
+            @RequestParam(value = "exacto", defaultValue = "false") boolean exacto,
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ticketItemService.summarize(userId(currentUser, clienteId), q, exacto, desde, hasta,
+                TicketItemService.Order.GASTO, MAX_LIMIT));
+    }
+
+    /**
+     * Productos más comprados en un periodo.
+     *
+     * @param orden       gasto, cantidad o compras (por defecto gasto).
+     * @param desde       Fecha mínima de compra, inclusive (opcional).
+     * @param hasta       Fecha máxima de compra, exclusive (opcional).
+     * @param limit       Número máximo de productos, entre 1 y 500 (por defecto 10).
+     * @param clienteId   Id del cliente (opcional, solo admins).
+     * @param currentUser Usuario autenticado actual.
+     * @return Productos agregados, o 400 si el orden no es válido.
+     */
+    @GetMapping("/top")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Productos más comprados por gasto, cantidad o número de compras"
+    )
+    public ResponseEntity<List<ProductSummaryDto>> top(
+            @RequestParam(value = "orden", defaultValue = "gasto") String orden,
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        TicketItemService.Order order;
+        try {
+            order = TicketItemService.Order.valueOf(orden.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ticketItemService.summarize(userId(currentUser, clienteId), null, false, desde, hasta,
+                order, clamp(limit)));
+    }
+
+    /**
+     * Regenera las líneas de producto de todos los tickets a partir de su JSON (solo ADMIN).
+     *
+     * @param currentUser Usuario autenticado actual.
+     * @return Resumen de la regeneración, o 403 si no es administrador.
+     */
+    @PostMapping("/reindexar")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Regenerar las líneas de producto de todos los tickets (solo admins)"
+    )
+    public ResponseEntity<ProductReindexResultDto> reindex(@AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(ticketItemService.reindexAll());
+    }
+
+    private static Long userId(CustomUserDetails currentUser, Long clienteId) {
+        return (currentUser.getRole() != RoleServer.ADMIN || clienteId == null) ? currentUser.getId() : clienteId;
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -2,6 +2,7 @@ package Proyecto.GestorAPI.controllers;
 
 import Proyecto.GestorAPI.models.FormContacto;
 import Proyecto.GestorAPI.modelsDTO.ForgotPasswordRequest;
+import Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardDto;
 import Proyecto.GestorAPI.services.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -41,6 +42,9 @@ public class PublicController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
     /**
      * Endpoint para obtener el número total de usuarios registrados en la aplicación.
      *
@@ -64,36 +68,54 @@ public class PublicController {
     }
 
     /**
-     * Endpoint placeholder para obtener las suscripciones más populares.
+     * Endpoint para obtener las suscripciones más populares: las que más usuarios tienen
+     * cobradas en el periodo indicado.
      *
-     * @return Nombre de la suscripción más popular (hardcodeado).
+     * @param ventana Periodo de la clasificación (7d, 30d o all por defecto).
+     * @return Clasificación precalculada, o 400 si la ventana no está disponible.
      */
     @GetMapping("/subscripcionesTop")
-    @Operation(summary = "Obtener suscripciones más populares (placeholder)")
-    public String getTopSubscription() {
-        return "Tienda1";
+    @Operation(summary = "Obtener suscripciones más populares")
+    public ResponseEntity<LeaderboardDto> getTopSubscription(
+            @RequestParam(value = "ventana", defaultValue = "30d") String ventana) {
+        return leaderboard(LeaderboardService.Board.SUBSCRIPCIONES, ventana);
     }
 
     /**
-     * Endpoint placeholder para obtener las tiendas más visitadas.
+     * Endpoint para obtener las tiendas más visitadas: las que tienen más tickets en el periodo indicado.
      *
-     * @return Nombre de la tienda más visitada (hardcodeado).
+     * @param ventana Periodo de la clasificación (7d, 30d o all por defecto).
+     * @return Clasificación precalculada, o 400 si la ventana no está disponible.
      */
     @GetMapping("/tiendasTop")
-    @Operation(summary = "Obtener tiendas más visitadas (placeholder)")
-    public String getTopShops() {
-        return "Tienda2";
+    @Operation(summary = "Obtener tiendas más visitadas")
+    public ResponseEntity<LeaderboardDto> getTopShops(
+            @RequestParam(value = "ventana", defaultValue = "30d") String ventana) {
+        return leaderboard(LeaderboardService.Board.TIENDAS, ventana);
     }
 
     /**
-     * Endpoint placeholder para obtener los productos más comprados.
+     * Endpoint para obtener los productos más comprados en el periodo indicado.
      *
-     * @return Nombre del producto más comprado (hardcodeado).
+     * @param ventana Periodo de la clasificación (7d, 30d o all por defecto).
+     * @return Clasificación precalculada, o 400 si la ventana no está disponible.
      */
     @GetMapping("/productosTop")
-    @Operation(summary = "Obtener productos más comprados (placeholder)")
-    public String getTopProducts() {
-        return "Tempo";
+    @Operation(summary = "Obtener productos más comprados")
+    public ResponseEntity<LeaderboardDto> getTopProducts(
+            @RequestParam(value = "ventana", defaultValue = "30d") String ventana) {
+        return leaderboard(LeaderboardService.Board.PRODUCTOS, ventana);
+    }
+
+    /**
+     * Sirve una clasificación desde la última instantánea calculada, sin consultar la base de datos.
+     */
+    private ResponseEntity<LeaderboardDto> leaderboard(LeaderboardService.Board board, String ventana) {
+        try {
+            return ResponseEntity.ok(leaderboardService.get(board, ventana));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -1,7 +1,7 @@
 package Proyecto.GestorAPI.controllers;
 
-import Proyecto.GestorAPI.exceptions.ErrorConexionServidorException;
 import Proyecto.GestorAPI.modelsDTO.ServerInfoDto;
+import Proyecto.GestorAPI.modelsDTO.ServerStatsSampleDto;
 import Proyecto.GestorAPI.servicesimpl.ServerStatsServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -9,8 +9,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME;
 
 /**
@@ -40,15 +43,23 @@ public class ServerInfoController {
             summary = "Obtener Información del Servidor"
     )
     public ServerInfoDto getServerInfo() {
-        ServerInfoDto send = new ServerInfoDto();
-        try {
-            send = serverStatsService.getFullServerInfo();
-        }catch (Exception | ErrorConexionServidorException e){
-            //Trampita temporal
-            send.setInfo(e.getMessage());
-            send.setActiveapi(false);
-            send.setActiveocr(false);
-        }
-        return send;
+        return serverStatsService.getFullServerInfo();
+    }
+
+    /**
+     * Endpoint para obtener el histórico reciente de estadísticas del servidor.
+     *
+     * Requiere autenticación con token Bearer.
+     *
+     * @param limit Número máximo de muestras (las más recientes).
+     * @return Muestras ordenadas de la más antigua a la más reciente.
+     */
+    @GetMapping("/history")
+    @Operation(
+            security = {@SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME)},
+            summary = "Obtener Histórico de Estadísticas del Servidor"
+    )
+    public List<ServerStatsSampleDto> getServerHistory(@RequestParam(defaultValue = "60") int limit) {
+        return serverStatsService.getHistory(Math.max(1, Math.min(limit, 1000)));
     }
 }
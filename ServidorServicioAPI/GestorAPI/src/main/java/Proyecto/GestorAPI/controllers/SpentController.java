@@ -1,19 +1,22 @@
 package Proyecto.GestorAPI.controllers;
 
 import Proyecto.GestorAPI.models.Spent;
-import Proyecto.GestorAPI.models.Subscription;
-import Proyecto.GestorAPI.models.Ticket;
-import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.modelsDTO.spent.BulkImportResultDto;
 import Proyecto.GestorAPI.modelsDTO.spent.CreateSpentRequest;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentCursor;
 import Proyecto.GestorAPI.modelsDTO.spent.SpentDto;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentFilterRequest;
 import Proyecto.GestorAPI.modelsDTO.spent.SpentFullDto;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentPageDto;
 import Proyecto.GestorAPI.modelsDTO.spent.UpdateSpentRequest;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsDto;
 import Proyecto.GestorAPI.config.security.CustomUserDetails;
 import Proyecto.GestorAPI.config.security.RoleServer;
-import Proyecto.GestorAPI.services.CategoryExpenseService;
+import Proyecto.GestorAPI.services.SpentBulkImportService;
+import Proyecto.GestorAPI.services.SpentExportService;
 import Proyecto.GestorAPI.services.SpentService;
-import Proyecto.GestorAPI.services.UserService;
+import Proyecto.GestorAPI.services.SpentStatsService;
 import Proyecto.GestorAPI.servicesimpl.StorageServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -21,19 +24,27 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME;
 
@@ -55,13 +66,23 @@ public class SpentController {
     private SpentService spentService;
 
     @Autowired
-    private UserService userService;
+    private StorageServiceImpl storageService;
 
     @Autowired
-    private StorageServiceImpl storageService;
+    private SpentExportService spentExportService;
+
+    @Autowired
+    private SpentStatsService spentStatsService;
+
+    @Autowired
+    private SpentBulkImportService spentBulkImportService;
 
     private static final String STORAGE_BASE_PATH = "gastos/";
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
     /**
      * Obtiene todos los gastos filtrados opcionalmente por clienteId.
      *
@@ -80,17 +101,17 @@ public class SpentController {
     public ResponseEntity<List<SpentDto>> getSpents(
             @RequestParam(value = "clienteId", required = false) Long clienteId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-        List<Spent> spents = new ArrayList<>();
+        List<SpentDto> spents;
 
-        if (user.getRole() != RoleServer.ADMIN) {
+        // Los DTO se proyectan directamente en la consulta (sin hidratar entidades)
+        if (currentUser.getRole() != RoleServer.ADMIN) {
             // No admin: obtener gastos del usuario autenticado
-            spents = spentService.getSpentsByUserId(user.getId());
+            spents = spentService.getSpentDtosByUserId(currentUser.getId());
         } else {
             // Admin: obtener gastos del clienteId si se provee, o todos si no
             spents = (clienteId != null)
-                    ? spentService.getSpentsByUserId(clienteId)
-                    : spentService.getAll();
+                    ? spentService.getSpentDtosByUserId(clienteId)
+                    : spentService.getAllSpentDtos();
         }
 
         // Verificación de existencia
@@ -98,10 +119,7 @@ public class SpentController {
             return ResponseEntity.noContent().build();
         }
 
-        // Mapear a DTO y devolver lista
-        return ResponseEntity.ok(spents.stream()
-                .map(SpentDto::from)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(spents);
     }
 
     /**
@@ -122,11 +140,10 @@ public class SpentController {
     public ResponseEntity<List<SpentFullDto>> getAllSpents(
             @RequestParam(value = "clienteId", required = false) Long clienteId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         List<Spent> spents = new ArrayList<>();
 
-        if (user.getRole() != RoleServer.ADMIN) {
-            spents = spentService.getSpentsByUserId(user.getId());
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            spents = spentService.getSpentsByUserId(currentUser.getId());
         } else {
             spents = (clienteId != null)
                     ? spentService.getSpentsByUserId(clienteId)
@@ -143,6 +160,235 @@ public class SpentController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Exporta el historial completo de gastos en streaming (NDJSON o CSV).
+     *
+     * A diferencia de /fullspents, la respuesta se escribe fila a fila a medida que se lee de la base
+     * de datos, por lo que el primer byte llega de inmediato y la memoria usada es constante.
+     * Si se pide gzip (parámetro o cabecera Accept-Encoding) la respuesta se comprime al vuelo.
+     *
+     * - Si el usuario es ADMIN puede exportar los gastos de un cliente o todos.
+     * - Si el usuario no es ADMIN solo exporta sus propios gastos.
+     *
+     * @param clienteId      Id del cliente a exportar (opcional, solo admins).
+     * @param formato        "ndjson" (por defecto) o "csv".
+     * @param gzip           Fuerza la compresión gzip de la respuesta.
+     * @param acceptEncoding Cabecera Accept-Encoding de la petición.
+     * @param currentUser    Usuario autenticado actual.
+     * @return Cuerpo en streaming con el historial de gastos, o 400 si el formato no es válido.
+     */
+    @GetMapping("/export")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Exportar el historial de gastos en streaming (NDJSON o CSV, opcionalmente gzip)"
+    )
+    public ResponseEntity<StreamingResponseBody> exportSpents(
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @RequestParam(value = "formato", defaultValue = "ndjson") String formato,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        Long userId = (currentUser.getRole() != RoleServer.ADMIN) ? currentUser.getId() : clienteId;
+
+        SpentExportService.Format format;
+        try {
+            format = SpentExportService.Format.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean compress = gzip || acceptsGzip(acceptEncoding);
+        MediaType contentType = (format == SpentExportService.Format.CSV)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson");
+        String fileName = "gastos." + format.name().toLowerCase(Locale.ROOT);
+
+        StreamingResponseBody body = out -> {
+            if (compress) {
+                try (OutputStream gz = new GZIPOutputStream(out, 8192)) {
+                    spentExportService.exportSpents(userId, format, gz);
+                }
+            } else {
+                spentExportService.exportSpents(userId, format, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                // La respuesta depende de Accept-Encoding: las cachés no deben mezclar las dos variantes
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compress) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Indica si la cabecera Accept-Encoding admite gzip. Se respetan los pesos: "gzip;q=0" lo
+     * rechaza, y si gzip no aparece se usa el peso de "*".
+     *
+     * @param acceptEncoding Valor de la cabecera, o null si no viene.
+     * @return true si gzip (o x-gzip) tiene un peso mayor que 0.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipWeight = null;
+        Double anyWeight = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double weight = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        weight = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // Peso no válido: la codificación no se acepta
+                        weight = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipWeight = weight;
+            } else if (name.equals("*")) {
+                anyWeight = weight;
+            }
+        }
+        if (gzipWeight != null) {
+            return gzipWeight > 0;
+        }
+        return anyWeight != null && anyWeight > 0;
+    }
+
+    /**
+     * Obtiene el resumen de gastos (importe, IVA y número de gastos) a partir del resumen mensual pre-agregado.
+     *
+     * El coste depende del número de meses del rango, no del número de gastos.
+     *
+     * - Si el usuario es ADMIN puede consultar el resumen de un cliente o el global.
+     * - Si el usuario no es ADMIN solo consulta el suyo.
+     *
+     * @param clienteId   Id del cliente (opcional, solo admins).
+     * @param desde       Primer mes (yyyy-MM), por defecto hace 11 meses.
+     * @param hasta       Último mes (yyyy-MM), por defecto el mes actual.
+     * @param agrupar     detalle, mes (por defecto), anio, categoria o tipo.
+     * @param currentUser Usuario autenticado actual.
+     * @return Filas del resumen, o 400 si la agrupación o el rango no son válidos.
+     */
+    @GetMapping("/stats")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Obtener el resumen mensual/anual de gastos por categoría y tipo"
+    )
+    public ResponseEntity<List<SpentStatsDto>> getStats(
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @RequestParam(value = "desde", required = false) YearMonth desde,
+            @RequestParam(value = "hasta", required = false) YearMonth hasta,
+            @RequestParam(value = "agrupar", defaultValue = "mes") String agrupar,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        Long userId = (currentUser.getRole() != RoleServer.ADMIN) ? currentUser.getId() : clienteId;
+
+        SpentStatsService.Grouping grouping;
+        try {
+            grouping = SpentStatsService.Grouping.valueOf(agrupar.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        YearMonth to = (hasta != null) ? hasta : YearMonth.now();
+        YearMonth from = (desde != null) ? desde : to.minusMonths(11);
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(spentStatsService.getStats(userId, from, to, grouping));
+    }
+
+    /**
+     * Reconstruye el resumen mensual de gastos a partir de la tabla de gastos (solo ADMIN).
+     *
+     * @param clienteId   Id del cliente a reconstruir, o todos si no se indica.
+     * @param currentUser Usuario autenticado actual.
+     * @return 204 si se reconstruyó, 403 si no es administrador.
+     */
+    @PostMapping("/stats/rebuild")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Reconstruir el resumen mensual de gastos (solo admins)"
+    )
+    public ResponseEntity<Void> rebuildStats(
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (clienteId != null) {
+            spentStatsService.rebuildForUser(clienteId);
+        } else {
+            spentStatsService.rebuildAll();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Obtiene una página de gastos con filtros aplicados en base de datos y paginación por cursor.
+     *
+     * El orden es de más reciente a más antiguo (fecha del gasto y, a igualdad, id). Para pedir la
+     * siguiente página se envía el {@code nextCursor} devuelto en la respuesta anterior, manteniendo
+     * los mismos filtros.
+     *
+     * - Si el usuario es ADMIN puede paginar todos los gastos o los de un cliente específico.
+     * - Si el usuario no es ADMIN solo pagina sus propios gastos.
+     *
+     * @param clienteId   Id del cliente para filtrar gastos (opcional, solo admins).
+     * @param desde       Fecha mínima del gasto, inclusive (opcional).
+     * @param hasta       Fecha máxima del gasto, exclusive (opcional).
+     * @param categoriaId Categoría del gasto (opcional).
+     * @param tipo        Clase de gasto (opcional).
+     * @param minTotal    Importe mínimo (opcional).
+     * @param maxTotal    Importe máximo (opcional).
+     * @param cursor      Cursor devuelto por la página anterior (opcional).
+     * @param limit       Tamaño de página, entre 1 y 200 (por defecto 50).
+     * @param currentUser Usuario autenticado actual.
+     * @return Página de gastos, o 400 si el cursor no es válido.
+     */
+    @GetMapping("/page")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Obtener gastos paginados por cursor con filtros (fecha, categoría, tipo e importe)"
+    )
+    public ResponseEntity<SpentPageDto> getSpentsPage(
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(value = "categoriaId", required = false) Long categoriaId,
+            @RequestParam(value = "tipo", required = false) ExpenseClass tipo,
+            @RequestParam(value = "minTotal", required = false) Double minTotal,
+            @RequestParam(value = "maxTotal", required = false) Double maxTotal,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        // No admin: solo sus gastos. Admin: los del clienteId si se provee, o todos si no
+        Long userId = (currentUser.getRole() != RoleServer.ADMIN) ? currentUser.getId() : clienteId;
+
+        SpentCursor position;
+        try {
+            position = SpentCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        SpentFilterRequest filter = new SpentFilterRequest(desde, hasta, categoriaId, tipo, minTotal, maxTotal);
+
+        return ResponseEntity.ok(spentService.getSpentsPage(userId, filter, position, pageSize));
+    }
+
     /**
      * Obtiene un gasto por su ID.
      *
@@ -160,7 +406,6 @@ public class SpentController {
     public ResponseEntity<SpentDto> getSpentById(
             @PathVariable Long spentId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Spent spent = spentService.getByID(spentId).orElse(null);
 
         // Verificación de existencia
@@ -169,7 +414,7 @@ public class SpentController {
         }
 
         // Verificación de propiedad o rol ADMIN
-        if (user.getRole() != RoleServer.ADMIN && !spent.getUser().getId().equals(user.getId())) {
+        if (currentUser.getRole() != RoleServer.ADMIN && !spent.getUser().getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -196,13 +441,12 @@ public class SpentController {
             @RequestParam(value = "clienteId", required = false) Long clienteId,
             @Valid @RequestBody CreateSpentRequest request,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Spent spent;
 
-        if (user.getRole() != RoleServer.ADMIN) {
-            spent = spentService.mappingSpent(request, user.getId());
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            spent = spentService.mappingSpent(request, currentUser.getId());
         } else {
-            spent = spentService.mappingSpent(request, (clienteId != null) ? clienteId : user.getId());
+            spent = spentService.mappingSpent(request, (clienteId != null) ? clienteId : currentUser.getId());
         }
 
         Spent createdSpent = spentService.setItem(spent);
@@ -210,6 +454,53 @@ public class SpentController {
                 .body(SpentDto.from(createdSpent));
     }
 
+    /**
+     * Importa gastos de forma masiva desde un CSV (text/csv) o un array JSON (application/json).
+     *
+     * El cuerpo se lee en streaming, fila a fila; las filas válidas se guardan por bloques con
+     * inserciones por lotes JDBC y las inválidas se devuelven en el informe con el motivo.
+     *
+     * - Si el usuario es ADMIN puede importar los gastos a otro cliente mediante clienteId.
+     * - Si no es ADMIN, los gastos se asignan al usuario autenticado.
+     *
+     * @param clienteId   Id del cliente al que se asignan los gastos (opcional, solo admins).
+     * @param detalle     true para devolver el resultado de todas las filas, false (por defecto) solo las rechazadas.
+     * @param contentType Tipo de contenido del cuerpo.
+     * @param body        Cuerpo de la petición.
+     * @param currentUser Usuario autenticado actual.
+     * @return Informe de la importación, o 400 si el formato no es válido o el cliente no existe.
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Importar gastos de forma masiva (CSV o array JSON)"
+    )
+    public ResponseEntity<BulkImportResultDto> importSpents(
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @RequestParam(value = "detalle", defaultValue = "false") boolean detalle,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        Long userId = (currentUser.getRole() != RoleServer.ADMIN || clienteId == null) ? currentUser.getId() : clienteId;
+
+        SpentBulkImportService.Format format = contentType.toLowerCase().contains("csv")
+                ? SpentBulkImportService.Format.CSV
+                : SpentBulkImportService.Format.JSON;
+
+        BulkImportResultDto result;
+        try {
+            result = spentBulkImportService.importSpents(userId, format, body, detalle);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new BulkImportResultDto(0, 0, 0, 0, e.getMessage(), List.of()));
+        }
+        // Cuerpo ilegible desde el principio
+        if (result.filas() == 0 && result.error() != null) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Elimina un gasto por ID.
      *
@@ -227,14 +518,13 @@ public class SpentController {
     public ResponseEntity<Void> deleteSpent(
             @PathVariable Long spentId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Spent spent = spentService.getByID(spentId).orElse(null);
 
         if (spent == null) {
             return ResponseEntity.notFound().build();
         }
 
-        if (user.getRole() != RoleServer.ADMIN && !spent.getUser().getId().equals(user.getId())) {
+        if (currentUser.getRole() != RoleServer.ADMIN && !spent.getUser().getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -261,7 +551,6 @@ public class SpentController {
             @PathVariable Long spentId,
             @Valid @RequestBody UpdateSpentRequest request,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Spent spent = spentService.getByID(spentId).orElse(null);
 
         // Verificación existencia
@@ -270,7 +559,7 @@ public class SpentController {
         }
 
         // Verificación de propiedad o rol ADMIN
-        if (user.getRole() != RoleServer.ADMIN && !spent.getUser().getId().equals(user.getId())) {
+        if (currentUser.getRole() != RoleServer.ADMIN && !spent.getUser().getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -302,11 +591,7 @@ public class SpentController {
             return ResponseEntity.badRequest().body("No se envió ninguna imagen.");
         }
         try {
-            // Aquí podrías validar o procesar el ticket
-            System.out.println("Ticket recibido: ");
-
             // Procesar el usuario
-            User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
             Spent spent = spentService.getByID(Long.valueOf(spentId)).orElse(null);
             String oldUrl = spent.getIcon();
             String newUrl = storageService.saveImageData(STORAGE_BASE_PATH, file);
@@ -0,0 +1,203 @@
+package Proyecto.GestorAPI.controllers;
+
+import Proyecto.GestorAPI.config.security.CustomUserDetails;
+import Proyecto.GestorAPI.config.security.RoleServer;
+import Proyecto.GestorAPI.models.StatementRule;
+import Proyecto.GestorAPI.modelsDTO.statement.StatementImportResultDto;
+import Proyecto.GestorAPI.modelsDTO.statement.StatementRuleDto;
+import Proyecto.GestorAPI.services.StatementImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.List;
+
+import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME;
+
+/**
+ * Controlador REST para la importación de extractos bancarios.
+ *
+ * Convierte los cargos de un extracto (CSV, OFX o QIF) en gastos del usuario, clasificados
+ * como GASTO_GENERICO, FACTURA o TRANSFERENCIA según las reglas de extracto, que gestionan
+ * los administradores.
+ */
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/extractos")
+@Tag(name = "Bank Statement Import", description = "Importación de extractos bancarios y reglas de clasificación")
+public class StatementController {
+
+    private final StatementImportService statementImportService;
+
+    /**
+     * Importa un extracto bancario.
+     *
+     * - Si el usuario es ADMIN puede importar el extracto a otro cliente mediante clienteId.
+     * - Si no es ADMIN, los gastos se asignan al usuario autenticado.
+     * - Los cargos ya importados en un extracto anterior se omiten y se cuentan como duplicados,
+     *   así que se puede volver a subir un extracto o uno con fechas solapadas.
+     *
+     * @param file        Fichero del extracto.
+     * @param formato     csv, ofx o qif; si no se indica se deduce de la extensión.
+     * @param charset     Codificación del fichero (UTF-8 por defecto; muchos bancos usan ISO-8859-1).
+     * @param clienteId   Id del cliente (opcional, solo admins).
+     * @param currentUser Usuario autenticado actual.
+     * @return Resumen de la importación, o 400 si el fichero o los parámetros no son válidos.
+     */
+    @PostMapping(value = "", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Importar un extracto bancario (CSV, OFX o QIF) como gastos"
+    )
+    public ResponseEntity<?> importStatement(
+            @RequestParam("archivo") MultipartFile file,
+            @RequestParam(value = "formato", required = false) String formato,
+            @RequestParam(value = "charset", defaultValue = "UTF-8") String charset,
+            @RequestParam(value = "clienteId", required = false) Long clienteId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("El archivo no puede estar vacío");
+        }
+
+        StatementImportService.Format format;
+        try {
+            format = formato != null
+                    ? StatementImportService.Format.valueOf(formato.toUpperCase())
+                    : StatementImportService.Format.fromFileName(file.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            format = null;
+        }
+        if (format == null) {
+            return ResponseEntity.badRequest().body("Formato de extracto no reconocido: indique formato=csv, ofx o qif");
+        }
+
+        Charset encoding;
+        try {
+            encoding = Charset.forName(charset);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return ResponseEntity.badRequest().body("Codificación no válida: " + charset);
+        }
+
+        Long userId = (currentUser.getRole() != RoleServer.ADMIN || clienteId == null) ? currentUser.getId() : clienteId;
+        StatementImportResultDto result;
+        try (InputStream in = file.getInputStream()) {
+            result = statementImportService.importStatement(userId, format, in, encoding);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Lista las reglas de clasificación de extractos en orden de evaluación.
+     *
+     * @return Reglas de clasificación.
+     */
+    @GetMapping("/reglas")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Listar las reglas de clasificación de extractos"
+    )
+    public ResponseEntity<List<StatementRuleDto>> getRules() {
+        return ResponseEntity.ok(statementImportService.getRules().stream()
+                .map(StatementRuleDto::from)
+                .toList());
+    }
+
+    /**
+     * Crea una regla de clasificación (solo ADMIN).
+     *
+     * @param request     Datos de la regla.
+     * @param currentUser Usuario autenticado actual.
+     * @return Regla creada con 201, o 403 si no es administrador.
+     */
+    @PostMapping("/reglas")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Crear una regla de clasificación de extractos (solo admins)"
+    )
+    public ResponseEntity<StatementRuleDto> createRule(
+            @Valid @RequestBody StatementRuleDto request,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        StatementRule rule = new StatementRule();
+        apply(rule, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(StatementRuleDto.from(statementImportService.saveRule(rule)));
+    }
+
+    /**
+     * Actualiza una regla de clasificación (solo ADMIN).
+     *
+     * @param ruleId      Id de la regla.
+     * @param request     Datos de la regla.
+     * @param currentUser Usuario autenticado actual.
+     * @return Regla actualizada, 403 si no es administrador o 404 si no existe.
+     */
+    @PutMapping("/reglas/{ruleId}")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Actualizar una regla de clasificación de extractos (solo admins)"
+    )
+    public ResponseEntity<StatementRuleDto> updateRule(
+            @PathVariable Long ruleId,
+            @Valid @RequestBody StatementRuleDto request,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        StatementRule rule = statementImportService.getRule(ruleId).orElse(null);
+        if (rule == null) {
+            return ResponseEntity.notFound().build();
+        }
+        apply(rule, request);
+        return ResponseEntity.ok(StatementRuleDto.from(statementImportService.saveRule(rule)));
+    }
+
+    /**
+     * Elimina una regla de clasificación (solo ADMIN).
+     *
+     * @param ruleId      Id de la regla.
+     * @param currentUser Usuario autenticado actual.
+     * @return 204 si se eliminó, 403 si no es administrador o 404 si no existe.
+     */
+    @DeleteMapping("/reglas/{ruleId}")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Eliminar una regla de clasificación de extractos (solo admins)"
+    )
+    public ResponseEntity<Void> deleteRule(
+            @PathVariable Long ruleId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (statementImportService.getRule(ruleId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        statementImportService.deleteRule(ruleId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static void apply(StatementRule rule, StatementRuleDto request) {
+        rule.setPattern(request.patron().trim());
+        rule.setTypeExpense(request.typeExpense());
+        rule.setCategoriaId(request.categoriaId());
+        rule.setPriority(request.prioridad());
+        rule.setActive(request.activa());
+    }
+}
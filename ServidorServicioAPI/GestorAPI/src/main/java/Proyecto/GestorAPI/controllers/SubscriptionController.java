@@ -1,15 +1,16 @@
 package Proyecto.GestorAPI.controllers;
 
-import Proyecto.GestorAPI.exceptions.ResourceNotFoundException;
 import Proyecto.GestorAPI.models.Subscription;
-import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.models.enums.ExpenseClass;
 import Proyecto.GestorAPI.modelsDTO.subscription.CreateSubscriptionRequest;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionBillingResultDto;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionChargeDto;
 import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionDto;
 import Proyecto.GestorAPI.modelsDTO.subscription.UpdateSubscriptionRequest;
 import Proyecto.GestorAPI.config.security.CustomUserDetails;
 import Proyecto.GestorAPI.config.security.RoleServer;
 import Proyecto.GestorAPI.services.CategoryExpenseService;
+import Proyecto.GestorAPI.services.SubscriptionBillingService;
 import Proyecto.GestorAPI.services.SubscriptionService;
 import Proyecto.GestorAPI.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,9 +24,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME;
 
@@ -51,6 +52,8 @@ public class SubscriptionController {
     @Autowired
     private CategoryExpenseService categoriaService;
 
+    private final SubscriptionBillingService subscriptionBillingService;
+
     /**
      * Obtiene todas las suscripciones, filtradas opcionalmente por clienteId.
      *
@@ -71,17 +74,16 @@ public class SubscriptionController {
             @RequestParam(value = "clienteId", required = false) Long clienteId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
 
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-        List<Subscription> subscriptions = new ArrayList<>();
+        List<SubscriptionDto> subscriptions;
 
-        if(user.getRole() != RoleServer.ADMIN){
-            // No admin: obtener solo sus propias suscripciones
-            subscriptions = subscriptionService.getSubscriptionsByUserId(user.getId());
+        if(currentUser.getRole() != RoleServer.ADMIN){
+            // No admin: obtener solo sus propias suscripciones (proyectadas directamente a DTO)
+            subscriptions = subscriptionService.getSubscriptionDtosByUserId(currentUser.getId());
         }else{
             // Admin: puede filtrar por clienteId o obtener todas
             subscriptions = (clienteId != null)
-                    ? subscriptionService.getSubscriptionsByUserId(clienteId)
-                    : subscriptionService.getAll();
+                    ? subscriptionService.getSubscriptionDtosByUserId(clienteId)
+                    : subscriptionService.getAllSubscriptionDtos();
         }
 
         // Si no hay suscripciones, retornar 204 No Content
@@ -89,10 +91,7 @@ public class SubscriptionController {
             return ResponseEntity.noContent().build();
         }
 
-        // Retornar lista convertida a DTO
-        return ResponseEntity.ok(subscriptions.stream()
-                .map(SubscriptionDto::from)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(subscriptions);
     }
 
     /**
@@ -115,7 +114,6 @@ public class SubscriptionController {
             @PathVariable Long subscriptionId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
 
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Subscription subscription = subscriptionService.getByID(subscriptionId).orElse(null);
 
         // Verificar existencia de la suscripción
@@ -124,7 +122,7 @@ public class SubscriptionController {
         }
 
         // Verificar propiedad o rol admin para permitir acceso
-        if (user.getRole() != RoleServer.ADMIN && !subscription.getUser().getId().equals(user.getId())) {
+        if (currentUser.getRole() != RoleServer.ADMIN && !subscription.getUser().getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -154,15 +152,14 @@ public class SubscriptionController {
             @Valid @RequestBody CreateSubscriptionRequest request,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
 
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Subscription subscription;
 
-        if(user.getRole() != RoleServer.ADMIN){
+        if(currentUser.getRole() != RoleServer.ADMIN){
             // No admin: crear para sí mismo
-            subscription = mappingSubscription(request, user.getId());
+            subscription = mappingSubscription(request, currentUser.getId());
         }else{
             // Admin: crear para clienteId o para sí mismo si clienteId es null
-            subscription = mappingSubscription(request, (clienteId != null) ? clienteId : user.getId());
+            subscription = mappingSubscription(request, (clienteId != null) ? clienteId : currentUser.getId());
         }
 
         // Cálculo del acumulado considerando IVA y total
@@ -171,6 +168,9 @@ public class SubscriptionController {
         // Guardar suscripción en base de datos
         Subscription createdSubscription = subscriptionService.setItem(subscription);
 
+        // Programar el cobro periódico; el ciclo de inicio ya está incluido en el acumulado
+        subscriptionBillingService.scheduleBilling(createdSubscription);
+
         // Retornar respuesta con DTO y código 201
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(SubscriptionDto.from(createdSubscription));
@@ -201,7 +201,7 @@ public class SubscriptionController {
         subscription.setRestartDay(request.restartDay());
         subscription.setIntervalTime(request.intervalTime());
         subscription.setActiva(request.activa());
-        subscription.setCategory(categoriaService.getByID(request.categoriaId()).orElse(null));
+        subscription.setCategory(categoriaService.getReference(request.categoriaId()));
         subscription.setTypeExpense(ExpenseClass.SUBSCRIPCION);
         return subscription;
     }
@@ -226,7 +226,6 @@ public class SubscriptionController {
             @PathVariable Long subscriptionId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
 
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Subscription subscription = subscriptionService.getByID(subscriptionId).orElse(null);
 
         // Verificación existencia
@@ -235,7 +234,7 @@ public class SubscriptionController {
         }
 
         // Verificación de propiedad o rol admin para eliminar
-        if(user.getRole() != RoleServer.ADMIN && !subscription.getUser().getId().equals(user.getId())){
+        if(currentUser.getRole() != RoleServer.ADMIN && !subscription.getUser().getId().equals(currentUser.getId())){
             return ResponseEntity.badRequest().build();
         }
 
@@ -252,6 +251,7 @@ public class SubscriptionController {
      * - Solo propietario o administrador pueden actualizar.
      * - Retorna 404 si la suscripción no existe.
      * - Retorna 400 si el usuario no tiene permiso.
+     * - El acumulado no se puede modificar: solo lo incrementa el proceso de cobro.
      *
      * @param subscriptionId ID de la suscripción a actualizar.
      * @param request Datos para actualización.
@@ -268,7 +268,6 @@ public class SubscriptionController {
             @Valid @RequestBody UpdateSubscriptionRequest request,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
 
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Subscription subscription = subscriptionService.getByID(subscriptionId).orElse(null);
 
         // Verificación existencia
@@ -277,10 +276,16 @@ public class SubscriptionController {
         }
 
         // Verificación propiedad o rol admin para modificar
-        if(user.getRole() != RoleServer.ADMIN && !subscription.getUser().getId().equals(user.getId())){
+        if(currentUser.getRole() != RoleServer.ADMIN && !subscription.getUser().getId().equals(currentUser.getId())){
             return ResponseEntity.badRequest().build();
         }
 
+        // Un cambio de periodicidad o una reactivación reprograma el cobro a partir de hoy
+        boolean reschedule = !Objects.equals(subscription.getStart(), request.start())
+                || subscription.getRestartDay() != request.restartDay()
+                || subscription.getIntervalTime() != request.intervalTime()
+                || (!subscription.isActiva() && request.activa());
+
         // Actualización de campos permitidos
         subscription.setName(request.name());
         subscription.setDescription(request.description());
@@ -290,13 +295,20 @@ public class SubscriptionController {
         subscription.setIva(request.iva());
         subscription.setStart(request.start());
         subscription.setEnd(request.end());
-        subscription.setAccumulate(request.accumulate());
+        // El acumulado no se modifica: lo mantiene el proceso de cobro
         subscription.setRestartDay(request.restartDay());
         subscription.setIntervalTime(request.intervalTime());
         subscription.setActiva(request.activa());
-        subscription.setCategory(categoriaService.getByID(request.categoriaId()).orElse(null));
+        subscription.setCategory(categoriaService.getReference(request.categoriaId()));
         subscription.setTypeExpense(ExpenseClass.SUBSCRIPCION);
 
+        if (reschedule && subscription.isActiva()) {
+            LocalDate next = subscriptionBillingService.nextChargeAfter(subscription, LocalDate.now());
+            subscription.setNextCharge(next);
+            // Sin ciclos antes de la fecha de finalización: la subscripción ha terminado
+            subscription.setActiva(next != null);
+        }
+
         // Guardar cambios
         Subscription updatedSubscription = subscriptionService.setItem(subscription);
 
@@ -304,4 +316,59 @@ public class SubscriptionController {
         return ResponseEntity.ok(SubscriptionDto.from(updatedSubscription));
     }
 
+    /**
+     * Obtiene los cargos periódicos registrados de una suscripción.
+     *
+     * - Solo el propietario o administrador pueden consultarlos.
+     * - Retorna 404 si la suscripción no existe.
+     *
+     * @param subscriptionId ID de la suscripción.
+     * @param currentUser Usuario autenticado.
+     * @return Lista de cargos, del más reciente al más antiguo.
+     */
+    @GetMapping("/{subscriptionId}/cargos")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Obtener los cargos periódicos de una suscripción"
+    )
+    public ResponseEntity<List<SubscriptionChargeDto>> getCharges(
+            @PathVariable Long subscriptionId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+
+        Subscription subscription = subscriptionService.getByID(subscriptionId).orElse(null);
+
+        if (subscription == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (currentUser.getRole() != RoleServer.ADMIN && !subscription.getUser().getId().equals(currentUser.getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok(subscriptionBillingService.getCharges(subscriptionId));
+    }
+
+    /**
+     * Ejecuta el cobro de subscripciones sin esperar a la tarea programada (solo ADMIN).
+     *
+     * @param currentUser Usuario autenticado.
+     * @return Resumen del cobro, 403 si no es administrador o 409 si ya hay un cobro en curso.
+     */
+    @PostMapping("/cobros")
+    @Operation(
+            security = @SecurityRequirement(name = BEARER_KEY_SECURITY_SCHEME),
+            summary = "Ejecutar el cobro de subscripciones vencidas (solo admins)"
+    )
+    public ResponseEntity<SubscriptionBillingResultDto> runBilling(
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(subscriptionBillingService.runBilling(LocalDate.now()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
 }
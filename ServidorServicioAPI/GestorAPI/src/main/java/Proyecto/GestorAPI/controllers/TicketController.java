@@ -1,7 +1,6 @@
 package Proyecto.GestorAPI.controllers;
 
 import Proyecto.GestorAPI.models.Ticket;
-import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.modelsDTO.ticket.CreateTicketRequest;
 import Proyecto.GestorAPI.modelsDTO.ticket.TicketDto;
 import Proyecto.GestorAPI.modelsDTO.ticket.UpdateTicketRequest;
@@ -9,7 +8,6 @@ import Proyecto.GestorAPI.config.security.CustomUserDetails;
 import Proyecto.GestorAPI.config.security.RoleServer;
 import Proyecto.GestorAPI.services.CategoryExpenseService;
 import Proyecto.GestorAPI.services.TicketService;
-import Proyecto.GestorAPI.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,9 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME;
 
@@ -40,7 +36,6 @@ import static Proyecto.GestorAPI.config.SwaggerConfig.BEARER_KEY_SECURITY_SCHEME
 public class TicketController {
 
     private final TicketService ticketService;
-    private final UserService userService;
     private final CategoryExpenseService categoriaService;
 
     /**
@@ -60,18 +55,16 @@ public class TicketController {
     public ResponseEntity<List<TicketDto>> getTickets(
             @RequestParam(value = "clienteId", required = false) Long clienteId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
+        List<TicketDto> tickets;
 
-        List<Ticket> tickets = new ArrayList<>();
-
-        // Control de acceso: si no es admin, solo obtiene sus tickets
-        if (user.getRole() != RoleServer.ADMIN) {
-            tickets = ticketService.getTicketsByUserId(user.getId());
+        // Control de acceso: si no es admin, solo obtiene sus tickets (proyectados directamente a DTO)
+        if (currentUser.getRole() != RoleServer.ADMIN) {
+            tickets = ticketService.getTicketDtosByUserId(currentUser.getId());
         } else {
             // Si es admin, filtra por clienteId si se proporciona, sino obtiene todos
             tickets = (clienteId != null)
-                    ? ticketService.getTicketsByUserId(clienteId)
-                    : ticketService.getAll();
+                    ? ticketService.getTicketDtosByUserId(clienteId)
+                    : ticketService.getAllTicketDtos();
         }
 
         // Si no hay tickets, retorna 204 No Content
@@ -79,10 +72,7 @@ public class TicketController {
             return ResponseEntity.noContent().build();
         }
 
-        // Retorna la lista mapeada a DTOs
-        return ResponseEntity.ok(tickets.stream()
-                .map(TicketDto::from)
-                .collect(Collectors.toList()));
+        return ResponseEntity.ok(tickets);
     }
 
     /**
@@ -102,8 +92,6 @@ public class TicketController {
     public ResponseEntity<TicketDto> getTicketById(
             @PathVariable Long ticketId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
-
         Ticket ticket = ticketService.getByID(ticketId).orElse(null);
 
         // Retorna 404 si no existe
@@ -112,7 +100,7 @@ public class TicketController {
         }
 
         // Control de acceso: si no es admin y no es propietario, retorna 403 Forbidden
-        if (user.getRole() != RoleServer.ADMIN && !ticket.getUser().getId().equals(user.getId())) {
+        if (currentUser.getRole() != RoleServer.ADMIN && !ticket.getUser().getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -140,14 +128,13 @@ public class TicketController {
             @RequestParam(value = "clienteId", required = false) Long clienteId,
             @Valid @RequestBody CreateTicketRequest request,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Ticket ticket;
-        if (user.getRole() != RoleServer.ADMIN) {
+        if (currentUser.getRole() != RoleServer.ADMIN) {
             // Si no es admin crea ticket para sí mismo
-            ticket = ticketService.mappingCreateTicket(request, user.getId());
+            ticket = ticketService.mappingCreateTicket(request, currentUser.getId());
         } else {
             // Si es admin crea ticket para clienteId si está, sino para sí mismo
-            ticket = ticketService.mappingCreateTicket(request, (clienteId != null) ? clienteId : user.getId());
+            ticket = ticketService.mappingCreateTicket(request, (clienteId != null) ? clienteId : currentUser.getId());
         }
 
         // Validación: productos no puede estar vacío
@@ -180,7 +167,6 @@ public class TicketController {
     public ResponseEntity<Void> deleteTicket(
             @PathVariable Long ticketId,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Ticket ticket = ticketService.getByID(ticketId).orElse(null);
 
         // Verificar existencia, 404 si no existe
@@ -189,7 +175,7 @@ public class TicketController {
         }
 
         // Verificar propiedad o rol admin, 400 si no tiene permiso
-        if (user.getRole() != RoleServer.ADMIN && !ticket.getUser().getId().equals(user.getId())) {
+        if (currentUser.getRole() != RoleServer.ADMIN && !ticket.getUser().getId().equals(currentUser.getId())) {
             return ResponseEntity.badRequest().build();
         }
 
@@ -220,7 +206,6 @@ public class TicketController {
             @PathVariable Long ticketId,
             @Valid @RequestBody UpdateTicketRequest request,
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        User user = userService.validateAndGetUserByUsername(currentUser.getUsername());
         Ticket ticket = ticketService.getByID(ticketId).orElse(null);
 
         // Verificar existencia, 404 si no existe
@@ -229,7 +214,7 @@ public class TicketController {
         }
 
         // Verificar propiedad y que spentId coincida, 403 Forbidden si no cumple
-        if (user.getRole() != RoleServer.ADMIN && !ticket.getUser().getId().equals(user.getId()) ||
+        if (currentUser.getRole() != RoleServer.ADMIN && !ticket.getUser().getId().equals(currentUser.getId()) ||
                 !ticket.getSpentId().equals(request.getSpentId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
@@ -14,6 +14,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +49,7 @@ public class AuthController {
      * y devuelve un token JWT para el acceso posterior.
      *
      * @param loginRequest Contiene las credenciales del usuario (nombre de usuario y contraseña).
+     * @param request Petición HTTP, de la que se toma la IP del cliente para el control de bloqueos.
      * @return Devuelve el token JWT en un objeto `AuthResponse`.
      */
     @Operation(summary = "Autenticar un usuario",
@@ -60,18 +62,21 @@ public class AuthController {
             })
     @PostMapping("/authenticate")
     //@CrossOrigin(origins = "http://localhost:4200")
-    public AuthResponse login(@Valid @RequestBody LoginRequest loginRequest) {
-        if (loginAttemptService.isBlocked(loginRequest.user())) {
-            loginAttemptService.registerLoginAttempt(loginRequest.user(), false);
-            throw new UserBlockedException("Cuenta bloqueada temporalmente. Intente nuevamente en 30 minutos");
+    public AuthResponse login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Tras un proxy inverso es la del cliente solo con server.forward-headers-strategy activado
+        String ip = request.getRemoteAddr();
+        if (loginAttemptService.isBlocked(loginRequest.user(), ip)) {
+            loginAttemptService.registerLoginAttempt(loginRequest.user(), ip, false);
+            long minutes = Math.max(1, loginAttemptService.timeUntilUnlock(loginRequest.user(), ip).toMinutes());
+            throw new UserBlockedException("Cuenta bloqueada temporalmente. Intente nuevamente en " + minutes + " minutos");
         }
 
         try {
             String token = authService.authenticateAndGetToken(loginRequest.user(), loginRequest.password());
-            loginAttemptService.registerLoginAttempt(loginRequest.user(), true);
+            loginAttemptService.registerLoginAttempt(loginRequest.user(), ip, true);
             return new AuthResponse(token);
         }catch (AuthenticationException | UserNotFoundException | UserBlockedException ex) {
-            loginAttemptService.registerLoginAttempt(loginRequest.user(), false);
+            loginAttemptService.registerLoginAttempt(loginRequest.user(), ip, false);
             throw ex;
         }
     }
@@ -1,6 +1,5 @@
 package Proyecto.GestorAPI.controllersBackend;
 
-import Proyecto.GestorAPI.exceptions.ErrorConexionServidorException;
 import Proyecto.GestorAPI.modelsDTO.ServerInfoDto;
 import Proyecto.GestorAPI.servicesimpl.ServerStatsServiceImpl;
 import org.springframework.security.core.Authentication;
@@ -21,14 +20,7 @@ public class AdminWebController {
 
     @GetMapping("/dashboard")
     public String getDashboard(Model model, Authentication authentication) {
-        ServerInfoDto serverInfo = new ServerInfoDto();
-        try {
-            serverInfo = serverStatsService.getFullServerInfo();
-        }catch (Exception | ErrorConexionServidorException e){
-            serverInfo.setInfo(e.getMessage());
-            serverInfo.setActiveapi(false);
-            serverInfo.setActiveocr(false);
-        }
+        ServerInfoDto serverInfo = serverStatsService.getFullServerInfo();
 
         model.addAttribute("serverInfo", serverInfo);
 
@@ -129,7 +129,7 @@ public class AuthWebController {
      *
      * @param correo correo electrónico del usuario
      * @param contraseña contraseña del usuario
-     * @param request objeto {@link HttpServletRequest} (no usado internamente)
+     * @param request objeto {@link HttpServletRequest}, del que se toma la IP del cliente
      * @return {@link ResponseEntity} con el token JWT o error de autenticación.
      */
     @PostMapping("/loginToken")
@@ -137,11 +137,11 @@ public class AuthWebController {
         try {
             //System.out.println(correo + " " + contraseña);
             String token = authService.authenticateAndGetToken(correo, contraseña);
-            loginAttemptService.registerLoginAttempt(correo, true);
+            loginAttemptService.registerLoginAttempt(correo, request.getRemoteAddr(), true);
             //System.out.println(Map.of("token", token));
             return ResponseEntity.ok().body(Map.of("token", token));
         } catch (AuthenticationException ex) {
-            loginAttemptService.registerLoginAttempt(correo, false);
+            loginAttemptService.registerLoginAttempt(correo, request.getRemoteAddr(), false);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Error en la autenticación:" + ex));
         }
     }
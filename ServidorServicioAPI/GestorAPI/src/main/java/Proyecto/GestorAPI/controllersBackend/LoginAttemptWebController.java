@@ -3,6 +3,7 @@ package Proyecto.GestorAPI.controllersBackend;
 import Proyecto.GestorAPI.models.LoginAttempt;
 import Proyecto.GestorAPI.servicesimpl.LoginAttemptServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -43,11 +44,12 @@ public class LoginAttemptWebController {
     }
 
     /**
-     * Endpoint GET para listar todos los intentos de inicio de sesión.
+     * Endpoint GET para listar los intentos de inicio de sesión, paginados.
      *
      * <p>
-     * Consulta al servicio para obtener todos los intentos registrados,
-     * los añade al modelo bajo el atributo "attempts" y retorna la vista.
+     * Consulta al servicio una página de intentos (los más recientes primero, opcionalmente
+     * filtrados por usuario), la añade al modelo bajo el atributo "attempts" junto con los datos
+     * de paginación y retorna la vista. No se calcula el total de registros: solo si hay página siguiente.
      * </p>
      *
      * <p>
@@ -55,17 +57,30 @@ public class LoginAttemptWebController {
      * retorna igualmente la vista, permitiendo mostrar el error.
      * </p>
      *
+     * @param page número de página (desde 0).
+     * @param size registros por página (máximo 500).
+     * @param usuario nombre de usuario por el que filtrar (opcional).
      * @param model objeto {@link Model} para pasar atributos a la vista.
      * @return nombre de la plantilla Thymeleaf para mostrar intentos de login.
      */
     @GetMapping
-    public String listarIntentosLogin(Model model) {
+    public String listarIntentosLogin(@RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "50") int size,
+                                      @RequestParam(required = false) String usuario,
+                                      Model model) {
         initDatosCompartidos(); // Para futuro uso
 
+        int pageSize = Math.min(Math.max(size, 1), 500);
+        model.addAttribute("page", Math.max(page, 0));
+        model.addAttribute("size", pageSize);
+        model.addAttribute("usuario", usuario);
         try {
-            List<LoginAttempt> intentos = loginAttemptService.getAll();
-            model.addAttribute("attempts", intentos);
+            Slice<LoginAttempt> intentos = loginAttemptService.getPage(usuario, page, pageSize);
+            model.addAttribute("attempts", intentos.getContent());
+            model.addAttribute("hasNext", intentos.hasNext());
         } catch (Exception e) {
+            model.addAttribute("attempts", List.of());
+            model.addAttribute("hasNext", false);
             model.addAttribute("error", "Error al cargar los intentos de login: " + e.getMessage());
         }
 
@@ -0,0 +1,25 @@
+package Proyecto.GestorAPI.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * La cola de trabajos OCR no admite más trabajos (global o del usuario).
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class OcrQueueFullException extends RuntimeException {
+
+  private final boolean userLimit;
+
+  public OcrQueueFullException(String message, boolean userLimit) {
+    super(message);
+    this.userLimit = userLimit;
+  }
+
+  /**
+   * @return true si se ha alcanzado el límite de trabajos pendientes del usuario, false si es la cola global.
+   */
+  public boolean isUserLimit() {
+    return userLimit;
+  }
+}
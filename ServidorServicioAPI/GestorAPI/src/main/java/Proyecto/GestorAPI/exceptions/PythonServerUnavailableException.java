@@ -0,0 +1,16 @@
+package Proyecto.GestorAPI.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * El servidor Python (OCR / IA) no está disponible: el circuito está abierto
+ * o se ha alcanzado el máximo de llamadas simultáneas.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PythonServerUnavailableException extends RuntimeException {
+
+  public PythonServerUnavailableException(String message) {
+    super(message);
+  }
+}
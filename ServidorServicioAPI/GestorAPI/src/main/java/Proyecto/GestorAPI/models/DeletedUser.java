@@ -0,0 +1,41 @@
+package Proyecto.GestorAPI.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de un usuario eliminado.
+ *
+ * La fila del usuario desaparece al eliminarlo, así que esta marca es lo que permite al registro de
+ * revocación JWT ({@link Proyecto.GestorAPI.config.security.TokenRevocationRegistry}) seguir
+ * rechazando sus tokens tras un reinicio o desde otras instancias. Solo hace falta mientras pueda
+ * quedar algún token sin caducar; las marcas más antiguas se eliminan al cargar el registro.
+ */
+@Entity
+@Table(name = "usuarios_eliminados",
+        indexes = @Index(name = "idx_usuarios_eliminados_fecha", columnList = "deleted_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DeletedUser {
+
+    /**
+     * ID que tenía el usuario eliminado.
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    public DeletedUser(Long userId) {
+        this.userId = userId;
+    }
+}
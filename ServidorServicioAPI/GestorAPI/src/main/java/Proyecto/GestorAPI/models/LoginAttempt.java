@@ -10,14 +10,23 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.time.Instant;
 
 @Entity
-@Table(name = "registroLogin")
+@Table(name = "registroLogin", indexes = {
+        @Index(name = "idx_registro_login_usuario_fallos", columnList = "username, success, attemptTime"),
+        @Index(name = "idx_registro_login_ip_fallos", columnList = "ip, success, attemptTime"),
+        @Index(name = "idx_registro_login_fecha", columnList = "attemptTime")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class LoginAttempt {
 
+    /**
+     * Identificador generado por bloques ("pooled") para permitir inserciones por lotes JDBC,
+     * que IDENTITY desactiva. En MySQL la secuencia se emula con la tabla registro_login_seq.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registro_login_seq")
+    @SequenceGenerator(name = "registro_login_seq", sequenceName = "registro_login_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -46,9 +55,21 @@ public class LoginAttempt {
     @Column(nullable = false)
     private Boolean success;
 
+    /**
+     * Dirección IP desde la que se hizo el intento, si se conoce.
+     */
+    @Size(max = 45)
+    @Column(length = 45)
+    private String ip;
+
     public LoginAttempt(String username, Instant attemptTime, Boolean success) {
         this.username = username;
         this.attemptTime = attemptTime;
         this.success = success;
     }
+
+    public LoginAttempt(String username, String ip, Instant attemptTime, Boolean success) {
+        this(username, attemptTime, success);
+        this.ip = ip;
+    }
 }
@@ -0,0 +1,83 @@
+package Proyecto.GestorAPI.models;
+
+import Proyecto.GestorAPI.models.enums.OcrJobStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trabajo de procesamiento OCR de un ticket.
+ *
+ * El archivo subido se guarda antes de crear el trabajo, de forma que la petición HTTP responde
+ * inmediatamente y el procesamiento se realiza en segundo plano. Los trabajos pendientes se
+ * vuelven a encolar al reiniciar la aplicación.
+ */
+@Entity
+@Table(name = "trabajos_ocr", indexes = {
+        @Index(name = "idx_trabajos_ocr_estado", columnList = "estado")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OcrJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Usuario que subió el archivo.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Ruta relativa del archivo guardado (se usa como icono del ticket resultante).
+     */
+    @Column(name = "ruta_archivo", nullable = false, length = 255)
+    private String filePath;
+
+    /**
+     * SHA-256 del archivo, usado como clave de la caché de resultados OCR.
+     */
+    @Column(name = "hash_contenido", length = 64)
+    private String contentHash;
+
+    /**
+     * Estado actual del trabajo.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private OcrJobStatus status = OcrJobStatus.PENDIENTE;
+
+    /**
+     * Ticket creado al completar el trabajo.
+     */
+    @Column(name = "ticket_id")
+    private Long ticketId;
+
+    /**
+     * Motivo del error si el trabajo ha fallado.
+     */
+    @Column(length = 500)
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public OcrJob(Long userId, String filePath, String contentHash) {
+        this.userId = userId;
+        this.filePath = filePath;
+        this.contentHash = contentHash;
+    }
+}
@@ -11,7 +11,14 @@ import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "gastos")
+@Table(name = "gastos", indexes = {
+        // Paginación por cursor (keyset) de los gastos de un usuario: WHERE user_id = ? ORDER BY expense_date, spent_id
+        @Index(name = "idx_gastos_usuario_fecha", columnList = "user_id, expense_date, spent_id"),
+        // Paginación por cursor de todos los gastos (administradores)
+        @Index(name = "idx_gastos_fecha", columnList = "expense_date, spent_id"),
+        // Filtro por categoría dentro del historial de un usuario
+        @Index(name = "idx_gastos_usuario_categoria_fecha", columnList = "user_id, categoria_id, expense_date")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @Getter
 @Setter
@@ -19,8 +26,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Spent {
 
+    /**
+     * Identificador del gasto.
+     * Se genera con una secuencia "pooled" (bloques de 50 IDs) para que las altas masivas se
+     * puedan insertar en lotes JDBC; con IDENTITY Hibernate tendría que insertar fila a fila.
+     * Ticket y Subscription comparten la secuencia de la tabla raíz.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gastos_seq")
+    @SequenceGenerator(name = "gastos_seq", sequenceName = "gastos_seq", allocationSize = 50)
     private Long spentId;
 
     /**
@@ -0,0 +1,76 @@
+package Proyecto.GestorAPI.models;
+
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Resumen mensual pre-agregado de gastos.
+ *
+ * Cada fila acumula los gastos de un usuario en un mes, para una categoría y una clase de gasto.
+ * Se mantiene de forma incremental al crear, modificar o eliminar gastos y puede reconstruirse
+ * completamente a partir de la tabla de gastos.
+ */
+@Entity
+@Table(name = "gastos_resumen_mensual",
+        uniqueConstraints = @UniqueConstraint(name = "uk_resumen_usuario_periodo",
+                columnNames = {"user_id", "periodo", "categoria_id", "tipo"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class SpentMonthlyStat {
+
+    /**
+     * Valor de categoría usado para los gastos sin categoría (la clave única no admite nulos de forma fiable).
+     */
+    public static final long NO_CATEGORY = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Usuario dueño de los gastos.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Periodo en formato numérico yyyyMM (ej. 202505).
+     */
+    @Column(name = "periodo", nullable = false)
+    private int period;
+
+    /**
+     * Categoría de los gastos, o {@link #NO_CATEGORY} si no tienen.
+     */
+    @Column(name = "categoria_id", nullable = false)
+    private Long categoriaId;
+
+    /**
+     * Clase de gasto.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false)
+    private ExpenseClass typeExpense;
+
+    /**
+     * Suma de los importes (sin IVA).
+     */
+    @Column(nullable = false)
+    private double total;
+
+    /**
+     * Suma del importe de IVA (total * iva / 100).
+     */
+    @Column(name = "iva_total", nullable = false)
+    private double ivaTotal;
+
+    /**
+     * Número de gastos agregados.
+     */
+    @Column(name = "num_gastos", nullable = false)
+    private long count;
+}
@@ -0,0 +1,68 @@
+package Proyecto.GestorAPI.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento de extracto bancario ya importado como gasto.
+ *
+ * Guarda una clave por usuario y movimiento (clave única) para que volver a subir el mismo
+ * extracto, o uno cuyo periodo se solape con otro anterior, no cree de nuevo los gastos. La clave
+ * es el SHA-256 del identificador del movimiento: el FITID que asigna el banco en OFX o, si no lo
+ * hay, la fecha, el importe y el concepto (ver {@link Proyecto.GestorAPI.servicesimpl.statement.StatementLine}).
+ *
+ * La fila se mantiene aunque el usuario borre el gasto, para que no vuelva a aparecer al importar
+ * el siguiente extracto; se elimina con el usuario.
+ */
+@Entity
+@Table(name = "extracto_movimientos",
+        uniqueConstraints = @UniqueConstraint(name = "uk_extracto_movimientos_usuario_clave",
+                columnNames = {"user_id", "clave"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class StatementMovement {
+
+    /**
+     * Identificador del movimiento. Sale de una secuencia "pooled" para insertar las claves en
+     * lotes JDBC junto con los gastos.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "extracto_movimientos_seq")
+    @SequenceGenerator(name = "extracto_movimientos_seq", sequenceName = "extracto_movimientos_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Usuario que importó el extracto.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * SHA-256 en hexadecimal del identificador del movimiento.
+     */
+    @Column(name = "clave", nullable = false, length = 64)
+    private String key;
+
+    /**
+     * Fecha del movimiento en el extracto.
+     */
+    @Column(name = "fecha", nullable = false)
+    private LocalDate date;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public StatementMovement(Long userId, String key, LocalDate date) {
+        this.userId = userId;
+        this.key = key;
+        this.date = date;
+    }
+}
@@ -0,0 +1,72 @@
+package Proyecto.GestorAPI.models;
+
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Regla de clasificación de movimientos de extractos bancarios.
+ *
+ * Si el concepto del movimiento contiene el patrón (sin distinguir mayúsculas ni acentos), el gasto
+ * se crea con la clase y la categoría de la regla. Las reglas se evalúan por prioridad ascendente
+ * y gana la primera que coincide.
+ */
+@Entity
+@Table(name = "reglas_extracto", indexes = {
+        @Index(name = "idx_reglas_extracto_activa_prioridad", columnList = "activa, prioridad")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class StatementRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Texto a buscar en el concepto del movimiento, al principio de una palabra.
+     */
+    @NotBlank(message = "El patrón es obligatorio")
+    @Size(max = 100, message = "El patrón no puede superar 100 caracteres")
+    @Column(name = "patron", nullable = false, length = 100)
+    private String pattern;
+
+    /**
+     * Clase de gasto asignada.
+     */
+    @NotNull(message = "El tipo de gasto es obligatorio")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false)
+    private ExpenseClass typeExpense;
+
+    /**
+     * Categoría asignada, o null para usar la categoría por defecto de los extractos.
+     */
+    @Column(name = "categoria_id")
+    private Long categoriaId;
+
+    /**
+     * Orden de evaluación (menor primero).
+     */
+    @Column(name = "prioridad", nullable = false)
+    private int priority = 100;
+
+    /**
+     * Indica si la regla se aplica.
+     */
+    @Column(name = "activa", nullable = false)
+    private boolean active = true;
+
+    public StatementRule(String pattern, ExpenseClass typeExpense, Long categoriaId, int priority) {
+        this.pattern = pattern;
+        this.typeExpense = typeExpense;
+        this.categoriaId = categoriaId;
+        this.priority = priority;
+    }
+}
@@ -6,11 +6,15 @@ import jakarta.validation.constraints.*;
 import lombok.*;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "subscripciones")
+@Table(name = "subscripciones", indexes = {
+        // Cobro periódico: solo se recorren las subscripciones activas con un cargo vencido
+        @Index(name = "idx_subscripciones_activa_proximo_cargo", columnList = "activa, proximo_cargo")
+})
 @Data
 @NoArgsConstructor
 public class Subscription extends Spent {
@@ -31,9 +35,13 @@ public class Subscription extends Spent {
 
     /**
      * Monto acumulado. No negativo.
+     *
+     * Se fija al crear la subscripción y después solo lo incrementa el proceso de cobro con una
+     * actualización atómica ({@code SubscriptionRepository.addToAccumulate}); JPA no lo incluye en
+     * los UPDATE para que guardar la entidad no pise los cargos sumados entretanto.
      */
     @DecimalMin(value = "0.0", inclusive = true, message = "El acumulado no puede ser negativo")
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private double accumulate = 0;
 
     /**
@@ -58,6 +66,13 @@ public class Subscription extends Spent {
     @Column(nullable = false)
     private boolean activa;
 
+    /**
+     * Fecha del próximo cargo pendiente de aplicar.
+     * Null si todavía no se ha programado; la mantiene el proceso de cobro de subscripciones.
+     */
+    @Column(name = "proximo_cargo")
+    private LocalDate nextCharge;
+
     public Subscription(
             @NotBlank(message = "El nombre no puede estar vacío") String name,
             String description,
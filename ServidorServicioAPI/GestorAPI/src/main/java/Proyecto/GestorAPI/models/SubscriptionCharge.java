@@ -0,0 +1,68 @@
+package Proyecto.GestorAPI.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cargo de un ciclo de una subscripción.
+ *
+ * Hay como máximo un cargo por subscripción y fecha (clave única), de modo que el proceso de cobro
+ * puede repetir un ciclo sin duplicarlo: solo los cargos insertados de nuevo suman al acumulado.
+ * Los cargos se eliminan en cascada con su subscripción.
+ */
+@Entity
+@Table(name = "cargos_subscripcion",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cargo_subscripcion_fecha",
+                columnNames = {"subscription_id", "fecha_cargo"}),
+        indexes = {
+                @Index(name = "idx_cargos_subscripcion_usuario_fecha", columnList = "user_id, fecha_cargo"),
+                // Clasificación pública de subscripciones por periodo
+                @Index(name = "idx_cargos_subscripcion_fecha", columnList = "fecha_cargo")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+public class SubscriptionCharge {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Subscripción cobrada.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "subscription_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Subscription subscription;
+
+    /**
+     * Usuario dueño de la subscripción (desnormalizado para consultar los cargos de un usuario).
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Fecha del ciclo cobrado.
+     */
+    @Column(name = "fecha_cargo", nullable = false)
+    private LocalDate chargeDate;
+
+    /**
+     * Importe del cargo (total más IVA).
+     */
+    @Column(name = "importe", nullable = false)
+    private double amount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
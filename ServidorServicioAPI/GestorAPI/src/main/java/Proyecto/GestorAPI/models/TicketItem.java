@@ -0,0 +1,94 @@
+package Proyecto.GestorAPI.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Línea de producto de un ticket.
+ *
+ * Es la versión normalizada de {@link Ticket#getProductsJSON()}: se regenera cada vez que se guarda
+ * el ticket y permite buscar y agregar productos con índices en lugar de leer y parsear el JSON de
+ * todos los tickets. El usuario y la fecha de compra se copian del ticket para que las consultas por
+ * usuario, producto y fecha se resuelvan sobre el índice sin unir con gastos. Las líneas se eliminan
+ * en cascada con su ticket.
+ */
+@Entity
+@Table(name = "ticket_items", indexes = {
+        @Index(name = "idx_ticket_items_usuario_nombre_fecha", columnList = "user_id, nombre_normalizado, fecha_compra"),
+        @Index(name = "idx_ticket_items_usuario_fecha", columnList = "user_id, fecha_compra"),
+        // Clasificación pública de productos por periodo
+        @Index(name = "idx_ticket_items_fecha_nombre", columnList = "fecha_compra, nombre_normalizado")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class TicketItem {
+
+    /**
+     * Identificador de la línea. Sale de una secuencia "pooled" para poder insertar las líneas
+     * de muchos tickets en lotes JDBC.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_items_seq")
+    @SequenceGenerator(name = "ticket_items_seq", sequenceName = "ticket_items_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Ticket al que pertenece la línea.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "ticket_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Ticket ticket;
+
+    /**
+     * Usuario dueño del ticket.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Posición de la línea dentro del ticket, empezando en 1.
+     */
+    @Column(name = "linea", nullable = false)
+    private int line;
+
+    /**
+     * Nombre del producto tal como aparece en el ticket.
+     */
+    @Column(name = "nombre", nullable = false, length = 150)
+    private String name;
+
+    /**
+     * Nombre en minúsculas, sin acentos y con los espacios simplificados, usado para buscar y agrupar.
+     */
+    @Column(name = "nombre_normalizado", nullable = false, length = 150)
+    private String normalizedName;
+
+    @Column(name = "cantidad", nullable = false)
+    private double quantity;
+
+    @Column(name = "precio", nullable = false)
+    private double price;
+
+    @Column(name = "subtotal", nullable = false)
+    private double subtotal;
+
+    /**
+     * Categorías del producto separadas por comas.
+     */
+    @Column(name = "categorias", length = 255)
+    private String categories;
+
+    /**
+     * Fecha de compra (fecha del ticket).
+     */
+    @Column(name = "fecha_compra", nullable = false)
+    private LocalDateTime purchaseDate;
+}
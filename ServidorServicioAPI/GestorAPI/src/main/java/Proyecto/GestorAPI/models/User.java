@@ -72,6 +72,13 @@ public class User {
     /** Indica si la cuenta del usuario está activa. */
     private boolean active;
 
+    /**
+     * Versión de los tokens del usuario. Se incrementa al cambiar contraseña, rol o estado,
+     * invalidando los JWT emitidos con una versión anterior.
+     */
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     /**
      * Lista de gastos asociados al usuario.
      * Se eliminan en cascada si el usuario es eliminado.
@@ -0,0 +1,26 @@
+package Proyecto.GestorAPI.models.enums;
+
+/**
+ * Estados de un trabajo de procesamiento OCR asíncrono.
+ */
+public enum OcrJobStatus {
+    /**
+     * El archivo se ha guardado y el trabajo espera turno en la cola.
+     */
+    PENDIENTE,
+
+    /**
+     * El trabajo se está procesando en el servidor OCR.
+     */
+    EN_PROCESO,
+
+    /**
+     * El ticket se ha creado correctamente.
+     */
+    COMPLETADO,
+
+    /**
+     * El procesamiento ha fallado; el motivo se guarda en el trabajo.
+     */
+    ERROR
+}
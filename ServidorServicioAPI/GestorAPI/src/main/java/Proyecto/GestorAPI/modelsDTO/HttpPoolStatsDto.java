@@ -0,0 +1,25 @@
+package Proyecto.GestorAPI.modelsDTO;
+
+import org.apache.hc.core5.pool.PoolStats;
+
+/**
+ * Ocupación del pool de conexiones HTTP hacia el servidor Python.
+ *
+ * @param leased Conexiones en uso.
+ * @param pending Peticiones esperando una conexión libre (mayor que 0 indica saturación).
+ * @param available Conexiones abiertas e inactivas listas para reutilizar.
+ * @param max Máximo de conexiones del pool.
+ * @param saturated Si el pool está completamente ocupado o hay peticiones esperando.
+ */
+public record HttpPoolStatsDto(int leased, int pending, int available, int max, boolean saturated) {
+
+    public static HttpPoolStatsDto from(PoolStats stats) {
+        return new HttpPoolStatsDto(
+                stats.getLeased(),
+                stats.getPending(),
+                stats.getAvailable(),
+                stats.getMax(),
+                stats.getPending() > 0 || stats.getLeased() >= stats.getMax()
+        );
+    }
+}
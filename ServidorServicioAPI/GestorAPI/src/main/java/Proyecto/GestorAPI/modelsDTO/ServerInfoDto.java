@@ -23,5 +23,7 @@ public class ServerInfoDto {
     private long totalDisk;           // en bytes
     private long usedDisk;            // en bytes
     private double cpuTemperature;    // en °C
+    private HttpPoolStatsDto pythonHttpPool; // pool de conexiones al servidor Python
+    private String pythonCircuit;             // estado del cortocircuito del servidor Python
     private String info;
 }
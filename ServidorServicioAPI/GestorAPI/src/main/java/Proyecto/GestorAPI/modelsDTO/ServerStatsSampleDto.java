@@ -0,0 +1,27 @@
+package Proyecto.GestorAPI.modelsDTO;
+
+import java.util.Date;
+
+/**
+ * Muestra puntual de las estadísticas del servidor para el histórico del panel de administración.
+ *
+ * @param timestamp Momento de la muestra.
+ * @param cpuLoad Carga de CPU media en la ventana deslizante (porcentaje).
+ * @param usedMemory Memoria usada en bytes.
+ * @param usedDisk Disco usado en bytes.
+ * @param cpuTemperature Temperatura de CPU en °C.
+ * @param activeapi Si el servidor Python respondía.
+ * @param pythonPoolLeased Conexiones en uso hacia el servidor Python.
+ * @param pythonPoolPending Peticiones esperando conexión hacia el servidor Python.
+ */
+public record ServerStatsSampleDto(
+        Date timestamp,
+        double cpuLoad,
+        long usedMemory,
+        long usedDisk,
+        double cpuTemperature,
+        boolean activeapi,
+        int pythonPoolLeased,
+        int pythonPoolPending
+) {
+}
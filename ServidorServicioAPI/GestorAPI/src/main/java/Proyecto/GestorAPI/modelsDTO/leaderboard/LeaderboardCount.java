@@ -0,0 +1,10 @@
+package Proyecto.GestorAPI.modelsDTO.leaderboard;
+
+/**
+ * Recuento agregado por nombre (tienda, producto o subscripción) para construir las clasificaciones.
+ *
+ * @param name  Nombre tal como está guardado.
+ * @param count Número de apariciones en el periodo.
+ */
+public record LeaderboardCount(String name, long count) {
+}
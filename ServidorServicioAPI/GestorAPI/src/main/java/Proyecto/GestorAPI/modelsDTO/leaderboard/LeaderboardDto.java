@@ -0,0 +1,18 @@
+package Proyecto.GestorAPI.modelsDTO.leaderboard;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Clasificación pública precalculada.
+ *
+ * @param ventana  Periodo de la clasificación (por ejemplo 7d, 30d o all).
+ * @param generado Momento en que se calculó, o null si aún no se ha calculado.
+ * @param top      Posiciones de la clasificación.
+ */
+public record LeaderboardDto(
+        String ventana,
+        LocalDateTime generado,
+        List<LeaderboardEntryDto> top
+) {
+}
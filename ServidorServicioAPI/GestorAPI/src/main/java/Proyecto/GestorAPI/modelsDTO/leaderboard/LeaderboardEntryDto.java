@@ -0,0 +1,15 @@
+package Proyecto.GestorAPI.modelsDTO.leaderboard;
+
+/**
+ * Posición de una clasificación pública.
+ *
+ * @param posicion Posición, empezando en 1.
+ * @param nombre   Tienda, producto o subscripción.
+ * @param total    Tickets, compras o subscripciones cobradas en el periodo.
+ */
+public record LeaderboardEntryDto(
+        int posicion,
+        String nombre,
+        long total
+) {
+}
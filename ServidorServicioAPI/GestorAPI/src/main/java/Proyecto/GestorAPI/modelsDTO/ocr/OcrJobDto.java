@@ -0,0 +1,27 @@
+package Proyecto.GestorAPI.modelsDTO.ocr;
+
+import Proyecto.GestorAPI.models.OcrJob;
+import Proyecto.GestorAPI.models.enums.OcrJobStatus;
+
+import java.time.LocalDateTime;
+
+public record OcrJobDto(
+        Long id,
+        OcrJobStatus status,
+        Long ticketId,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public static OcrJobDto from(OcrJob job) {
+        return new OcrJobDto(
+                job.getId(),
+                job.getStatus(),
+                job.getTicketId(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getUpdatedAt()
+        );
+    }
+}
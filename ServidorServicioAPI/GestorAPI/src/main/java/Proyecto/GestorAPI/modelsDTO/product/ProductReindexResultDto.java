@@ -0,0 +1,17 @@
+package Proyecto.GestorAPI.modelsDTO.product;
+
+/**
+ * Resumen de la regeneración de las líneas de producto a partir del JSON de los tickets.
+ *
+ * @param tickets    Tickets procesados.
+ * @param lineas     Líneas de producto generadas.
+ * @param errores    Tickets cuyo JSON de productos no se pudo leer (quedan sin líneas).
+ * @param duracionMs Duración en milisegundos.
+ */
+public record ProductReindexResultDto(
+        int tickets,
+        long lineas,
+        int errores,
+        long duracionMs
+) {
+}
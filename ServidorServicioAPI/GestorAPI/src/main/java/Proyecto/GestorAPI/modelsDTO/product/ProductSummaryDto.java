@@ -0,0 +1,29 @@
+package Proyecto.GestorAPI.modelsDTO.product;
+
+import java.time.LocalDateTime;
+
+/**
+ * Gasto agregado en un producto (todas las líneas con el mismo nombre normalizado).
+ *
+ * @param nombre        Nombre normalizado del producto.
+ * @param compras       Número de líneas de ticket.
+ * @param cantidad      Cantidad total comprada.
+ * @param gasto         Suma de los subtotales.
+ * @param precioMedio   Precio unitario medio.
+ * @param precioMinimo  Precio unitario mínimo.
+ * @param precioMaximo  Precio unitario máximo.
+ * @param primeraCompra Fecha de la primera compra en el periodo.
+ * @param ultimaCompra  Fecha de la última compra en el periodo.
+ */
+public record ProductSummaryDto(
+        String nombre,
+        long compras,
+        double cantidad,
+        double gasto,
+        double precioMedio,
+        double precioMinimo,
+        double precioMaximo,
+        LocalDateTime primeraCompra,
+        LocalDateTime ultimaCompra
+) {
+}
@@ -0,0 +1,29 @@
+package Proyecto.GestorAPI.modelsDTO.product;
+
+import java.time.LocalDateTime;
+
+/**
+ * Línea de producto de un ticket.
+ *
+ * @param id          Id de la línea.
+ * @param ticketId    Id del ticket.
+ * @param tienda      Tienda del ticket.
+ * @param nombre      Nombre del producto tal como aparece en el ticket.
+ * @param cantidad    Cantidad comprada.
+ * @param precio      Precio unitario.
+ * @param subtotal    Importe de la línea.
+ * @param categorias  Categorías del producto separadas por comas.
+ * @param fechaCompra Fecha del ticket.
+ */
+public record TicketItemDto(
+        Long id,
+        Long ticketId,
+        String tienda,
+        String nombre,
+        double cantidad,
+        double precio,
+        double subtotal,
+        String categorias,
+        LocalDateTime fechaCompra
+) {
+}
@@ -0,0 +1,22 @@
+package Proyecto.GestorAPI.modelsDTO.spent;
+
+import java.util.List;
+
+/**
+ * Informe de una importación masiva de gastos.
+ *
+ * @param filas       Filas de datos leídas.
+ * @param importadas  Gastos guardados.
+ * @param errores     Filas rechazadas (validación o fallo al guardar su lote).
+ * @param duracionMs  Duración de la importación en milisegundos.
+ * @param error       Motivo por el que se interrumpió la lectura (formato inválido, máximo de filas...), o null.
+ * @param resultados  Resultado por fila: solo las rechazadas, o todas si se pidió el detalle completo.
+ */
+public record BulkImportResultDto(
+        int filas,
+        int importadas,
+        int errores,
+        long duracionMs,
+        String error,
+        List<BulkRowResultDto> resultados
+) {}
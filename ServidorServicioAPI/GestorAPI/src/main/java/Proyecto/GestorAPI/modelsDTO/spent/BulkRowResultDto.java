@@ -0,0 +1,25 @@
+package Proyecto.GestorAPI.modelsDTO.spent;
+
+/**
+ * Resultado de una fila de la importación masiva.
+ *
+ * @param fila    Número de fila de datos (1 = primera fila tras la cabecera o primer elemento del array).
+ * @param ok      true si el gasto se ha guardado.
+ * @param spentId Id del gasto creado, o null si la fila ha fallado.
+ * @param error   Motivo del fallo, o null si la fila se ha guardado.
+ */
+public record BulkRowResultDto(
+        int fila,
+        boolean ok,
+        Long spentId,
+        String error
+) {
+
+    public static BulkRowResultDto ok(int fila, Long spentId) {
+        return new BulkRowResultDto(fila, true, spentId, null);
+    }
+
+    public static BulkRowResultDto error(int fila, String error) {
+        return new BulkRowResultDto(fila, false, null, error);
+    }
+}
@@ -0,0 +1,43 @@
+package Proyecto.GestorAPI.modelsDTO.spent;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de una importación masiva de gastos (CSV o elemento de un array JSON).
+ * Los campos se llaman igual que en {@link CreateSpentRequest}; el usuario lo fija la petición.
+ *
+ * @param name        Nombre del gasto.
+ * @param description Descripción (opcional).
+ * @param icon        Icono (opcional).
+ * @param fechaCompra Fecha del gasto.
+ * @param total       Importe sin IVA.
+ * @param iva         Porcentaje de IVA (0 si no se indica).
+ * @param categoriaId Id de la categoría.
+ * @param typeExpense Clase de gasto (GASTO_GENERICO si no se indica).
+ */
+public record BulkSpentRow(
+        @NotBlank(message = "El nombre es obligatorio")
+        @Size(max = 150, message = "El nombre no puede superar 150 caracteres")
+        String name,
+        @Size(max = 500, message = "La descripción no puede superar 500 caracteres")
+        String description,
+        @Size(max = 50, message = "El icono no puede superar 50 caracteres")
+        String icon,
+        @NotNull(message = "La fecha del gasto es obligatoria")
+        LocalDateTime fechaCompra,
+        @NotNull(message = "El total es obligatorio")
+        @DecimalMin(value = "0.01", message = "El total debe ser mayor que 0")
+        Double total,
+        @DecimalMin(value = "0.0", message = "El IVA no puede ser negativo")
+        @DecimalMax(value = "100.0", message = "El IVA no puede superar 100")
+        Double iva,
+        @NotNull(message = "La categoría es obligatoria")
+        Long categoriaId,
+        String typeExpense
+) {}
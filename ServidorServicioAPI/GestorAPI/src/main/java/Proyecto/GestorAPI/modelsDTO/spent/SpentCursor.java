@@ -0,0 +1,54 @@
+package Proyecto.GestorAPI.modelsDTO.spent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación (keyset) sobre el listado de gastos.
+ *
+ * Identifica el último gasto devuelto mediante la pareja (fecha del gasto, id), que es
+ * el mismo orden usado por la consulta, de forma que la siguiente página continúa
+ * justo después sin usar OFFSET. Se expone al cliente como una cadena opaca en Base64.
+ *
+ * @param expenseDate Fecha del último gasto devuelto.
+ * @param spentId     Id del último gasto devuelto (desempate entre gastos con la misma fecha).
+ */
+public record SpentCursor(LocalDateTime expenseDate, Long spentId) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Codifica el cursor como cadena opaca apta para URL.
+     *
+     * @return Cursor codificado en Base64 URL-safe.
+     */
+    public String encode() {
+        String raw = expenseDate + SEPARATOR + spentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param value Cursor codificado (puede ser nulo o vacío para la primera página).
+     * @return Cursor decodificado, o null si no se proporcionó ninguno.
+     * @throws IllegalArgumentException si el cursor no tiene un formato válido.
+     */
+    public static SpentCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            if (idx <= 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new SpentCursor(LocalDateTime.parse(raw.substring(0, idx)), Long.valueOf(raw.substring(idx + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
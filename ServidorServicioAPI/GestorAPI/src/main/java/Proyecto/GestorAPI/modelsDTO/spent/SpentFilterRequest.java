@@ -0,0 +1,25 @@
+package Proyecto.GestorAPI.modelsDTO.spent;
+
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionales aplicados en base de datos al listar gastos.
+ * Cualquier campo nulo se ignora.
+ *
+ * @param desde       Fecha mínima del gasto (inclusive).
+ * @param hasta       Fecha máxima del gasto (exclusive).
+ * @param categoriaId Categoría del gasto.
+ * @param tipo        Clase de gasto.
+ * @param minTotal    Importe mínimo (inclusive).
+ * @param maxTotal    Importe máximo (inclusive).
+ */
+public record SpentFilterRequest(
+        LocalDateTime desde,
+        LocalDateTime hasta,
+        Long categoriaId,
+        ExpenseClass tipo,
+        Double minTotal,
+        Double maxTotal
+) {}
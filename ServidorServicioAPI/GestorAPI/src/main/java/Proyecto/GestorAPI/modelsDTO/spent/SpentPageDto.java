@@ -0,0 +1,16 @@
+package Proyecto.GestorAPI.modelsDTO.spent;
+
+import java.util.List;
+
+/**
+ * Página de gastos obtenida mediante paginación por cursor.
+ *
+ * @param items      Gastos de la página, ordenados de más reciente a más antiguo.
+ * @param nextCursor Cursor a enviar para obtener la página siguiente, o null si no hay más.
+ * @param hasMore    Indica si existen más gastos después de esta página.
+ */
+public record SpentPageDto(
+        List<SpentFullDto> items,
+        String nextCursor,
+        boolean hasMore
+) {}
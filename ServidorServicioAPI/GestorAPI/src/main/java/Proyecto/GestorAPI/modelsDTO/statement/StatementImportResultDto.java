@@ -0,0 +1,44 @@
+package Proyecto.GestorAPI.modelsDTO.statement;
+
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.modelsDTO.spent.BulkRowResultDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen de la importación de un extracto bancario.
+ *
+ * @param formato     Formato del extracto (CSV, OFX o QIF).
+ * @param movimientos Movimientos leídos.
+ * @param cargos      Movimientos de salida de dinero (los únicos que se convierten en gastos).
+ * @param abonos      Ingresos ignorados.
+ * @param importados  Gastos creados.
+ * @param errores     Movimientos que no se pudieron interpretar o guardar.
+ * @param duplicados  Cargos omitidos porque ya se importaron en un extracto anterior o aparecen
+ *                    repetidos en el mismo fichero.
+ * @param importe     Suma de los importes de los gastos creados.
+ * @param desde       Fecha del primer gasto creado.
+ * @param hasta       Fecha del último gasto creado.
+ * @param porTipo     Gastos creados por clase de gasto.
+ * @param duracionMs  Duración de la importación en milisegundos.
+ * @param error       Motivo por el que se interrumpió la lectura, o null.
+ * @param rechazados  Movimientos rechazados; {@code fila} es la posición en el fichero.
+ */
+public record StatementImportResultDto(
+        String formato,
+        int movimientos,
+        int cargos,
+        int abonos,
+        int importados,
+        int errores,
+        int duplicados,
+        double importe,
+        LocalDate desde,
+        LocalDate hasta,
+        Map<ExpenseClass, Integer> porTipo,
+        long duracionMs,
+        String error,
+        List<BulkRowResultDto> rechazados
+) {}
@@ -0,0 +1,27 @@
+package Proyecto.GestorAPI.modelsDTO.statement;
+
+import Proyecto.GestorAPI.models.StatementRule;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record StatementRuleDto(
+        Long id,
+        @NotBlank @Size(max = 100) String patron,
+        @NotNull ExpenseClass typeExpense,
+        Long categoriaId,
+        int prioridad,
+        boolean activa
+) {
+    public static StatementRuleDto from(StatementRule rule) {
+        return new StatementRuleDto(
+                rule.getId(),
+                rule.getPattern(),
+                rule.getTypeExpense(),
+                rule.getCategoriaId(),
+                rule.getPriority(),
+                rule.isActive()
+        );
+    }
+}
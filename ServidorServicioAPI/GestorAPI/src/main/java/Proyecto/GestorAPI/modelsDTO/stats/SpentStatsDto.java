@@ -0,0 +1,24 @@
+package Proyecto.GestorAPI.modelsDTO.stats;
+
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+
+/**
+ * Fila de resumen de gastos. Los campos por los que no se agrupa se devuelven a null.
+ *
+ * @param anio        Año del periodo.
+ * @param mes         Mes del periodo (1-12).
+ * @param categoriaId Categoría.
+ * @param typeExpense Clase de gasto.
+ * @param total       Suma de importes sin IVA.
+ * @param iva         Suma del importe de IVA.
+ * @param count       Número de gastos.
+ */
+public record SpentStatsDto(
+        Integer anio,
+        Integer mes,
+        Long categoriaId,
+        ExpenseClass typeExpense,
+        double total,
+        double iva,
+        long count
+) {}
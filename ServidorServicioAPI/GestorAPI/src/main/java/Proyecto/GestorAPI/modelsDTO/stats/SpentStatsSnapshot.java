@@ -0,0 +1,52 @@
+package Proyecto.GestorAPI.modelsDTO.stats;
+
+import Proyecto.GestorAPI.models.Spent;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+
+import java.time.LocalDateTime;
+
+/**
+ * Valores de un gasto que afectan al resumen mensual.
+ * Se captura antes y después de cada cambio para aplicar la diferencia sobre el resumen.
+ *
+ * @param userId      Usuario dueño del gasto.
+ * @param expenseDate Fecha del gasto.
+ * @param categoriaId Categoría del gasto (puede ser nula).
+ * @param typeExpense Clase de gasto.
+ * @param total       Importe sin IVA.
+ * @param iva         Porcentaje de IVA.
+ */
+public record SpentStatsSnapshot(
+        Long userId,
+        LocalDateTime expenseDate,
+        Long categoriaId,
+        ExpenseClass typeExpense,
+        double total,
+        double iva
+) {
+
+    public static SpentStatsSnapshot of(Spent spent) {
+        return new SpentStatsSnapshot(
+                spent.getUser().getId(),
+                spent.getExpenseDate(),
+                spent.getCategory() != null ? spent.getCategory().getId() : null,
+                spent.getTypeExpense(),
+                spent.getTotal(),
+                spent.getIva()
+        );
+    }
+
+    /**
+     * Periodo del gasto en formato numérico yyyyMM.
+     */
+    public int period() {
+        return expenseDate.getYear() * 100 + expenseDate.getMonthValue();
+    }
+
+    /**
+     * Importe de IVA del gasto.
+     */
+    public double ivaAmount() {
+        return total * iva / 100;
+    }
+}
@@ -0,0 +1,21 @@
+package Proyecto.GestorAPI.modelsDTO.subscription;
+
+/**
+ * Resumen de una ejecución del proceso de cobro de subscripciones.
+ *
+ * @param programadas Subscripciones activas sin próximo cargo a las que se ha programado el primero.
+ * @param procesadas  Subscripciones con cargos vencidos que se han avanzado.
+ * @param cargos      Cargos nuevos registrados (y sumados al acumulado).
+ * @param finalizadas Subscripciones desactivadas por haber superado su fecha de finalización.
+ * @param omitidas    Subscripciones modificadas por otro proceso durante la ejecución (se retoman en la siguiente).
+ * @param duracionMs  Duración de la ejecución en milisegundos.
+ */
+public record SubscriptionBillingResultDto(
+        int programadas,
+        int procesadas,
+        int cargos,
+        int finalizadas,
+        int omitidas,
+        long duracionMs
+) {
+}
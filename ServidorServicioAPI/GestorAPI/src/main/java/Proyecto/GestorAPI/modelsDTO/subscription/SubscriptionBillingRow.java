@@ -0,0 +1,30 @@
+package Proyecto.GestorAPI.modelsDTO.subscription;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Datos de una subscripción que necesita el proceso de cobro, proyectados sin hidratar la entidad.
+ *
+ * @param spentId      Id de la subscripción.
+ * @param userId       Id del usuario propietario.
+ * @param nextCharge   Próximo cargo pendiente (null si aún no se ha programado).
+ * @param total        Importe sin IVA de cada ciclo.
+ * @param iva          IVA en porcentaje.
+ * @param start        Fecha de inicio.
+ * @param end          Fecha de finalización (null si es indefinida).
+ * @param intervalTime Intervalo entre cargos.
+ * @param restartDay   Día de renovación.
+ */
+public record SubscriptionBillingRow(
+        Long spentId,
+        Long userId,
+        LocalDate nextCharge,
+        double total,
+        double iva,
+        LocalDateTime start,
+        LocalDateTime end,
+        int intervalTime,
+        int restartDay
+) {
+}
@@ -0,0 +1,22 @@
+package Proyecto.GestorAPI.modelsDTO.subscription;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cargo de un ciclo de una subscripción.
+ *
+ * @param id             Id del cargo.
+ * @param subscriptionId Id de la subscripción cobrada.
+ * @param fechaCargo     Fecha del ciclo cobrado.
+ * @param importe        Importe del cargo (total más IVA).
+ * @param registrado     Momento en que el proceso de cobro registró el cargo.
+ */
+public record SubscriptionChargeDto(
+        Long id,
+        Long subscriptionId,
+        LocalDate fechaCargo,
+        double importe,
+        LocalDateTime registrado
+) {
+}
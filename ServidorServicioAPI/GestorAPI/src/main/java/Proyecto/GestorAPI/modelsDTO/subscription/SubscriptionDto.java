@@ -3,6 +3,7 @@ package Proyecto.GestorAPI.modelsDTO.subscription;
 import Proyecto.GestorAPI.models.Subscription;
 import Proyecto.GestorAPI.models.enums.ExpenseClass;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -22,7 +23,8 @@ public record SubscriptionDto(
         int restartDay,
         int intervalTime,
         ExpenseClass typeExpense,
-        boolean activa
+        boolean activa,
+        LocalDate proximoCargo
 ) {
 
     public static SubscriptionDto from(Subscription subscription) {
@@ -47,7 +49,8 @@ public record SubscriptionDto(
                 subscription.getRestartDay(),
                 subscription.getIntervalTime(),
                 subscription.getTypeExpense(),
-                subscription.isActiva()
+                subscription.isActiva(),
+                subscription.getNextCharge()
         );
     }
 }
@@ -18,7 +18,6 @@ public record UpdateSubscriptionRequest(
         @PositiveOrZero double iva,
         @NotNull LocalDateTime start,
         LocalDateTime end,
-        @PositiveOrZero double accumulate,
         @Positive int restartDay,
         @Positive int intervalTime,
         @NotNull boolean activa
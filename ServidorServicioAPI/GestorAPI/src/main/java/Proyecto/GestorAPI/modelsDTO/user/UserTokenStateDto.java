@@ -0,0 +1,21 @@
+package Proyecto.GestorAPI.modelsDTO.user;
+
+import Proyecto.GestorAPI.config.security.RoleServer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos de un usuario que determinan la validez de sus tokens JWT.
+ *
+ * Un cambio de contraseña, de rol o la desactivación de la cuenta incrementan
+ * {@code tokenVersion} e invalidan los tokens emitidos con una versión anterior.
+ */
+public record UserTokenStateDto(
+        Long id,
+        String password,
+        RoleServer role,
+        boolean active,
+        int tokenVersion,
+        LocalDateTime updatedAt
+) {
+}
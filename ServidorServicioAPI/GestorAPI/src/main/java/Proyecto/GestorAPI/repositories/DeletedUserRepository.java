@@ -0,0 +1,39 @@
+package Proyecto.GestorAPI.repositories;
+
+import Proyecto.GestorAPI.models.DeletedUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de las marcas de usuarios eliminados (tabla usuarios_eliminados).
+ */
+@Repository
+public interface DeletedUserRepository extends JpaRepository<DeletedUser, Long> {
+
+    /**
+     * IDs de los usuarios eliminados después de una fecha.
+     *
+     * @param since Fecha desde la que buscar.
+     * @return IDs de usuario.
+     */
+    @Query("SELECT d.userId FROM DeletedUser d WHERE d.deletedAt > :since")
+    List<Long> findUserIdsDeletedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Elimina las marcas anteriores a una fecha.
+     *
+     * @param before Fecha límite.
+     * @return Número de marcas eliminadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DeletedUser d WHERE d.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") LocalDateTime before);
+}
@@ -1,10 +1,13 @@
 package Proyecto.GestorAPI.repositories;
 
 import Proyecto.GestorAPI.models.LoginAttempt;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -14,11 +17,34 @@ public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, Long
     @Query("SELECT COUNT(la) FROM LoginAttempt la WHERE la.username = :username AND la.success = false AND la.attemptTime >= :since")
     long countFailedAttempts(@Param("username") String username, @Param("since") Instant since);
 
+    @Query("SELECT MIN(la.id) FROM LoginAttempt la WHERE la.attemptTime < :cutoff")
+    Long findMinIdBefore(@Param("cutoff") Instant cutoff);
+
+    @Query("SELECT MAX(la.id) FROM LoginAttempt la WHERE la.attemptTime < :cutoff")
+    Long findMaxIdBefore(@Param("cutoff") Instant cutoff);
+
+    List<LoginAttempt> findByIdBetweenAndAttemptTimeBeforeOrderById(Long fromId, Long toId, Instant cutoff);
+
+    @Transactional
     @Modifying
-    @Query("DELETE FROM LoginAttempt la WHERE la.attemptTime < :olderThan")
-    void deleteOlderThan(@Param("olderThan") Instant olderThan);
+    @Query("DELETE FROM LoginAttempt la WHERE la.id BETWEEN :fromId AND :toId AND la.attemptTime < :cutoff")
+    int deleteRangeBefore(@Param("fromId") Long fromId, @Param("toId") Long toId, @Param("cutoff") Instant cutoff);
+
+    Slice<LoginAttempt> findAllBy(Pageable pageable);
+
+    Slice<LoginAttempt> findByUsername(String username, Pageable pageable);
+
+    List<LoginAttempt> findBySuccessIsFalseAndAttemptTimeAfterOrderByAttemptTime(Instant cutoff);
 
     List<LoginAttempt> findByUsernameAndSuccessIsFalseAndAttemptTimeAfter(String username, Instant cutoff);
 
+    @Query("SELECT la.attemptTime FROM LoginAttempt la WHERE la.username = :username AND la.success = false " +
+            "AND la.attemptTime > :since ORDER BY la.attemptTime")
+    List<Instant> findFailureTimesByUsername(@Param("username") String username, @Param("since") Instant since);
+
+    @Query("SELECT la.attemptTime FROM LoginAttempt la WHERE la.ip = :ip AND la.success = false " +
+            "AND la.attemptTime > :since ORDER BY la.attemptTime")
+    List<Instant> findFailureTimesByIp(@Param("ip") String ip, @Param("since") Instant since);
+
     List<LoginAttempt> findByUsername(String username);
 }
@@ -0,0 +1,24 @@
+package Proyecto.GestorAPI.repositories;
+
+import Proyecto.GestorAPI.models.OcrJob;
+import Proyecto.GestorAPI.models.enums.OcrJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio de los trabajos de procesamiento OCR (OcrJob).
+ */
+@Repository
+public interface OcrJobRepository extends JpaRepository<OcrJob, Long> {
+
+    /**
+     * Obtiene los trabajos en alguno de los estados indicados, en orden de llegada.
+     *
+     * @param status Estados buscados.
+     * @return Trabajos ordenados por id.
+     */
+    List<OcrJob> findByStatusInOrderByIdAsc(Collection<OcrJobStatus> status);
+}
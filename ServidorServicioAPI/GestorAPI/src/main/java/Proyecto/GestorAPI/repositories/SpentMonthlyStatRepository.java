@@ -0,0 +1,75 @@
+package Proyecto.GestorAPI.repositories;
+
+import Proyecto.GestorAPI.models.SpentMonthlyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio del resumen mensual de gastos (SpentMonthlyStat).
+ * Las actualizaciones incrementales usan un upsert nativo para que sean atómicas frente a peticiones concurrentes.
+ */
+@Repository
+public interface SpentMonthlyStatRepository extends JpaRepository<SpentMonthlyStat, Long> {
+
+    /**
+     * Suma (o resta, con valores negativos) una variación sobre una fila del resumen, creándola si no existe.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO gastos_resumen_mensual (user_id, periodo, categoria_id, tipo, total, iva_total, num_gastos) " +
+            "VALUES (:userId, :periodo, :categoriaId, :tipo, :total, :iva, :count) " +
+            "ON DUPLICATE KEY UPDATE total = total + VALUES(total), iva_total = iva_total + VALUES(iva_total), " +
+            "num_gastos = num_gastos + VALUES(num_gastos)", nativeQuery = true)
+    void upsertDelta(@Param("userId") Long userId,
+                     @Param("periodo") int periodo,
+                     @Param("categoriaId") long categoriaId,
+                     @Param("tipo") String tipo,
+                     @Param("total") double total,
+                     @Param("iva") double iva,
+                     @Param("count") long count);
+
+    /**
+     * Elimina las filas que se han quedado sin gastos tras una resta.
+     */
+    @Modifying
+    @Query("DELETE FROM SpentMonthlyStat r WHERE r.userId = :userId AND r.period = :periodo AND r.count <= 0")
+    void deleteEmpty(@Param("userId") Long userId, @Param("periodo") int periodo);
+
+    /**
+     * Obtiene las filas del resumen de un usuario (o de todos si es null) dentro de un rango de periodos.
+     */
+    @Query("SELECT r FROM SpentMonthlyStat r " +
+            "WHERE (:userId IS NULL OR r.userId = :userId) AND r.period >= :desde AND r.period <= :hasta " +
+            "ORDER BY r.period")
+    List<SpentMonthlyStat> findRange(@Param("userId") Long userId,
+                                     @Param("desde") int desde,
+                                     @Param("hasta") int hasta);
+
+    @Modifying
+    @Query("DELETE FROM SpentMonthlyStat r WHERE r.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Elimina las filas de usuarios que ya no existen.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM gastos_resumen_mensual WHERE user_id NOT IN (SELECT id FROM usuarios)", nativeQuery = true)
+    int deleteOrphans();
+
+    /**
+     * Recalcula desde la tabla de gastos todas las filas del resumen de un usuario.
+     * Debe ejecutarse tras {@link #deleteByUserId(Long)} dentro de la misma transacción.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO gastos_resumen_mensual (user_id, periodo, categoria_id, tipo, total, iva_total, num_gastos) " +
+            "SELECT g.user_id, YEAR(g.expense_date) * 100 + MONTH(g.expense_date), COALESCE(g.categoria_id, 0), g.tipo, " +
+            "SUM(g.total), SUM(g.total * g.iva / 100), COUNT(*) " +
+            "FROM gastos g WHERE g.user_id = :userId " +
+            "GROUP BY g.user_id, YEAR(g.expense_date) * 100 + MONTH(g.expense_date), COALESCE(g.categoria_id, 0), g.tipo",
+            nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId);
+}
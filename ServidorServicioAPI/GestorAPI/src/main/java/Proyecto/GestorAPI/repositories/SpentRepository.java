@@ -1,11 +1,18 @@
 package Proyecto.GestorAPI.repositories;
 
 import Proyecto.GestorAPI.models.Spent;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentDto;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para acceder y manipular los datos de los gastos (Spent).
@@ -15,6 +22,14 @@ import java.util.List;
 @Repository
 public interface SpentRepository extends JpaRepository<Spent, Long> {
 
+    /**
+     * Proyección directa a SpentDto: lee los ids de usuario y categoría de las columnas de clave foránea,
+     * sin hidratar entidades, sin cargar proxies LAZY y sin unir las tablas de las subclases.
+     */
+    String SPENT_DTO_SELECT = "SELECT new Proyecto.GestorAPI.modelsDTO.spent.SpentDto(" +
+            "s.spentId, s.user.id, s.category.id, s.expenseDate, s.name, s.description, " +
+            "s.total, s.iva, s.typeExpense, s.icon) FROM Spent s ";
+
     List<Spent> getByUserId(Long id);
 
     long countByUserId(Long userId);
@@ -22,6 +37,38 @@ public interface SpentRepository extends JpaRepository<Spent, Long> {
     @Query("SELECT COUNT(u) FROM Spent u ")
     int countGastos();
 
+    /**
+     * Lee de la base de datos los valores de un gasto que afectan al resumen mensual.
+     *
+     * El modo de volcado COMMIT evita que Hibernate escriba antes de la consulta los cambios pendientes
+     * de una entidad ya gestionada, de forma que se obtiene el estado anterior a la modificación.
+     *
+     * @param spentId Id del gasto.
+     * @return Valores almacenados del gasto, o vacío si no existe.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT new Proyecto.GestorAPI.modelsDTO.stats.SpentStatsSnapshot(" +
+            "s.user.id, s.expenseDate, s.category.id, s.typeExpense, s.total, s.iva) " +
+            "FROM Spent s WHERE s.spentId = :spentId")
+    Optional<SpentStatsSnapshot> findStatsSnapshot(@Param("spentId") Long spentId);
+
+    /**
+     * Obtiene todos los gastos como DTO en una única consulta.
+     *
+     * @return Lista de gastos proyectados a SpentDto.
+     */
+    @Query(SPENT_DTO_SELECT + "ORDER BY s.spentId")
+    List<SpentDto> findAllDtos();
+
+    /**
+     * Obtiene los gastos de un usuario como DTO en una única consulta.
+     *
+     * @param userId Id del usuario propietario.
+     * @return Lista de gastos del usuario proyectados a SpentDto.
+     */
+    @Query(SPENT_DTO_SELECT + "WHERE s.user.id = :userId ORDER BY s.spentId")
+    List<SpentDto> findDtosByUserId(@Param("userId") Long userId);
+
     // JpaRepository proporciona automáticamente las operaciones básicas sobre la entidad Spent
     // como findAll(), findById(), save(), deleteById(), entre otras.
 }
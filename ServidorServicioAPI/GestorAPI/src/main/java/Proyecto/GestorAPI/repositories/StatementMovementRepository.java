@@ -0,0 +1,35 @@
+package Proyecto.GestorAPI.repositories;
+
+import Proyecto.GestorAPI.models.StatementMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio de los movimientos de extracto ya importados (tabla extracto_movimientos).
+ */
+@Repository
+public interface StatementMovementRepository extends JpaRepository<StatementMovement, Long> {
+
+    /**
+     * Claves de la lista que el usuario ya importó (usa la clave única user_id + clave).
+     *
+     * @param userId Id del usuario.
+     * @param keys   Claves a comprobar.
+     * @return Claves ya registradas.
+     */
+    @Query("SELECT m.key FROM StatementMovement m WHERE m.userId = :userId AND m.key IN :keys")
+    List<String> findExistingKeys(@Param("userId") Long userId, @Param("keys") Collection<String> keys);
+
+    /**
+     * Elimina los movimientos importados de un usuario.
+     */
+    @Modifying
+    @Query("DELETE FROM StatementMovement m WHERE m.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,24 @@
+package Proyecto.GestorAPI.repositories;
+
+import Proyecto.GestorAPI.models.StatementRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio de las reglas de clasificación de extractos bancarios.
+ */
+@Repository
+public interface StatementRuleRepository extends JpaRepository<StatementRule, Long> {
+
+    /**
+     * Reglas activas en orden de evaluación.
+     */
+    List<StatementRule> findByActiveTrueOrderByPriorityAscIdAsc();
+
+    /**
+     * Todas las reglas en orden de evaluación.
+     */
+    List<StatementRule> findAllByOrderByPriorityAscIdAsc();
+}
@@ -0,0 +1,54 @@
+package Proyecto.GestorAPI.repositories;
+
+import Proyecto.GestorAPI.models.SubscriptionCharge;
+import Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardCount;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionChargeDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio de los cargos de subscripciones (tabla cargos_subscripcion).
+ */
+@Repository
+public interface SubscriptionChargeRepository extends JpaRepository<SubscriptionCharge, Long> {
+
+    /**
+     * Registra el cargo de un ciclo si no existe ya (clave única subscripción + fecha).
+     *
+     * @return 1 si el cargo es nuevo, 0 si ya estaba registrado.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO cargos_subscripcion (subscription_id, user_id, fecha_cargo, importe, created_at) " +
+            "VALUES (:subscriptionId, :userId, :fecha, :importe, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int insertIfAbsent(@Param("subscriptionId") Long subscriptionId,
+                       @Param("userId") Long userId,
+                       @Param("fecha") LocalDate fecha,
+                       @Param("importe") double importe);
+
+    /**
+     * Cargos de una subscripción, del más reciente al más antiguo.
+     *
+     * @param subscriptionId Id de la subscripción.
+     * @return Cargos proyectados a SubscriptionChargeDto.
+     */
+    @Query("SELECT new Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionChargeDto(" +
+            "c.id, c.subscription.spentId, c.chargeDate, c.amount, c.createdAt) FROM SubscriptionCharge c " +
+            "WHERE c.subscription.spentId = :subscriptionId ORDER BY c.chargeDate DESC")
+    List<SubscriptionChargeDto> findDtosBySubscriptionId(@Param("subscriptionId") Long subscriptionId);
+
+    /**
+     * Subscripciones distintas cobradas desde una fecha, por nombre (clasificación pública de subscripciones).
+     *
+     * @param since Fecha mínima del cargo, inclusive.
+     * @return Recuento por nombre de subscripción tal como está guardado.
+     */
+    @Query("SELECT new Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardCount(s.name, COUNT(DISTINCT s.spentId)) " +
+            "FROM SubscriptionCharge c JOIN c.subscription s WHERE c.chargeDate >= :since GROUP BY s.name")
+    List<LeaderboardCount> countBySubscriptionSince(@Param("since") LocalDate since);
+}
@@ -1,9 +1,17 @@
 package Proyecto.GestorAPI.repositories;
 
 import Proyecto.GestorAPI.models.Subscription;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionBillingRow;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,7 +20,110 @@ import java.util.List;
  */
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
+
+    /**
+     * Proyección directa a SubscriptionDto a partir de las columnas de gastos y subscripciones,
+     * sin hidratar entidades ni cargar las asociaciones LAZY.
+     */
+    String SUBSCRIPTION_DTO_SELECT = "SELECT new Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionDto(" +
+            "s.spentId, s.user.id, s.category.id, s.expenseDate, s.name, s.description, s.total, s.iva, s.icon, " +
+            "s.start, s.end, s.accumulate, s.restartDay, s.intervalTime, s.typeExpense, s.activa, s.nextCharge) FROM Subscription s ";
+
     List<Subscription> getByUserId(Long id);
+
+    /**
+     * Obtiene todas las suscripciones como DTO en una única consulta.
+     *
+     * @return Lista de suscripciones proyectadas a SubscriptionDto.
+     */
+    @Query(SUBSCRIPTION_DTO_SELECT + "ORDER BY s.spentId")
+    List<SubscriptionDto> findAllDtos();
+
+    /**
+     * Obtiene las suscripciones de un usuario como DTO en una única consulta.
+     *
+     * @param clienteId Id del usuario propietario.
+     * @return Lista de suscripciones del usuario proyectadas a SubscriptionDto.
+     */
+    @Query(SUBSCRIPTION_DTO_SELECT + "WHERE s.user.id = :clienteId ORDER BY s.spentId")
+    List<SubscriptionDto> findDtosByUserId(@Param("clienteId") Long clienteId);
+
+    /**
+     * Obtiene como DTO las suscripciones con los IDs indicados (los que no son suscripciones se ignoran).
+     *
+     * @param ids IDs de gasto.
+     * @return Suscripciones encontradas, sin orden.
+     */
+    @Query(SUBSCRIPTION_DTO_SELECT + "WHERE s.spentId IN :ids")
+    List<SubscriptionDto> findDtosByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Proyección con los datos que necesita el proceso de cobro.
+     */
+    String BILLING_ROW_SELECT = "SELECT new Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionBillingRow(" +
+            "s.spentId, s.user.id, s.nextCharge, s.total, s.iva, s.start, s.end, s.intervalTime, s.restartDay) " +
+            "FROM Subscription s ";
+
+    /**
+     * Siguiente bloque, en orden de ID, de subscripciones activas con un cargo vencido.
+     * Usa el índice (activa, proximo_cargo), así que solo se leen las filas pendientes.
+     *
+     * @param today    Fecha de cobro: se incluyen los cargos hasta este día.
+     * @param afterId  Último ID procesado del bloque anterior.
+     * @param pageable Tamaño del bloque.
+     */
+    @Query(BILLING_ROW_SELECT + "WHERE s.activa = true AND s.nextCharge <= :today AND s.spentId > :afterId " +
+            "ORDER BY s.spentId")
+    List<SubscriptionBillingRow> findDueForBilling(@Param("today") LocalDate today,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    /**
+     * Siguiente bloque, en orden de ID, de subscripciones activas a las que aún no se ha programado el cobro
+     * (creadas antes de existir el proceso de cobro, desde el panel web o por el inicializador de datos).
+     */
+    @Query(BILLING_ROW_SELECT + "WHERE s.activa = true AND s.nextCharge IS NULL AND s.spentId > :afterId " +
+            "ORDER BY s.spentId")
+    List<SubscriptionBillingRow> findUnscheduled(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Programa el primer cargo si la subscripción sigue activa y sin programar.
+     *
+     * @return 1 si se programó, 0 si otro proceso se adelantó.
+     */
+    @Modifying
+    @Query(value = "UPDATE subscripciones SET proximo_cargo = :next " +
+            "WHERE spent_id = :id AND proximo_cargo IS NULL AND activa = true", nativeQuery = true)
+    int scheduleBilling(@Param("id") Long id, @Param("next") LocalDate next);
+
+    /**
+     * Avanza el próximo cargo solo si sigue siendo el que se leyó, para que dos ejecuciones
+     * concurrentes (o reintentos tras un reinicio) no cobren dos veces el mismo ciclo.
+     *
+     * @return 1 si se avanzó, 0 si la subscripción cambió entretanto.
+     */
+    @Modifying
+    @Query(value = "UPDATE subscripciones SET proximo_cargo = :next " +
+            "WHERE spent_id = :id AND proximo_cargo = :expected AND activa = true", nativeQuery = true)
+    int advanceBilling(@Param("id") Long id, @Param("expected") LocalDate expected, @Param("next") LocalDate next);
+
+    /**
+     * Desactiva la subscripción al superar su fecha de finalización, con la misma condición que advanceBilling.
+     *
+     * @return 1 si se desactivó, 0 si la subscripción cambió entretanto.
+     */
+    @Modifying
+    @Query(value = "UPDATE subscripciones SET proximo_cargo = NULL, activa = false " +
+            "WHERE spent_id = :id AND proximo_cargo = :expected AND activa = true", nativeQuery = true)
+    int finishBilling(@Param("id") Long id, @Param("expected") LocalDate expected);
+
+    /**
+     * Suma un importe al acumulado de la subscripción.
+     */
+    @Modifying
+    @Query(value = "UPDATE subscripciones SET accumulate = accumulate + :amount WHERE spent_id = :id", nativeQuery = true)
+    int addToAccumulate(@Param("id") Long id, @Param("amount") double amount);
+
     // JpaRepository proporciona automáticamente las operaciones básicas sobre la entidad Subscription,
     // como findAll(), findById(), save(), deleteById(), entre otras.
 }
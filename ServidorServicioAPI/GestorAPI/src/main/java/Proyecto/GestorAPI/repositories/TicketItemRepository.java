@@ -0,0 +1,98 @@
+package Proyecto.GestorAPI.repositories;
+
+import Proyecto.GestorAPI.models.TicketItem;
+import Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardCount;
+import Proyecto.GestorAPI.modelsDTO.product.ProductSummaryDto;
+import Proyecto.GestorAPI.modelsDTO.product.TicketItemDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio de las líneas de producto de los tickets (tabla ticket_items).
+ *
+ * Todas las consultas filtran por usuario, nombre normalizado (prefijo) y rango de fechas, en el
+ * orden del índice (user_id, nombre_normalizado, fecha_compra). Los prefijos se reciben ya
+ * escapados con '!' para LIKE.
+ */
+@Repository
+public interface TicketItemRepository extends JpaRepository<TicketItem, Long> {
+
+    String PRODUCT_SUMMARY_SELECT = "SELECT new Proyecto.GestorAPI.modelsDTO.product.ProductSummaryDto(" +
+            "i.normalizedName, COUNT(i), SUM(i.quantity), SUM(i.subtotal), AVG(i.price), MIN(i.price), MAX(i.price), " +
+            "MIN(i.purchaseDate), MAX(i.purchaseDate)) FROM TicketItem i ";
+
+    String PRODUCT_FILTER = "WHERE i.userId = :userId AND i.normalizedName LIKE :prefix ESCAPE '!' " +
+            "AND i.purchaseDate >= :desde AND i.purchaseDate < :hasta ";
+
+    /**
+     * Elimina las líneas de un ticket.
+     */
+    @Modifying
+    @Query("DELETE FROM TicketItem i WHERE i.ticket.spentId = :ticketId")
+    int deleteByTicketId(@Param("ticketId") Long ticketId);
+
+    /**
+     * Elimina las líneas de varios tickets.
+     */
+    @Modifying
+    @Query("DELETE FROM TicketItem i WHERE i.ticket.spentId IN :ticketIds")
+    int deleteByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+
+    /**
+     * Líneas de producto cuyo nombre empieza por el prefijo, de la más reciente a la más antigua.
+     */
+    @Query("SELECT new Proyecto.GestorAPI.modelsDTO.product.TicketItemDto(" +
+            "i.id, t.spentId, t.store, i.name, i.quantity, i.price, i.subtotal, i.categories, i.purchaseDate) " +
+            "FROM TicketItem i JOIN i.ticket t " + PRODUCT_FILTER + "ORDER BY i.purchaseDate DESC, i.id DESC")
+    List<TicketItemDto> search(@Param("userId") Long userId,
+                               @Param("prefix") String prefix,
+                               @Param("desde") LocalDateTime desde,
+                               @Param("hasta") LocalDateTime hasta,
+                               Pageable pageable);
+
+    /**
+     * Productos cuyo nombre empieza por el prefijo, agregados y ordenados por gasto.
+     */
+    @Query(PRODUCT_SUMMARY_SELECT + PRODUCT_FILTER + "GROUP BY i.normalizedName ORDER BY SUM(i.subtotal) DESC")
+    List<ProductSummaryDto> summarizeBySpending(@Param("userId") Long userId,
+                                                @Param("prefix") String prefix,
+                                                @Param("desde") LocalDateTime desde,
+                                                @Param("hasta") LocalDateTime hasta,
+                                                Pageable pageable);
+
+    /**
+     * Productos agregados y ordenados por cantidad comprada.
+     */
+    @Query(PRODUCT_SUMMARY_SELECT + PRODUCT_FILTER + "GROUP BY i.normalizedName ORDER BY SUM(i.quantity) DESC")
+    List<ProductSummaryDto> summarizeByQuantity(@Param("userId") Long userId,
+                                                @Param("prefix") String prefix,
+                                                @Param("desde") LocalDateTime desde,
+                                                @Param("hasta") LocalDateTime hasta,
+                                                Pageable pageable);
+
+    /**
+     * Productos agregados y ordenados por número de compras.
+     */
+    @Query(PRODUCT_SUMMARY_SELECT + PRODUCT_FILTER + "GROUP BY i.normalizedName ORDER BY COUNT(i) DESC")
+    List<ProductSummaryDto> summarizeByPurchases(@Param("userId") Long userId,
+                                                 @Param("prefix") String prefix,
+                                                 @Param("desde") LocalDateTime desde,
+                                                 @Param("hasta") LocalDateTime hasta,
+                                                 Pageable pageable);
+
+    /**
+     * Productos más comprados desde una fecha (clasificación pública de productos).
+     * Agrupa por nombre normalizado y muestra una de sus variantes originales.
+     */
+    @Query("SELECT new Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardCount(MIN(i.name), COUNT(i)) " +
+            "FROM TicketItem i WHERE i.purchaseDate >= :since GROUP BY i.normalizedName ORDER BY COUNT(i) DESC")
+    List<LeaderboardCount> countByProductSince(@Param("since") LocalDateTime since, Pageable pageable);
+}
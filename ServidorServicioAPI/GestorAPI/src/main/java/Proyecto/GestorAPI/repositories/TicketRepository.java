@@ -1,9 +1,16 @@
 package Proyecto.GestorAPI.repositories;
 
 import Proyecto.GestorAPI.models.Ticket;
+import Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardCount;
+import Proyecto.GestorAPI.modelsDTO.ticket.TicketDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,6 +20,14 @@ import java.util.List;
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    /**
+     * Proyección directa a TicketDto a partir de las columnas de gastos y tickets,
+     * sin hidratar entidades ni cargar las asociaciones LAZY.
+     */
+    String TICKET_DTO_SELECT = "SELECT new Proyecto.GestorAPI.modelsDTO.ticket.TicketDto(" +
+            "t.spentId, t.user.id, t.category.id, t.store, t.expenseDate, t.name, t.description, " +
+            "t.total, t.iva, t.icon, t.typeExpense, t.productsJSON) FROM Ticket t ";
+
     /**
      * Método para encontrar todos los tickets asociados a un usuario específico.
      *
@@ -20,4 +35,53 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
      * @return una lista de tickets relacionados con el usuario indicado.
      */
     List<Ticket> findByUserId(Long clienteId);
+
+    /**
+     * Obtiene todos los tickets como DTO en una única consulta.
+     *
+     * @return Lista de tickets proyectados a TicketDto.
+     */
+    @Query(TICKET_DTO_SELECT + "ORDER BY t.spentId")
+    List<TicketDto> findAllDtos();
+
+    /**
+     * Obtiene los tickets de un usuario como DTO en una única consulta.
+     *
+     * @param clienteId el ID del usuario (cliente) propietario.
+     * @return una lista de tickets del usuario proyectados a TicketDto.
+     */
+    @Query(TICKET_DTO_SELECT + "WHERE t.user.id = :clienteId ORDER BY t.spentId")
+    List<TicketDto> findDtosByUserId(@Param("clienteId") Long clienteId);
+
+    /**
+     * Siguiente bloque de tickets en orden de ID, proyectados a TicketDto (paginación por rangos de ID).
+     *
+     * @param afterId  Último ID del bloque anterior.
+     * @param pageable Tamaño del bloque.
+     * @return Tickets con ID mayor que afterId.
+     */
+    @Query(TICKET_DTO_SELECT + "WHERE t.spentId > :afterId ORDER BY t.spentId")
+    List<TicketDto> findDtosAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Obtiene como DTO los tickets con los IDs indicados (los que no son tickets se ignoran).
+     *
+     * @param ids IDs de gasto.
+     * @return Tickets encontrados, sin orden.
+     */
+    @Query(TICKET_DTO_SELECT + "WHERE t.spentId IN :ids")
+    List<TicketDto> findDtosByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Número de tickets por tienda desde una fecha (clasificación pública de tiendas).
+     *
+     * @param since Fecha mínima del ticket, inclusive.
+     * @param unknownStore Tienda por defecto de los tickets sin tienda detectada, que no se cuenta.
+     * @return Recuento por nombre de tienda tal como está guardado.
+     */
+    @Query("SELECT new Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardCount(t.store, COUNT(t)) " +
+            "FROM Ticket t WHERE t.expenseDate >= :since AND t.store IS NOT NULL AND t.store <> :unknownStore " +
+            "GROUP BY t.store")
+    List<LeaderboardCount> countByStoreSince(@Param("since") LocalDateTime since,
+                                             @Param("unknownStore") String unknownStore);
 }
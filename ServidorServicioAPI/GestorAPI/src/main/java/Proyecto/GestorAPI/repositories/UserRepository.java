@@ -2,10 +2,17 @@ package Proyecto.GestorAPI.repositories;
 
 import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.config.security.oauth2.OAuth2Provider;
+import Proyecto.GestorAPI.modelsDTO.user.UserTokenStateDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,6 +22,9 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    String TOKEN_STATE_SELECT = "SELECT new Proyecto.GestorAPI.modelsDTO.user.UserTokenStateDto(" +
+            "u.id, u.password, u.role, u.active, u.tokenVersion, u.updatedAt) FROM User u ";
+
     /**
      * Busca un usuario por su nombre de usuario (username).
      *
@@ -51,4 +61,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.active = true")
     int countActiveUsers();
+
+    /**
+     * Obtiene los ids de todos los usuarios, sin cargar las entidades.
+     *
+     * @return Lista de ids de usuario.
+     */
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+
+    /**
+     * Obtiene el estado de tokens guardado de un usuario. No vacía el contexto de persistencia
+     * antes de consultar, de modo que devuelve los valores previos a cambios aún no guardados.
+     *
+     * @param id ID del usuario.
+     * @return Estado guardado del usuario.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(TOKEN_STATE_SELECT + "WHERE u.id = :id")
+    Optional<UserTokenStateDto> findTokenState(@Param("id") Long id);
+
+    /**
+     * Usuarios cuyos tokens pueden estar revocados (versión incrementada o cuenta inactiva).
+     *
+     * @return Estados de tokens de esos usuarios.
+     */
+    @Query(TOKEN_STATE_SELECT + "WHERE u.tokenVersion > 0 OR u.active = false")
+    List<UserTokenStateDto> findRevocationStates();
+
+    /**
+     * Usuarios modificados desde una fecha, para refrescar el registro de revocación.
+     *
+     * @param since Fecha desde la que buscar cambios.
+     * @return Estados de tokens de los usuarios modificados.
+     */
+    @Query(TOKEN_STATE_SELECT + "WHERE u.updatedAt > :since")
+    List<UserTokenStateDto> findTokenStatesUpdatedSince(@Param("since") LocalDateTime since);
 }
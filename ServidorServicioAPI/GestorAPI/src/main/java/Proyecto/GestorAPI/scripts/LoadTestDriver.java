@@ -0,0 +1,506 @@
+package Proyecto.GestorAPI.scripts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generador de carga para una instancia de GestorAPI en ejecución.
+ *
+ * Cada usuario virtual es un hilo virtual que inicia sesión y repite, hasta agotar la duración,
+ * operaciones elegidas al azar según la mezcla indicada:
+ *
+ * - login: POST /auth/authenticate (nuevo token).
+ * - listar: GET /api/gastos/page (primera página).
+ * - crear: POST /api/gastos con un gasto genérico.
+ * - ocr: POST /api/ocr/ticket con una imagen distinta en cada petición (para no acertar en la caché OCR)
+ *   y consulta de /api/ocr/jobs/{id} hasta que termina; se mide también el tiempo total ("ocr completo").
+ * - chat: POST /api/chat/message.
+ *
+ * Al terminar muestra por operación las peticiones, errores (respuestas no 2xx y fallos de conexión),
+ * el rendimiento en peticiones por segundo y los percentiles p50/p95/p99 de la latencia.
+ *
+ * Para probar OCR y chat sin el servidor Python real, arrancar antes {@link PythonServerStandIn} y
+ * apuntar GestorAPI a él con SPRING_PYTHON_SERVER_URL y SPRING_PYTHON_API_KEY.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=Proyecto.GestorAPI.scripts.LoadTestDriver \
+ *     -Dexec.args="--url=http://localhost:8080 --usuarios=50 --duracion=60 --mezcla=listar:60,crear:25,ocr:10,chat:5"
+ * </pre>
+ *
+ * Opciones:
+ * - --url: URL de GestorAPI (http://localhost:8080).
+ * - --usuarios: usuarios virtuales concurrentes (20).
+ * - --duracion: segundos de prueba (60).
+ * - --mezcla: pesos de las operaciones (listar:60,crear:25,ocr:10,chat:5,login:0).
+ * - --pausa: milisegundos de espera entre operaciones de un usuario (0).
+ * - --usuario y --password: cuenta común para todos los usuarios virtuales. Si no se indica, cada
+ *   usuario virtual se registra con /auth/signup con una cuenta propia (carga-{ejecución}-{n}).
+ * - --categoria: ID de categoría de los gastos creados (1).
+ */
+public class LoadTestDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Tiempo máximo de espera de un trabajo OCR
+    private static final Duration OCR_JOB_TIMEOUT = Duration.ofMinutes(2);
+    private static final long OCR_POLL_MILLIS = 250;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String sharedUser;
+    private final String sharedPassword;
+    private final long categoryId;
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private final long pauseMillis;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    public LoadTestDriver(String baseUrl, Map<String, Integer> mix, String sharedUser, String sharedPassword,
+                          long categoryId, long pauseMillis) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.sharedUser = sharedUser;
+        this.sharedPassword = sharedPassword;
+        this.categoryId = categoryId;
+        this.pauseMillis = pauseMillis;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                names.add(entry.getKey());
+                weights.add(total);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene ninguna operación con peso mayor que 0");
+        }
+        this.operations = names.toArray(String[]::new);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Ejecuta la prueba y devuelve el informe.
+     *
+     * @param users    Usuarios virtuales concurrentes.
+     * @param duration Duración de la prueba.
+     */
+    public String run(int users, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                int user = i;
+                executor.submit(() -> virtualUser(user, deadline));
+            }
+        }
+        return report(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void virtualUser(int index, long deadline) {
+        Session session = new Session();
+        try {
+            if (sharedUser != null) {
+                session.username = sharedUser;
+                session.password = sharedPassword;
+                login(session);
+            } else {
+                signUp(session, index);
+            }
+        } catch (InterruptedException e) {
+            return;
+        }
+        if (session.token == null) {
+            // Sin sesión no se puede generar carga autenticada
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            try {
+                switch (pick(random)) {
+                    case "login" -> login(session);
+                    case "listar" -> list(session);
+                    case "crear" -> create(session, random);
+                    case "ocr" -> ocr(session, random);
+                    case "chat" -> chat(session, random);
+                    default -> throw new IllegalStateException();
+                }
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private String pick(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    // ----------------------------------------------------------------------------------------------
+    // Operaciones
+    // ----------------------------------------------------------------------------------------------
+
+    private void signUp(Session session, int index) throws InterruptedException {
+        session.username = "carga-" + runId + "-" + index;
+        session.password = "Carga-" + runId + "!";
+        Map<String, String> body = Map.of(
+                "username", session.username,
+                "password", session.password,
+                "name", "Usuario de carga " + index,
+                "email", session.username + "@carga.local");
+        HttpResponse<String> response = send("signup", json("/auth/signup", body).build());
+        readToken(session, response);
+    }
+
+    private void login(Session session) throws InterruptedException {
+        HttpResponse<String> response = send("login",
+                json("/auth/authenticate", Map.of("user", session.username, "password", session.password)).build());
+        readToken(session, response);
+    }
+
+    private void list(Session session) throws InterruptedException {
+        send("listar", authorized(session, "/api/gastos/page?limit=50").GET().build());
+    }
+
+    private void create(Session session, ThreadLocalRandom random) throws InterruptedException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", session.userId);
+        body.put("categoriaId", categoryId);
+        body.put("name", "Gasto de carga " + random.nextInt(1000));
+        body.put("description", "Generado por LoadTestDriver");
+        body.put("fechaCompra", LocalDateTime.now().minusMinutes(random.nextInt(60 * 24 * 90)).truncatedTo(ChronoUnit.SECONDS).toString());
+        body.put("total", Math.round((1 + random.nextDouble() * 200) * 100) / 100.0);
+        body.put("iva", 21);
+        body.put("typeExpense", "GASTO_GENERICO");
+        send("crear", json("/api/gastos", body).header("Authorization", "Bearer " + session.token).build());
+    }
+
+    private void ocr(Session session, ThreadLocalRandom random) throws InterruptedException {
+        long start = System.nanoTime();
+        String boundary = "----carga" + Long.toHexString(random.nextLong());
+        HttpRequest request = authorized(session, "/api/ocr/ticket")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart(boundary, "archivo", "ticket.jpg", image(random))))
+                .build();
+        HttpResponse<String> response = send("ocr", request);
+        if (response == null || response.statusCode() != 202) {
+            return;
+        }
+
+        Long jobId = jsonLong(response.body(), "id");
+        if (jobId == null) {
+            recorder("ocr completo").error("sin id", System.nanoTime() - start);
+            return;
+        }
+        long timeout = start + OCR_JOB_TIMEOUT.toNanos();
+        while (System.nanoTime() < timeout) {
+            Thread.sleep(OCR_POLL_MILLIS);
+            HttpResponse<String> job = send("ocr estado", authorized(session, "/api/ocr/jobs/" + jobId).GET().build());
+            String status = job != null && job.statusCode() == 200 ? jsonText(job.body(), "status") : null;
+            if ("COMPLETADO".equals(status)) {
+                recorder("ocr completo").success(System.nanoTime() - start);
+                return;
+            }
+            if ("ERROR".equals(status) || status == null) {
+                recorder("ocr completo").error(status != null ? status : "estado", System.nanoTime() - start);
+                return;
+            }
+        }
+        recorder("ocr completo").error("timeout", System.nanoTime() - start);
+    }
+
+    private void chat(Session session, ThreadLocalRandom random) throws InterruptedException {
+        String message = "¿Cuánto he gastado en alimentación este mes? (" + random.nextInt(1000) + ")";
+        send("chat", authorized(session, "/api/chat/message")
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(message))
+                .build());
+    }
+
+    // ----------------------------------------------------------------------------------------------
+    // HTTP
+    // ----------------------------------------------------------------------------------------------
+
+    /**
+     * Envía una petición y registra su latencia. Devuelve null si falla la conexión.
+     */
+    private HttpResponse<String> send(String operation, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() / 100 == 2) {
+                recorder(operation).success(elapsed);
+            } else {
+                recorder(operation).status(response.statusCode(), elapsed);
+            }
+            return response;
+        } catch (IOException e) {
+            recorder(operation).error("fallo", System.nanoTime() - start);
+            return null;
+        }
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + session.token);
+    }
+
+    private HttpRequest.Builder json(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static void readToken(Session session, HttpResponse<String> response) {
+        if (response == null || response.statusCode() / 100 != 2) {
+            return;
+        }
+        String token = jsonText(response.body(), "token");
+        if (token != null) {
+            session.token = token;
+            session.userId = userIdFromToken(token);
+        }
+    }
+
+    /**
+     * ID del usuario a partir del claim "uid" del JWT (sin validar la firma).
+     */
+    private static Long userIdFromToken(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        return jsonLong(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8), "uid");
+    }
+
+    private static String jsonText(String json, String field) {
+        try {
+            JsonNode node = MAPPER.readTree(json).get(field);
+            return node != null && !node.isNull() ? node.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Long jsonLong(String json, String field) {
+        try {
+            JsonNode node = MAPPER.readTree(json).get(field);
+            return node != null && node.canConvertToLong() ? node.asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Imagen JPEG sintética de unos 60 KB con contenido aleatorio (cabecera y fin de JPEG válidos).
+     */
+    private static byte[] image(ThreadLocalRandom random) {
+        byte[] data = new byte[40_000 + random.nextInt(40_000)];
+        random.nextBytes(data);
+        data[0] = (byte) 0xFF;
+        data[1] = (byte) 0xD8;
+        data[data.length - 2] = (byte) 0xFF;
+        data[data.length - 1] = (byte) 0xD9;
+        return data;
+    }
+
+    private static byte[] multipart(String boundary, String field, String fileName, byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length + 256);
+        String header = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n";
+        out.writeBytes(header.getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(content);
+        out.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    // ----------------------------------------------------------------------------------------------
+    // Informe
+    // ----------------------------------------------------------------------------------------------
+
+    private Recorder recorder(String operation) {
+        return recorders.computeIfAbsent(operation, key -> new Recorder());
+    }
+
+    private String report(Duration elapsed) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Duración: %.1f s%n%n", seconds));
+        sb.append(String.format(Locale.ROOT, "%-14s %10s %8s %9s %9s %9s %9s %9s  %s%n",
+                "operación", "peticiones", "errores", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "códigos"));
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (String operation : recorders.keySet().stream().sorted().toList()) {
+            Recorder.Snapshot s = recorders.get(operation).snapshot();
+            totalRequests += s.count();
+            totalErrors += s.errors();
+            sb.append(String.format(Locale.ROOT, "%-14s %10d %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+                    operation, s.count(), s.errors(), s.count() / seconds,
+                    s.percentile(50), s.percentile(95), s.percentile(99), s.percentile(100), s.statuses()));
+        }
+        sb.append(String.format(Locale.ROOT, "%nTotal: %d peticiones, %d errores, %.1f req/s%n",
+                totalRequests, totalErrors, totalRequests / seconds));
+        return sb.toString();
+    }
+
+    /**
+     * Latencias de una operación. Guarda todas las muestras (en microsegundos) para calcular los
+     * percentiles exactos al final; con una prueba de minutos son pocos megabytes.
+     */
+    static final class Recorder {
+
+        private long[] samples = new long[1024];
+        private int size;
+        private long errors;
+        private final Map<String, Long> statuses = new LinkedHashMap<>();
+
+        synchronized void success(long nanos) {
+            add(nanos);
+        }
+
+        synchronized void status(int status, long nanos) {
+            error(Integer.toString(status), nanos);
+        }
+
+        /**
+         * Error sin código HTTP: fallo de conexión, trabajo OCR en ERROR o tiempo agotado.
+         */
+        synchronized void error(String label, long nanos) {
+            add(nanos);
+            errors++;
+            statuses.merge(label, 1L, Long::sum);
+        }
+
+        private void add(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos / 1000;
+        }
+
+        synchronized Snapshot snapshot() {
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            return new Snapshot(sorted, errors, statuses.isEmpty() ? "" : statuses.toString());
+        }
+
+        record Snapshot(long[] sorted, long errors, String statuses) {
+
+            long count() {
+                return sorted.length;
+            }
+
+            /**
+             * Percentil por el método del rango más cercano, en milisegundos.
+             */
+            double percentile(double p) {
+                if (sorted.length == 0) {
+                    return 0;
+                }
+                int rank = (int) Math.ceil(p / 100 * sorted.length);
+                return sorted[Math.max(rank, 1) - 1] / 1000.0;
+            }
+        }
+    }
+
+    private static final class Session {
+        String username;
+        String password;
+        String token;
+        Long userId;
+    }
+
+    /**
+     * Lee opciones con el formato --nombre=valor (--nombre sin valor equivale a true).
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+
+    static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] entry = part.trim().split(":");
+            String operation = entry[0].trim().toLowerCase(Locale.ROOT);
+            if (!List.of("login", "listar", "crear", "ocr", "chat").contains(operation)) {
+                throw new IllegalArgumentException("Operación no válida en la mezcla: " + operation);
+            }
+            mix.put(operation, entry.length > 1 ? Integer.parseInt(entry[1].trim()) : 1);
+        }
+        return mix;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        LoadTestDriver driver = new LoadTestDriver(
+                options.getOrDefault("url", "http://localhost:8080"),
+                parseMix(options.getOrDefault("mezcla", "listar:60,crear:25,ocr:10,chat:5")),
+                options.get("usuario"),
+                options.get("password"),
+                Long.parseLong(options.getOrDefault("categoria", "1")),
+                Long.parseLong(options.getOrDefault("pausa", "0")));
+        int users = Integer.parseInt(options.getOrDefault("usuarios", "20"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duracion", "60")));
+
+        System.out.printf(Locale.ROOT, "Prueba de carga contra %s: %d usuarios durante %d s%n%n",
+                driver.baseUrl, users, duration.toSeconds());
+        System.out.print(driver.run(users, duration));
+    }
+}
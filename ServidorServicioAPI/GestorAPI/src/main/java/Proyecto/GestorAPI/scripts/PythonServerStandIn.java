@@ -0,0 +1,356 @@
+package Proyecto.GestorAPI.scripts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor de pruebas que sustituye al servidor Python (OCR + IA) para pruebas de carga.
+ *
+ * Implementa los mismos endpoints que el servidor real, con el mismo formato de petición y respuesta:
+ *
+ * - POST /api/ocr y /api/ocr-file: multipart con el campo "file"; responden con un ticket OCR generado.
+ * - POST /api/aichat: JSON con el campo "mensaje"; responde {"respuesta": "..."}.
+ * - GET /api/status: {"statusServer": true, "demo": ..., "ocrLocal": ...}, sin autenticación.
+ *
+ * Los endpoints de OCR y chat exigen la cabecera "Authorization: Bearer {apiKey}" (401 si no coincide).
+ * Para cada endpoint se puede configurar la latencia ({@link Latency}) y un porcentaje de errores
+ * con el código HTTP que se devuelve. Cada petición se atiende en un hilo virtual, así que la
+ * latencia simulada no limita la concurrencia.
+ *
+ * Se puede arrancar desde otra clase (pruebas) o como programa:
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=Proyecto.GestorAPI.scripts.PythonServerStandIn \
+ *     -Dexec.args="--puerto=5000 --api-key=CREAR_API_KEY --ocr=lognormal:1500:6000 --ocr-errores=0.02:500 --chat=uniform:300:1200"
+ * </pre>
+ *
+ * Opciones: --puerto, --api-key, --demo, --ocr-local y, por endpoint (ocr, ocr-file, chat, status),
+ * --{endpoint}={latencia} y --{endpoint}-errores={proporción}[:{código}].
+ */
+public class PythonServerStandIn {
+
+    /**
+     * Endpoints del servidor Python.
+     */
+    public enum Route {
+        OCR("/api/ocr", "ocr", true),
+        OCR_FILE("/api/ocr-file", "ocr-file", true),
+        AICHAT("/api/aichat", "chat", true),
+        STATUS("/api/status", "status", false);
+
+        final String path;
+        final String option;
+        final boolean requiresApiKey;
+
+        Route(String path, String option, boolean requiresApiKey) {
+            this.path = path;
+            this.option = option;
+            this.requiresApiKey = requiresApiKey;
+        }
+    }
+
+    /**
+     * Comportamiento de un endpoint: latencia y errores simulados.
+     *
+     * @param latency     Distribución de la latencia.
+     * @param errorRate   Proporción de peticiones que fallan (0 a 1).
+     * @param errorStatus Código HTTP de las peticiones que fallan.
+     */
+    public record Profile(Latency latency, double errorRate, int errorStatus) {
+
+        public static Profile of(Latency latency) {
+            return new Profile(latency, 0, 500);
+        }
+
+        public Profile withErrors(double errorRate, int errorStatus) {
+            return new Profile(latency, errorRate, errorStatus);
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final String[] STORES = {"MERCADONA S.A.", "CARREFOUR", "LIDL SUPERMERCADOS", "DIA RETAIL", "ALCAMPO"};
+    private static final String[] PRODUCTS = {
+            "LECHE ENTERA 1L", "PAN DE MOLDE", "HUEVOS L DOCENA", "ACEITE DE OLIVA 1L", "TOMATE TRITURADO",
+            "YOGUR NATURAL X4", "MANZANA GOLDEN", "PECHUGA DE POLLO", "ARROZ REDONDO 1KG", "CAFE MOLIDO"
+    };
+
+    private final int port;
+    private final String apiKey;
+    private final boolean demo;
+    private final boolean ocrLocal;
+    private final Map<Route, Profile> profiles = new EnumMap<>(Route.class);
+    private final Map<Route, AtomicLong> requests = new EnumMap<>(Route.class);
+    private final Map<Route, AtomicLong> errors = new EnumMap<>(Route.class);
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param port   Puerto de escucha (0 para uno libre).
+     * @param apiKey Clave que deben enviar las peticiones de OCR y chat.
+     */
+    public PythonServerStandIn(int port, String apiKey) {
+        this(port, apiKey, false, false);
+    }
+
+    public PythonServerStandIn(int port, String apiKey, boolean demo, boolean ocrLocal) {
+        this.port = port;
+        this.apiKey = apiKey;
+        this.demo = demo;
+        this.ocrLocal = ocrLocal;
+        for (Route route : Route.values()) {
+            profiles.put(route, Profile.of(Latency.NONE));
+            requests.put(route, new AtomicLong());
+            errors.put(route, new AtomicLong());
+        }
+    }
+
+    /**
+     * Configura la latencia y los errores de un endpoint. Debe llamarse antes de {@link #start()}.
+     */
+    public PythonServerStandIn profile(Route route, Profile profile) {
+        profiles.put(route, profile);
+        return this;
+    }
+
+    public PythonServerStandIn start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        for (Route route : Route.values()) {
+            server.createContext(route.path, exchange -> handle(route, exchange));
+        }
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+        }
+    }
+
+    /**
+     * Puerto real de escucha (útil si se arrancó con el puerto 0).
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    /**
+     * Peticiones recibidas y errores simulados por endpoint.
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Route route : Route.values()) {
+            sb.append(String.format(Locale.ROOT, "%-14s peticiones=%d errores=%d%n",
+                    route.path, requests.get(route).get(), errors.get(route).get()));
+        }
+        return sb.toString();
+    }
+
+    private void handle(Route route, HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.get(route).incrementAndGet();
+            String method = route == Route.STATUS ? "GET" : "POST";
+            if (!method.equals(exchange.getRequestMethod())) {
+                send(exchange, 405, Map.of("error", "Método no permitido"));
+                return;
+            }
+            if (route.requiresApiKey && !("Bearer " + apiKey).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                send(exchange, 401, Map.of("error", "Unauthorized"));
+                return;
+            }
+
+            // Se lee el cuerpo completo como haría Flask antes de procesar
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+
+            Profile profile = profiles.get(route);
+            sleep(profile.latency().sample());
+            if (profile.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < profile.errorRate()) {
+                errors.get(route).incrementAndGet();
+                send(exchange, profile.errorStatus(), Map.of("error", "Error simulado en " + route.path));
+                return;
+            }
+
+            switch (route) {
+                case OCR, OCR_FILE -> {
+                    String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                    if (body.length == 0 || contentType == null || !contentType.startsWith("multipart/form-data")) {
+                        send(exchange, 400, Map.of("error", "Tipo de archivo no permitido"));
+                    } else {
+                        send(exchange, 200, ocrResult());
+                    }
+                }
+                case AICHAT -> {
+                    String message = message(body);
+                    if (message == null) {
+                        send(exchange, 400, Map.of("error", "Debe enviar un campo 'mensaje' en JSON"));
+                    } else {
+                        send(exchange, 200, Map.of("respuesta", "Respuesta simulada (" + message.length() + " caracteres recibidos)"));
+                    }
+                }
+                case STATUS -> send(exchange, 200, Map.of("statusServer", true, "demo", demo, "ocrLocal", ocrLocal));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String message(byte[] body) {
+        try {
+            JsonNode json = MAPPER.readTree(body);
+            String message = json != null ? json.path("mensaje").asText(null) : null;
+            return message == null || message.isEmpty() ? null : message;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resultado OCR con el formato del servidor Python, con entre 1 y 30 artículos.
+     */
+    private static Map<String, Object> ocrResult() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int items = 1 + random.nextInt(30);
+        List<Map<String, Object>> articles = new ArrayList<>(items);
+        double total = 0;
+        for (int i = 0; i < items; i++) {
+            int quantity = 1 + random.nextInt(4);
+            double price = Math.round((0.5 + random.nextDouble() * 9) * 100) / 100.0;
+            double subtotal = Math.round(price * quantity * 100) / 100.0;
+            total += subtotal;
+            Map<String, Object> article = new LinkedHashMap<>();
+            article.put("nombre", PRODUCTS[random.nextInt(PRODUCTS.length)]);
+            article.put("cantidad", quantity);
+            article.put("precio", price);
+            article.put("subtotal", subtotal);
+            article.put("categorias", List.of("alimentacion"));
+            articles.add(article);
+        }
+        LocalDateTime date = LocalDateTime.now().minusMinutes(random.nextInt(60 * 24 * 30));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("establecimiento", STORES[random.nextInt(STORES.length)]);
+        result.put("fecha", date.format(DATE_FORMAT));
+        result.put("hora", date.format(TIME_FORMAT));
+        result.put("total", Math.round(total * 100) / 100.0);
+        result.put("iva", 10.0);
+        result.put("categoria", 1);
+        result.put("confianza", Math.round((0.7 + random.nextDouble() * 0.3) * 100) / 100.0);
+        result.put("articulos", articles);
+        return result;
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] json = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = LoadTestDriver.parseOptions(args);
+        PythonServerStandIn standIn = new PythonServerStandIn(
+                Integer.parseInt(options.getOrDefault("puerto", "5000")),
+                options.getOrDefault("api-key", "CREAR_API_KEY"),
+                Boolean.parseBoolean(options.getOrDefault("demo", "false")),
+                Boolean.parseBoolean(options.getOrDefault("ocr-local", "false")));
+        for (Route route : Route.values()) {
+            Profile profile = Profile.of(Latency.parse(options.getOrDefault(route.option, "0")));
+            String errorSpec = options.get(route.option + "-errores");
+            if (errorSpec != null) {
+                String[] parts = errorSpec.split(":");
+                profile = profile.withErrors(Double.parseDouble(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 500);
+            }
+            standIn.profile(route, profile);
+        }
+        standIn.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.print(standIn.summary());
+            standIn.stop();
+        }));
+        System.out.println("Servidor Python de pruebas escuchando en " + standIn.getUrl());
+    }
+
+    /**
+     * Distribución de latencia simulada, en milisegundos.
+     *
+     * Formatos de {@link #parse}:
+     * - {@code 0}: sin latencia.
+     * - {@code fixed:200}: siempre 200 ms.
+     * - {@code uniform:100:400}: uniforme entre 100 y 400 ms.
+     * - {@code lognormal:800:3000}: log-normal con mediana de 800 ms y percentil 99 de 3000 ms,
+     *   la forma habitual de las llamadas a OCR y modelos de IA (cola larga a la derecha).
+     */
+    public interface Latency {
+
+        Latency NONE = () -> 0;
+
+        // Cuantil 0,99 de la normal estándar
+        double Z_99 = 2.3263;
+
+        long sample();
+
+        static Latency fixed(long millis) {
+            return () -> millis;
+        }
+
+        static Latency uniform(long min, long max) {
+            return () -> ThreadLocalRandom.current().nextLong(min, max + 1);
+        }
+
+        static Latency logNormal(double median, double p99) {
+            double sigma = Math.log(p99 / median) / Z_99;
+            return () -> Math.round(median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+
+        static Latency parse(String spec) {
+            String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+            return switch (parts[0]) {
+                case "0", "none" -> NONE;
+                case "fixed" -> fixed(Long.parseLong(parts[1]));
+                case "uniform" -> uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "lognormal" -> logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Latencia no válida: " + spec);
+            };
+        }
+    }
+}
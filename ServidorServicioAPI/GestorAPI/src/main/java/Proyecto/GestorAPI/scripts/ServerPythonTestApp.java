@@ -1,5 +1,6 @@
 package Proyecto.GestorAPI.scripts;
 
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.*;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -14,17 +15,22 @@ import java.io.IOException;
  * Este simulador simula la creación de un archivo (por ejemplo, un ticket de compra),
  * y realiza una solicitud HTTP POST al servidor Python para procesar el OCR (Reconocimiento Óptico de Caracteres).
  * El servidor Python debe estar configurado para recibir archivos y responder con los datos procesados.
+ *
+ * Argumentos (opcionales): archivo, URL del servidor y API key. Por defecto sample_ticket.jpg,
+ * http://localhost:5000 y CREAR_API_KEY, los mismos valores por defecto que usa GestorAPI. Para pruebas
+ * sin el servidor real se puede usar {@link PythonServerStandIn}; para pruebas de carga, {@link LoadTestDriver}.
  */
 public class ServerPythonTestApp {
 
     public static void main(String[] args) {
-        // Simula la creación de un archivo temporal (ajustar el nombre del archivo según sea necesario)
-        File file = new File("sample_ticket.jpg");
+        File file = new File(args.length > 0 ? args[0] : "sample_ticket.jpg");
+        String serverUrl = args.length > 1 ? args[1] : "http://localhost:5000";
+        String apiKey = args.length > 2 ? args[2] : "CREAR_API_KEY";
 
         // Simula la conexión con el servidor Python para procesar el archivo
         try {
-            String response = simulateTicketOCR(file);
-            //System.out.println("Respuesta del servidor Python: " + response);
+            String response = simulateTicketOCR(file, serverUrl, apiKey);
+            System.out.println("Respuesta del servidor Python: " + response);
         } catch (IOException e) {
             System.err.println("Error: " + e.getMessage());
         }
@@ -33,25 +39,32 @@ public class ServerPythonTestApp {
     /**
      * Simula la solicitud al servidor Python para procesar un archivo con OCR.
      *
-     * @param file El archivo de imagen a procesar.
+     * @param file      El archivo de imagen a procesar.
+     * @param serverUrl URL base del servidor Python.
+     * @param apiKey    API key del servidor Python (cabecera Authorization: Bearer).
      * @return La respuesta del servidor, que contiene los datos procesados.
      * @throws IOException Si ocurre algún error durante el proceso de la solicitud.
      */
-    public static String simulateTicketOCR(File file) throws IOException {
+    public static String simulateTicketOCR(File file, String serverUrl, String apiKey) throws IOException {
+        if (!file.isFile()) {
+            throw new IOException("No existe el archivo " + file.getAbsolutePath());
+        }
+
         // Crear una instancia de RestTemplate para realizar solicitudes HTTP
         RestTemplate restTemplate = new RestTemplate();
 
         // Crear el cuerpo de la solicitud con el archivo a enviar
         MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-        body.add("file", file);  // Añadir el archivo a la solicitud
+        body.add("file", new FileSystemResource(file));  // Añadir el archivo a la solicitud
 
         // Configuración de los headers para una solicitud multipart/form-data
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.MULTIPART_FORM_DATA); // Especificar que el contenido es multipart
+        headers.setBearerAuth(apiKey); // El servidor Python exige la API key en todos los endpoints de OCR
         HttpEntity<MultiValueMap<String, Object>> entity = new HttpEntity<>(body, headers); // Crear la entidad con los headers y cuerpo
 
-        // URL del servidor Python que procesa el OCR (asegúrate de que la URL sea correcta)
-        String pythonServerUrl = "http://localhost:5000/procesar";  // Cambia la URL según la configuración de tu servidor Python
+        // Endpoint de OCR de imágenes del servidor Python (el mismo que usa OCRServiceImpl)
+        String pythonServerUrl = serverUrl + "/api/ocr";
 
         try {
             // Realizar la solicitud POST al servidor Python
@@ -22,6 +22,14 @@ public interface CategoryExpenseService {
      */
     Optional<CategoryExpense> getByID(Long id);
 
+    /**
+     * Obtiene una referencia a la categoría para asociarla a un gasto sin cargarla de la base de datos.
+     *
+     * @param id El ID de la categoría.
+     * @return Referencia a la categoría, o null si no existe.
+     */
+    CategoryExpense getReference(Long id);
+
     /**
      * Establece o guarda una nueva categoría de gasto (crea o actualiza).
      *
@@ -0,0 +1,48 @@
+package Proyecto.GestorAPI.services;
+
+import Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardDto;
+
+import java.util.List;
+
+/**
+ * Clasificaciones públicas de tiendas, productos y subscripciones.
+ *
+ * Se calculan periódicamente para cada ventana configurada y se sirven desde memoria, sin
+ * consultar la base de datos en cada petición.
+ */
+public interface LeaderboardService {
+
+    /**
+     * Clasificaciones disponibles.
+     */
+    enum Board {
+        /** Tiendas con más tickets. */
+        TIENDAS,
+        /** Productos comprados más veces. */
+        PRODUCTOS,
+        /** Subscripciones con más usuarios cobrados. */
+        SUBSCRIPCIONES
+    }
+
+    /**
+     * Obtiene la última clasificación calculada.
+     *
+     * @param board   Clasificación.
+     * @param ventana Ventana configurada (por ejemplo 7d, 30d o all).
+     * @return Clasificación (vacía si aún no se ha calculado).
+     * @throws IllegalArgumentException si la ventana no está configurada.
+     */
+    LeaderboardDto get(Board board, String ventana);
+
+    /**
+     * Ventanas configuradas.
+     *
+     * @return Nombres de las ventanas en el orden de configuración.
+     */
+    List<String> getWindows();
+
+    /**
+     * Recalcula todas las clasificaciones y sustituye las publicadas.
+     */
+    void refresh();
+}
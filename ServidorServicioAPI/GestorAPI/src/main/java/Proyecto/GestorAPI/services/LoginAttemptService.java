@@ -1,8 +1,8 @@
 package Proyecto.GestorAPI.services;
 
 import Proyecto.GestorAPI.models.LoginAttempt;
-import jakarta.transaction.Transactional;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -14,15 +14,42 @@ public interface LoginAttemptService {
     /**
      * Registra un intento de inicio de sesión para un usuario.
      * Marca si el intento fue exitoso o no.
-     * La operación se ejecuta en una transacción.
+     * El contador de bloqueo se actualiza en memoria y el registro se guarda en segundo plano.
      *
      * @param username Nombre de usuario del intento de login.
      * @param success  Indica si el intento fue exitoso (true) o fallido (false).
      * @return true si el registro fue exitoso, false en caso contrario.
      */
-    @Transactional
     boolean registerLoginAttempt(String username, boolean success);
 
+    /**
+     * Registra un intento de inicio de sesión indicando la IP de origen.
+     *
+     * @param username Nombre de usuario del intento de login.
+     * @param ip       Dirección IP del cliente (puede ser null).
+     * @param success  Indica si el intento fue exitoso (true) o fallido (false).
+     * @return El valor de success.
+     */
+    boolean registerLoginAttempt(String username, String ip, boolean success);
+
+    /**
+     * Indica si el usuario o la IP están bloqueados por intentos fallidos recientes.
+     *
+     * @param username Nombre de usuario.
+     * @param ip       Dirección IP del cliente (puede ser null).
+     * @return true si alguno de los dos ha alcanzado el máximo de fallos.
+     */
+    boolean isBlocked(String username, String ip);
+
+    /**
+     * Tiempo restante hasta que el usuario y la IP dejen de estar bloqueados.
+     *
+     * @param username Nombre de usuario.
+     * @param ip       Dirección IP del cliente (puede ser null).
+     * @return Duración restante, o cero si no hay bloqueo.
+     */
+    Duration timeUntilUnlock(String username, String ip);
+
     /**
      * Obtiene todos los registros de intentos de inicio de sesión.
      *
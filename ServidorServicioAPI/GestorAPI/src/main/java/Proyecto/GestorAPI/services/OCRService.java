@@ -31,25 +31,28 @@ public interface OCRService {
     String sendFileForOCR(File file, boolean imagen) throws IOException;
 
     /**
-     * Procesa una imagen que contiene un ticket, extrayendo la información relevante y generando un objeto Ticket.
+     * Procesa un ticket digital (no imagen) a partir de un archivo MultipartFile,
+     * extrayendo la información relevante y generando un objeto Ticket.
      *
-     * @param file Archivo MultipartFile que contiene la imagen del ticket.
+     * @param file Archivo MultipartFile que contiene el ticket digital.
      * @param user Usuario asociado al ticket.
      * @return Objeto Ticket con la información extraída.
      * @throws IOException Si ocurre un error en la lectura del archivo.
-     * @throws ErrorPharseJsonException Si hay un error al parsear el JSON resultante del OCR.
      */
-    Ticket processImageTicket(MultipartFile file, User user) throws IOException, ErrorPharseJsonException;
+    Ticket proccessDigitalTicket(MultipartFile file, User user) throws IOException;
 
     /**
-     * Procesa un ticket digital (no imagen) a partir de un archivo MultipartFile,
-     * extrayendo la información relevante y generando un objeto Ticket.
+     * Extrae un ticket de una imagen ya guardada en el almacenamiento (trabajos OCR asíncronos).
+     * La imagen guardada pasa a ser el icono del ticket. El ticket no se guarda: quien llama lo
+     * guarda junto con su propio estado, en la misma transacción.
      *
-     * @param file Archivo MultipartFile que contiene el ticket digital.
+     * @param storedPath Ruta relativa de la imagen guardada.
+     * @param contentHash SHA-256 de la imagen para la caché de resultados, o null para calcularlo.
      * @param user Usuario asociado al ticket.
-     * @return Objeto Ticket con la información extraída.
-     * @throws IOException Si ocurre un error en la lectura del archivo.
+     * @return Ticket sin guardar con la información extraída.
+     * @throws IOException Si falla la lectura del archivo o la comunicación con el servicio OCR.
+     * @throws ErrorPharseJsonException Si hay un error al parsear el JSON resultante del OCR.
      */
-    Ticket proccessDigitalTicket(MultipartFile file, User user) throws IOException;
+    Ticket mappingStoredImageTicket(String storedPath, String contentHash, User user) throws IOException, ErrorPharseJsonException;
 
 }
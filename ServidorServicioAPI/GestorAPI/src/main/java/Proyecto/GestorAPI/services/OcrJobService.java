@@ -0,0 +1,35 @@
+package Proyecto.GestorAPI.services;
+
+import Proyecto.GestorAPI.models.OcrJob;
+import Proyecto.GestorAPI.models.User;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Servicio de trabajos OCR asíncronos.
+ * Guarda el archivo subido, crea un trabajo y lo procesa en segundo plano con un número
+ * limitado de trabajadores, repartiendo el turno entre usuarios de forma equitativa.
+ */
+public interface OcrJobService {
+
+    /**
+     * Guarda la imagen de un ticket y encola su procesamiento OCR.
+     *
+     * @param file Imagen del ticket.
+     * @param user Usuario que sube el ticket.
+     * @return Trabajo creado en estado PENDIENTE.
+     * @throws IOException Si falla el guardado del archivo.
+     * @throws Proyecto.GestorAPI.exceptions.OcrQueueFullException Si la cola global o la del usuario están llenas.
+     */
+    OcrJob submitImageTicket(MultipartFile file, User user) throws IOException;
+
+    /**
+     * Obtiene un trabajo por su ID.
+     *
+     * @param id ID del trabajo.
+     * @return Trabajo, o vacío si no existe.
+     */
+    Optional<OcrJob> getByID(Long id);
+}
@@ -0,0 +1,40 @@
+package Proyecto.GestorAPI.services;
+
+import Proyecto.GestorAPI.modelsDTO.spent.BulkImportResultDto;
+
+import java.io.InputStream;
+
+public interface SpentBulkImportService {
+
+    /**
+     * Formatos admitidos por la importación masiva de gastos.
+     */
+    enum Format {
+        /**
+         * Valores separados por comas (o punto y coma) con cabecera; las columnas se llaman como los campos de BulkSpentRow.
+         */
+        CSV,
+
+        /**
+         * Array JSON de objetos BulkSpentRow.
+         */
+        JSON
+    }
+
+    /**
+     * Importa gastos leyendo el cuerpo como un flujo, fila a fila, sin cargarlo entero en memoria.
+     *
+     * Cada fila se valida por separado; las válidas se guardan en bloques, cada uno en su propia
+     * transacción con inserciones por lotes JDBC. Una fila inválida no impide guardar las demás.
+     * Si la lectura se interrumpe (formato roto, máximo de filas superado) se guardan las filas
+     * leídas hasta ese momento y el motivo se indica en el informe.
+     *
+     * @param userId  Id del usuario al que se asignan los gastos.
+     * @param format  Formato del cuerpo.
+     * @param in      Cuerpo de la petición (no se cierra).
+     * @param detail  true para incluir en el informe el resultado de todas las filas, false solo las rechazadas.
+     * @return Informe de la importación.
+     * @throws IllegalArgumentException si el usuario no existe, la cabecera CSV no es válida o el JSON no empieza por un array.
+     */
+    BulkImportResultDto importSpents(Long userId, Format format, InputStream in, boolean detail);
+}
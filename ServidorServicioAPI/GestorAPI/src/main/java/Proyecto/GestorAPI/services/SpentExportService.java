@@ -0,0 +1,36 @@
+package Proyecto.GestorAPI.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface SpentExportService {
+
+    /**
+     * Formatos soportados por la exportación de gastos.
+     */
+    enum Format {
+        /**
+         * Un objeto JSON (SpentFullDto) por línea.
+         */
+        NDJSON,
+
+        /**
+         * Valores separados por comas con cabecera.
+         */
+        CSV
+    }
+
+    /**
+     * Exporta el historial completo de gastos escribiéndolo directamente en el flujo de salida.
+     *
+     * Los gastos se leen de la base de datos como un flujo (cursor de solo avance) y cada fila
+     * se escribe y se libera antes de leer la siguiente, por lo que la memoria usada no depende
+     * del tamaño del historial.
+     *
+     * @param userId Id del usuario cuyos gastos se exportan, o null para exportar todos (solo administradores).
+     * @param format Formato de salida.
+     * @param out    Flujo de salida (no se cierra).
+     * @throws IOException si falla la escritura.
+     */
+    void exportSpents(Long userId, Format format, OutputStream out) throws IOException;
+}
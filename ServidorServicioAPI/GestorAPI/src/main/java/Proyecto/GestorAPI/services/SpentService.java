@@ -2,7 +2,11 @@ package Proyecto.GestorAPI.services;
 
 import Proyecto.GestorAPI.models.Spent;
 import Proyecto.GestorAPI.modelsDTO.spent.CreateSpentRequest;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentCursor;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentDto;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentFilterRequest;
 import Proyecto.GestorAPI.modelsDTO.spent.SpentFullDto;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentPageDto;
 import Proyecto.GestorAPI.modelsDTO.spent.UpdateSpentRequest;
 
 import java.util.List;
@@ -69,6 +73,21 @@ public interface SpentService {
      */
     List<Spent> getSpentsByUserId(Long clienteId);
 
+    /**
+     * Obtiene todos los gastos directamente como DTO, sin cargar entidades.
+     *
+     * @return Lista de todos los gastos en formato DTO.
+     */
+    List<SpentDto> getAllSpentDtos();
+
+    /**
+     * Obtiene los gastos de un usuario directamente como DTO, sin cargar entidades.
+     *
+     * @param clienteId El ID del usuario para obtener sus gastos.
+     * @return Lista de gastos del usuario en formato DTO.
+     */
+    List<SpentDto> getSpentDtosByUserId(Long clienteId);
+
     /**
      * Cuenta el número total de gastos asociados a un usuario.
      *
@@ -84,6 +103,17 @@ public interface SpentService {
      */
     int getCountSpents();
 
+    /**
+     * Obtiene una página de gastos filtrados en base de datos usando paginación por cursor.
+     *
+     * @param userId Usuario propietario, o null para todos los usuarios (solo administradores).
+     * @param filter Filtros opcionales (fechas, categoría, tipo, importes).
+     * @param cursor Cursor de la página anterior, o null para la primera página.
+     * @param limit  Número máximo de gastos de la página.
+     * @return Página de gastos con el cursor de la siguiente página.
+     */
+    SpentPageDto getSpentsPage(Long userId, SpentFilterRequest filter, SpentCursor cursor, int limit);
+
     Spent mappingUpdateSpent(UpdateSpentRequest request, Long clienteId);
 
     Spent mappingSpent(CreateSpentRequest request, Long clienteId);
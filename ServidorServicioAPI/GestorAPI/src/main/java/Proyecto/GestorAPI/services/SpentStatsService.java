@@ -0,0 +1,92 @@
+package Proyecto.GestorAPI.services;
+
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsDto;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsSnapshot;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+public interface SpentStatsService {
+
+    /**
+     * Agrupaciones disponibles para el resumen de gastos.
+     */
+    enum Grouping {
+        /**
+         * Una fila por mes, categoría y clase de gasto.
+         */
+        DETALLE,
+        /**
+         * Una fila por mes.
+         */
+        MES,
+        /**
+         * Una fila por año.
+         */
+        ANIO,
+        /**
+         * Una fila por categoría en todo el rango.
+         */
+        CATEGORIA,
+        /**
+         * Una fila por clase de gasto en todo el rango.
+         */
+        TIPO
+    }
+
+    /**
+     * Lee los valores actualmente almacenados de un gasto (antes de modificarlo o eliminarlo).
+     *
+     * @param spentId Id del gasto, puede ser null para gastos nuevos.
+     * @return Valores almacenados, o vacío si el gasto no existe todavía.
+     */
+    Optional<SpentStatsSnapshot> snapshot(Long spentId);
+
+    /**
+     * Aplica sobre el resumen mensual la diferencia entre el estado anterior y el nuevo de un gasto.
+     *
+     * @param before Estado anterior (null si el gasto es nuevo).
+     * @param after  Estado nuevo (null si el gasto se ha eliminado).
+     */
+    void applyChange(SpentStatsSnapshot before, SpentStatsSnapshot after);
+
+    /**
+     * Suma al resumen mensual un conjunto de gastos nuevos (altas masivas).
+     * Los gastos se agrupan por fila del resumen, de modo que se aplica una única actualización
+     * por usuario, mes, categoría y clase de gasto en lugar de una por gasto.
+     *
+     * @param added Estado de los gastos creados.
+     */
+    void applyBatch(List<SpentStatsSnapshot> added);
+
+    /**
+     * Obtiene el resumen de gastos entre dos meses (ambos incluidos).
+     *
+     * @param userId   Usuario, o null para todos los usuarios (solo administradores).
+     * @param desde    Primer mes del rango.
+     * @param hasta    Último mes del rango.
+     * @param grouping Agrupación de los resultados.
+     * @return Filas del resumen ordenadas por periodo.
+     */
+    List<SpentStatsDto> getStats(Long userId, YearMonth desde, YearMonth hasta, Grouping grouping);
+
+    /**
+     * Reconstruye el resumen de un usuario a partir de la tabla de gastos.
+     *
+     * @param userId Id del usuario.
+     */
+    void rebuildForUser(Long userId);
+
+    /**
+     * Reconstruye el resumen de todos los usuarios, uno por transacción, y elimina las filas huérfanas.
+     */
+    void rebuildAll();
+
+    /**
+     * Elimina el resumen de un usuario (por ejemplo, al eliminar el usuario).
+     *
+     * @param userId Id del usuario.
+     */
+    void deleteByUserId(Long userId);
+}
@@ -0,0 +1,97 @@
+package Proyecto.GestorAPI.services;
+
+import Proyecto.GestorAPI.models.StatementRule;
+import Proyecto.GestorAPI.modelsDTO.statement.StatementImportResultDto;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Optional;
+
+public interface StatementImportService {
+
+    /**
+     * Formatos de extracto admitidos.
+     */
+    enum Format {
+        /**
+         * CSV con cabecera (fecha, concepto e importe, o cargo/abono).
+         */
+        CSV,
+
+        /**
+         * Open Financial Exchange (SGML 1.x o XML 2.x).
+         */
+        OFX,
+
+        /**
+         * Quicken Interchange Format.
+         */
+        QIF;
+
+        /**
+         * Deduce el formato a partir de la extensión del fichero.
+         *
+         * @param fileName Nombre del fichero, puede ser null.
+         * @return Formato, o null si la extensión no es conocida.
+         */
+        public static Format fromFileName(String fileName) {
+            if (fileName == null) {
+                return null;
+            }
+            String name = fileName.toLowerCase();
+            if (name.endsWith(".ofx") || name.endsWith(".qfx")) {
+                return OFX;
+            }
+            if (name.endsWith(".qif")) {
+                return QIF;
+            }
+            if (name.endsWith(".csv") || name.endsWith(".txt")) {
+                return CSV;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Importa los cargos de un extracto bancario como gastos del usuario.
+     *
+     * El extracto se lee movimiento a movimiento con memoria constante. Cada cargo se clasifica con
+     * las reglas de extracto (clase de gasto y categoría) y se guarda por bloques con inserciones
+     * por lotes; los abonos se cuentan pero no se importan.
+     *
+     * @param userId  Id del usuario al que se asignan los gastos.
+     * @param format  Formato del extracto.
+     * @param in      Contenido del extracto (no se cierra).
+     * @param charset Codificación del texto.
+     * @return Resumen de la importación.
+     * @throws IllegalArgumentException si el usuario no existe o no se reconoce la cabecera del CSV.
+     */
+    StatementImportResultDto importStatement(Long userId, Format format, InputStream in, Charset charset);
+
+    /**
+     * @return Todas las reglas de clasificación en orden de evaluación.
+     */
+    List<StatementRule> getRules();
+
+    /**
+     * @param id Id de la regla.
+     * @return Regla, o vacío si no existe.
+     */
+    Optional<StatementRule> getRule(Long id);
+
+    /**
+     * Crea o actualiza una regla de clasificación.
+     *
+     * @param rule Regla a guardar.
+     * @return Regla guardada.
+     */
+    StatementRule saveRule(StatementRule rule);
+
+    /**
+     * Elimina una regla de clasificación.
+     *
+     * @param id Id de la regla.
+     */
+    void deleteRule(Long id);
+}
@@ -20,6 +20,17 @@ public interface StorageService {
      */
     String saveImageData(String folderPath, MultipartFile file) throws IOException;
 
+    /**
+     * Guarda un archivo en la ruta especificada calculando a la vez su SHA-256,
+     * en una única pasada sobre los datos subidos.
+     *
+     * @param folderPath Ruta de la carpeta donde se guardará el archivo.
+     * @param file Archivo a guardar.
+     * @return Ruta con la que se guardó el archivo y hash de su contenido.
+     * @throws IOException Si ocurre un error durante el guardado.
+     */
+    StoredFile saveHashedData(String folderPath, MultipartFile file) throws IOException;
+
     /**
      * Elimina un archivo de imagen o archivo en la ruta especificada.
      *
@@ -28,11 +39,15 @@ public interface StorageService {
     boolean deleteImageData(String filePath);
 
     /**
-     * Guarda un archivo cualquiera y devuelve la ruta donde fue guardado.
+     * Obtiene la ruta absoluta en disco de un archivo guardado a partir de su ruta relativa.
      *
-     * @param file Archivo a guardar.
-     * @return Path con la ruta donde fue guardado el archivo.
-     * @throws IOException Si ocurre un error durante el guardado.
+     * @param filePath Ruta relativa devuelta al guardar el archivo.
+     * @return Path absoluto del archivo.
+     */
+    Path resolvePath(String filePath);
+
+    /**
+     * Archivo guardado junto con el hash SHA-256 (hexadecimal) de su contenido.
      */
-    Path saveFile(MultipartFile file) throws IOException;
+    record StoredFile(String path, String sha256) {}
 }
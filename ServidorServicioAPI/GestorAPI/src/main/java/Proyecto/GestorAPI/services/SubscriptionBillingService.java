@@ -0,0 +1,54 @@
+package Proyecto.GestorAPI.services;
+
+import Proyecto.GestorAPI.models.Subscription;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionBillingResultDto;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionChargeDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Cobro periódico de subscripciones.
+ *
+ * Cada subscripción activa guarda la fecha de su próximo cargo. El proceso de cobro registra los
+ * ciclos vencidos en cargos_subscripcion, suma su importe (total más IVA) al acumulado y avanza la
+ * fecha; al superar la fecha de finalización la subscripción se desactiva. Los ciclos son mensuales
+ * en el día de renovación cuando el intervalo es múltiplo de 30 (30 = cada mes, 360 = cada año) y,
+ * en otro caso, cada intervalTime días.
+ */
+public interface SubscriptionBillingService {
+
+    /**
+     * Aplica los cargos vencidos hasta la fecha indicada. Es idempotente: repetir la ejecución
+     * (o reanudarla tras un reinicio) no vuelve a cobrar los ciclos ya registrados.
+     *
+     * @param today Fecha de cobro.
+     * @return Resumen de la ejecución.
+     */
+    SubscriptionBillingResultDto runBilling(LocalDate today);
+
+    /**
+     * Programa el cobro de una subscripción recién creada. El ciclo de inicio se registra como
+     * cargo sin sumarlo al acumulado, que ya lo incluye al crear la subscripción.
+     *
+     * @param subscription Subscripción guardada; se actualiza su próximo cargo.
+     */
+    void scheduleBilling(Subscription subscription);
+
+    /**
+     * Calcula el primer ciclo de la subscripción posterior a una fecha.
+     *
+     * @param subscription Subscripción.
+     * @param date         Fecha de referencia (exclusiva).
+     * @return Fecha del ciclo, o null si cae después de la fecha de finalización.
+     */
+    LocalDate nextChargeAfter(Subscription subscription, LocalDate date);
+
+    /**
+     * Obtiene los cargos registrados de una subscripción.
+     *
+     * @param subscriptionId Id de la subscripción.
+     * @return Cargos del más reciente al más antiguo.
+     */
+    List<SubscriptionChargeDto> getCharges(Long subscriptionId);
+}
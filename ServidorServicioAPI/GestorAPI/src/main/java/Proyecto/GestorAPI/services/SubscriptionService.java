@@ -1,6 +1,7 @@
 package Proyecto.GestorAPI.services;
 
 import Proyecto.GestorAPI.models.Subscription;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionDto;
 
 import java.util.List;
 import java.util.Optional;
@@ -66,4 +67,19 @@ public interface SubscriptionService {
      * @return Una lista de objetos `Subscription` correspondientes al usuario especificado.
      */
     List<Subscription> getSubscriptionsByUserId(Long clienteId);
+
+    /**
+     * Obtiene todas las suscripciones directamente como DTO, sin cargar entidades.
+     *
+     * @return Una lista de `SubscriptionDto` con todas las suscripciones.
+     */
+    List<SubscriptionDto> getAllSubscriptionDtos();
+
+    /**
+     * Obtiene las suscripciones de un usuario directamente como DTO, sin cargar entidades.
+     *
+     * @param clienteId El ID del usuario.
+     * @return Una lista de `SubscriptionDto` del usuario especificado.
+     */
+    List<SubscriptionDto> getSubscriptionDtosByUserId(Long clienteId);
 }
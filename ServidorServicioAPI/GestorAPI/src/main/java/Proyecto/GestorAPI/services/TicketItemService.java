@@ -0,0 +1,69 @@
+package Proyecto.GestorAPI.services;
+
+import Proyecto.GestorAPI.models.Ticket;
+import Proyecto.GestorAPI.modelsDTO.product.ProductReindexResultDto;
+import Proyecto.GestorAPI.modelsDTO.product.ProductSummaryDto;
+import Proyecto.GestorAPI.modelsDTO.product.TicketItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Líneas de producto de los tickets.
+ *
+ * Mantiene la tabla ticket_items a partir del JSON de productos de cada ticket y resuelve las
+ * búsquedas y agregados por producto sobre ella. Los nombres se comparan normalizados (minúsculas,
+ * sin acentos ni espacios repetidos) y por prefijo: "leche" incluye "Leche entera" y "LECHE DESN.".
+ */
+public interface TicketItemService {
+
+    /**
+     * Orden de los productos agregados.
+     */
+    enum Order {
+        GASTO, CANTIDAD, COMPRAS
+    }
+
+    /**
+     * Regenera las líneas de un ticket a partir de su JSON de productos.
+     * Debe llamarse dentro de la transacción que guarda el ticket.
+     *
+     * @param ticket Ticket guardado (con ID).
+     * @param isNew  true si el ticket se acaba de crear y por tanto no tiene líneas previas.
+     */
+    void replaceItems(Ticket ticket, boolean isNew);
+
+    /**
+     * Busca las líneas de producto de un usuario por nombre.
+     *
+     * @param userId Usuario.
+     * @param query  Nombre o comienzo del nombre del producto.
+     * @param desde  Fecha mínima, inclusive (opcional).
+     * @param hasta  Fecha máxima, exclusive (opcional).
+     * @param limit  Número máximo de líneas.
+     * @return Líneas de la más reciente a la más antigua.
+     */
+    List<TicketItemDto> search(Long userId, String query, LocalDateTime desde, LocalDateTime hasta, int limit);
+
+    /**
+     * Agrega por producto las compras de un usuario.
+     *
+     * @param userId Usuario.
+     * @param query  Nombre o comienzo del nombre del producto (opcional: todos los productos).
+     * @param exact  true para comparar el nombre completo en lugar del prefijo.
+     * @param desde  Fecha mínima, inclusive (opcional).
+     * @param hasta  Fecha máxima, exclusive (opcional).
+     * @param order  Criterio de orden.
+     * @param limit  Número máximo de productos.
+     * @return Productos agregados.
+     */
+    List<ProductSummaryDto> summarize(Long userId, String query, boolean exact, LocalDateTime desde,
+                                      LocalDateTime hasta, Order order, int limit);
+
+    /**
+     * Regenera las líneas de producto de todos los tickets, por bloques de ID.
+     *
+     * @return Resumen de la regeneración.
+     */
+    ProductReindexResultDto reindexAll();
+}
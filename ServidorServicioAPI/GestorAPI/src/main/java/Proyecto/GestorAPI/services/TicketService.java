@@ -4,7 +4,7 @@ import Proyecto.GestorAPI.exceptions.ErrorPharseJsonException;
 import Proyecto.GestorAPI.models.Ticket;
 import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.modelsDTO.ticket.CreateTicketRequest;
-import Proyecto.GestorAPI.modelsDTO.ticket.TicketResponse;
+import Proyecto.GestorAPI.modelsDTO.ticket.TicketDto;
 import Proyecto.GestorAPI.modelsDTO.ticket.UpdateTicketRequest;
 
 import java.util.List;
@@ -74,6 +74,21 @@ public interface TicketService {
      */
     List<Ticket> getTicketsByUserId(Long clienteId);
 
+    /**
+     * Obtiene todos los tickets directamente como DTO, sin cargar entidades.
+     *
+     * @return Una lista de `TicketDto` con todos los tickets.
+     */
+    List<TicketDto> getAllTicketDtos();
+
+    /**
+     * Obtiene los tickets de un cliente directamente como DTO, sin cargar entidades.
+     *
+     * @param clienteId El ID del cliente cuyos tickets se desean obtener.
+     * @return Una lista de `TicketDto` asociados al cliente indicado.
+     */
+    List<TicketDto> getTicketDtosByUserId(Long clienteId);
+
     /**
      * Mapea y crea un objeto `Ticket` a partir de una solicitud de creación de ticket.
      *
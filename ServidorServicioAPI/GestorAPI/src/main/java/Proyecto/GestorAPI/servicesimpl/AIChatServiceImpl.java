@@ -20,10 +20,15 @@ import java.util.Map;
 public class AIChatServiceImpl implements AIChatService {
 
     /**
-     * Cliente RestTemplate para realizar llamadas HTTP.
+     * Cliente RestTemplate compartido (pool de conexiones) para realizar llamadas HTTP.
      */
     private final RestTemplate restTemplate;
 
+    /**
+     * Cortocircuito y límite de concurrencia de las llamadas al servidor Python.
+     */
+    private final PythonServerGuard pythonServerGuard;
+
     /**
      * URL base del servidor Python que expone la API de IA, inyectada desde propiedades.
      */
@@ -37,10 +42,11 @@ public class AIChatServiceImpl implements AIChatService {
     private String apiKey;
 
     /**
-     * Constructor por defecto que inicializa el RestTemplate.
+     * Constructor que recibe el RestTemplate compartido con el resto de llamadas al servidor Python.
      */
-    public AIChatServiceImpl() {
-        this.restTemplate = new RestTemplate();
+    public AIChatServiceImpl(RestTemplate restTemplate, PythonServerGuard pythonServerGuard) {
+        this.restTemplate = restTemplate;
+        this.pythonServerGuard = pythonServerGuard;
     }
 
     /**
@@ -49,6 +55,7 @@ public class AIChatServiceImpl implements AIChatService {
      * @param mensaje Texto que se desea enviar a la IA.
      * @return Respuesta textual proporcionada por la IA.
      * @throws RuntimeException si la respuesta HTTP no es exitosa.
+     * @throws Proyecto.GestorAPI.exceptions.PythonServerUnavailableException si el servidor está caído o saturado.
      */
     @Override
     public String enviarMensaje(String mensaje) {
@@ -68,7 +75,8 @@ public class AIChatServiceImpl implements AIChatService {
         HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
 
         // Realización de la llamada POST a la API externa y recepción de la respuesta
-        ResponseEntity<Map> response = restTemplate.postForEntity(endpoint, request, Map.class);
+        ResponseEntity<Map> response = pythonServerGuard.execute(PythonServerGuard.Bulkhead.CHAT,
+                () -> restTemplate.postForEntity(endpoint, request, Map.class));
 
         // Validación del código de estado HTTP para determinar éxito
         if (response.getStatusCode().is2xxSuccessful()) {
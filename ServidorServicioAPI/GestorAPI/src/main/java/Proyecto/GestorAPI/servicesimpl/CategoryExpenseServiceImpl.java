@@ -3,12 +3,24 @@ package Proyecto.GestorAPI.servicesimpl;
 import Proyecto.GestorAPI.models.CategoryExpense;
 import Proyecto.GestorAPI.repositories.CategoryExpenseRepository;
 import Proyecto.GestorAPI.services.CategoryExpenseService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Servicio de categorías de gastos.
+ *
+ * Las categorías son datos de referencia que apenas cambian y se consultan en cada alta o
+ * modificación de gastos y en cada página del panel, así que se mantienen en una caché en memoria
+ * inmutable: se carga al arrancar y se sustituye entera (copy-on-write) tras cada escritura.
+ * Las lecturas devuelven copias, de modo que modificar un resultado no altera la caché.
+ */
 @Service
 public class CategoryExpenseServiceImpl implements CategoryExpenseService {
 
@@ -16,30 +28,59 @@ public class CategoryExpenseServiceImpl implements CategoryExpenseService {
     @Autowired
     private CategoryExpenseRepository repository;
 
+    // Instantánea inmutable de las categorías por ID, en orden de ID
+    private volatile Map<Long, CategoryExpense> categories = Map.of();
+
+    /**
+     * Carga la caché de categorías al arrancar.
+     */
+    @PostConstruct
+    public void reload() {
+        Map<Long, CategoryExpense> snapshot = new LinkedHashMap<>();
+        for (CategoryExpense category : repository.findAll()) {
+            snapshot.put(category.getId(), copyOf(category));
+        }
+        categories = Collections.unmodifiableMap(snapshot);
+    }
+
     /**
      * Obtiene todas las categorías de gastos.
      *
-     * Este método consulta la base de datos para obtener una lista de todas las categorías de gastos.
+     * Este método devuelve copias de las categorías de la caché, sin consultar la base de datos.
      *
      * @return Una lista con todas las categorías de gastos.
      */
     @Override
     public List<CategoryExpense> getAll() {
-        return repository.findAll();
+        return categories.values().stream().map(CategoryExpenseServiceImpl::copyOf).toList();
     }
 
     /**
      * Obtiene una categoría de gasto por su ID.
      *
-     * Este método busca una categoría de gasto específica a partir de su ID. Si la categoría existe,
-     * se devuelve un `Optional` con el objeto `CategoryExpense`. Si no se encuentra, se devuelve un `Optional` vacío.
+     * Este método busca una categoría de gasto específica a partir de su ID en la caché. Si la categoría existe,
+     * se devuelve un `Optional` con una copia del objeto `CategoryExpense`. Si no se encuentra, se devuelve un `Optional` vacío.
      *
      * @param id El ID de la categoría de gasto a buscar.
      * @return Un `Optional` que contiene la categoría de gasto si se encuentra, o un `Optional.empty()` si no.
      */
     @Override
     public Optional<CategoryExpense> getByID(Long id) {
-        return repository.findById(id);
+        return Optional.ofNullable(id == null ? null : categories.get(id)).map(CategoryExpenseServiceImpl::copyOf);
+    }
+
+    /**
+     * Obtiene una referencia a la categoría para asignarla a un gasto, sin consultarla.
+     *
+     * La existencia se comprueba en la caché y se devuelve un proxy de JPA ({@code getReferenceById}),
+     * con el que se guarda la clave ajena sin ejecutar un SELECT de la categoría.
+     *
+     * @param id El ID de la categoría.
+     * @return Referencia a la categoría, o null si no existe.
+     */
+    @Override
+    public CategoryExpense getReference(Long id) {
+        return id != null && categories.containsKey(id) ? repository.getReferenceById(id) : null;
     }
 
     /**
@@ -49,12 +90,28 @@ public class CategoryExpenseServiceImpl implements CategoryExpenseService {
      * objeto `CategoryExpense` ya existe, se actualizará con la nueva información. Si no, se creará un nuevo
      * registro en la base de datos.
      *
+     * Si la categoría ya existe se actualizan sus datos sobre la entidad gestionada, conservando su
+     * colección de gastos (los objetos devueltos por la caché son copias sin ella). Tras guardar
+     * se reconstruye la caché.
+     *
      * @param o El objeto `CategoryExpense` que se desea guardar o actualizar.
      * @return El objeto `CategoryExpense` guardado o actualizado.
      */
     @Override
     public CategoryExpense setItem(CategoryExpense o) {
-        return repository.save(o);
+        CategoryExpense toSave = o;
+        if (o.getId() != null) {
+            Optional<CategoryExpense> existing = repository.findById(o.getId());
+            if (existing.isPresent()) {
+                toSave = existing.get();
+                toSave.setName(o.getName());
+                toSave.setDescription(o.getDescription());
+                toSave.setIva(o.getIva());
+            }
+        }
+        CategoryExpense saved = repository.save(toSave);
+        reload();
+        return saved;
     }
 
     /**
@@ -67,7 +124,11 @@ public class CategoryExpenseServiceImpl implements CategoryExpenseService {
      */
     @Override
     public void deleteByID(Long id) {
-        repository.deleteById(id);
+        try {
+            repository.deleteById(id);
+        } finally {
+            reload();
+        }
     }
 
     /**
@@ -80,6 +141,14 @@ public class CategoryExpenseServiceImpl implements CategoryExpenseService {
      */
     @Override
     public boolean existsById(Long id) {
-        return repository.existsById(id);
+        return id != null && categories.containsKey(id);
+    }
+
+    /**
+     * Copia desacoplada de la sesión JPA (sin la colección de gastos).
+     */
+    private static CategoryExpense copyOf(CategoryExpense c) {
+        return new CategoryExpense(c.getId(), c.getName(), c.getDescription(), c.getIva(),
+                c.getCreatedAt(), c.getUpdatedAt(), null);
     }
 }
@@ -0,0 +1,131 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) registro a registro, sin cargar el fichero en memoria.
+ *
+ * Admite campos entre comillas con separadores, saltos de línea y comillas dobladas ({@code ""}),
+ * finales de línea LF o CRLF y la marca BOM inicial de UTF-8. El separador (coma o punto y coma,
+ * habitual en hojas de cálculo en español) se detecta a partir de la cabecera.
+ */
+public class CsvReader {
+
+    private static final int BOM = 0xFEFF;
+
+    private final BufferedReader in;
+    private final char separator;
+    private final StringBuilder field = new StringBuilder(64);
+    private long records;
+
+    private CsvReader(BufferedReader in, char separator) {
+        this.in = in;
+        this.separator = separator;
+    }
+
+    /**
+     * Abre el lector detectando el separador en la primera línea.
+     *
+     * @param reader Origen de los datos (no se cierra).
+     * @return Lector posicionado al inicio del primer registro.
+     * @throws IOException si falla la lectura.
+     */
+    public static CsvReader open(Reader reader) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 64 * 1024);
+        in.mark(1);
+        if (in.read() != BOM) {
+            in.reset();
+        }
+        in.mark(8192);
+        int commas = 0;
+        int semicolons = 0;
+        int c;
+        int read = 0;
+        while ((c = in.read()) != -1 && c != '\n' && ++read < 8192) {
+            if (c == ',') {
+                commas++;
+            } else if (c == ';') {
+                semicolons++;
+            }
+        }
+        in.reset();
+        return new CsvReader(in, semicolons > commas ? ';' : ',');
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return Campos del registro, o null al final del fichero. Las líneas vacías se saltan.
+     * @throws IOException si falla la lectura o hay comillas sin cerrar.
+     */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"');
+                    } else {
+                        in.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                if (fields.isEmpty() && field.isEmpty()) {
+                    // Línea vacía
+                    any = false;
+                    continue;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (quoted) {
+            throw new IOException("Comillas sin cerrar en el registro " + (records + 1));
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        records++;
+        return fields;
+    }
+
+    /**
+     * @return Separador de campos detectado.
+     */
+    public char separator() {
+        return separator;
+    }
+
+    /**
+     * @return Registros leídos hasta ahora (incluida la cabecera).
+     */
+    public long records() {
+        return records;
+    }
+}
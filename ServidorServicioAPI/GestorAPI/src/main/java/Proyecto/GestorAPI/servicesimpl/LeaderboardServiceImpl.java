@@ -0,0 +1,162 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardCount;
+import Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardDto;
+import Proyecto.GestorAPI.modelsDTO.leaderboard.LeaderboardEntryDto;
+import Proyecto.GestorAPI.repositories.SubscriptionChargeRepository;
+import Proyecto.GestorAPI.repositories.TicketItemRepository;
+import Proyecto.GestorAPI.repositories.TicketRepository;
+import Proyecto.GestorAPI.services.LeaderboardService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Implementación de {@link LeaderboardService}.
+ *
+ * Una tarea programada calcula cada {@code leaderboards.refresh-interval} ms las clasificaciones de
+ * cada ventana de {@code leaderboards.ventanas} ("7d", "30d"... o "all" para todo el historial) con
+ * consultas agregadas sobre índices de fecha: tickets por tienda (sin los de tienda desconocida),
+ * líneas de producto (ticket_items) por nombre normalizado y subscripciones distintas cobradas
+ * (cargos_subscripcion) por nombre. Los
+ * nombres de tienda y subscripción se agrupan normalizados, mostrando la variante más frecuente.
+ *
+ * El resultado se publica como un mapa inmutable que se sustituye de una vez, así que servir una
+ * clasificación es una búsqueda en memoria y las peticiones públicas nunca llegan a la base de datos.
+ */
+@Slf4j
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final String ALL = "all";
+
+    // Desde dónde se cuenta en la ventana "all"
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketItemRepository ticketItemRepository;
+
+    @Autowired
+    private SubscriptionChargeRepository chargeRepository;
+
+    @Value("${leaderboards.ventanas:7d,30d,all}")
+    private String[] windows;
+
+    @Value("${leaderboards.top:10}")
+    private int top;
+
+    // Ventana -> días (null en "all")
+    private Map<String, Integer> windowDays;
+
+    // Ventana -> clasificación -> resultado publicado
+    private volatile Map<String, Map<Board, LeaderboardDto>> snapshot = Map.of();
+
+    @PostConstruct
+    void init() {
+        Map<String, Integer> days = new LinkedHashMap<>();
+        for (String window : windows) {
+            String name = window.trim().toLowerCase(Locale.ROOT);
+            if (name.equals(ALL)) {
+                days.put(name, null);
+            } else if (name.matches("\\d+d")) {
+                days.put(name, Integer.parseInt(name.substring(0, name.length() - 1)));
+            } else {
+                throw new IllegalStateException("Ventana de clasificación no válida: " + window + " (use Nd o all)");
+            }
+        }
+        windowDays = Collections.unmodifiableMap(days);
+    }
+
+    @Override
+    public LeaderboardDto get(Board board, String ventana) {
+        String window = ventana.trim().toLowerCase(Locale.ROOT);
+        if (!windowDays.containsKey(window)) {
+            throw new IllegalArgumentException("Ventana no disponible: " + ventana + ". Use una de " + windowDays.keySet());
+        }
+        Map<Board, LeaderboardDto> boards = snapshot.get(window);
+        LeaderboardDto dto = boards != null ? boards.get(board) : null;
+        return dto != null ? dto : new LeaderboardDto(window, null, List.of());
+    }
+
+    @Override
+    public List<String> getWindows() {
+        return List.copyOf(windowDays.keySet());
+    }
+
+    /**
+     * Recalcula las clasificaciones al arrancar (tras el retardo inicial) y después periódicamente.
+     */
+    @Scheduled(fixedDelayString = "${leaderboards.refresh-interval:600000}",
+            initialDelayString = "${leaderboards.initial-delay:10000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            // Se mantiene la última clasificación publicada
+            log.warn("No se pudieron recalcular las clasificaciones públicas: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void refresh() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Map<Board, LeaderboardDto>> next = new HashMap<>();
+        windowDays.forEach((window, days) -> {
+            LocalDateTime since = days != null ? now.minusDays(days) : ORIGIN;
+            Map<Board, LeaderboardDto> boards = new EnumMap<>(Board.class);
+            boards.put(Board.TIENDAS, build(window, now,
+                    merge(ticketRepository.countByStoreSince(since, OcrTicketMapper.UNKNOWN_STORE))));
+            boards.put(Board.PRODUCTOS, build(window, now,
+                    ticketItemRepository.countByProductSince(since, PageRequest.of(0, top))));
+            boards.put(Board.SUBSCRIPCIONES, build(window, now,
+                    merge(chargeRepository.countBySubscriptionSince(since.toLocalDate()))));
+            next.put(window, Collections.unmodifiableMap(boards));
+        });
+        snapshot = Map.copyOf(next);
+        log.debug("Clasificaciones públicas recalculadas en {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Agrupa los recuentos por nombre normalizado y los ordena de mayor a menor. Cada grupo se
+     * muestra con la variante original más frecuente.
+     */
+    private static List<LeaderboardCount> merge(List<LeaderboardCount> counts) {
+        Map<String, long[]> totals = new HashMap<>();
+        Map<String, LeaderboardCount> labels = new HashMap<>();
+        for (LeaderboardCount count : counts) {
+            String key = ProductNames.normalize(count.name());
+            if (key.isEmpty()) {
+                continue;
+            }
+            totals.computeIfAbsent(key, k -> new long[1])[0] += count.count();
+            labels.merge(key, count, (a, b) -> b.count() > a.count() ? b : a);
+        }
+        List<LeaderboardCount> merged = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> merged.add(new LeaderboardCount(labels.get(key).name().trim(), total[0])));
+        merged.sort(Comparator.comparingLong(LeaderboardCount::count).reversed()
+                .thenComparing(LeaderboardCount::name));
+        return merged;
+    }
+
+    private LeaderboardDto build(String window, LocalDateTime generated, List<LeaderboardCount> counts) {
+        int size = Math.min(top, counts.size());
+        List<LeaderboardEntryDto> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LeaderboardCount count = counts.get(i);
+            entries.add(new LeaderboardEntryDto(i + 1, count.name(), count.count()));
+        }
+        return new LeaderboardDto(window, generated, List.copyOf(entries));
+    }
+}
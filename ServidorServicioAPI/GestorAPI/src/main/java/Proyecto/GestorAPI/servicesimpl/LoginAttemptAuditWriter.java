@@ -0,0 +1,202 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.LoginAttempt;
+import Proyecto.GestorAPI.repositories.LoginAttemptRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritor en segundo plano de los registros de intentos de login.
+ *
+ * El login solo encola el registro en una cola acotada; un hilo dedicado la vacía en lotes de
+ * hasta {@code attemp.login.audit.batch-size} registros, o cada {@code attemp.login.audit.flush}
+ * milisegundos si el lote no se llena, y los guarda con una única transacción usando inserciones
+ * por lotes JDBC. Si la cola se llena (base de datos lenta durante un pico) se descartan registros
+ * según la política configurada y se contabilizan. Al apagar la aplicación se guarda lo pendiente.
+ */
+@Slf4j
+@Component
+public class LoginAttemptAuditWriter {
+
+    /**
+     * Qué registro se descarta cuando la cola está llena.
+     */
+    public enum OverflowPolicy {
+        /** Se descarta el registro que llega. */
+        DROP_NEWEST,
+        /** Se descarta el registro más antiguo de la cola para hacer sitio al nuevo. */
+        DROP_OLDEST
+    }
+
+    // Intervalo mínimo entre avisos de registros descartados
+    private static final long DROP_WARN_INTERVAL_MS = 60_000;
+
+    @Autowired
+    private LoginAttemptRepository loginAttemptRepository;
+
+    @Value("${attemp.login.audit.capacity:10000}")
+    private int capacity;
+
+    @Value("${attemp.login.audit.batch-size:50}")
+    private int batchSize;
+
+    @Value("${attemp.login.audit.flush:1000}")
+    private long flushIntervalMillis;
+
+    @Value("${attemp.login.audit.overflow:DROP_NEWEST}")
+    private OverflowPolicy overflowPolicy;
+
+    private ArrayBlockingQueue<LoginAttempt> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong lastDropWarn = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        running = true;
+        writer = Thread.ofPlatform().name("login-audit-writer").daemon(true).start(this::run);
+    }
+
+    /**
+     * Encola un registro sin bloquear al llamante.
+     *
+     * @param attempt Intento de login a guardar.
+     * @return true si se encoló sin descartar nada.
+     */
+    public boolean submit(LoginAttempt attempt) {
+        if (queue.offer(attempt)) {
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            // Hace sitio descartando el más antiguo; si otro hilo llena el hueco, se descarta el nuevo
+            queue.poll();
+            onDrop();
+            if (queue.offer(attempt)) {
+                return false;
+            }
+        }
+        onDrop();
+        return false;
+    }
+
+    private void onDrop() {
+        long total = dropped.incrementAndGet();
+        long now = System.currentTimeMillis();
+        long last = lastDropWarn.get();
+        if (now - last >= DROP_WARN_INTERVAL_MS && lastDropWarn.compareAndSet(last, now)) {
+            log.warn("Cola de auditoría de login llena ({}): {} registros descartados en total", capacity, total);
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: agrupa registros hasta completar el lote o agotar el intervalo.
+     * Si el hilo se interrumpe, guarda lo pendiente sin esperar y termina.
+     */
+    private void run() {
+        List<LoginAttempt> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LoginAttempt first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || wait <= 0 || !running) {
+                        break;
+                    }
+                    LoginAttempt next = queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+                drainAndWrite(batch);
+                // Se restaura al salir: dentro del bucle cada poll fallaría al instante
+                Thread.currentThread().interrupt();
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Guarda el lote en curso y todo lo que quede en la cola, sin bloquear.
+     */
+    private void drainAndWrite(List<LoginAttempt> batch) {
+        do {
+            queue.drainTo(batch, batchSize - batch.size());
+            write(batch);
+            batch.clear();
+        } while (!queue.isEmpty());
+    }
+
+    private void write(List<LoginAttempt> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            loginAttemptRepository.saveAll(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            log.error("No se pudieron guardar {} intentos de login", batch.size(), e);
+        }
+    }
+
+    /**
+     * Detiene el hilo escritor tras guardar los registros pendientes.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10) + flushIntervalMillis);
+        if (writer.isAlive()) {
+            log.warn("El escritor de auditoría de login no terminó a tiempo; {} registros pendientes", queue.size());
+        } else if (dropped.get() > 0 || failed.get() > 0) {
+            log.info("Auditoría de login: {} guardados, {} descartados, {} con error", written.get(), dropped.get(), failed.get());
+        }
+    }
+
+    /**
+     * @return Registros pendientes de guardar.
+     */
+    public int getPending() {
+        return queue.size();
+    }
+
+    /**
+     * @return Registros descartados por cola llena desde el arranque.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return Registros guardados desde el arranque.
+     */
+    public long getWritten() {
+        return written.get();
+    }
+}
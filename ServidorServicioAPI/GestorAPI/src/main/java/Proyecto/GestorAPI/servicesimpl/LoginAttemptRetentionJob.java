@@ -0,0 +1,184 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.LoginAttempt;
+import Proyecto.GestorAPI.repositories.LoginAttemptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Retención del historial de intentos de login (tabla registro_login).
+ *
+ * Con {@code attemp.login.delete.log} activo (desactivado por defecto), una tarea programada elimina los
+ * registros con más de {@code attemp.login.retention.days} días. El borrado se hace por rangos de ID
+ * de {@code attemp.login.retention.chunk-size} filas, cada uno en su propia transacción corta y con
+ * una pausa entre rangos, para no bloquear la tabla ni saturar la base de datos. Los límites de ID
+ * se consultan una sola vez al empezar; los registros posteriores a la fecha límite que caen dentro
+ * de un rango se conservan por el filtro de fecha del borrado. Antes de borrar
+ * cada rango, sus filas se añaden a un CSV comprimido en {@code attemp.login.retention.archive-dir}
+ * (si está vacío no se archiva).
+ */
+@Slf4j
+@Component
+public class LoginAttemptRetentionJob {
+
+    private static final DateTimeFormatter FILE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private LoginAttemptRepository loginAttemptRepository;
+
+    /**
+     * Indicador para borrar registros antiguos de intentos de login.
+     * Valor configurado en application.properties con clave "attemp.login.delete.log".
+     */
+    @Value("${attemp.login.delete.log:false}")
+    private boolean dropLog;
+
+    @Value("${attemp.login.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${attemp.login.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${attemp.login.retention.pause:200}")
+    private long pauseMillis;
+
+    @Value("${attemp.login.retention.archive-dir:}")
+    private String archiveDir;
+
+    /**
+     * Ejecución programada de la retención.
+     */
+    @Scheduled(cron = "${attemp.login.retention.cron:0 30 3 * * *}")
+    public void run() {
+        if (!dropLog) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        long start = System.currentTimeMillis();
+        int deleted = purge(cutoff);
+        if (deleted > 0) {
+            log.info("Retención de intentos de login: {} registros anteriores a {} eliminados en {} ms",
+                    deleted, cutoff, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Archiva y elimina por rangos de ID los intentos anteriores a la fecha indicada.
+     *
+     * @param cutoff Fecha límite (exclusiva).
+     * @return Número de registros eliminados.
+     */
+    public int purge(Instant cutoff) {
+        int deleted = 0;
+        Writer archive = null;
+        try {
+            Long minId = loginAttemptRepository.findMinIdBefore(cutoff);
+            Long maxId = minId == null ? null : loginAttemptRepository.findMaxIdBefore(cutoff);
+            if (minId == null || maxId == null) {
+                return 0;
+            }
+            long toId;
+            for (long fromId = minId; fromId <= maxId; fromId = toId + 1) {
+                toId = Math.min(fromId + chunkSize - 1, maxId);
+
+                if (!archiveDir.isBlank()) {
+                    List<LoginAttempt> rows = loginAttemptRepository.findByIdBetweenAndAttemptTimeBeforeOrderById(fromId, toId, cutoff);
+                    if (archive == null) {
+                        archive = openArchive();
+                    }
+                    writeRows(archive, rows);
+                    // El rango se borra solo cuando ya está escrito en disco
+                    archive.flush();
+                }
+
+                int removed = loginAttemptRepository.deleteRangeBefore(fromId, toId, cutoff);
+                deleted += removed;
+                // Los rangos vacíos (huecos de la secuencia) no cargan la base de datos
+                if (removed > 0 && toId < maxId) {
+                    pause();
+                }
+            }
+        } catch (IOException e) {
+            log.error("No se pudo archivar el historial de login; se detiene la retención", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(archive);
+        }
+        return deleted;
+    }
+
+    private Writer openArchive() throws IOException {
+        Path dir = Paths.get(archiveDir);
+        Files.createDirectories(dir);
+        Path file = dir.resolve("registro_login-" + LocalDateTime.now().format(FILE_SUFFIX) + ".csv.gz");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024, true), StandardCharsets.UTF_8));
+        writer.write("id,username,ip,attempt_time,success\n");
+        log.info("Archivando intentos de login en {}", file);
+        return writer;
+    }
+
+    private static void writeRows(Writer writer, List<LoginAttempt> rows) throws IOException {
+        for (LoginAttempt row : rows) {
+            writer.write(String.valueOf(row.getId()));
+            writer.write(',');
+            writer.write(csv(row.getUsername()));
+            writer.write(',');
+            writer.write(csv(row.getIp()));
+            writer.write(',');
+            writer.write(row.getAttemptTime().toString());
+            writer.write(',');
+            writer.write(String.valueOf(row.getSuccess()));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Entrecomilla un campo de texto si contiene separadores o comillas.
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void pause() throws InterruptedException {
+        if (pauseMillis > 0) {
+            Thread.sleep(pauseMillis);
+        }
+    }
+
+    private static void closeQuietly(Writer writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Error al cerrar el archivo de historial de login: {}", e.getMessage());
+        }
+    }
+}
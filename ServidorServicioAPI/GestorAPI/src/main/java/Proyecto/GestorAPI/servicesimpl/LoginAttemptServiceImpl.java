@@ -3,14 +3,20 @@ package Proyecto.GestorAPI.servicesimpl;
 import Proyecto.GestorAPI.models.LoginAttempt;
 import Proyecto.GestorAPI.repositories.LoginAttemptRepository;
 import Proyecto.GestorAPI.services.LoginAttemptService;
-import jakarta.transaction.Transactional;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -19,7 +25,17 @@ import java.util.List;
  * Registra cada intento (exitoso o fallido), verifica bloqueo por
  * múltiples intentos fallidos en un intervalo de tiempo configurado,
  * y calcula el tiempo restante hasta desbloqueo.
+ *
+ * La decisión de bloqueo se toma en memoria con una ventana deslizante por usuario y por IP,
+ * sin consultar la base de datos en cada login. Los registros de auditoría se entregan a
+ * {@link LoginAttemptAuditWriter}, que los guarda por lotes en segundo plano; al arrancar, los contadores se reconstruyen con los
+ * fallos recientes guardados. Si los contadores en memoria se llenan, se consulta la base de datos
+ * (ver {@link LoginThrottle}); los registros llegan a ella con el retraso del lote de auditoría.
+ *
+ * La IP es la de {@code HttpServletRequest#getRemoteAddr()}. Detrás de un proxy inverso hay que
+ * activar {@code server.forward-headers-strategy} para que sea la del cliente y no la del proxy.
  */
+@Slf4j
 @Service
 public class LoginAttemptServiceImpl implements LoginAttemptService {
 
@@ -30,6 +46,12 @@ public class LoginAttemptServiceImpl implements LoginAttemptService {
     @Value("${attemp.login.max.failed}")
     private int maxFailedAttempts;
 
+    /**
+     * Número máximo de intentos fallidos desde una misma IP (cualquier usuario) antes de bloquearla.
+     */
+    @Value("${attemp.login.max.failed.ip:50}")
+    private int maxFailedAttemptsPerIp;
+
     /**
      * Duración (en minutos) del bloqueo tras alcanzar máximo de intentos fallidos.
      * Valor configurado en application.properties con clave "attemp.login.block.duration".
@@ -38,11 +60,10 @@ public class LoginAttemptServiceImpl implements LoginAttemptService {
     private int blockDuration;
 
     /**
-     * Indicador para borrar registros antiguos de intentos de login.
-     * Valor configurado en application.properties con clave "attemp.login.delete.log".
+     * Máximo de usuarios/IPs con fallos recordados en memoria.
      */
-    @Value("${attemp.login.delete.log}")
-    private boolean dropLog;
+    @Value("${attemp.login.throttle.max-keys:100000}")
+    private int maxTrackedKeys;
 
     /**
      * Repositorio para acceso a datos de intentos de login.
@@ -50,71 +71,148 @@ public class LoginAttemptServiceImpl implements LoginAttemptService {
     @Autowired
     private LoginAttemptRepository loginAttemptRepository;
 
+    // Contadores de fallos en memoria
+    private LoginThrottle userThrottle;
+    private LoginThrottle ipThrottle;
+
+    /**
+     * Tarea de retención que archiva y borra los registros antiguos.
+     */
+    @Autowired
+    private LoginAttemptRetentionJob retentionJob;
+
+    /**
+     * Escritor por lotes en segundo plano de los registros de intentos.
+     */
+    @Autowired
+    private LoginAttemptAuditWriter auditWriter;
+
+    @PostConstruct
+    void initThrottles() {
+        Duration window = Duration.ofMinutes(blockDuration);
+        userThrottle = new LoginThrottle(maxFailedAttempts, window, maxTrackedKeys,
+                (username, since) -> toMillis(loginAttemptRepository.findFailureTimesByUsername(username, Instant.ofEpochMilli(since))));
+        ipThrottle = new LoginThrottle(maxFailedAttemptsPerIp, window, maxTrackedKeys,
+                (ip, since) -> toMillis(loginAttemptRepository.findFailureTimesByIp(ip, Instant.ofEpochMilli(since))));
+    }
+
+    private static List<Long> toMillis(List<Instant> times) {
+        return times.stream().map(Instant::toEpochMilli).toList();
+    }
+
+    /**
+     * Reconstruye los contadores con los intentos fallidos guardados dentro de la ventana,
+     * para que un reinicio no desbloquee a nadie.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(blockDuration));
+        List<LoginAttempt> recent = loginAttemptRepository.findBySuccessIsFalseAndAttemptTimeAfterOrderByAttemptTime(cutoff);
+        for (LoginAttempt attempt : recent) {
+            recordFailure(attempt.getUsername(), attempt.getIp(), attempt.getAttemptTime().toEpochMilli());
+        }
+        log.info("Login throttle cargado con {} intentos fallidos recientes", recent.size());
+    }
+
     /**
      * Registra un intento de login para un usuario dado.
      *
-     * Si el intento es exitoso, se puede optar por limpiar registros antiguos.
-     * También elimina registros viejos según configuración.
-     *
      * @param username Nombre de usuario.
      * @param success true si el intento fue exitoso, false si fallido.
      * @return Devuelve el valor del parámetro success.
      */
-    @Transactional
+    @Override
     public boolean registerLoginAttempt(String username, boolean success) {
+        return registerLoginAttempt(username, null, success);
+    }
+
+    /**
+     * Registra un intento de login: actualiza los contadores en memoria si es fallido
+     * y encola el registro de auditoría, que se guarda en el siguiente lote.
+     *
+     * @param username Nombre de usuario.
+     * @param ip Dirección IP del cliente (puede ser null).
+     * @param success true si el intento fue exitoso, false si fallido.
+     * @return Devuelve el valor del parámetro success.
+     */
+    @Override
+    public boolean registerLoginAttempt(String username, String ip, boolean success) {
         Instant now = Instant.now();
-        // Guarda el intento de login con timestamp actual y resultado
-        loginAttemptRepository.save(new LoginAttempt(username, now, success));
-        // Calcula la fecha límite para borrar registros antiguos
-        Instant cutoff = now.minus(Duration.ofMinutes(blockDuration));
-
-        if(dropLog){
-            // Borra registros anteriores a cutoff si está habilitado
-            loginAttemptRepository.deleteOlderThan(cutoff);
+        if (!success) {
+            recordFailure(username, ip, now.toEpochMilli());
         }
+        auditWriter.submit(new LoginAttempt(username, ip, now, success));
         return success;
     }
 
     /**
      * Verifica si un usuario está bloqueado debido a intentos fallidos recientes.
      *
-     * Consulta la cantidad de intentos fallidos desde hace "blockDuration" minutos.
-     *
      * @param username Nombre del usuario a consultar.
      * @return true si el usuario tiene intentos fallidos >= maxFailedAttempts, false en caso contrario.
      */
     public boolean isBlocked(String username) {
-        Instant now = Instant.now();
-        Instant cutoff = now.minus(Duration.ofMinutes(blockDuration));
-        long failedAttempts = loginAttemptRepository.countFailedAttempts(username, cutoff);
-        return failedAttempts >= maxFailedAttempts;
+        return isBlocked(username, null);
     }
 
     /**
-     * Calcula cuánto tiempo falta para que el bloqueo de un usuario finalice.
+     * Verifica si un usuario o la IP de origen están bloqueados por intentos fallidos recientes.
      *
-     * Si no está bloqueado, retorna duración cero.
-     * En caso de bloqueo, calcula el tiempo restante desde el intento fallido más antiguo
-     * hasta que termine el período de bloqueo.
+     * @param username Nombre del usuario a consultar.
+     * @param ip Dirección IP del cliente (puede ser null).
+     * @return true si alguno alcanza su máximo de fallos dentro de la ventana.
+     */
+    @Override
+    public boolean isBlocked(String username, String ip) {
+        long now = System.currentTimeMillis();
+        return (username != null && userThrottle.isBlocked(username, now))
+                || (ip != null && ipThrottle.isBlocked(ip, now));
+    }
+
+    /**
+     * Calcula cuánto tiempo falta para que el bloqueo de un usuario finalice.
      *
      * @param username Nombre del usuario a consultar.
      * @return Duración restante para desbloqueo, o cero si no está bloqueado.
      */
     public Duration timeUntilUnlock(String username) {
-        Instant now = Instant.now();
-        Instant cutoff = now.minus(Duration.ofMinutes(blockDuration));
-        List<LoginAttempt> failedAttempts = loginAttemptRepository.findByUsernameAndSuccessIsFalseAndAttemptTimeAfter(username, cutoff);
+        return timeUntilUnlock(username, null);
+    }
 
-        if (failedAttempts.size() < maxFailedAttempts) {
-            return Duration.ZERO;
-        }
+    /**
+     * Calcula cuánto tiempo falta para que terminen los bloqueos del usuario y de la IP.
+     *
+     * @param username Nombre del usuario a consultar.
+     * @param ip Dirección IP del cliente (puede ser null).
+     * @return Duración restante para desbloqueo, o cero si no está bloqueado.
+     */
+    @Override
+    public Duration timeUntilUnlock(String username, String ip) {
+        long now = System.currentTimeMillis();
+        long remaining = Math.max(
+                username != null ? userThrottle.remaining(username, now) : 0,
+                ip != null ? ipThrottle.remaining(ip, now) : 0);
+        return Duration.ofMillis(remaining);
+    }
 
-        // Ordena intentos fallidos por fecha, tomando el más antiguo
-        failedAttempts.sort(Comparator.comparing(LoginAttempt::getAttemptTime));
-        Instant firstAttemptTime = failedAttempts.get(0).getAttemptTime();
-        Instant unlockTime = firstAttemptTime.plus(Duration.ofMinutes(blockDuration));
+    /**
+     * Mantenimiento fuera del camino del login: purga de contadores caducados.
+     * El borrado de registros antiguos lo hace {@link LoginAttemptRetentionJob}.
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void cleanUp() {
+        long now = System.currentTimeMillis();
+        userThrottle.sweep(now);
+        ipThrottle.sweep(now);
+    }
 
-        return Duration.between(now, unlockTime);
+    private void recordFailure(String username, String ip, long timeMillis) {
+        if (username != null) {
+            userThrottle.recordFailure(username, timeMillis);
+        }
+        if (ip != null) {
+            ipThrottle.recordFailure(ip, timeMillis);
+        }
     }
 
     /**
@@ -149,13 +247,27 @@ public class LoginAttemptServiceImpl implements LoginAttemptService {
     }
 
     /**
-     * Método stub para eliminar intentos anteriores a una fecha determinada.
-     * Actualmente retorna 0 y no realiza acción.
+     * Obtiene una página de intentos de login, los más recientes primero, sin contar el total.
+     *
+     * @param username Usuario por el que filtrar, o null/vacío para todos.
+     * @param page Número de página (desde 0).
+     * @param size Tamaño de página.
+     * @return Porción de resultados e indicación de si hay más.
+     */
+    public Slice<LoginAttempt> getPage(String username, int page, int size) {
+        PageRequest pageable = PageRequest.of(Math.max(0, page), size, Sort.by(Sort.Direction.DESC, "id"));
+        return username == null || username.isBlank()
+                ? loginAttemptRepository.findAllBy(pageable)
+                : loginAttemptRepository.findByUsername(username.trim(), pageable);
+    }
+
+    /**
+     * Archiva y elimina, por bloques, los intentos anteriores a una fecha determinada.
      *
      * @param cutoffDate Fecha límite para eliminación.
-     * @return Número de registros eliminados (actualmente 0).
+     * @return Número de registros eliminados.
      */
     public int deleteAttemptsOlderThan(Instant cutoffDate) {
-        return 0;
+        return retentionJob.purge(cutoffDate);
     }
 }
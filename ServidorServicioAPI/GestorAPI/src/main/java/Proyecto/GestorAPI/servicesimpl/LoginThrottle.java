@@ -0,0 +1,220 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contador en memoria de intentos fallidos con ventana deslizante.
+ *
+ * Las claves (nombre de usuario o IP) se reparten entre varias franjas, cada una con su propio
+ * cerrojo, de modo que los logins de usuarios distintos no compiten por el mismo bloqueo.
+ * Por clave solo se guardan las marcas de tiempo de los últimos {@code maxFailures} fallos, así
+ * que la memoria por clave está acotada, y cada franja admite un máximo de claves.
+ *
+ * Una clave con fallos dentro de la ventana nunca se descarta: si un atacante pudiera llenar la
+ * franja con claves nuevas, borraría los fallos de la clave que está atacando. Cuando una franja
+ * está llena se eliminan primero las claves caducadas; si aun así no hay sitio, el fallo no se
+ * guarda en memoria y la franja queda "desbordada" durante una ventana. Mientras lo está, las
+ * consultas de sus claves que la memoria no bloquea se resuelven con {@link FailureSource}, los
+ * fallos guardados en la base de datos.
+ */
+class LoginThrottle {
+
+    private static final int STRIPES = 64;
+
+    // Intervalo mínimo entre dos limpiezas de una franja llena
+    private static final long STRIPE_SWEEP_INTERVAL_MILLIS = 1000;
+
+    private final int maxFailures;
+    private final long windowMillis;
+    private final FailureSource fallback;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Fuente de los fallos de una clave cuando la memoria no los tiene todos.
+     */
+    @FunctionalInterface
+    interface FailureSource {
+
+        /**
+         * @param key         Usuario o IP.
+         * @param sinceMillis Instante mínimo (exclusivo) de los fallos.
+         * @return Instantes en milisegundos de los fallos de la clave, en orden ascendente.
+         */
+        List<Long> failuresSince(String key, long sinceMillis);
+    }
+
+    /**
+     * @param maxFailures Fallos dentro de la ventana que provocan el bloqueo.
+     * @param window Duración de la ventana (y del bloqueo).
+     * @param maxKeys Máximo aproximado de claves recordadas en total.
+     * @param fallback Fuente de fallos para las franjas desbordadas.
+     */
+    LoginThrottle(int maxFailures, Duration window, int maxKeys, FailureSource fallback) {
+        this.maxFailures = Math.max(1, maxFailures);
+        this.windowMillis = window.toMillis();
+        this.fallback = fallback;
+        int perStripe = Math.max(16, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Anota un intento fallido para la clave en el instante indicado.
+     *
+     * @return false si la franja está llena de claves con fallos recientes y el fallo no se ha
+     * podido guardar en memoria.
+     */
+    boolean recordFailure(String key, long timeMillis) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            ArrayDeque<Long> failures = stripe.keys.get(key);
+            if (failures == null) {
+                if (stripe.keys.size() >= stripe.maxKeys && !makeRoom(stripe, timeMillis)) {
+                    stripe.overflowUntil = Math.max(stripe.overflowUntil, timeMillis + windowMillis);
+                    return false;
+                }
+                failures = new ArrayDeque<>(maxFailures);
+                stripe.keys.put(key, failures);
+            }
+            prune(failures, timeMillis);
+            if (failures.size() == maxFailures) {
+                failures.pollFirst();
+            }
+            // Los registros llegan casi ordenados; se mantiene el orden por si el calentamiento los mezcla
+            if (!failures.isEmpty() && failures.peekLast() > timeMillis) {
+                failures.addFirst(timeMillis);
+            } else {
+                failures.addLast(timeMillis);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return true si la clave acumula el máximo de fallos dentro de la ventana.
+     */
+    boolean isBlocked(String key, long nowMillis) {
+        return remaining(key, nowMillis) > 0;
+    }
+
+    /**
+     * @return Milisegundos hasta que la clave deja de estar bloqueada, o 0 si no lo está.
+     */
+    long remaining(String key, long nowMillis) {
+        Stripe stripe = stripeFor(key);
+        boolean overflowed;
+        synchronized (stripe) {
+            ArrayDeque<Long> failures = stripe.keys.get(key);
+            if (failures != null) {
+                prune(failures, nowMillis);
+                if (failures.size() >= maxFailures) {
+                    // Se desbloquea cuando caduca el fallo más antiguo de los que completan el máximo
+                    return failures.peekFirst() + windowMillis - nowMillis;
+                }
+                if (failures.isEmpty()) {
+                    stripe.keys.remove(key);
+                }
+            }
+            overflowed = nowMillis < stripe.overflowUntil;
+        }
+        if (!overflowed || fallback == null) {
+            return 0;
+        }
+        // Fuera del cerrojo: la consulta no debe frenar al resto de claves de la franja
+        List<Long> stored = fallback.failuresSince(key, nowMillis - windowMillis);
+        if (stored.size() < maxFailures) {
+            return 0;
+        }
+        return Math.max(0, stored.get(stored.size() - maxFailures) + windowMillis - nowMillis);
+    }
+
+    /**
+     * Elimina las claves sin fallos dentro de la ventana.
+     *
+     * @return Número de claves eliminadas.
+     */
+    int sweep(long nowMillis) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                removed += sweep(stripe, nowMillis);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return Número de claves con fallos recordados.
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.keys.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Intenta liberar sitio en una franja llena eliminando sus claves caducadas. Como mucho se
+     * recorre la franja una vez por {@link #STRIPE_SWEEP_INTERVAL_MILLIS}, para que una ráfaga de
+     * claves nuevas no la recorra en cada fallo.
+     */
+    private boolean makeRoom(Stripe stripe, long nowMillis) {
+        if (nowMillis - stripe.sweptAt >= STRIPE_SWEEP_INTERVAL_MILLIS) {
+            stripe.sweptAt = nowMillis;
+            sweep(stripe, nowMillis);
+        }
+        return stripe.keys.size() < stripe.maxKeys;
+    }
+
+    private int sweep(Stripe stripe, long nowMillis) {
+        int removed = 0;
+        Iterator<ArrayDeque<Long>> it = stripe.keys.values().iterator();
+        while (it.hasNext()) {
+            ArrayDeque<Long> failures = it.next();
+            prune(failures, nowMillis);
+            if (failures.isEmpty()) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private void prune(ArrayDeque<Long> failures, long nowMillis) {
+        long cutoff = nowMillis - windowMillis;
+        while (!failures.isEmpty() && failures.peekFirst() <= cutoff) {
+            failures.pollFirst();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Franja de claves protegida por su propio monitor.
+     */
+    private static final class Stripe {
+
+        private final Map<String, ArrayDeque<Long>> keys = new HashMap<>();
+        private final int maxKeys;
+
+        // Hasta cuándo puede haber fallos que no están en memoria
+        private long overflowUntil;
+        private long sweptAt = Long.MIN_VALUE / 2;
+
+        private Stripe(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package Proyecto.GestorAPI.servicesimpl;
 
+import Proyecto.GestorAPI.config.http.CircuitBreaker;
+import Proyecto.GestorAPI.config.http.FileMultipartRequestCallback;
 import Proyecto.GestorAPI.exceptions.ErrorConexionServidorException;
 import Proyecto.GestorAPI.exceptions.ErrorPharseJsonException;
+import Proyecto.GestorAPI.exceptions.PythonServerUnavailableException;
 import Proyecto.GestorAPI.models.Ticket;
 import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.modelsDTO.StatusServerResponse;
@@ -9,11 +12,8 @@ import Proyecto.GestorAPI.services.OCRService;
 import Proyecto.GestorAPI.services.TicketService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
@@ -21,16 +21,16 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Map;
 
 @Service
 public class OCRServiceImpl implements OCRService {
 
-    // Carpeta base donde se almacenan imágenes de tickets
-    private static final String STORAGE_BASE_PATH = "gastos/";
-
     @Value("${python.server.url}")
     private String pythonServerUrl;
 
@@ -43,6 +43,15 @@ public class OCRServiceImpl implements OCRService {
     @Autowired
     private StorageServiceImpl storageService;
 
+    @Autowired
+    private OcrResultCache ocrResultCache;
+
+    @Autowired
+    private PythonServerGuard pythonServerGuard;
+
+    @Autowired
+    private PythonStatusClient pythonStatusClient;
+
     private final RestTemplate restTemplate;
 
     // Constructor inyecta RestTemplate
@@ -51,70 +60,77 @@ public class OCRServiceImpl implements OCRService {
     }
 
     /**
-     * Procesa una imagen de ticket:
-     * - Guarda temporalmente el archivo recibido
-     * - Envía el archivo al servidor Python para OCR
-     * - Mapea el resultado JSON a objeto Ticket
-     * - Guarda imagen y ticket en base de datos
+     * Extrae un ticket de una imagen ya guardada en almacenamiento:
+     * - Si la misma imagen ya se procesó, reutiliza el resultado OCR en caché
+     * - Si no, envía el archivo guardado al servidor Python para OCR
+     * - Mapea el resultado JSON a objeto Ticket con la imagen como icono, sin guardarlo
      */
     @Override
-    public Ticket processImageTicket(MultipartFile file, User user)  {
-        Ticket ticket = new Ticket();
-        try {
-            //System.out.println("Imagen0");
-            // 1. Guardar archivo temporalmente para enviar a OCR
-            Path tempFilePath = Files.createTempFile("ticket_", "_" + file.getOriginalFilename());
-            Files.copy(file.getInputStream(), tempFilePath, StandardCopyOption.REPLACE_EXISTING);
-
-            //System.out.println("Imagen1");
-            // 2. Llamar al servicio OCR enviando el archivo temporal
-            String ocrResult = sendFileForOCR(tempFilePath.toFile(), true);
-
-            //System.out.println("Imagen2");
-            // 3. Convertir el resultado OCR en un Ticket usando TicketService
-            ticket = ticketService.mappingCreateTicketbyOCR(ocrResult, user);
-
-            //System.out.println("Imagen3");
-            // 3.1 Guardar la imagen en almacenamiento y asignar ruta al ticket
-            ticket.setIcon(storageService.saveImageData(STORAGE_BASE_PATH, file));
+    public Ticket mappingStoredImageTicket(String storedPath, String contentHash, User user) throws IOException, ErrorPharseJsonException {
+        Path path = storageService.resolvePath(storedPath);
+        if (contentHash == null) {
+            try (InputStream in = Files.newInputStream(path)) {
+                contentHash = Sha256.of(in);
+            }
+        }
 
-            //System.out.println("Imagen4: "+ ticket);
-            // 4. Guardar el ticket en base de datos
-            ticket = ticketService.setItem(ticket);
+        String cacheKey = OcrResultCache.imageKey(contentHash);
+        String ocrResult = ocrResultCache.get(cacheKey);
+        boolean cached = ocrResult != null;
+        if (!cached) {
+            ocrResult = sendFileForOCR(path.toFile(), true);
+        }
 
-            return ticket;
+        Ticket ticket = ticketService.mappingCreateTicketbyOCR(ocrResult, user);
+        ticket.setIcon(storedPath);
 
-        } catch (Exception | ErrorPharseJsonException e) {
-            // En caso de error eliminar imagen guardada para evitar basura
-            storageService.deleteImageData(ticket.getIcon());
-            throw new RuntimeException(e);
+        // Solo se guardan resultados que se han podido mapear
+        if (!cached) {
+            ocrResultCache.put(cacheKey, ocrResult);
         }
+        return ticket;
     }
 
     /**
      * Procesa ticket digital (texto o PDF):
-     * - Guarda archivo temporalmente
-     * - Envía al OCR para archivo digital
+     * - Si el mismo archivo ya se procesó, reutiliza el resultado OCR en caché
+     * - Si no, lo envía al OCR para archivo digital sin copiarlo a disco, calculando su hash en la misma lectura
      * - Retorna ticket con JSON de productos asignado
      */
     @Override
     public Ticket proccessDigitalTicket(MultipartFile file, User user) throws IOException {
-        Ticket ticket = new Ticket();
-        try{
-        Path tempFilePath = Files.createTempFile("TicketDigital" + "_", "_" + file.getOriginalFilename());
-        Files.copy(file.getInputStream(), tempFilePath, StandardCopyOption.REPLACE_EXISTING);
-
-        //System.out.println("Digital");
-        String ocrResult = sendFileForOCR(tempFilePath.toFile(), false);
-
-        ticket = ticketService.mappingCreateTicketbyOCR(ocrResult, user);
-
-        ticket = ticketService.setItem(ticket);
-
-        return ticket;
+        try {
+            long size = file.getSize();
+            String cacheKey = null;
+            String ocrResult = null;
+            if (ocrResultCache.mayContainDocument(size)) {
+                // Solo hay que leer el archivo antes de enviarlo si puede estar en caché
+                cacheKey = OcrResultCache.documentKey(Sha256.of(file.getInputStream()), size);
+                ocrResult = ocrResultCache.get(cacheKey);
+            }
+            boolean cached = ocrResult != null;
+            if (!cached) {
+                // El hash se calcula mientras se envía el archivo, en la misma lectura
+                MessageDigest digest = Sha256.newDigest();
+                String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "ticket";
+                ocrResult = sendForOCR(
+                        FileMultipartRequestCallback.ofStream("file", fileName, size,
+                                () -> new DigestInputStream(file.getInputStream(), digest), authHeaders()),
+                        false);
+                if (cacheKey == null) {
+                    cacheKey = OcrResultCache.documentKey(Sha256.toHex(digest), size);
+                }
+            }
+
+            Ticket ticket = ticketService.mappingCreateTicketbyOCR(ocrResult, user);
+
+            if (!cached) {
+                ocrResultCache.put(cacheKey, ocrResult);
+            }
+            return ticketService.setItem(ticket);
+        } catch (PythonServerUnavailableException e) {
+            throw e;
         } catch (Exception | ErrorPharseJsonException e) {
-            // En caso de error eliminar imagen guardada para evitar basura
-            storageService.deleteImageData(ticket.getIcon());
             throw new RuntimeException(e);
         }
     }
@@ -122,48 +138,47 @@ public class OCRServiceImpl implements OCRService {
     /**
      * Envía archivo al servidor OCR en Python:
      * - Usa multipart/form-data con autenticación Bearer
+     * - El archivo se transfiere desde disco mediante FileChannel, sin cargarlo en memoria
      * - Decide endpoint según si es imagen o archivo digital
      * - Maneja errores HTTP y los convierte en IOException
+     * - Falla inmediatamente si el servidor está caído o saturado (PythonServerUnavailableException)
      */
     @Override
     public String sendFileForOCR(File file, boolean imagen) throws IOException {
-        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
-        body.add("file", new FileSystemResource(file));
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-        headers.set("Authorization", "Bearer " + pythonServerApiKey);
-
-        HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
+        return sendForOCR(FileMultipartRequestCallback.ofFile("file", file.toPath(), authHeaders()), imagen);
+    }
 
+    private String sendForOCR(FileMultipartRequestCallback body, boolean imagen) throws IOException {
         String url = imagen ? pythonServerUrl + "/api/ocr" : pythonServerUrl + "/api/ocr-file";
 
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    requestEntity,
-                    String.class
-            );
-
-            //System.out.println("Status: " + response.getStatusCode() + " Body: " + response.getBody());
-            return response.getBody();
+            ResponseEntity<String> response = pythonServerGuard.execute(PythonServerGuard.Bulkhead.OCR,
+                    () -> restTemplate.execute(
+                            url,
+                            HttpMethod.POST,
+                            body,
+                            restTemplate.responseEntityExtractor(String.class)
+                    ));
+
+            return response != null ? response.getBody() : null;
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
-            //System.out.println("Error Status: " + ex.getStatusCode() + " Error Body: " + ex.getResponseBodyAsString());
             throw new IOException("Error al procesar OCR. Código: " + ex.getStatusCode() + " - " + ex.getResponseBodyAsString());
         }
     }
 
+    private Map<String, String> authHeaders() {
+        return Map.of(HttpHeaders.AUTHORIZATION, "Bearer " + pythonServerApiKey);
+    }
+
     /**
      * Consulta estado del servidor OCR Python.
      * Retorna un objeto con estados booleanos.
-     * Si falla, retorna un objeto con todos false.
+     * Si el circuito está abierto no consulta al servidor y retorna un objeto con todos false.
      */
     public StatusServerResponse getStatus() throws ErrorConexionServidorException {
-        StatusServerResponse health = new StatusServerResponse(false,false,false);
-            String url = pythonServerUrl + "/api/status";
-            ResponseEntity<StatusServerResponse> response = restTemplate.getForEntity(url, StatusServerResponse.class);
-            health = response.getBody();
-        return health;
+        if (pythonServerGuard.getState() != CircuitBreaker.State.CERRADO) {
+            return new StatusServerResponse(false, false, false);
+        }
+        return pythonStatusClient.fetchStatus();
     }
 }
@@ -0,0 +1,350 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.exceptions.ErrorPharseJsonException;
+import Proyecto.GestorAPI.exceptions.OcrQueueFullException;
+import Proyecto.GestorAPI.exceptions.PythonServerUnavailableException;
+import Proyecto.GestorAPI.exceptions.UserNotFoundException;
+import Proyecto.GestorAPI.models.OcrJob;
+import Proyecto.GestorAPI.models.Ticket;
+import Proyecto.GestorAPI.models.User;
+import Proyecto.GestorAPI.models.enums.OcrJobStatus;
+import Proyecto.GestorAPI.repositories.OcrJobRepository;
+import Proyecto.GestorAPI.services.OCRService;
+import Proyecto.GestorAPI.services.OcrJobService;
+import Proyecto.GestorAPI.services.StorageService;
+import Proyecto.GestorAPI.services.TicketService;
+import Proyecto.GestorAPI.services.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación de la cola de trabajos OCR.
+ *
+ * Los trabajos pendientes se agrupan por usuario y se despachan por turnos (round-robin) entre
+ * usuarios, de modo que una ráfaga de subidas de un mismo usuario no retrasa a los demás.
+ * Nunca hay más de {@code ocr.jobs.concurrency} trabajos en el servidor OCR a la vez, y la cola
+ * está acotada globalmente y por usuario: al llenarse se rechazan nuevas subidas en lugar de
+ * acumular trabajo sin límite.
+ *
+ * Si el servidor Python no está disponible (circuito abierto, límite de llamadas lleno o error de
+ * conexión) el trabajo no falla: vuelve a PENDIENTE conservando su archivo y se reencola tras una
+ * espera creciente, cuando el circuito vuelve a admitir llamadas.
+ */
+@Slf4j
+@Service
+public class OcrJobServiceImpl implements OcrJobService {
+
+    // Carpeta base donde se almacenan imágenes de tickets
+    private static final String STORAGE_BASE_PATH = "gastos/";
+
+    @Autowired
+    private OcrJobRepository repository;
+
+    @Autowired
+    private OCRService ocrService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PythonServerGuard pythonServerGuard;
+
+    /**
+     * Trabajos procesados simultáneamente (ajustar a la capacidad del servidor OCR).
+     */
+    @Value("${ocr.jobs.concurrency:2}")
+    private int concurrency;
+
+    /**
+     * Máximo de trabajos en espera entre todos los usuarios.
+     */
+    @Value("${ocr.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * Máximo de trabajos en espera de un mismo usuario.
+     */
+    @Value("${ocr.jobs.max-per-user:5}")
+    private int maxPerUser;
+
+    /**
+     * Espera inicial antes de reintentar un trabajo con el servidor Python no disponible (ms).
+     */
+    @Value("${ocr.jobs.retry.initial-delay:5000}")
+    private long retryInitialDelayMs;
+
+    /**
+     * Espera máxima entre reintentos (ms).
+     */
+    @Value("${ocr.jobs.retry.max-delay:300000}")
+    private long retryMaxDelayMs;
+
+    // Estado de la cola, protegido por el monitor de esta instancia
+    private final Map<Long, ArrayDeque<Long>> pendingByUser = new HashMap<>();
+    private final ArrayDeque<Long> userTurns = new ArrayDeque<>();
+    private int pending;
+    private int running;
+    // Trabajos esperando a reintentar, con el número de reintentos de cada uno
+    private final Map<Long, Integer> retryAttempts = new HashMap<>();
+    private int retrying;
+
+    private ExecutorService workers;
+    private ScheduledExecutorService retryScheduler;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "ocr-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ocr-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Deja de aceptar trabajos y espera a los que están en curso. Los que queden pendientes
+     * siguen guardados y se vuelven a encolar en el siguiente arranque.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public OcrJob submitImageTicket(MultipartFile file, User user) throws IOException {
+        // Comprobación previa para no guardar archivos que luego no se pueden encolar
+        pythonServerGuard.checkAvailable();
+        synchronized (this) {
+            checkCapacity(user.getId());
+        }
+
+        StorageService.StoredFile stored = storageService.saveHashedData(STORAGE_BASE_PATH, file);
+        String storedPath = stored.path();
+        OcrJob job;
+        try {
+            job = repository.save(new OcrJob(user.getId(), storedPath, stored.sha256()));
+        } catch (RuntimeException e) {
+            storageService.deleteImageData(storedPath);
+            throw e;
+        }
+
+        try {
+            enqueue(job.getId(), user.getId(), true);
+        } catch (OcrQueueFullException e) {
+            // La cola se llenó mientras se guardaba el archivo
+            repository.delete(job);
+            storageService.deleteImageData(storedPath);
+            throw e;
+        }
+        return job;
+    }
+
+    @Override
+    public Optional<OcrJob> getByID(Long id) {
+        return repository.findById(id);
+    }
+
+    /**
+     * Vuelve a encolar los trabajos que quedaron pendientes o a medias en la ejecución anterior.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingJobs() {
+        List<OcrJob> jobs = repository.findByStatusInOrderByIdAsc(List.of(OcrJobStatus.PENDIENTE, OcrJobStatus.EN_PROCESO));
+        for (OcrJob job : jobs) {
+            if (job.getStatus() == OcrJobStatus.EN_PROCESO) {
+                job.setStatus(OcrJobStatus.PENDIENTE);
+                repository.save(job);
+            }
+            enqueue(job.getId(), job.getUserId(), false);
+        }
+        if (!jobs.isEmpty()) {
+            log.info("Reencolados {} trabajos OCR pendientes", jobs.size());
+        }
+    }
+
+    private synchronized void enqueue(Long jobId, Long userId, boolean enforceLimits) {
+        if (enforceLimits) {
+            checkCapacity(userId);
+        }
+        ArrayDeque<Long> queue = pendingByUser.computeIfAbsent(userId, id -> new ArrayDeque<>());
+        if (queue.isEmpty()) {
+            userTurns.addLast(userId);
+        }
+        queue.addLast(jobId);
+        pending++;
+        dispatch();
+    }
+
+    private void checkCapacity(Long userId) {
+        if (pending + retrying >= queueCapacity) {
+            throw new OcrQueueFullException("La cola de procesamiento OCR está llena, inténtelo más tarde", false);
+        }
+        ArrayDeque<Long> queue = pendingByUser.get(userId);
+        if (queue != null && queue.size() >= maxPerUser) {
+            throw new OcrQueueFullException("Demasiados tickets pendientes de procesar, espere a que terminen", true);
+        }
+    }
+
+    /**
+     * Lanza trabajos mientras haya trabajadores libres, tomando un trabajo de cada usuario por turno.
+     * Debe llamarse con el monitor adquirido.
+     */
+    private void dispatch() {
+        while (running < concurrency && !userTurns.isEmpty()) {
+            Long userId = userTurns.pollFirst();
+            ArrayDeque<Long> queue = pendingByUser.get(userId);
+            Long jobId = queue.pollFirst();
+            if (queue.isEmpty()) {
+                pendingByUser.remove(userId);
+            } else {
+                userTurns.addLast(userId);
+            }
+            pending--;
+            running++;
+            try {
+                workers.execute(() -> run(jobId));
+            } catch (RejectedExecutionException e) {
+                // Aplicación deteniéndose: el trabajo sigue PENDIENTE y se recupera al arrancar
+                running--;
+                return;
+            }
+        }
+    }
+
+    private void run(Long jobId) {
+        try {
+            process(jobId);
+        } catch (RuntimeException e) {
+            log.error("Error inesperado en el trabajo OCR {}", jobId, e);
+        } finally {
+            synchronized (this) {
+                running--;
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * Programa el reintento de un trabajo que no llegó al servidor Python, con una espera que se
+     * duplica en cada intento hasta {@code ocr.jobs.retry.max-delay}.
+     */
+    private synchronized void scheduleRetry(Long jobId, Long userId) {
+        retrying++;
+        scheduleRetryAttempt(jobId, userId);
+    }
+
+    private synchronized void scheduleRetryAttempt(Long jobId, Long userId) {
+        int attempt = retryAttempts.merge(jobId, 1, Integer::sum);
+        long delay = Math.min(retryMaxDelayMs, retryInitialDelayMs << Math.min(attempt - 1, 16));
+        try {
+            retryScheduler.schedule(() -> retry(jobId, userId), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Aplicación deteniéndose: el trabajo sigue PENDIENTE y se recupera al arrancar
+        }
+    }
+
+    private void retry(Long jobId, Long userId) {
+        if (!pythonServerGuard.isAvailable()) {
+            // Circuito aún abierto: se espera de nuevo sin ocupar un trabajador
+            scheduleRetryAttempt(jobId, userId);
+            return;
+        }
+        synchronized (this) {
+            retrying--;
+            enqueue(jobId, userId, false);
+        }
+    }
+
+    private void process(Long jobId) {
+        OcrJob job = repository.findById(jobId).orElse(null);
+        if (job == null) {
+            synchronized (this) {
+                retryAttempts.remove(jobId);
+            }
+            return;
+        }
+        job.setStatus(OcrJobStatus.EN_PROCESO);
+        job = repository.save(job);
+
+        try {
+            User user = userService.getUserById(job.getUserId())
+                    .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado"));
+            Ticket ticket = ocrService.mappingStoredImageTicket(job.getFilePath(), job.getContentHash(), user);
+
+            // Ticket y trabajo COMPLETADO en la misma transacción: si la aplicación se detiene
+            // entre ambos, el trabajo no se vuelve a procesar creando un ticket duplicado
+            OcrJob completed = job;
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                completed.setTicketId(ticketService.setItem(ticket).getSpentId());
+                completed.setStatus(OcrJobStatus.COMPLETADO);
+                repository.save(completed);
+            });
+            synchronized (this) {
+                if (retryAttempts.remove(jobId) != null) {
+                    log.info("Trabajo OCR {} completado tras reintentar", jobId);
+                }
+            }
+            return;
+        } catch (PythonServerUnavailableException | ResourceAccessException e) {
+            // Fallo del servidor, no del ticket: se conserva el archivo y se reintenta más tarde
+            job.setStatus(OcrJobStatus.PENDIENTE);
+            repository.save(job);
+            log.warn("Trabajo OCR {} aplazado, servidor Python no disponible: {}", jobId, e.getMessage());
+            scheduleRetry(jobId, job.getUserId());
+            return;
+        } catch (Exception | ErrorPharseJsonException e) {
+            synchronized (this) {
+                retryAttempts.remove(jobId);
+            }
+            // En caso de error eliminar imagen guardada para evitar basura
+            storageService.deleteImageData(job.getFilePath());
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.setTicketId(null);
+            job.setError(message.length() > 500 ? message.substring(0, 500) : message);
+            job.setStatus(OcrJobStatus.ERROR);
+            log.warn("Trabajo OCR {} fallido: {}", jobId, message);
+        }
+        repository.save(job);
+    }
+}
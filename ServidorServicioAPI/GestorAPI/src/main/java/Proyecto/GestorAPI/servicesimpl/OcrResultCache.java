@@ -0,0 +1,296 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Caché de resultados OCR direccionada por contenido.
+ *
+ * La clave es el SHA-256 de los bytes subidos (junto con el tipo de petición, imagen o digital),
+ * de forma que volver a subir la misma foto o PDF reutiliza el JSON devuelto por el servidor
+ * Python sin repetir el OCR. En memoria se mantiene un LRU acotado por bytes; opcionalmente
+ * los resultados se guardan también en disco, donde sobreviven a reinicios.
+ *
+ * Las claves de archivos digitales incluyen además el tamaño, y se recuerdan los tamaños con
+ * resultados guardados: así un archivo digital solo se lee para calcular su hash antes de enviarlo
+ * al OCR si puede estar en caché; en otro caso el hash se calcula mientras se envía.
+ */
+@Slf4j
+@Component
+public class OcrResultCache {
+
+    private static final String DOCUMENT_PREFIX = "doc-";
+
+    /**
+     * Tamaño máximo en memoria (suma de longitudes de los JSON, en caracteres).
+     */
+    @Value("${ocr.cache.max-bytes:8388608}")
+    private long maxBytes;
+
+    /**
+     * Carpeta de la caché en disco. Vacío la desactiva.
+     */
+    @Value("${ocr.cache.disk-dir:}")
+    private String diskDir;
+
+    /**
+     * Tamaño máximo de la caché en disco en bytes.
+     */
+    @Value("${ocr.cache.disk-max-bytes:268435456}")
+    private long diskMaxBytes;
+
+    // LRU en orden de acceso, protegido por el monitor de esta instancia
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    private Path diskPath;
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    // Máximo de tamaños de archivos digitales recordados; al superarlo se olvidan todos
+    private static final int MAX_DOCUMENT_SIZES = 100_000;
+
+    // Tamaños de los archivos digitales con resultado en caché (pista, puede tener falsos positivos)
+    private final Set<Long> documentSizes = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (diskDir == null || diskDir.isBlank()) {
+            return;
+        }
+        diskPath = Path.of(diskDir);
+        Files.createDirectories(diskPath);
+        try (Stream<Path> files = Files.list(diskPath)) {
+            diskBytes.set(files.peek(this::recordDocumentSize).mapToLong(OcrResultCache::sizeOf).sum());
+        }
+        log.info("Caché OCR en disco: {} ({} bytes)", diskPath.toAbsolutePath(), diskBytes.get());
+    }
+
+    /**
+     * Construye la clave de caché de una imagen.
+     *
+     * @param sha256 Hash hexadecimal del contenido.
+     * @return Clave de caché.
+     */
+    public static String imageKey(String sha256) {
+        return "img-" + sha256;
+    }
+
+    /**
+     * Construye la clave de caché de un archivo digital.
+     *
+     * @param sha256 Hash hexadecimal del contenido.
+     * @param size Tamaño del archivo en bytes.
+     * @return Clave de caché.
+     */
+    public static String documentKey(String sha256, long size) {
+        return DOCUMENT_PREFIX + size + "-" + sha256;
+    }
+
+    /**
+     * Indica si puede haber en caché un resultado de un archivo digital de ese tamaño. Si devuelve
+     * false seguro que no lo hay, y no hace falta calcular el hash antes de enviar el archivo.
+     *
+     * @param size Tamaño del archivo en bytes.
+     * @return true si hay algún resultado guardado de un archivo digital de ese tamaño.
+     */
+    public boolean mayContainDocument(long size) {
+        return documentSizes.contains(size);
+    }
+
+    /**
+     * Busca un resultado OCR, primero en memoria y después en disco.
+     *
+     * @param key Clave obtenida con {@link #imageKey} o {@link #documentKey}.
+     * @return JSON devuelto por el OCR o null si no está en caché.
+     */
+    public String get(String key) {
+        synchronized (this) {
+            String json = entries.get(key);
+            if (json != null) {
+                hits.incrementAndGet();
+                return json;
+            }
+        }
+
+        String json = readFromDisk(key);
+        if (json != null) {
+            hits.incrementAndGet();
+            putInMemory(key, json);
+            return json;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Guarda un resultado OCR válido.
+     *
+     * @param key Clave obtenida con {@link #imageKey} o {@link #documentKey}.
+     * @param json JSON devuelto por el OCR.
+     */
+    public void put(String key, String json) {
+        if (json == null) {
+            return;
+        }
+        putInMemory(key, json);
+        writeToDisk(key, json);
+        recordDocumentSize(key);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void recordDocumentSize(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".json")) {
+            recordDocumentSize(name.substring(0, name.length() - ".json".length()));
+        }
+    }
+
+    /**
+     * Recuerda el tamaño de una clave de {@link #documentKey}; ignora las demás claves.
+     */
+    private void recordDocumentSize(String key) {
+        if (!key.startsWith(DOCUMENT_PREFIX)) {
+            return;
+        }
+        int end = key.indexOf('-', DOCUMENT_PREFIX.length());
+        if (end < 0) {
+            return;
+        }
+        try {
+            long size = Long.parseLong(key.substring(DOCUMENT_PREFIX.length(), end));
+            if (documentSizes.size() >= MAX_DOCUMENT_SIZES) {
+                documentSizes.clear();
+            }
+            documentSizes.add(size);
+        } catch (NumberFormatException e) {
+            // Clave de otro formato
+        }
+    }
+
+    private synchronized void putInMemory(String key, String json) {
+        if (json.length() > maxBytes) {
+            return;
+        }
+        String previous = entries.put(key, json);
+        if (previous != null) {
+            currentBytes -= previous.length();
+        }
+        currentBytes += json.length();
+
+        Iterator<Map.Entry<String, String>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            currentBytes -= it.next().getValue().length();
+            it.remove();
+        }
+    }
+
+    private String readFromDisk(String key) {
+        if (diskPath == null) {
+            return null;
+        }
+        Path file = diskPath.resolve(key + ".json");
+        try {
+            String json = Files.readString(file, StandardCharsets.UTF_8);
+            // Se marca como usado para que la limpieza elimine primero los menos recientes
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return json;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("No se pudo leer la caché OCR {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, String json) {
+        if (diskPath == null) {
+            return;
+        }
+        Path file = diskPath.resolve(key + ".json");
+        try {
+            if (Files.exists(file)) {
+                return;
+            }
+            // Escritura atómica: otro hilo nunca ve un archivo a medias
+            Path temp = Files.createTempFile(diskPath, key, ".tmp");
+            Files.writeString(temp, json, StandardCharsets.UTF_8);
+            long size = Files.size(temp);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            if (diskBytes.addAndGet(size) > diskMaxBytes) {
+                trimDisk();
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo guardar la caché OCR {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Elimina los archivos menos usados hasta volver por debajo del límite.
+     */
+    private synchronized void trimDisk() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(diskPath)) {
+            files = list.sorted(Comparator.comparingLong(OcrResultCache::lastModified)).toList();
+        }
+        long total = files.stream().mapToLong(OcrResultCache::sizeOf).sum();
+        for (Path file : files) {
+            if (total <= diskMaxBytes) {
+                break;
+            }
+            long size = sizeOf(file);
+            if (Files.deleteIfExists(file)) {
+                total -= size;
+            }
+        }
+        diskBytes.set(total);
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
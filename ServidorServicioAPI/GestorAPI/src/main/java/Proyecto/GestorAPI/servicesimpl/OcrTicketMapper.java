@@ -0,0 +1,178 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.exceptions.ErrorPharseJsonException;
+import Proyecto.GestorAPI.models.Ticket;
+import Proyecto.GestorAPI.models.User;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.modelsDTO.ticket.ProductTicketResponse;
+import Proyecto.GestorAPI.modelsDTO.ticket.TicketResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Conversión del resultado del servidor OCR (JSON) en un {@link Ticket}.
+ *
+ * Usa el ObjectMapper configurado de la aplicación y un lector y un escritor de Jackson creados una
+ * sola vez (son inmutables y seguros entre hilos). El resultado se recorre con un {@link JsonParser} sin
+ * construir el {@link TicketResponse} completo: los campos sueltos se leen directamente del flujo,
+ * los desconocidos se saltan sin crear objetos y solo la lista de artículos pasa por databind para
+ * guardarla con el formato de {@code List<ProductTicketResponse>}.
+ *
+ * Los valores que faltan toman los mismos valores por defecto que antes: tienda "Desconocido",
+ * nombre "Ticket", total e IVA 0, y fecha y hora actuales si no vienen o no son válidas.
+ */
+@Component
+public class OcrTicketMapper {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    /**
+     * Tienda asignada cuando el OCR no la detecta.
+     */
+    public static final String UNKNOWN_STORE = "Desconocido";
+    private static final String DEFAULT_NAME = "Ticket";
+    private static final String DEFAULT_DESCRIPTION = "Sin descripción..";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader productsReader;
+    private final ObjectWriter productsWriter;
+
+    public OcrTicketMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.productsReader = objectMapper.readerFor(new TypeReference<List<ProductTicketResponse>>() {});
+        this.productsWriter = objectMapper.writerFor(new TypeReference<List<ProductTicketResponse>>() {});
+    }
+
+    /**
+     * Crea un ticket a partir del resultado OCR. No asigna la categoría.
+     *
+     * @param ocrResult Resultado OCR en JSON.
+     * @param user      Usuario propietario del ticket.
+     * @return Ticket sin guardar.
+     * @throws ErrorPharseJsonException si el JSON no es válido o algún campo no tiene el tipo esperado.
+     */
+    public Ticket toTicket(String ocrResult, User user) throws ErrorPharseJsonException {
+        String store = null;
+        String date = null;
+        String time = null;
+        Double total = null;
+        Double iva = null;
+        String products = "[]";
+
+        try (JsonParser parser = objectMapper.createParser(ocrResult)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ErrorPharseJsonException("Error al cargar ocr desde Python: se esperaba un objeto JSON");
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "establecimiento" -> store = text(parser, token);
+                    case "fecha" -> date = text(parser, token);
+                    case "hora" -> time = text(parser, token);
+                    case "total" -> total = number(parser, token);
+                    case "iva" -> iva = number(parser, token);
+                    case "articulos" -> products = copyProducts(parser, token);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new ErrorPharseJsonException("Error al cargar ocr desde Python: " + e);
+        }
+
+        Ticket ticket = new Ticket();
+        ticket.setUser(user);
+        ticket.setStore(store != null ? store : UNKNOWN_STORE);
+        ticket.setName(store != null ? store : DEFAULT_NAME);
+        ticket.setDescription(DEFAULT_DESCRIPTION);
+        ticket.setProductsJSON(products);
+        ticket.setTotal(total != null ? total : 0.0);
+        ticket.setIva(iva != null ? iva : 0.0);
+        ticket.setExpenseDate(LocalDateTime.of(parseDate(date), parseTime(time)));
+        ticket.setTypeExpense(ExpenseClass.TICKET);
+        return ticket;
+    }
+
+    /**
+     * Lee el array de artículos desde la posición actual del parser y lo vuelve a escribir como
+     * JSON de productos. Se lee como lista completa y no artículo a artículo: cada lectura o
+     * escritura independiente crea su propio contexto de Jackson, lo que cuesta más que la lista.
+     */
+    private String copyProducts(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return "[]";
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IOException("el campo articulos debe ser una lista");
+        }
+        List<ProductTicketResponse> products = productsReader.readValue(parser);
+        return productsWriter.writeValueAsString(products);
+    }
+
+    private static String text(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new IOException("se esperaba un texto en " + parser.currentName());
+        }
+        return parser.getText();
+    }
+
+    private static Double number(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String value = parser.getText().trim();
+            if (value.isEmpty()) {
+                return null;
+            }
+            try {
+                return Double.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IOException("número no válido en " + parser.currentName() + ": " + value);
+            }
+        }
+        throw new IOException("se esperaba un número en " + parser.currentName());
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value != null && !value.isEmpty()) {
+            try {
+                return LocalDate.parse(value, DATE_FORMAT);
+            } catch (DateTimeParseException e) {
+                // Fecha inválida: se usa la actual
+            }
+        }
+        return LocalDate.now();
+    }
+
+    private static LocalTime parseTime(String value) {
+        if (value != null && !value.isEmpty()) {
+            try {
+                return LocalTime.parse(value, TIME_FORMAT);
+            } catch (DateTimeParseException e) {
+                // Hora inválida: se usa la actual
+            }
+        }
+        return LocalTime.now();
+    }
+}
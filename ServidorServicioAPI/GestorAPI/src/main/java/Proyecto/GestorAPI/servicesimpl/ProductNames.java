@@ -0,0 +1,30 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+/**
+ * Normalización de nombres de producto y de tienda para buscarlos y agruparlos.
+ *
+ * El OCR y los usuarios escriben el mismo producto de formas distintas ("Leche Entera",
+ * "LECHE  ENTERA", "léche entera"); todas se reducen a "leche entera".
+ */
+final class ProductNames {
+
+    // Longitud de las columnas de nombre
+    static final int MAX_LENGTH = 150;
+
+    private ProductNames() {
+    }
+
+    /**
+     * Normaliza con {@link TextNormalizer#normalize} y recorta a la longitud de la columna.
+     *
+     * @param name Nombre original (puede ser null).
+     * @return Nombre normalizado, vacío si no hay nombre.
+     */
+    static String normalize(String name) {
+        return truncate(TextNormalizer.normalize(name), MAX_LENGTH);
+    }
+
+    static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+}
@@ -0,0 +1,166 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.config.http.CircuitBreaker;
+import Proyecto.GestorAPI.exceptions.PythonServerUnavailableException;
+import Proyecto.GestorAPI.modelsDTO.StatusServerResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protección de las llamadas al servidor Python (OCR e IA).
+ *
+ * Combina un cortocircuito compartido, que rechaza las llamadas mientras el servidor está caído,
+ * con un límite de llamadas simultáneas independiente para OCR y para chat, de forma que un
+ * servidor lento no acapare los hilos de la API. En ambos casos se lanza
+ * {@link PythonServerUnavailableException} (503) sin esperar al servidor.
+ *
+ * Con el circuito abierto, una tarea periódica consulta {@code /api/status} y lo cierra en cuanto
+ * el servidor vuelve a responder.
+ */
+@Slf4j
+@Component
+public class PythonServerGuard {
+
+    /**
+     * Grupos de llamadas con límite de concurrencia propio.
+     */
+    public enum Bulkhead { OCR, CHAT }
+
+    /**
+     * Llamada protegida que puede lanzar una excepción comprobada.
+     */
+    @FunctionalInterface
+    public interface GuardedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    @Autowired
+    private PythonStatusClient statusClient;
+
+    @Value("${python.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${python.breaker.open-duration:30000}")
+    private long openDurationMs;
+
+    @Value("${python.bulkhead.ocr.max-concurrent:4}")
+    private int ocrMaxConcurrent;
+
+    @Value("${python.bulkhead.chat.max-concurrent:8}")
+    private int chatMaxConcurrent;
+
+    @Value("${python.bulkhead.max-wait:500}")
+    private long maxWaitMs;
+
+    private CircuitBreaker breaker;
+    private final Map<Bulkhead, Semaphore> bulkheads = new EnumMap<>(Bulkhead.class);
+
+    @PostConstruct
+    public void init() {
+        breaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        bulkheads.put(Bulkhead.OCR, new Semaphore(ocrMaxConcurrent));
+        bulkheads.put(Bulkhead.CHAT, new Semaphore(chatMaxConcurrent));
+    }
+
+    /**
+     * Ejecuta una llamada al servidor Python respetando el cortocircuito y el límite del grupo.
+     *
+     * Los errores de conexión, tiempos de espera y respuestas 5xx cuentan como fallos;
+     * las respuestas 4xx indican que el servidor está operativo y, como un éxito, reinician
+     * la cuenta de fallos seguidos.
+     *
+     * @param bulkhead Grupo de la llamada.
+     * @param call Llamada a realizar.
+     * @return Resultado de la llamada.
+     * @throws PythonServerUnavailableException Si el circuito está abierto o el grupo está lleno.
+     * @throws E La excepción propia de la llamada.
+     */
+    public <T, E extends Exception> T execute(Bulkhead bulkhead, GuardedCall<T, E> call) throws E {
+        checkAvailable();
+
+        Semaphore permits = bulkheads.get(bulkhead);
+        if (!acquire(permits)) {
+            throw new PythonServerUnavailableException("Demasiadas peticiones simultáneas al servidor " + bulkhead + ", inténtelo más tarde");
+        }
+        try {
+            T result = call.call();
+            breaker.recordSuccess();
+            return result;
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            if (breaker.recordFailure()) {
+                log.warn("Circuito del servidor Python abierto tras {} fallos: {}", failureThreshold, e.getMessage());
+            }
+            throw e;
+        } catch (HttpClientErrorException e) {
+            breaker.recordSuccess();
+            throw e;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Comprueba que el circuito admite llamadas.
+     *
+     * @throws PythonServerUnavailableException Si el circuito no está cerrado.
+     */
+    public void checkAvailable() {
+        if (!isAvailable()) {
+            throw new PythonServerUnavailableException("Servidor OCR/IA no disponible, inténtelo más tarde");
+        }
+    }
+
+    /**
+     * @return true si el circuito admite llamadas.
+     */
+    public boolean isAvailable() {
+        return breaker.allowsCalls();
+    }
+
+    public CircuitBreaker.State getState() {
+        return breaker.getState();
+    }
+
+    /**
+     * Comprobación de prueba: con el circuito abierto el tiempo suficiente, consulta el estado
+     * del servidor y cierra o reabre el circuito.
+     */
+    @Scheduled(fixedDelayString = "${python.breaker.probe-interval:5000}")
+    public void probe() {
+        if (!breaker.tryHalfOpen()) {
+            return;
+        }
+        boolean healthy;
+        try {
+            StatusServerResponse status = statusClient.fetchStatus();
+            healthy = status != null && status.isStatusServer();
+        } catch (RuntimeException e) {
+            healthy = false;
+        }
+        breaker.onProbeResult(healthy);
+        if (healthy) {
+            log.info("Servidor Python disponible de nuevo, circuito cerrado");
+        }
+    }
+
+    private boolean acquire(Semaphore permits) {
+        try {
+            return permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.modelsDTO.StatusServerResponse;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Consulta del endpoint de estado del servidor Python.
+ *
+ * Está separado de {@link OCRServiceImpl} para que el cortocircuito pueda usarlo como
+ * comprobación de prueba sin depender del propio servicio OCR que protege.
+ *
+ * Usa el pool de conexiones compartido, pero con tiempos de espera propios y cortos: el estado
+ * responde al momento, y una consulta que tarda indica que el servidor no está disponible. Con el
+ * tiempo de lectura de las llamadas OCR, un servidor colgado bloquearía el muestreo de
+ * estadísticas y la comprobación del cortocircuito durante minutos.
+ */
+@Component
+public class PythonStatusClient {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${python.server.url}")
+    private String pythonServerUrl;
+
+    /**
+     * @param pythonHttpClient Cliente HTTP con el pool de conexiones compartido.
+     * @param timeoutMs Espera máxima por una conexión del pool y por la respuesta, en milisegundos.
+     */
+    public PythonStatusClient(CloseableHttpClient pythonHttpClient,
+                              @Value("${python.http.status-timeout:2000}") long timeoutMs) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(pythonHttpClient);
+        requestFactory.setConnectionRequestTimeout(Duration.ofMillis(timeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Consulta el estado del servidor Python.
+     *
+     * @return Estado devuelto por el servidor.
+     * @throws org.springframework.web.client.RestClientException Si el servidor no responde o responde con error.
+     */
+    public StatusServerResponse fetchStatus() {
+        String url = pythonServerUrl + "/api/status";
+        ResponseEntity<StatusServerResponse> response = restTemplate.getForEntity(url, StatusServerResponse.class);
+        return response.getBody();
+    }
+}
@@ -1,27 +1,37 @@
 package Proyecto.GestorAPI.servicesimpl;
 
 import Proyecto.GestorAPI.exceptions.ErrorConexionServidorException;
+import Proyecto.GestorAPI.modelsDTO.HttpPoolStatsDto;
 import Proyecto.GestorAPI.modelsDTO.ServerInfoDto;
+import Proyecto.GestorAPI.modelsDTO.ServerStatsSampleDto;
+import Proyecto.GestorAPI.modelsDTO.StatusServerResponse;
 import Proyecto.GestorAPI.services.SpentService;
 import Proyecto.GestorAPI.services.UserService;
 import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import oshi.SystemInfo;
 import oshi.hardware.CentralProcessor;
 import oshi.hardware.GlobalMemory;
 import oshi.hardware.HardwareAbstractionLayer;
 import oshi.hardware.Sensors;
 import oshi.software.os.OperatingSystem;
-import oshi.util.Util;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Servicio que recopila y proporciona información detallada sobre el estado del servidor.
  *
  * Utiliza la librería OSHI para obtener métricas del hardware y sistema operativo,
  * además de combinar datos propios de la aplicación a través de servicios inyectados.
+ * Las métricas se toman periódicamente en segundo plano y las consultas devuelven la
+ * última instantánea, junto con un histórico reciente acotado.
  *
  * Anotado con @Service para ser detectado como componente de Spring,
  * y @RequiredArgsConstructor para inyección automática de dependencias finales.
@@ -45,35 +55,134 @@ public class ServerStatsServiceImpl {
      */
     private final SpentService spentService;
 
+    /**
+     * Pool de conexiones HTTP hacia el servidor Python, para informar de su ocupación.
+     */
+    private final PoolingHttpClientConnectionManager pythonConnectionManager;
+
+    /**
+     * Protección de llamadas al servidor Python, para informar del estado del circuito.
+     */
+    private final PythonServerGuard pythonServerGuard;
+
     /**
      * Objeto principal de OSHI para acceder a información del hardware y sistema operativo.
      */
     private final SystemInfo systemInfo = new SystemInfo();
 
     /**
-     * Obtiene un objeto DTO con información completa del servidor, incluyendo:
+     * Cargas de CPU de las últimas muestras (ventana deslizante).
+     */
+    private final ArrayDeque<Double> cpuWindow = new ArrayDeque<>();
+
+    /**
+     * Histórico acotado de muestras, de la más antigua a la más reciente.
+     */
+    private final ArrayDeque<ServerStatsSampleDto> history = new ArrayDeque<>();
+
+    /**
+     * Última instantánea completa, publicada por el muestreo periódico.
+     */
+    private volatile ServerInfoDto snapshot;
+
+    private long[] prevTicks;
+    private long countsSampledAt;
+    private int cachedUsers;
+    private int cachedSpents;
+
+    @Value("${server.stats.cpu-window:6}")
+    private int cpuWindowSize;
+
+    @Value("${server.stats.history-size:360}")
+    private int historySize;
+
+    @Value("${server.stats.counts-interval:60000}")
+    private long countsIntervalMs;
+
+    @PostConstruct
+    public void init() {
+        prevTicks = systemInfo.getHardware().getProcessor().getSystemCpuLoadTicks();
+    }
+
+    /**
+     * Obtiene un objeto DTO con información completa del servidor.
+     *
+     * Devuelve la última instantánea tomada en segundo plano por {@link #sample()}, por lo que
+     * no realiza ninguna consulta ni espera. Solo si aún no hay ninguna muestra se toma una.
+     *
+     * @return ServerInfoDto con los datos completos de estado del servidor.
+     */
+    public ServerInfoDto getFullServerInfo() {
+        ServerInfoDto current = snapshot;
+        if (current == null) {
+            sample();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Devuelve el histórico de muestras más recientes.
+     *
+     * @param limit Número máximo de muestras.
+     * @return Muestras ordenadas de la más antigua a la más reciente.
+     */
+    public List<ServerStatsSampleDto> getHistory(int limit) {
+        synchronized (history) {
+            int skip = Math.max(0, history.size() - limit);
+            return history.stream().skip(skip).toList();
+        }
+    }
+
+    /**
+     * Toma una muestra del estado del servidor y publica una nueva instantánea:
      * - Nombre del servidor (hardcodeado como "GESTHOR1")
-     * - Cantidad de usuarios
-     * - Estado del servicio OCR (demo y servidor activo)
-     * - Cantidad de gastos registrados
+     * - Cantidad de usuarios y de gastos (refrescadas cada {@code server.stats.counts-interval})
+     * - Estado del servicio OCR (una sola consulta por muestra)
      * - Espacio total y usado en disco (en GB)
      * - Información de sistema operativo y hardware:
-     *   carga CPU (%), tiempo de actividad, memoria total y usada,
+     *   carga CPU (%) media de la ventana deslizante, tiempo de actividad, memoria total y usada,
      *   disco total y usado, temperatura CPU.
-     * - Fecha de creación y actualización del DTO (momento de la consulta).
+     * - Fecha de creación y actualización del DTO (momento de la muestra).
      *
-     * @return ServerInfoDto con los datos completos de estado del servidor.
+     * La consulta al servidor OCR se hace antes de tomar el cerrojo del muestreo, para que un
+     * servidor lento no deje esperando a la primera petición de {@link #getFullServerInfo()}.
+     */
+    @Scheduled(fixedDelayString = "${server.stats.sample-interval:10000}")
+    public void sample() {
+        boolean activeOcr;
+        boolean activeApi;
+        try {
+            StatusServerResponse status = ocrService.getStatus();
+            activeOcr = status.isDemo();
+            activeApi = status.isStatusServer();
+        } catch (Exception | ErrorConexionServidorException e) {
+            activeOcr = false;
+            activeApi = false;
+        }
+        synchronized (this) {
+            sample(activeOcr, activeApi);
+        }
+    }
+
+    /**
+     * Toma el resto de métricas y publica la instantánea. Se llama con el cerrojo tomado, porque
+     * la ventana de CPU y los recuentos se comparten entre muestras.
      */
-    public ServerInfoDto getFullServerInfo() throws ErrorConexionServidorException {
+    private void sample(boolean activeOcr, boolean activeApi) {
         // Obtiene la capa de hardware y sistema operativo
         HardwareAbstractionLayer hal = systemInfo.getHardware();
         OperatingSystem os = systemInfo.getOperatingSystem();
 
-        // Obtiene datos de CPU y calcula la carga tras 1 segundo de espera
+        // Carga de CPU desde la muestra anterior, promediada en la ventana deslizante
         CentralProcessor processor = hal.getProcessor();
-        long[] prevTicks = processor.getSystemCpuLoadTicks();
-        Util.sleep(1000);
-        double cpuLoad = processor.getSystemCpuLoadBetweenTicks(prevTicks);
+        long[] ticks = processor.getSystemCpuLoadTicks();
+        cpuWindow.addLast(processor.getSystemCpuLoadBetweenTicks(prevTicks));
+        prevTicks = ticks;
+        while (cpuWindow.size() > cpuWindowSize) {
+            cpuWindow.removeFirst();
+        }
+        double cpuLoad = cpuWindow.stream().mapToDouble(Double::doubleValue).average().orElse(0);
 
         // Obtiene memoria total y memoria usada actualmente
         GlobalMemory memory = hal.getMemory();
@@ -89,29 +198,34 @@ public class ServerStatsServiceImpl {
         Sensors sensors = hal.getSensors();
         double cpuTemp = sensors.getCpuTemperature();
 
+        // Los recuentos cambian despacio: se refrescan con menos frecuencia
+        long now = System.currentTimeMillis();
+        if (snapshot == null || now - countsSampledAt >= countsIntervalMs) {
+            cachedUsers = userService.getCountUsers();
+            cachedSpents = spentService.getCountSpents();
+            countsSampledAt = now;
+        }
+
         // Crea y rellena DTO con toda la información recopilada
         ServerInfoDto dto = new ServerInfoDto();
         dto.setName("GESTHOR1");                                // Nombre estático del servidor
-        dto.setUsers(userService.getCountUsers());              // Cantidad de usuarios registrados
-
-        try {
-            dto.setActiveocr(ocrService.getStatus().isDemo());      // Estado demo del OCR
-            dto.setActiveapi(ocrService.getStatus().isStatusServer()); // Estado activo del servidor OCR
-        }catch (Exception e){
-            dto.setActiveocr(false);
-            dto.setActiveapi(false);
-        }
-        dto.setSpenses(spentService.getCountSpents());          // Cantidad de gastos registrados
-
+        dto.setUsers(cachedUsers);                              // Cantidad de usuarios registrados
 
+        dto.setActiveocr(activeOcr);                            // Estado demo del OCR
+        dto.setActiveapi(activeApi);                            // Estado activo del servidor OCR
+        dto.setSpenses(cachedSpents);                           // Cantidad de gastos registrados
+        HttpPoolStatsDto pool = HttpPoolStatsDto.from(pythonConnectionManager.getTotalStats());
+        dto.setPythonHttpPool(pool);                            // Ocupación del pool HTTP
+        dto.setPythonCircuit(pythonServerGuard.getState().name());   // Estado del cortocircuito
 
         // Conversión a gigabytes para almacenamiento
         dto.setStorage((int) (totalDisk / 1_073_741_824));
         dto.setUsedStorage((int) (usedDisk / 1_073_741_824));
 
-        // Fecha y hora actuales para creación y actualización del DTO
-        dto.setCreatedAt(new Date());
-        dto.setUpdatedAt(new Date());
+        // Fecha y hora de la muestra
+        Date sampledAt = new Date(now);
+        dto.setCreatedAt(sampledAt);
+        dto.setUpdatedAt(sampledAt);
 
         // Información detallada del sistema operativo y hardware
         dto.setOs(os.toString());               // Descripción del sistema operativo
@@ -123,7 +237,14 @@ public class ServerStatsServiceImpl {
         dto.setUsedDisk(usedDisk);               // Espacio usado en disco en bytes
         dto.setCpuTemperature(cpuTemp);          // Temperatura de CPU en grados Celsius
 
-        // Retorna el DTO con toda la información lista para consumo
-        return dto;
+        snapshot = dto;
+
+        synchronized (history) {
+            history.addLast(new ServerStatsSampleDto(sampledAt, dto.getCpuLoad(), usedMem, usedDisk, cpuTemp,
+                    dto.isActiveapi(), pool.leased(), pool.pending()));
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
     }
 }
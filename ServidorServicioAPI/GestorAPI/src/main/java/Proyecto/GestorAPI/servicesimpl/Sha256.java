@@ -0,0 +1,67 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Cálculo de hashes SHA-256 en hexadecimal.
+ *
+ * Lo usan la caché de resultados OCR y el almacenamiento (hash del archivo subido) y la importación
+ * de extractos (clave de cada movimiento).
+ */
+public final class Sha256 {
+
+    private Sha256() {
+    }
+
+    /**
+     * Calcula el SHA-256 de un flujo leyéndolo una sola vez.
+     *
+     * @param in Flujo a consumir; se cierra al terminar.
+     * @return Hash en hexadecimal.
+     * @throws IOException Si falla la lectura.
+     */
+    public static String of(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+            digestIn.transferTo(OutputStream.nullOutputStream());
+        }
+        return toHex(digest);
+    }
+
+    /**
+     * Calcula el SHA-256 de un texto codificado en UTF-8.
+     *
+     * @param text Texto.
+     * @return Hash en hexadecimal.
+     */
+    public static String of(String text) {
+        MessageDigest digest = newDigest();
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        return toHex(digest);
+    }
+
+    /**
+     * Crea un digest SHA-256 para calcular el hash mientras se copia un flujo.
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Termina el digest y devuelve el hash en hexadecimal.
+     */
+    public static String toHex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,113 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.Spent;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsSnapshot;
+import Proyecto.GestorAPI.services.SpentStatsService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserción por lotes de gastos nuevos (Spent y sus subclases).
+ *
+ * Cada llamada a {@link #write(List)} guarda los gastos en una única transacción: se persisten
+ * en lotes JDBC de {@code gastos.bulk.batch-size} sentencias y tras cada lote se vacía el contexto
+ * de persistencia ({@code flush} + {@code clear}) para que la memoria no crezca con el número de
+ * filas. Los IDs salen de la secuencia "pooled" de gastos, así que quedan asignados en el propio
+ * {@code persist} sin consultar la base de datos por fila. El resumen mensual se actualiza en la
+ * misma transacción con una sola actualización por fila del resumen.
+ *
+ * Los gastos deben llevar el usuario y la categoría como referencias (proxies) para no cargarlos.
+ */
+@Component
+public class SpentBatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SpentStatsService spentStatsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${gastos.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Guarda los gastos en una transacción. Si falla, no se guarda ninguno del bloque.
+     *
+     * @param spents Gastos nuevos; tras la llamada tienen el ID asignado y están desconectados del contexto.
+     * @throws org.springframework.dao.DataAccessException si falla la inserción.
+     */
+    public void write(List<? extends Spent> spents) {
+        write(spents, List.of());
+    }
+
+    /**
+     * Guarda los gastos y otras entidades nuevas en una transacción. Las entidades se insertan antes
+     * que los gastos: si alguna viola una restricción (por ejemplo la clave única de un movimiento
+     * de extracto ya importado), no se guarda ningún gasto del bloque.
+     *
+     * @param spents  Gastos nuevos; tras la llamada tienen el ID asignado y están desconectados del contexto.
+     * @param related Entidades nuevas que se guardan en la misma transacción.
+     * @throws org.springframework.dao.DataAccessException si falla la inserción.
+     */
+    public void write(List<? extends Spent> spents, List<?> related) {
+        if (spents.isEmpty() && related.isEmpty()) {
+            return;
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            // La sesión es la de toda la petición: se restaura el tamaño de lote al terminar
+            Session session = entityManager.unwrap(Session.class);
+            Integer previousBatchSize = session.getJdbcBatchSize();
+            session.setJdbcBatchSize(batchSize);
+            try {
+                persistAll(spents, related);
+            } finally {
+                session.setJdbcBatchSize(previousBatchSize);
+            }
+        });
+    }
+
+    private void persistAll(List<? extends Spent> spents, List<?> related) {
+        int pending = 0;
+        for (Object entity : related) {
+            entityManager.persist(entity);
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        List<SpentStatsSnapshot> snapshots = new ArrayList<>(spents.size());
+        for (Spent spent : spents) {
+            entityManager.persist(spent);
+            snapshots.add(SpentStatsSnapshot.of(spent));
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        spentStatsService.applyBatch(snapshots);
+    }
+
+    /**
+     * @return Número de sentencias por lote JDBC.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -0,0 +1,355 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.CategoryExpense;
+import Proyecto.GestorAPI.models.Spent;
+import Proyecto.GestorAPI.models.User;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.modelsDTO.spent.BulkImportResultDto;
+import Proyecto.GestorAPI.modelsDTO.spent.BulkRowResultDto;
+import Proyecto.GestorAPI.modelsDTO.spent.BulkSpentRow;
+import Proyecto.GestorAPI.repositories.UserRepository;
+import Proyecto.GestorAPI.services.CategoryExpenseService;
+import Proyecto.GestorAPI.services.SpentBulkImportService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class SpentBulkImportServiceImpl implements SpentBulkImportService {
+
+    private static final List<String> CSV_REQUIRED = List.of("name", "fechacompra", "total", "categoriaid");
+
+    @Autowired
+    private SpentBatchWriter batchWriter;
+
+    @Autowired
+    private CategoryExpenseService categoryExpenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Filas válidas que se guardan en cada transacción.
+     */
+    @Value("${gastos.bulk.commit-size:5000}")
+    private int commitSize;
+
+    /**
+     * Máximo de filas de datos por petición.
+     */
+    @Value("${gastos.bulk.max-rows:200000}")
+    private int maxRows;
+
+    @Override
+    public BulkImportResultDto importSpents(Long userId, Format format, InputStream in, boolean detail) {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("El usuario " + userId + " no existe");
+        }
+        ImportRun run = new ImportRun(userRepository.getReferenceById(userId), detail);
+        try {
+            if (format == Format.CSV) {
+                readCsv(in, run);
+            } else {
+                readJson(in, run);
+            }
+        } catch (IOException e) {
+            run.abort("Lectura interrumpida tras la fila " + run.rows + ": " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    /**
+     * Lee el CSV registro a registro. Las columnas se localizan por el nombre de la cabecera.
+     */
+    private void readCsv(InputStream in, ImportRun run) throws IOException {
+        CsvReader csv = CsvReader.open(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("El CSV está vacío");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = CSV_REQUIRED.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas obligatorias en la cabecera: " + missing);
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (!run.nextRow()) {
+                return;
+            }
+            BulkSpentRow row;
+            try {
+                row = new BulkSpentRow(
+                        text(record, columns.get("name")),
+                        text(record, columns.get("description")),
+                        text(record, columns.get("icon")),
+                        dateTime(text(record, columns.get("fechacompra"))),
+                        number(text(record, columns.get("total")), "total"),
+                        number(text(record, columns.get("iva")), "iva"),
+                        id(text(record, columns.get("categoriaid"))),
+                        text(record, columns.get("typeexpense"))
+                );
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                run.reject(e.getMessage());
+                continue;
+            }
+            run.accept(row);
+        }
+    }
+
+    /**
+     * Lee el array JSON elemento a elemento con el parser en streaming de Jackson. Cada elemento se
+     * convierte por separado, de modo que un valor mal tipado solo invalida su fila.
+     */
+    private void readJson(InputStream in, ImportRun run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Se esperaba un array JSON de gastos");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("el array JSON no está cerrado");
+                }
+                // La fila se cuenta cuando el elemento está completo
+                JsonNode node = token == JsonToken.START_OBJECT ? parser.readValueAsTree() : null;
+                if (node == null) {
+                    parser.skipChildren();
+                }
+                if (!run.nextRow()) {
+                    return;
+                }
+                if (node == null) {
+                    run.reject("Se esperaba un objeto JSON");
+                    continue;
+                }
+                try {
+                    run.accept(objectMapper.treeToValue(node, BulkSpentRow.class));
+                } catch (JsonProcessingException e) {
+                    run.reject("Valor no válido: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private static String text(List<String> record, Integer column) {
+        if (column == null || column >= record.size()) {
+            return null;
+        }
+        String value = record.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Admite fecha y hora ISO (con 'T' o espacio) o solo fecha (inicio del día).
+     */
+    private static LocalDateTime dateTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha no válida: " + value);
+        }
+    }
+
+    /**
+     * Admite coma decimal (CSV de hojas de cálculo en español) si el valor no lleva punto.
+     */
+    private static Double number(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.indexOf('.') < 0 ? value.replace(',', '.') : value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número no válido en " + field + ": " + value);
+        }
+    }
+
+    private static Long id(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Categoría no válida: " + value);
+        }
+    }
+
+    /**
+     * Estado de una importación: bloque pendiente de guardar, contadores e informe por fila.
+     */
+    private final class ImportRun {
+
+        private final long start = System.currentTimeMillis();
+        private final User user;
+        private final boolean detail;
+        private final Map<Long, CategoryExpense> categories = new HashMap<>();
+        private final List<Spent> pending = new ArrayList<>();
+        private final List<Integer> pendingRows = new ArrayList<>();
+        private final List<BulkRowResultDto> results = new ArrayList<>();
+
+        private int rows;
+        private int imported;
+        private int rejected;
+        private String error;
+
+        private ImportRun(User user, boolean detail) {
+            this.user = user;
+            this.detail = detail;
+        }
+
+        /**
+         * Avanza a la siguiente fila de datos.
+         *
+         * @return false si se ha alcanzado el máximo de filas y hay que dejar de leer.
+         */
+        boolean nextRow() {
+            if (rows >= maxRows) {
+                abort("Se ha superado el máximo de " + maxRows + " filas por importación");
+                return false;
+            }
+            rows++;
+            return true;
+        }
+
+        /**
+         * Valida la fila actual y, si es correcta, la añade al bloque pendiente.
+         */
+        void accept(BulkSpentRow row) {
+            Set<ConstraintViolation<BulkSpentRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                reject(violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; ")));
+                return;
+            }
+            ExpenseClass type;
+            try {
+                type = row.typeExpense() == null ? ExpenseClass.GASTO_GENERICO : ExpenseClass.valueOf(row.typeExpense());
+            } catch (IllegalArgumentException e) {
+                reject("Tipo de gasto no válido: " + row.typeExpense());
+                return;
+            }
+            CategoryExpense category = category(row.categoriaId());
+            if (category == null) {
+                reject("La categoría " + row.categoriaId() + " no existe");
+                return;
+            }
+
+            Spent spent = new Spent();
+            spent.setUser(user);
+            spent.setCategory(category);
+            spent.setName(row.name());
+            spent.setDescription(row.description());
+            spent.setIcon(row.icon());
+            spent.setExpenseDate(row.fechaCompra());
+            spent.setTotal(row.total());
+            spent.setIva(row.iva() != null ? row.iva() : 0);
+            spent.setTypeExpense(type);
+
+            pending.add(spent);
+            pendingRows.add(rows);
+            if (pending.size() >= commitSize) {
+                flush();
+            }
+        }
+
+        void reject(String message) {
+            rejected++;
+            results.add(BulkRowResultDto.error(rows, message));
+        }
+
+        void abort(String message) {
+            error = message;
+        }
+
+        /**
+         * Referencia a la categoría (sin consulta) o null si no existe; se resuelve una vez por importación.
+         */
+        private CategoryExpense category(Long id) {
+            if (!categories.containsKey(id)) {
+                categories.put(id, categoryExpenseService.getReference(id));
+            }
+            return categories.get(id);
+        }
+
+        /**
+         * Guarda el bloque pendiente. Si falla, todas sus filas se marcan como rechazadas.
+         */
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                batchWriter.write(pending);
+                imported += pending.size();
+                if (detail) {
+                    for (int i = 0; i < pending.size(); i++) {
+                        results.add(BulkRowResultDto.ok(pendingRows.get(i), pending.get(i).getSpentId()));
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Importación masiva: no se pudo guardar un bloque de {} gastos: {}", pending.size(), e.getMessage());
+                String message = "Error al guardar el bloque: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                rejected += pending.size();
+                for (Integer fila : pendingRows) {
+                    results.add(BulkRowResultDto.error(fila, message));
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        BulkImportResultDto finish() {
+            flush();
+            long duration = System.currentTimeMillis() - start;
+            log.info("Importación masiva de gastos del usuario {}: {} filas, {} guardadas, {} rechazadas en {} ms",
+                    user.getId(), rows, imported, rejected, duration);
+            // Las filas de un bloque fallido se anotan después de las rechazadas al leer
+            results.sort(Comparator.comparingInt(BulkRowResultDto::fila));
+            return new BulkImportResultDto(rows, imported, rejected, duration, error, results);
+        }
+    }
+}
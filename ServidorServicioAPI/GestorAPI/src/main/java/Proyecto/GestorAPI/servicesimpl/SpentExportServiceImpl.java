@@ -0,0 +1,156 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.Spent;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentFullDto;
+import Proyecto.GestorAPI.services.SpentExportService;
+import Proyecto.GestorAPI.services.SpentService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class SpentExportServiceImpl implements SpentExportService {
+
+    private static final String CSV_HEADER = "spentId,userId,categoriaId,name,description,icon,fechaCompra,total,iva,typeExpense," +
+            "store,productsJSON,start,end,accumulate,restartDay,intervalTime,activa";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SpentService spentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Tamaño de lectura del cursor JDBC. Con MySQL Connector/J, Integer.MIN_VALUE activa el modo
+     * streaming (fila a fila) en lugar de cargar todo el resultado en memoria del cliente.
+     */
+    @Value("${gastos.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    /**
+     * Exporta los gastos leyendo un {@code Stream<Spent>} de solo avance dentro de una transacción de solo lectura.
+     *
+     * Cada entidad se separa del contexto de persistencia tras escribirla para que éste no crezca
+     * con el número de filas exportadas.
+     *
+     * @param userId Id del usuario, o null para todos.
+     * @param format Formato de salida.
+     * @param out    Flujo de salida.
+     * @throws IOException si falla la escritura.
+     */
+    @Override
+    public void exportSpents(Long userId, Format format, OutputStream out) throws IOException {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        try {
+            tx.executeWithoutResult(status -> {
+                try (Stream<Spent> spents = streamSpents(userId)) {
+                    if (format == Format.CSV) {
+                        writeCsv(spents.iterator(), out);
+                    } else {
+                        writeNdjson(spents.iterator(), out);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Abre el flujo de gastos ordenado por fecha e id, con cursor de solo avance y sin caché.
+     */
+    private Stream<Spent> streamSpents(Long userId) {
+        String jpql = "SELECT s FROM Spent s "
+                + (userId != null ? "WHERE s.user.id = :userId " : "")
+                + "ORDER BY s.expenseDate, s.spentId";
+        var query = entityManager.createQuery(jpql, Spent.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false);
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        return query.getResultStream();
+    }
+
+    private void writeNdjson(Iterator<Spent> spents, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(SpentFullDto.class);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // El separador entre valores raíz es el salto de línea que se escribe tras cada fila
+            generator.setRootValueSeparator(null);
+            while (spents.hasNext()) {
+                Spent spent = spents.next();
+                writer.writeValue(generator, spentService.mappingSpentFullDto(spent));
+                generator.writeRaw('\n');
+                entityManager.detach(spent);
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<Spent> spents, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (spents.hasNext()) {
+            Spent spent = spents.next();
+            SpentFullDto dto = spentService.mappingSpentFullDto(spent);
+            writeCsvRow(writer,
+                    dto.getSpentId(), dto.getUserId(), dto.getCategoriaId(), dto.getName(), dto.getDescription(),
+                    dto.getIcon(), dto.getFechaCompra(), dto.getTotal(), dto.getIva(), dto.getTypeExpense(),
+                    dto.getStore(), dto.getProductsJSON(), dto.getStart(), dto.getEnd(), dto.getAccumulate(),
+                    dto.getRestartDay(), dto.getIntervalTime(), dto.getActiva());
+            entityManager.detach(spent);
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Escapa un valor CSV según RFC 4180 (comillas dobles si contiene separadores, comillas o saltos de línea).
+     */
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -6,18 +6,35 @@ import Proyecto.GestorAPI.models.Ticket;
 import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.models.enums.ExpenseClass;
 import Proyecto.GestorAPI.modelsDTO.spent.CreateSpentRequest;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentCursor;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentDto;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentFilterRequest;
 import Proyecto.GestorAPI.modelsDTO.spent.SpentFullDto;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentPageDto;
 import Proyecto.GestorAPI.modelsDTO.spent.UpdateSpentRequest;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsSnapshot;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionDto;
+import Proyecto.GestorAPI.modelsDTO.ticket.TicketDto;
 import Proyecto.GestorAPI.repositories.SpentRepository;
+import Proyecto.GestorAPI.repositories.SubscriptionRepository;
+import Proyecto.GestorAPI.repositories.TicketRepository;
 import Proyecto.GestorAPI.services.CategoryExpenseService;
 import Proyecto.GestorAPI.services.SpentService;
+import Proyecto.GestorAPI.services.SpentStatsService;
 import Proyecto.GestorAPI.services.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -27,12 +44,24 @@ public class SpentServiceImpl implements SpentService {
     @Autowired
     private SpentRepository repository;
 
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private CategoryExpenseService categoryExpenseService;
 
+    @Autowired
+    private SpentStatsService spentStatsService;
+
     /**
      * Obtiene todos los gastos registrados.
      *
@@ -64,14 +93,18 @@ public class SpentServiceImpl implements SpentService {
      *
      * Este método guarda un nuevo gasto o actualiza un gasto existente en la base de datos. Si el
      * objeto `Spent` ya existe, se actualizará con la nueva información. Si no, se creará un nuevo
-     * registro en la base de datos.
+     * registro en la base de datos. El resumen mensual se actualiza en la misma transacción.
      *
      * @param o El objeto `Spent` que se desea guardar o actualizar.
      * @return El objeto `Spent` guardado o actualizado.
      */
     @Override
+    @Transactional
     public Spent setItem(Spent o) {
-        return repository.save(o);
+        SpentStatsSnapshot before = spentStatsService.snapshot(o.getSpentId()).orElse(null);
+        Spent saved = repository.save(o);
+        spentStatsService.applyChange(before, SpentStatsSnapshot.of(saved));
+        return saved;
     }
 
     /**
@@ -83,8 +116,11 @@ public class SpentServiceImpl implements SpentService {
      * @param id El ID del gasto a eliminar.
      */
     @Override
+    @Transactional
     public void deleteByID(Long id) {
+        SpentStatsSnapshot before = spentStatsService.snapshot(id).orElse(null);
         repository.deleteById(id);
+        spentStatsService.applyChange(before, null);
     }
 
     /**
@@ -111,6 +147,27 @@ public class SpentServiceImpl implements SpentService {
         return repository.getByUserId(id);
     }
 
+    /**
+     * Obtiene todos los gastos proyectados a DTO en una sola consulta.
+     *
+     * @return Lista de SpentDto con todos los gastos.
+     */
+    @Override
+    public List<SpentDto> getAllSpentDtos() {
+        return repository.findAllDtos();
+    }
+
+    /**
+     * Obtiene los gastos de un usuario proyectados a DTO en una sola consulta.
+     *
+     * @param id Identificador único del usuario.
+     * @return Lista de SpentDto del usuario.
+     */
+    @Override
+    public List<SpentDto> getSpentDtosByUserId(Long id) {
+        return repository.findDtosByUserId(id);
+    }
+
     /**
      * Cuenta la cantidad total de gastos asociados a un usuario específico.
      *
@@ -132,6 +189,141 @@ public class SpentServiceImpl implements SpentService {
         return repository.countGastos();
     }
 
+    /**
+     * Obtiene una página de gastos usando paginación por cursor (keyset).
+     *
+     * La consulta se construye solo con los filtros indicados y proyecta las columnas de gastos a
+     * {@link SpentDto}, sin hidratar entidades ni unir las tablas de tickets y subscripciones; el
+     * cursor continúa justo después del último gasto devuelto sin OFFSET, con la condición
+     * {@code expense_date < ? OR (expense_date = ? AND spent_id < ?)}. Se escribe así y no como
+     * comparación de fila porque MySQL solo la convierte de forma fiable en un rango de los índices
+     * {@code idx_gastos_usuario_fecha} / {@code idx_gastos_fecha}. Los campos de tickets y
+     * subscripciones se leen después solo para los gastos de la página, por clave primaria.
+     *
+     * Se pide un elemento más del límite para saber si existe una página siguiente
+     * sin necesidad de una consulta COUNT adicional.
+     *
+     * @param userId Usuario propietario, o null para todos los usuarios.
+     * @param filter Filtros opcionales.
+     * @param cursor Cursor de la página anterior, o null para la primera página.
+     * @param limit  Tamaño de la página.
+     * @return Página de gastos con el cursor de la siguiente página.
+     */
+    @Override
+    public SpentPageDto getSpentsPage(Long userId, SpentFilterRequest filter, SpentCursor cursor, int limit) {
+        List<SpentDto> rows = findPage(userId, filter, cursor, limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<SpentDto> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            SpentDto last = page.get(page.size() - 1);
+            nextCursor = new SpentCursor(last.fechaCompra(), last.spentId()).encode();
+        }
+        return new SpentPageDto(mappingSpentFullDtos(page), nextCursor, hasMore);
+    }
+
+    /**
+     * Consulta de una página ordenada por (fecha, id) descendente con los filtros no nulos.
+     */
+    private List<SpentDto> findPage(Long userId, SpentFilterRequest filter, SpentCursor cursor, int size) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (userId != null) {
+            conditions.add("s.user.id = :userId");
+            params.put("userId", userId);
+        }
+        if (filter.desde() != null) {
+            conditions.add("s.expenseDate >= :desde");
+            params.put("desde", filter.desde());
+        }
+        if (filter.hasta() != null) {
+            conditions.add("s.expenseDate < :hasta");
+            params.put("hasta", filter.hasta());
+        }
+        if (filter.categoriaId() != null) {
+            conditions.add("s.category.id = :categoriaId");
+            params.put("categoriaId", filter.categoriaId());
+        }
+        if (filter.tipo() != null) {
+            conditions.add("s.typeExpense = :tipo");
+            params.put("tipo", filter.tipo());
+        }
+        if (filter.minTotal() != null) {
+            conditions.add("s.total >= :minTotal");
+            params.put("minTotal", filter.minTotal());
+        }
+        if (filter.maxTotal() != null) {
+            conditions.add("s.total <= :maxTotal");
+            params.put("maxTotal", filter.maxTotal());
+        }
+        if (cursor != null) {
+            conditions.add("(s.expenseDate < :cursorDate OR (s.expenseDate = :cursorDate AND s.spentId < :cursorId))");
+            params.put("cursorDate", cursor.expenseDate());
+            params.put("cursorId", cursor.spentId());
+        }
+        String jpql = SpentRepository.SPENT_DTO_SELECT
+                + (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions) + " ")
+                + "ORDER BY s.expenseDate DESC, s.spentId DESC";
+
+        TypedQuery<SpentDto> query = entityManager.createQuery(jpql, SpentDto.class)
+                .setMaxResults(size);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    /**
+     * Completa los gastos de una página con los campos de tickets y subscripciones, con una
+     * consulta por tabla para todos los gastos de la página.
+     */
+    private List<SpentFullDto> mappingSpentFullDtos(List<SpentDto> spents) {
+        if (spents.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = spents.stream().map(SpentDto::spentId).toList();
+        Map<Long, TicketDto> tickets = new HashMap<>();
+        for (TicketDto ticket : ticketRepository.findDtosByIds(ids)) {
+            tickets.put(ticket.spentId(), ticket);
+        }
+        Map<Long, SubscriptionDto> subscriptions = new HashMap<>();
+        for (SubscriptionDto subscription : subscriptionRepository.findDtosByIds(ids)) {
+            subscriptions.put(subscription.spentId(), subscription);
+        }
+
+        List<SpentFullDto> dtos = new ArrayList<>(spents.size());
+        for (SpentDto spent : spents) {
+            SpentFullDto dto = new SpentFullDto();
+            dto.setSpentId(spent.spentId());
+            dto.setUserId(spent.userId());
+            dto.setCategoriaId(spent.categoriaId());
+            dto.setName(spent.name());
+            dto.setDescription(spent.description());
+            dto.setIcon(spent.icon());
+            dto.setFechaCompra(spent.fechaCompra());
+            dto.setTotal(spent.total());
+            dto.setIva(spent.iva());
+            dto.setTypeExpense(spent.typeExpense());
+
+            TicketDto ticket = tickets.get(spent.spentId());
+            if (ticket != null) {
+                dto.setStore(ticket.store());
+                dto.setProductsJSON(ticket.productsJSON());
+            }
+            SubscriptionDto sub = subscriptions.get(spent.spentId());
+            if (sub != null) {
+                dto.setStart(sub.start());
+                dto.setEnd(sub.end());
+                dto.setAccumulate(sub.accumulate());
+                dto.setRestartDay(sub.restartDay());
+                dto.setIntervalTime(sub.intervalTime());
+                dto.setActiva(sub.activa());
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
     /**
      * Mapea los datos de la petición de actualización a entidad Spent.
      *
@@ -144,7 +336,7 @@ public class SpentServiceImpl implements SpentService {
         Spent spent = new Spent();
         spent.setSpentId(request.spentId());
         spent.setUser(userService.getUserById(clienteId).orElse(new User()));
-        spent.setCategory(categoryExpenseService.getByID(request.categoriaId()).orElse(null));
+        spent.setCategory(categoryExpenseService.getReference(request.categoriaId()));
         spent.setExpenseDate(request.fechaCompra());
         spent.setTypeExpense(ExpenseClass.valueOf(request.typeExpense()));
         spent.setTotal(request.total());
@@ -167,7 +359,7 @@ public class SpentServiceImpl implements SpentService {
     public Spent mappingSpent(CreateSpentRequest request, Long clienteId) {
         Spent spent = new Spent();
         spent.setUser(userService.getUserById(clienteId).orElse(new User()));
-        spent.setCategory(categoryExpenseService.getByID(request.categoriaId()).orElse(null));
+        spent.setCategory(categoryExpenseService.getReference(request.categoriaId()));
         spent.setExpenseDate(request.fechaCompra());
         spent.setTypeExpense(ExpenseClass.valueOf(request.typeExpense()));
         spent.setTotal(request.total());
@@ -205,7 +397,7 @@ public class SpentServiceImpl implements SpentService {
         SpentFullDto dto = new SpentFullDto();
         dto.setSpentId(gasto.getSpentId());
         dto.setUserId(gasto.getUser().getId());
-        dto.setCategoriaId(gasto.getCategory().getId());
+        dto.setCategoriaId(gasto.getCategory() != null ? gasto.getCategory().getId() : null);
         dto.setName(gasto.getName());
         dto.setDescription(gasto.getDescription());
         dto.setIcon(gasto.getIcon());
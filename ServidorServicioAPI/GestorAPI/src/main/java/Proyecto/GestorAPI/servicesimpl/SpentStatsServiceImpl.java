@@ -0,0 +1,225 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.SpentMonthlyStat;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsDto;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsSnapshot;
+import Proyecto.GestorAPI.repositories.SpentMonthlyStatRepository;
+import Proyecto.GestorAPI.repositories.SpentRepository;
+import Proyecto.GestorAPI.repositories.UserRepository;
+import Proyecto.GestorAPI.services.SpentStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class SpentStatsServiceImpl implements SpentStatsService {
+
+    @Autowired
+    private SpentMonthlyStatRepository repository;
+
+    @Autowired
+    private SpentRepository spentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Lee el estado almacenado de un gasto antes de modificarlo.
+     *
+     * @param spentId Id del gasto (null para gastos nuevos).
+     * @return Estado almacenado, o vacío si no existe.
+     */
+    @Override
+    public Optional<SpentStatsSnapshot> snapshot(Long spentId) {
+        if (spentId == null) {
+            return Optional.empty();
+        }
+        return spentRepository.findStatsSnapshot(spentId);
+    }
+
+    /**
+     * Resta el estado anterior y suma el nuevo sobre el resumen.
+     * Si ambos caen en la misma fila del resumen se aplica una única actualización con la diferencia.
+     *
+     * @param before Estado anterior, o null.
+     * @param after  Estado nuevo, o null.
+     */
+    @Override
+    @Transactional
+    public void applyChange(SpentStatsSnapshot before, SpentStatsSnapshot after) {
+        if (before != null && after != null && sameBucket(before, after)) {
+            double total = after.total() - before.total();
+            double iva = after.ivaAmount() - before.ivaAmount();
+            if (total != 0 || iva != 0) {
+                upsert(after, total, iva, 0);
+            }
+            return;
+        }
+        if (before != null) {
+            upsert(before, -before.total(), -before.ivaAmount(), -1);
+            repository.deleteEmpty(before.userId(), before.period());
+        }
+        if (after != null) {
+            upsert(after, after.total(), after.ivaAmount(), 1);
+        }
+    }
+
+    /**
+     * Acumula en memoria la suma de importe, IVA y número de gastos de cada fila del resumen
+     * y la aplica con un único upsert por fila.
+     *
+     * @param added Estado de los gastos creados.
+     */
+    @Override
+    @Transactional
+    public void applyBatch(List<SpentStatsSnapshot> added) {
+        Map<Bucket, double[]> deltas = new LinkedHashMap<>();
+        for (SpentStatsSnapshot s : added) {
+            Bucket bucket = new Bucket(s.userId(), s.period(), categoryKey(s.categoriaId()), s.typeExpense());
+            double[] acc = deltas.computeIfAbsent(bucket, k -> new double[3]);
+            acc[0] += s.total();
+            acc[1] += s.ivaAmount();
+            acc[2]++;
+        }
+        deltas.forEach((b, acc) -> repository.upsertDelta(b.userId(), b.period(), b.categoryKey(), b.typeExpense().name(),
+                acc[0], acc[1], (long) acc[2]));
+    }
+
+    /**
+     * Obtiene el resumen del rango y lo agrupa en memoria; el número de filas leídas depende
+     * del número de meses, categorías y clases de gasto, no del número de gastos.
+     */
+    @Override
+    public List<SpentStatsDto> getStats(Long userId, YearMonth desde, YearMonth hasta, Grouping grouping) {
+        List<SpentMonthlyStat> rows = repository.findRange(userId, toPeriod(desde), toPeriod(hasta));
+
+        Map<List<Object>, double[]> totals = new LinkedHashMap<>();
+        Map<List<Object>, SpentStatsDto> keys = new LinkedHashMap<>();
+        for (SpentMonthlyStat row : rows) {
+            Integer anio = row.getPeriod() / 100;
+            Integer mes = row.getPeriod() % 100;
+            Long categoriaId = row.getCategoriaId() == SpentMonthlyStat.NO_CATEGORY ? null : row.getCategoriaId();
+            ExpenseClass tipo = row.getTypeExpense();
+
+            SpentStatsDto key = switch (grouping) {
+                case DETALLE -> new SpentStatsDto(anio, mes, categoriaId, tipo, 0, 0, 0);
+                case MES -> new SpentStatsDto(anio, mes, null, null, 0, 0, 0);
+                case ANIO -> new SpentStatsDto(anio, null, null, null, 0, 0, 0);
+                case CATEGORIA -> new SpentStatsDto(null, null, categoriaId, null, 0, 0, 0);
+                case TIPO -> new SpentStatsDto(null, null, null, tipo, 0, 0, 0);
+            };
+            List<Object> id = Arrays.asList(key.anio(), key.mes(), key.categoriaId(), key.typeExpense());
+            keys.putIfAbsent(id, key);
+            double[] acc = totals.computeIfAbsent(id, k -> new double[3]);
+            acc[0] += row.getTotal();
+            acc[1] += row.getIvaTotal();
+            acc[2] += row.getCount();
+        }
+
+        List<SpentStatsDto> result = new ArrayList<>(keys.size());
+        keys.forEach((id, key) -> {
+            double[] acc = totals.get(id);
+            result.add(new SpentStatsDto(key.anio(), key.mes(), key.categoriaId(), key.typeExpense(),
+                    acc[0], acc[1], (long) acc[2]));
+        });
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public void rebuildForUser(Long userId) {
+        repository.deleteByUserId(userId);
+        repository.rebuildForUser(userId);
+    }
+
+    /**
+     * Reconstruye el resumen usuario a usuario, cada uno en su propia transacción para no
+     * mantener bloqueos largos sobre la tabla de gastos.
+     */
+    @Override
+    public void rebuildAll() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long start = System.currentTimeMillis();
+        List<Long> userIds = userRepository.findAllIds();
+        for (Long userId : userIds) {
+            tx.executeWithoutResult(status -> {
+                repository.deleteByUserId(userId);
+                repository.rebuildForUser(userId);
+            });
+        }
+        Integer orphans = tx.execute(status -> repository.deleteOrphans());
+        log.info("Resumen mensual de gastos reconstruido: {} usuarios, {} filas huérfanas eliminadas en {} ms",
+                userIds.size(), orphans, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    @Transactional
+    public void deleteByUserId(Long userId) {
+        repository.deleteByUserId(userId);
+    }
+
+    /**
+     * Tarea programada de reparación del resumen mensual.
+     */
+    @Scheduled(cron = "${gastos.stats.rebuild.cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+
+    /**
+     * Al arrancar, construye el resumen si la tabla está vacía pero ya existen gastos
+     * (primera ejecución tras introducir el resumen en una base de datos existente).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initIfEmpty() {
+        if (repository.count() == 0 && spentRepository.count() > 0) {
+            rebuildAll();
+        }
+    }
+
+    private void upsert(SpentStatsSnapshot s, double total, double iva, long count) {
+        repository.upsertDelta(s.userId(), s.period(), categoryKey(s.categoriaId()), s.typeExpense().name(),
+                total, iva, count);
+    }
+
+    private static boolean sameBucket(SpentStatsSnapshot a, SpentStatsSnapshot b) {
+        return Objects.equals(a.userId(), b.userId())
+                && a.period() == b.period()
+                && categoryKey(a.categoriaId()) == categoryKey(b.categoriaId())
+                && a.typeExpense() == b.typeExpense();
+    }
+
+    private static long categoryKey(Long categoriaId) {
+        return categoriaId != null ? categoriaId : SpentMonthlyStat.NO_CATEGORY;
+    }
+
+    private static int toPeriod(YearMonth yearMonth) {
+        return yearMonth.getYear() * 100 + yearMonth.getMonthValue();
+    }
+
+    /**
+     * Clave de una fila del resumen mensual.
+     */
+    private record Bucket(Long userId, int period, long categoryKey, ExpenseClass typeExpense) {
+    }
+}
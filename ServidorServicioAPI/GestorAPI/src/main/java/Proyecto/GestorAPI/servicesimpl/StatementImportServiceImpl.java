@@ -0,0 +1,375 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.CategoryExpense;
+import Proyecto.GestorAPI.models.Spent;
+import Proyecto.GestorAPI.models.StatementMovement;
+import Proyecto.GestorAPI.models.StatementRule;
+import Proyecto.GestorAPI.models.User;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.modelsDTO.spent.BulkRowResultDto;
+import Proyecto.GestorAPI.modelsDTO.statement.StatementImportResultDto;
+import Proyecto.GestorAPI.repositories.StatementMovementRepository;
+import Proyecto.GestorAPI.repositories.StatementRuleRepository;
+import Proyecto.GestorAPI.repositories.UserRepository;
+import Proyecto.GestorAPI.services.CategoryExpenseService;
+import Proyecto.GestorAPI.services.StatementImportService;
+import Proyecto.GestorAPI.servicesimpl.statement.StatementClassifier;
+import Proyecto.GestorAPI.servicesimpl.statement.StatementLine;
+import Proyecto.GestorAPI.servicesimpl.statement.StatementReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class StatementImportServiceImpl implements StatementImportService {
+
+    // Claves por consulta al comprobar qué movimientos ya se importaron
+    private static final int KEY_QUERY_SIZE = 1000;
+
+    /**
+     * Reglas iniciales: patrón, clase de gasto, nombre de la categoría (o null) y prioridad.
+     * Los comercios concretos van antes que las palabras genéricas ("recibo", "transferencia").
+     */
+    private static final List<DefaultRule> DEFAULT_RULES = List.of(
+            new DefaultRule("mercadona", ExpenseClass.GASTO_GENERICO, "Alimentos", 10),
+            new DefaultRule("carrefour", ExpenseClass.GASTO_GENERICO, "Alimentos", 10),
+            new DefaultRule("lidl", ExpenseClass.GASTO_GENERICO, "Alimentos", 10),
+            new DefaultRule("alcampo", ExpenseClass.GASTO_GENERICO, "Alimentos", 10),
+            new DefaultRule("eroski", ExpenseClass.GASTO_GENERICO, "Alimentos", 10),
+            new DefaultRule("farmacia", ExpenseClass.GASTO_GENERICO, "Salud y Belleza", 10),
+            new DefaultRule("restaurante", ExpenseClass.GASTO_GENERICO, "Restaurantes y Bares", 10),
+            new DefaultRule("cafeteria", ExpenseClass.GASTO_GENERICO, "Restaurantes y Bares", 10),
+            new DefaultRule("gasolinera", ExpenseClass.GASTO_GENERICO, "Transporte", 10),
+            new DefaultRule("renfe", ExpenseClass.GASTO_GENERICO, "Transporte", 10),
+            new DefaultRule("cabify", ExpenseClass.GASTO_GENERICO, "Transporte", 10),
+            new DefaultRule("uber", ExpenseClass.GASTO_GENERICO, "Transporte", 10),
+            new DefaultRule("iberdrola", ExpenseClass.FACTURA, "Hogar", 10),
+            new DefaultRule("endesa", ExpenseClass.FACTURA, "Hogar", 10),
+            new DefaultRule("naturgy", ExpenseClass.FACTURA, "Hogar", 10),
+            new DefaultRule("canal de isabel", ExpenseClass.FACTURA, "Hogar", 10),
+            new DefaultRule("movistar", ExpenseClass.FACTURA, "Teléfono e Internet", 10),
+            new DefaultRule("vodafone", ExpenseClass.FACTURA, "Teléfono e Internet", 10),
+            new DefaultRule("orange", ExpenseClass.FACTURA, "Teléfono e Internet", 10),
+            new DefaultRule("alquiler", ExpenseClass.FACTURA, "Alquiler", 20),
+            new DefaultRule("seguro", ExpenseClass.FACTURA, "Seguros", 20),
+            new DefaultRule("comision", ExpenseClass.GASTO_GENERICO, "Finanzas", 20),
+            new DefaultRule("intereses", ExpenseClass.GASTO_GENERICO, "Finanzas", 20),
+            new DefaultRule("hacienda", ExpenseClass.FACTURA, "Impuestos y Tasas", 20),
+            new DefaultRule("recibo", ExpenseClass.FACTURA, null, 50),
+            new DefaultRule("adeudo", ExpenseClass.FACTURA, null, 50),
+            new DefaultRule("domiciliacion", ExpenseClass.FACTURA, null, 50),
+            new DefaultRule("factura", ExpenseClass.FACTURA, null, 50),
+            new DefaultRule("transferencia", ExpenseClass.TRANSFERENCIA, null, 50),
+            new DefaultRule("traspaso", ExpenseClass.TRANSFERENCIA, null, 50),
+            new DefaultRule("bizum", ExpenseClass.TRANSFERENCIA, null, 50)
+    );
+
+    @Autowired
+    private StatementRuleRepository ruleRepository;
+
+    @Autowired
+    private StatementMovementRepository movementRepository;
+
+    @Autowired
+    private SpentBatchWriter batchWriter;
+
+    @Autowired
+    private CategoryExpenseService categoryExpenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Nombre de la categoría de los movimientos cuya regla no indica categoría.
+     */
+    @Value("${extracto.categoria-defecto:Varios}")
+    private String defaultCategoryName;
+
+    @Value("${gastos.bulk.commit-size:5000}")
+    private int commitSize;
+
+    /**
+     * Crea las reglas iniciales si la tabla está vacía (tras la carga de categorías por defecto).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedRules() {
+        if (ruleRepository.count() > 0) {
+            return;
+        }
+        List<StatementRule> rules = new ArrayList<>(DEFAULT_RULES.size());
+        for (DefaultRule r : DEFAULT_RULES) {
+            rules.add(new StatementRule(r.pattern(), r.typeExpense(), categoryId(r.category()), r.priority()));
+        }
+        ruleRepository.saveAll(rules);
+        log.info("Reglas de extracto iniciales creadas: {}", rules.size());
+    }
+
+    @Override
+    public StatementImportResultDto importStatement(Long userId, Format format, InputStream in, Charset charset) {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("El usuario " + userId + " no existe");
+        }
+        StatementClassifier classifier = new StatementClassifier(
+                ruleRepository.findByActiveTrueOrderByPriorityAscIdAsc(), categoryId(defaultCategoryName));
+        ImportRun run = new ImportRun(format, userRepository.getReferenceById(userId), classifier);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset), 64 * 1024);
+        try {
+            StatementReader statement = StatementReader.open(format, reader);
+            StatementLine line;
+            while ((line = statement.next()) != null) {
+                run.accept(line);
+            }
+        } catch (IOException e) {
+            run.error = "Lectura interrumpida tras " + run.lines + " movimientos: " + e.getMessage();
+        }
+        return run.finish();
+    }
+
+    @Override
+    public List<StatementRule> getRules() {
+        return ruleRepository.findAllByOrderByPriorityAscIdAsc();
+    }
+
+    @Override
+    public Optional<StatementRule> getRule(Long id) {
+        return ruleRepository.findById(id);
+    }
+
+    @Override
+    public StatementRule saveRule(StatementRule rule) {
+        return ruleRepository.save(rule);
+    }
+
+    @Override
+    public void deleteRule(Long id) {
+        ruleRepository.deleteById(id);
+    }
+
+    /**
+     * Id de la categoría con ese nombre (sin distinguir mayúsculas), o null si no existe.
+     */
+    private Long categoryId(String name) {
+        if (name == null) {
+            return null;
+        }
+        return categoryExpenseService.getAll().stream()
+                .filter(c -> c.getName().equalsIgnoreCase(name))
+                .map(CategoryExpense::getId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Estado de una importación de extracto: bloque pendiente, contadores y rechazos.
+     *
+     * Cada cargo se identifica con una clave (SHA-256 de {@link StatementLine#sourceId()}); los que
+     * el usuario ya importó, o que se repiten en el mismo fichero, se cuentan como duplicados y no
+     * crean gasto. Las claves nuevas se guardan en la misma transacción que los gastos del bloque.
+     *
+     * Para que la memoria no crezca con el tamaño del extracto, en memoria solo se comprueban las
+     * claves del bloque en curso; las repetidas de bloques anteriores ya están guardadas y las
+     * descarta {@link #skipImported()} (o, con importaciones simultáneas, la clave única de
+     * {@link StatementMovement}). Por el mismo motivo el recuento de apariciones se reinicia al
+     * cambiar de fecha: los extractos van ordenados por fecha y dos cargos iguales comparten fecha.
+     */
+    private final class ImportRun {
+
+        private final long start = System.currentTimeMillis();
+        private final Format format;
+        private final User user;
+        private final StatementClassifier classifier;
+        private final Map<Long, CategoryExpense> categories = new HashMap<>();
+        private final List<Spent> pending = new ArrayList<>();
+        private final List<Integer> pendingLines = new ArrayList<>();
+        private final List<StatementMovement> pendingMovements = new ArrayList<>();
+        // Claves del bloque en curso y apariciones de cada movimiento en la fecha en curso
+        private final Set<String> keys = new HashSet<>();
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private LocalDate occurrencesDate;
+        private final List<BulkRowResultDto> rejected = new ArrayList<>();
+        private final Map<ExpenseClass, Integer> byType = new EnumMap<>(ExpenseClass.class);
+
+        private int lines;
+        private int debits;
+        private int credits;
+        private int imported;
+        private int duplicates;
+        private double total;
+        private LocalDate from;
+        private LocalDate to;
+        private String error;
+
+        private ImportRun(Format format, User user, StatementClassifier classifier) {
+            this.format = format;
+            this.user = user;
+            this.classifier = classifier;
+        }
+
+        void accept(StatementLine line) {
+            lines++;
+            if (line.error() != null) {
+                rejected.add(BulkRowResultDto.error((int) line.line(), line.error()));
+                return;
+            }
+            if (!line.isDebit()) {
+                credits++;
+                return;
+            }
+            debits++;
+
+            String key = key(line);
+            if (!keys.add(key)) {
+                duplicates++;
+                return;
+            }
+
+            StatementClassifier.Classification classification = classifier.classify(line.description(), line.kind());
+            CategoryExpense category = category(classification.categoriaId());
+            if (category == null) {
+                rejected.add(BulkRowResultDto.error((int) line.line(),
+                        "Sin categoría: ninguna regla la indica y no existe la categoría por defecto '" + defaultCategoryName + "'"));
+                return;
+            }
+
+            String text = line.description() == null || line.description().isBlank()
+                    ? "Movimiento bancario" : line.description().trim();
+            Spent spent = new Spent();
+            spent.setUser(user);
+            spent.setCategory(category);
+            spent.setName(truncate(text, 150));
+            spent.setDescription(truncate("Extracto " + format.name() + ": " + text, 500));
+            spent.setExpenseDate(line.date().atStartOfDay());
+            // El importe del banco ya incluye los impuestos y no se puede desglosar
+            spent.setTotal(Math.round(-line.amount() * 100) / 100.0);
+            spent.setIva(0);
+            spent.setTypeExpense(classification.typeExpense());
+
+            pending.add(spent);
+            pendingLines.add((int) line.line());
+            pendingMovements.add(new StatementMovement(user.getId(), key, line.date()));
+            if (pending.size() >= commitSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Clave del movimiento. Los identificados por su contenido llevan además el número de
+         * aparición en el fichero, de modo que dos cargos iguales del mismo día se importan los dos
+         * y, al subir de nuevo el extracto, se reconocen los dos.
+         */
+        private String key(StatementLine line) {
+            String id = line.sourceId();
+            if (line.isContentId()) {
+                if (!line.date().equals(occurrencesDate)) {
+                    occurrences.clear();
+                    occurrencesDate = line.date();
+                }
+                id = id + "#" + occurrences.merge(id, 1, Integer::sum);
+            }
+            return Sha256.of(id);
+        }
+
+        /**
+         * Quita del bloque pendiente los movimientos que el usuario ya importó.
+         */
+        private void skipImported() {
+            Set<String> existing = new HashSet<>();
+            for (int i = 0; i < pendingMovements.size(); i += KEY_QUERY_SIZE) {
+                List<String> chunk = pendingMovements.subList(i, Math.min(i + KEY_QUERY_SIZE, pendingMovements.size()))
+                        .stream().map(StatementMovement::getKey).toList();
+                existing.addAll(movementRepository.findExistingKeys(user.getId(), chunk));
+            }
+            if (existing.isEmpty()) {
+                return;
+            }
+            for (int i = pendingMovements.size() - 1; i >= 0; i--) {
+                if (existing.contains(pendingMovements.get(i).getKey())) {
+                    pending.remove(i);
+                    pendingLines.remove(i);
+                    pendingMovements.remove(i);
+                    duplicates++;
+                }
+            }
+        }
+
+        private CategoryExpense category(Long id) {
+            if (id == null) {
+                return null;
+            }
+            if (!categories.containsKey(id)) {
+                categories.put(id, categoryExpenseService.getReference(id));
+            }
+            return categories.get(id);
+        }
+
+        /**
+         * Guarda el bloque pendiente; si falla, sus movimientos se marcan como rechazados.
+         */
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                skipImported();
+                batchWriter.write(pending, pendingMovements);
+                imported += pending.size();
+                for (Spent spent : pending) {
+                    total += spent.getTotal();
+                    byType.merge(spent.getTypeExpense(), 1, Integer::sum);
+                    LocalDate date = spent.getExpenseDate().toLocalDate();
+                    from = from == null || date.isBefore(from) ? date : from;
+                    to = to == null || date.isAfter(to) ? date : to;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Importación de extracto: no se pudo guardar un bloque de {} gastos: {}", pending.size(), e.getMessage());
+                String message = "Error al guardar el bloque: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (Integer line : pendingLines) {
+                    rejected.add(BulkRowResultDto.error(line, message));
+                }
+            }
+            pending.clear();
+            pendingLines.clear();
+            pendingMovements.clear();
+            keys.clear();
+        }
+
+        StatementImportResultDto finish() {
+            flush();
+            long duration = System.currentTimeMillis() - start;
+            log.info("Extracto {} importado para el usuario {}: {} movimientos, {} cargos, {} gastos creados, {} duplicados, {} rechazados en {} ms",
+                    format, user.getId(), lines, debits, imported, duplicates, rejected.size(), duration);
+            rejected.sort(Comparator.comparingInt(BulkRowResultDto::fila));
+            return new StatementImportResultDto(format.name(), lines, debits, credits, imported, rejected.size(),
+                    duplicates, Math.round(total * 100) / 100.0, from, to, byType, duration, error, rejected);
+        }
+    }
+
+    private record DefaultRule(String pattern, ExpenseClass typeExpense, String category, int priority) {
+    }
+
+    private static String truncate(String text, int max) {
+        return text.length() <= max ? text : text.substring(0, max);
+    }
+}
@@ -9,8 +9,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,7 +23,7 @@ import java.util.stream.Collectors;
  * Implementación del servicio de almacenamiento de archivos e imágenes.
  *
  * Proporciona métodos para guardar imágenes en disco, eliminar imágenes y
- * guardar archivos temporales para procesamiento, por ejemplo OCR.
+ * resolver la ruta en disco de los archivos guardados, por ejemplo para OCR.
  */
 @RequiredArgsConstructor
 @Service
@@ -77,6 +81,29 @@ public class StorageServiceImpl implements StorageService {
         return folderPath + nombreArchivo;
     }
 
+    /**
+     * Guarda un archivo igual que {@link #saveImageData} pero calculando el SHA-256
+     * mientras se copian los datos, sin volver a leer el archivo.
+     *
+     * @param folderPath Ruta relativa de la carpeta donde se guardará el archivo.
+     * @param file       Archivo MultipartFile a guardar.
+     * @return Ruta relativa del archivo guardado y hash de su contenido.
+     * @throws IOException Si ocurre un error durante la copia.
+     */
+    @Override
+    public StoredFile saveHashedData(String folderPath, MultipartFile file) throws IOException {
+        String nombreArchivo = System.currentTimeMillis() + "-" + file.getOriginalFilename();
+
+        Path carpeta = Path.of(STORAGE_PATH + folderPath);
+        Files.createDirectories(carpeta);
+
+        MessageDigest digest = Sha256.newDigest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, carpeta.resolve(nombreArchivo), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new StoredFile(folderPath + nombreArchivo, Sha256.toHex(digest));
+    }
+
     /**
      * Elimina un archivo de imagen basado en su ruta pública relativa.
      *
@@ -105,17 +132,14 @@ public class StorageServiceImpl implements StorageService {
     }
 
     /**
-     * Guarda un archivo MultipartFile temporalmente en disco,
-     * generando un archivo temporal con prefijo "ocr_" y el nombre original.
+     * Resuelve la ruta absoluta de un archivo guardado a partir de su ruta relativa.
      *
-     * @param file Archivo MultipartFile a guardar temporalmente.
-     * @return Path al archivo temporal creado.
-     * @throws IOException Si falla la creación o transferencia del archivo.
+     * @param filePath Ruta relativa (con o sin barra inicial).
+     * @return Path absoluto dentro de la ruta base de almacenamiento.
      */
     @Override
-    public Path saveFile(MultipartFile file) throws IOException {
-        Path tempFile = Files.createTempFile("ocr_", "_" + file.getOriginalFilename());
-        file.transferTo(tempFile);
-        return tempFile;
+    public Path resolvePath(String filePath) {
+        String relativePath = filePath.startsWith("/") ? filePath.substring(1) : filePath;
+        return Path.of(STORAGE_PATH + relativePath);
     }
 }
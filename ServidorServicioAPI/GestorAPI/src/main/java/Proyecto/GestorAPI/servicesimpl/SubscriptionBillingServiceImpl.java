@@ -0,0 +1,242 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.Subscription;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionBillingResultDto;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionBillingRow;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionChargeDto;
+import Proyecto.GestorAPI.repositories.SubscriptionChargeRepository;
+import Proyecto.GestorAPI.repositories.SubscriptionRepository;
+import Proyecto.GestorAPI.services.SubscriptionBillingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Proceso de cobro de subscripciones.
+ *
+ * Las subscripciones se recorren en bloques de {@code subscripciones.cobro.chunk-size} filas en orden
+ * de ID, cada bloque en su propia transacción, y solo se leen las activas con un cargo vencido gracias
+ * al índice (activa, proximo_cargo). Por cada subscripción:
+ *
+ * 1. Se calculan los ciclos vencidos desde su próximo cargo (como mucho {@code subscripciones.cobro.max-ciclos}
+ *    por ejecución; el resto se cobra en las siguientes).
+ * 2. Se avanza el próximo cargo con una actualización condicionada al valor leído: si otro proceso lo
+ *    ha cambiado, la subscripción se omite.
+ * 3. Se registran los cargos con INSERT IGNORE sobre la clave única (subscripción, fecha) y solo los
+ *    cargos nuevos se suman al acumulado.
+ *
+ * Así, repetir una ejecución interrumpida o reprogramar una subscripción ya cobrada (por ejemplo al
+ * guardarla desde el panel web, que no envía el próximo cargo) nunca cobra dos veces el mismo ciclo.
+ */
+@Slf4j
+@Service
+public class SubscriptionBillingServiceImpl implements SubscriptionBillingService {
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private SubscriptionChargeRepository chargeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${subscripciones.cobro.enabled:true}")
+    private boolean enabled;
+
+    @Value("${subscripciones.cobro.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${subscripciones.cobro.max-ciclos:120}")
+    private int maxCycles;
+
+    // Evita solapar la tarea programada con una ejecución lanzada por un administrador
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Ejecución programada del cobro.
+     */
+    @Scheduled(cron = "${subscripciones.cobro.cron:0 5 * * * *}")
+    public void scheduledBilling() {
+        if (!enabled) {
+            return;
+        }
+        SubscriptionBillingResultDto result = runBilling(LocalDate.now());
+        if (result.programadas() + result.procesadas() + result.finalizadas() > 0) {
+            log.info("Cobro de subscripciones: {}", result);
+        }
+    }
+
+    @Override
+    public SubscriptionBillingResultDto runBilling(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay un cobro de subscripciones en curso");
+        }
+        try {
+            return bill(today);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private SubscriptionBillingResultDto bill(LocalDate today) {
+        long start = System.currentTimeMillis();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+        Counters counters = new Counters();
+
+        // Subscripciones activas sin programar: el ciclo de inicio ya está en el acumulado
+        long afterId = 0;
+        List<SubscriptionBillingRow> rows;
+        do {
+            rows = subscriptionRepository.findUnscheduled(afterId, chunk);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<SubscriptionBillingRow> block = rows;
+            tx.executeWithoutResult(status -> block.forEach(row -> schedule(row, counters)));
+            afterId = rows.get(rows.size() - 1).spentId();
+        } while (rows.size() == chunkSize);
+
+        // Ciclos vencidos
+        afterId = 0;
+        do {
+            rows = subscriptionRepository.findDueForBilling(today, afterId, chunk);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<SubscriptionBillingRow> block = rows;
+            tx.executeWithoutResult(status -> block.forEach(row -> charge(row, today, counters)));
+            afterId = rows.get(rows.size() - 1).spentId();
+        } while (rows.size() == chunkSize);
+
+        return new SubscriptionBillingResultDto(counters.scheduled, counters.processed, counters.charges,
+                counters.finished, counters.skipped, System.currentTimeMillis() - start);
+    }
+
+    private void schedule(SubscriptionBillingRow row, Counters counters) {
+        LocalDate first = row.start().toLocalDate();
+        if (subscriptionRepository.scheduleBilling(row.spentId(), first) == 0) {
+            counters.skipped++;
+            return;
+        }
+        chargeRepository.insertIfAbsent(row.spentId(), row.userId(), first, amount(row.total(), row.iva()));
+        counters.scheduled++;
+    }
+
+    private void charge(SubscriptionBillingRow row, LocalDate today, Counters counters) {
+        LocalDate end = row.end() != null ? row.end().toLocalDate() : null;
+        List<LocalDate> cycles = new ArrayList<>();
+        LocalDate date = row.nextCharge();
+        while (!date.isAfter(today) && (end == null || !date.isAfter(end)) && cycles.size() < maxCycles) {
+            cycles.add(date);
+            date = nextCycle(date, row.intervalTime(), row.restartDay());
+        }
+        boolean finished = end != null && date.isAfter(end);
+
+        int claimed = finished
+                ? subscriptionRepository.finishBilling(row.spentId(), row.nextCharge())
+                : subscriptionRepository.advanceBilling(row.spentId(), row.nextCharge(), date);
+        if (claimed == 0) {
+            counters.skipped++;
+            return;
+        }
+
+        double amount = amount(row.total(), row.iva());
+        int inserted = 0;
+        for (LocalDate cycle : cycles) {
+            inserted += chargeRepository.insertIfAbsent(row.spentId(), row.userId(), cycle, amount);
+        }
+        if (inserted > 0) {
+            subscriptionRepository.addToAccumulate(row.spentId(), amount * inserted);
+        }
+        counters.processed++;
+        counters.charges += inserted;
+        if (finished) {
+            counters.finished++;
+        }
+    }
+
+    @Override
+    public void scheduleBilling(Subscription subscription) {
+        if (!subscription.isActiva() || subscription.getNextCharge() != null || subscription.getStart() == null) {
+            return;
+        }
+        LocalDate first = subscription.getStart().toLocalDate();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Integer scheduled = tx.execute(status -> {
+            if (subscriptionRepository.scheduleBilling(subscription.getSpentId(), first) == 0) {
+                return 0;
+            }
+            chargeRepository.insertIfAbsent(subscription.getSpentId(), subscription.getUser().getId(), first,
+                    amount(subscription.getTotal(), subscription.getIva()));
+            return 1;
+        });
+        if (scheduled != null && scheduled == 1) {
+            subscription.setNextCharge(first);
+        }
+    }
+
+    @Override
+    public LocalDate nextChargeAfter(Subscription subscription, LocalDate date) {
+        LocalDate next = subscription.getStart().toLocalDate();
+        int interval = subscription.getIntervalTime();
+        if (!next.isAfter(date) && !isMonthly(interval)) {
+            // Salto directo al ciclo siguiente en lugar de recorrer los anteriores
+            long cycles = ChronoUnit.DAYS.between(next, date) / interval + 1;
+            next = next.plusDays(cycles * interval);
+        }
+        while (!next.isAfter(date)) {
+            next = nextCycle(next, interval, subscription.getRestartDay());
+        }
+        LocalDateTime end = subscription.getEnd();
+        return end != null && next.isAfter(end.toLocalDate()) ? null : next;
+    }
+
+    @Override
+    public List<SubscriptionChargeDto> getCharges(Long subscriptionId) {
+        return chargeRepository.findDtosBySubscriptionId(subscriptionId);
+    }
+
+    /**
+     * Fecha del ciclo siguiente a uno dado.
+     */
+    static LocalDate nextCycle(LocalDate date, int intervalTime, int restartDay) {
+        if (isMonthly(intervalTime)) {
+            LocalDate month = date.plusMonths(intervalTime / 30);
+            return month.withDayOfMonth(Math.min(Math.max(restartDay, 1), month.lengthOfMonth()));
+        }
+        return date.plusDays(Math.max(intervalTime, 1));
+    }
+
+    private static boolean isMonthly(int intervalTime) {
+        return intervalTime > 0 && intervalTime % 30 == 0;
+    }
+
+    /**
+     * Importe de un ciclo: total más IVA, redondeado a céntimos (mismo cálculo que el acumulado inicial).
+     */
+    private static double amount(double total, double iva) {
+        return Math.round((total * (iva / 100) + total) * 100) / 100.0;
+    }
+
+    private static final class Counters {
+        int scheduled;
+        int processed;
+        int charges;
+        int finished;
+        int skipped;
+    }
+}
@@ -1,10 +1,14 @@
 package Proyecto.GestorAPI.servicesimpl;
 
 import Proyecto.GestorAPI.models.Subscription;
+import Proyecto.GestorAPI.modelsDTO.subscription.SubscriptionDto;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsSnapshot;
 import Proyecto.GestorAPI.repositories.SubscriptionRepository;
+import Proyecto.GestorAPI.services.SpentStatsService;
 import Proyecto.GestorAPI.services.SubscriptionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +20,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     @Autowired
     private SubscriptionRepository repository;
 
+    @Autowired
+    private SpentStatsService spentStatsService;
+
     /**
      * Obtiene todas las suscripciones registradas.
      *
@@ -53,12 +60,15 @@ public class SubscriptionServiceImpl implements SubscriptionService {
      * @return El objeto `Subscription` guardado o actualizado.
      */
     @Override
+    @Transactional
     public Subscription setItem(Subscription o) {
         //System.out.println("ANTES DE SAVE (ServiceImpl):");
         //System.out.println("Activa: " + o.isActiva());
         //System.out.println("Start: " + o.getStart());
 
+        SpentStatsSnapshot before = spentStatsService.snapshot(o.getSpentId()).orElse(null);
         Subscription saved = repository.save(o);
+        spentStatsService.applyChange(before, SpentStatsSnapshot.of(saved));
 
         //System.out.println("DESPUÉS DE SAVE (ServiceImpl):");
         //System.out.println("Activa: " + saved.isActiva());
@@ -77,8 +87,11 @@ public class SubscriptionServiceImpl implements SubscriptionService {
      * @param id El ID de la suscripción a eliminar.
      */
     @Override
+    @Transactional
     public void deleteByID(Long id) {
+        SpentStatsSnapshot before = spentStatsService.snapshot(id).orElse(null);
         repository.deleteById(id);
+        spentStatsService.applyChange(before, null);
     }
 
     /**
@@ -105,4 +118,25 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         return repository.getByUserId(id);
     }
 
+    /**
+     * Obtiene todas las suscripciones proyectadas a DTO en una sola consulta.
+     *
+     * @return Lista de SubscriptionDto con todas las suscripciones.
+     */
+    @Override
+    public List<SubscriptionDto> getAllSubscriptionDtos() {
+        return repository.findAllDtos();
+    }
+
+    /**
+     * Obtiene las suscripciones de un usuario proyectadas a DTO en una sola consulta.
+     *
+     * @param id Identificador único del usuario.
+     * @return Lista de SubscriptionDto que pertenecen al usuario indicado.
+     */
+    @Override
+    public List<SubscriptionDto> getSubscriptionDtosByUserId(Long id) {
+        return repository.findDtosByUserId(id);
+    }
+
 }
@@ -0,0 +1,35 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de textos para compararlos sin tener en cuenta mayúsculas, acentos ni espacios.
+ *
+ * La comparten los nombres de producto y tienda ({@link ProductNames}) y las reglas de extracto
+ * ({@link Proyecto.GestorAPI.servicesimpl.statement.StatementClassifier}), de modo que un mismo
+ * texto se normaliza igual al buscar productos y al clasificar movimientos.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Pasa a minúsculas, quita acentos y simplifica los espacios.
+     *
+     * @param text Texto original (puede ser null).
+     * @return Texto normalizado, vacío si no hay texto.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,270 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.Ticket;
+import Proyecto.GestorAPI.models.TicketItem;
+import Proyecto.GestorAPI.modelsDTO.product.ProductReindexResultDto;
+import Proyecto.GestorAPI.modelsDTO.product.ProductSummaryDto;
+import Proyecto.GestorAPI.modelsDTO.product.TicketItemDto;
+import Proyecto.GestorAPI.modelsDTO.ticket.TicketDto;
+import Proyecto.GestorAPI.repositories.TicketItemRepository;
+import Proyecto.GestorAPI.repositories.TicketRepository;
+import Proyecto.GestorAPI.services.TicketItemService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Implementación de {@link TicketItemService}.
+ *
+ * El JSON de productos se lee como árbol y de forma tolerante: las líneas sin nombre se descartan,
+ * los importes pueden venir como número o como texto con coma decimal, y si falta el subtotal (o el
+ * precio) se calcula a partir de los otros dos campos. Si el JSON no se puede leer, el ticket se
+ * queda sin líneas pero se guarda igualmente.
+ */
+@Slf4j
+@Service
+public class TicketItemServiceImpl implements TicketItemService {
+
+    // Límites de fecha cuando no se indica un rango
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private static final int MAX_CATEGORIES_LENGTH = 255;
+
+    @Autowired
+    private TicketItemRepository itemRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${tickets.items.reindex.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public void replaceItems(Ticket ticket, boolean isNew) {
+        if (!isNew) {
+            itemRepository.deleteByTicketId(ticket.getSpentId());
+        }
+        if (ticket.getUser() == null || ticket.getUser().getId() == null) {
+            return;
+        }
+        try {
+            List<TicketItem> items = parse(ticket, ticket.getUser().getId(), ticket.getExpenseDate(), ticket.getProductsJSON());
+            itemRepository.saveAll(items);
+        } catch (JsonProcessingException e) {
+            log.debug("Ticket {} sin líneas de producto: JSON no válido ({})", ticket.getSpentId(), e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public List<TicketItemDto> search(Long userId, String query, LocalDateTime desde, LocalDateTime hasta, int limit) {
+        return itemRepository.search(userId, likePattern(query, false), from(desde), to(hasta), PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<ProductSummaryDto> summarize(Long userId, String query, boolean exact, LocalDateTime desde,
+                                             LocalDateTime hasta, Order order, int limit) {
+        String prefix = likePattern(query, exact);
+        PageRequest page = PageRequest.of(0, limit);
+        return switch (order) {
+            case GASTO -> itemRepository.summarizeBySpending(userId, prefix, from(desde), to(hasta), page);
+            case CANTIDAD -> itemRepository.summarizeByQuantity(userId, prefix, from(desde), to(hasta), page);
+            case COMPRAS -> itemRepository.summarizeByPurchases(userId, prefix, from(desde), to(hasta), page);
+        };
+    }
+
+    @Override
+    public ProductReindexResultDto reindexAll() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+        int tickets = 0;
+        int errors = 0;
+        long lines = 0;
+
+        long afterId = 0;
+        List<TicketDto> rows;
+        do {
+            rows = ticketRepository.findDtosAfterId(afterId, chunk);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<TicketDto> block = rows;
+            int[] counts = tx.execute(status -> reindexChunk(block));
+            tickets += rows.size();
+            lines += counts[0];
+            errors += counts[1];
+            afterId = rows.get(rows.size() - 1).spentId();
+        } while (rows.size() == chunkSize);
+
+        return new ProductReindexResultDto(tickets, lines, errors, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Regenera las líneas de un bloque de tickets en la transacción actual.
+     *
+     * @return Líneas generadas y tickets con JSON no válido.
+     */
+    private int[] reindexChunk(List<TicketDto> block) {
+        itemRepository.deleteByTicketIds(block.stream().map(TicketDto::spentId).toList());
+        int lines = 0;
+        int errors = 0;
+        for (TicketDto row : block) {
+            if (row.userId() == null) {
+                continue;
+            }
+            try {
+                Ticket ticket = entityManager.getReference(Ticket.class, row.spentId());
+                for (TicketItem item : parse(ticket, row.userId(), row.fechaCompra(), row.productsJSON())) {
+                    entityManager.persist(item);
+                    lines++;
+                }
+            } catch (JsonProcessingException e) {
+                errors++;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return new int[]{lines, errors};
+    }
+
+    /**
+     * Al arrancar, genera las líneas de producto si la tabla está vacía pero ya existen tickets
+     * (primera ejecución tras introducir ticket_items en una base de datos existente).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initIfEmpty() {
+        if (itemRepository.count() == 0 && ticketRepository.count() > 0) {
+            ProductReindexResultDto result = reindexAll();
+            log.info("Líneas de producto generadas a partir de los tickets existentes: {}", result);
+        }
+    }
+
+    /**
+     * Convierte el JSON de productos de un ticket en líneas.
+     */
+    private List<TicketItem> parse(Ticket ticket, Long userId, LocalDateTime date, String json) throws JsonProcessingException {
+        if (json == null || json.isBlank()) {
+            return List.of();
+        }
+        JsonNode root = objectMapper.readTree(json);
+        if (root.isTextual()) {
+            // JSON guardado como cadena (doble codificación)
+            root = objectMapper.readTree(root.asText());
+        }
+        // Se admite tanto la lista de artículos como la respuesta completa del OCR
+        JsonNode products = root.isObject() && root.has("articulos") ? root.get("articulos") : root;
+        if (!products.isArray()) {
+            return List.of();
+        }
+
+        List<TicketItem> items = new ArrayList<>(products.size());
+        LocalDateTime purchaseDate = date != null ? date : LocalDateTime.now();
+        for (JsonNode product : products) {
+            String name = product.path("nombre").asText("").trim();
+            String normalized = ProductNames.normalize(name);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            double quantity = number(product.get("cantidad"), 1);
+            double price = number(product.get("precio"), Double.NaN);
+            double subtotal = number(product.get("subtotal"), Double.NaN);
+            if (Double.isNaN(subtotal)) {
+                subtotal = Double.isNaN(price) ? 0 : price * quantity;
+            }
+            if (Double.isNaN(price)) {
+                price = quantity != 0 ? subtotal / quantity : subtotal;
+            }
+
+            TicketItem item = new TicketItem();
+            item.setTicket(ticket);
+            item.setUserId(userId);
+            item.setLine(items.size() + 1);
+            item.setName(ProductNames.truncate(name, ProductNames.MAX_LENGTH));
+            item.setNormalizedName(normalized);
+            item.setQuantity(quantity);
+            item.setPrice(price);
+            item.setSubtotal(subtotal);
+            item.setCategories(categories(product.get("categorias")));
+            item.setPurchaseDate(purchaseDate);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static double number(JsonNode node, double fallback) {
+        if (node == null || node.isNull()) {
+            return fallback;
+        }
+        if (node.isNumber()) {
+            return node.asDouble();
+        }
+        String text = node.asText("").trim().replace(',', '.');
+        try {
+            return text.isEmpty() ? fallback : Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static String categories(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (!node.isArray()) {
+            String text = node.asText("").trim();
+            return text.isEmpty() ? null : ProductNames.truncate(text, MAX_CATEGORIES_LENGTH);
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        node.forEach(category -> {
+            String text = category.asText("").trim();
+            if (!text.isEmpty()) {
+                joiner.add(text);
+            }
+        });
+        return joiner.length() == 0 ? null : ProductNames.truncate(joiner.toString(), MAX_CATEGORIES_LENGTH);
+    }
+
+    /**
+     * Patrón LIKE para un nombre: normalizado, con los comodines escapados y, salvo búsqueda exacta,
+     * terminado en '%' para que la consulta sea un rango sobre el índice.
+     */
+    private static String likePattern(String query, boolean exact) {
+        String normalized = ProductNames.normalize(query)
+                .replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return exact ? normalized : normalized + "%";
+    }
+
+    private static LocalDateTime from(LocalDateTime desde) {
+        return desde != null ? desde : MIN_DATE;
+    }
+
+    private static LocalDateTime to(LocalDateTime hasta) {
+        return hasta != null ? hasta : MAX_DATE;
+    }
+}
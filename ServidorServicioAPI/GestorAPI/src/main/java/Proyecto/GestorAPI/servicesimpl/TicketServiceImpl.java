@@ -4,26 +4,23 @@ import Proyecto.GestorAPI.exceptions.ErrorPharseJsonException;
 import Proyecto.GestorAPI.models.User;
 import Proyecto.GestorAPI.models.enums.ExpenseClass;
 import Proyecto.GestorAPI.modelsDTO.ticket.CreateTicketRequest;
-import Proyecto.GestorAPI.modelsDTO.ticket.TicketResponse;
+import Proyecto.GestorAPI.modelsDTO.ticket.TicketDto;
 import Proyecto.GestorAPI.modelsDTO.ticket.UpdateTicketRequest;
+import Proyecto.GestorAPI.modelsDTO.stats.SpentStatsSnapshot;
 import Proyecto.GestorAPI.repositories.TicketRepository;
+import Proyecto.GestorAPI.services.SpentStatsService;
+import Proyecto.GestorAPI.services.TicketItemService;
 import Proyecto.GestorAPI.services.TicketService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import Proyecto.GestorAPI.models.Ticket;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
-import static java.time.LocalTime.now;
-
 @RequiredArgsConstructor
 @Service
 public class TicketServiceImpl implements TicketService {
@@ -38,6 +35,15 @@ public class TicketServiceImpl implements TicketService {
     @Autowired
     private CategoryExpenseServiceImpl categoriaService;
 
+    @Autowired
+    private SpentStatsService spentStatsService;
+
+    @Autowired
+    private TicketItemService ticketItemService;
+
+    @Autowired
+    private OcrTicketMapper ocrTicketMapper;
+
     /**
      * Obtiene todos los tickets registrados.
      *
@@ -69,27 +75,37 @@ public class TicketServiceImpl implements TicketService {
      *
      * Este método guarda un nuevo ticket o actualiza uno existente en la base de datos. Si el objeto 
      * `Ticket` ya existe, se actualizará con la nueva información. Si no, se creará un nuevo 
-     * registro en la base de datos.
+     * registro en la base de datos. Las líneas de producto (ticket_items) se regeneran a partir
+     * del JSON de productos en la misma transacción.
      *
      * @param o El objeto `Ticket` que se desea guardar o actualizar.
      * @return El objeto `Ticket` guardado o actualizado.
      */
     @Override
+    @Transactional
     public Ticket setItem(Ticket o) {
-        return repository.save(o);
+        boolean isNew = o.getSpentId() == null;
+        SpentStatsSnapshot before = isNew ? null : spentStatsService.snapshot(o.getSpentId()).orElse(null);
+        Ticket saved = repository.save(o);
+        spentStatsService.applyChange(before, SpentStatsSnapshot.of(saved));
+        ticketItemService.replaceItems(saved, isNew);
+        return saved;
     }
 
     /**
      * Elimina un ticket por su ID.
      *
      * Este método elimina un ticket de la base de datos utilizando su ID. Si el ID es válido, 
-     * el ticket será eliminado. Si no se encuentra el ticket, se lanzará una excepción.
+     * el ticket será eliminado junto con sus líneas de producto (borrado en cascada). Si no se encuentra el ticket, se lanzará una excepción.
      *
      * @param id El ID del ticket a eliminar.
      */
     @Override
+    @Transactional
     public void deleteByID(Long id) {
+        SpentStatsSnapshot before = spentStatsService.snapshot(id).orElse(null);
         repository.deleteById(id);
+        spentStatsService.applyChange(before, null);
     }
 
     /**
@@ -119,6 +135,27 @@ public class TicketServiceImpl implements TicketService {
         return repository.findByUserId(id);
     }
 
+    /**
+     * Obtiene todos los tickets proyectados a DTO en una sola consulta.
+     *
+     * @return Una lista de `TicketDto` con todos los tickets.
+     */
+    @Override
+    public List<TicketDto> getAllTicketDtos() {
+        return repository.findAllDtos();
+    }
+
+    /**
+     * Obtiene los tickets de un cliente proyectados a DTO en una sola consulta.
+     *
+     * @param id El ID del cliente.
+     * @return Una lista de `TicketDto` asociados al cliente especificado.
+     */
+    @Override
+    public List<TicketDto> getTicketDtosByUserId(Long id) {
+        return repository.findDtosByUserId(id);
+    }
+
     /**
      * Mapea y crea un nuevo objeto Ticket a partir de los datos recibidos en la solicitud CreateTicketRequest.
      * Establece las referencias a usuario y categoría, junto con otros campos relevantes.
@@ -132,7 +169,7 @@ public class TicketServiceImpl implements TicketService {
         Ticket ticket = new Ticket();
 
         ticket.setUser(userService.getUserById(clienteId).orElse(new User()));
-        ticket.setCategory(categoriaService.getByID(request.getCategoriaId()).orElse(null));
+        ticket.setCategory(categoriaService.getReference(request.getCategoriaId()));
         ticket.setExpenseDate(request.getFechaCompra());
         ticket.setTotal(request.getTotal());
         ticket.setIcon(request.getIcon());
@@ -154,7 +191,7 @@ public class TicketServiceImpl implements TicketService {
      */
     @Override
     public Ticket mappingUpdateTicket(UpdateTicketRequest request, Ticket ticket) {
-        ticket.setCategory(categoriaService.getByID(request.getCategoriaId()).orElse(null));
+        ticket.setCategory(categoriaService.getReference(request.getCategoriaId()));
         ticket.setStore(request.getStore());
         ticket.setExpenseDate(request.getFechaCompra());
         ticket.setName(request.getName());
@@ -177,90 +214,8 @@ public class TicketServiceImpl implements TicketService {
      */
     @Override
     public Ticket mappingCreateTicketbyOCR(String ocrResult, User user) throws ErrorPharseJsonException {
-        ObjectMapper mapper = new ObjectMapper();
-
-        TicketResponse ticketOCR = new TicketResponse();
-        String articulosJson = "[]";
-
-        //System.out.println("Mappear");
-
-        try {
-            ticketOCR = mapper.readValue(ocrResult, TicketResponse.class);
-            try {
-                articulosJson = mapper.writeValueAsString(ticketOCR.getArticulos());
-            } catch (Exception e) {
-                System.out.println("Error al convertir artículos a JSON: " + e.getMessage());
-            }
-        } catch (Exception e) {
-            throw new ErrorPharseJsonException("Error al cargar ocr desde Python: " + e);
-        }
-
-        //System.out.println("Mappear2");
-
-        Ticket ticket = new Ticket();
-        ticket.setUser(user);
-
-        try {
-            ticket.setStore(ticketOCR.getEstablecimiento() != null ? ticketOCR.getEstablecimiento() : "Desconocido");
-        } catch (Exception e) {
-            ticket.setStore("Desconocido");
-        }
-
-        ticket.setProductsJSON(articulosJson);
-
-        try {
-            ticket.setTotal(ticketOCR.getTotal() != null ? ticketOCR.getTotal() : 0.0);
-        } catch (Exception e) {
-            ticket.setTotal(0.0);
-        }
-
-        try {
-            ticket.setIva(ticketOCR.getIva() != null ? ticketOCR.getIva() : 0.0);
-        } catch (Exception e) {
-            ticket.setIva(0.0);
-        }
-
-        try {
-            ticket.setName(ticketOCR.getEstablecimiento() != null ? ticketOCR.getEstablecimiento() : "Ticket");
-        } catch (Exception e) {
-            ticket.setName("Ticket");
-        }
-
-        ticket.setDescription("Sin descripción..");
-
-        try {
-            ticket.setCategory(categoriaService.getByID(1L).orElse(null));
-        } catch (Exception e) {
-            ticket.setCategory(null);
-        }
-
-        LocalDate fecha = LocalDate.now();
-        LocalTime hora = LocalTime.now();
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-
-        try {
-            if (ticketOCR.getFecha() != null && !ticketOCR.getFecha().isEmpty()) {
-                fecha = LocalDate.parse(ticketOCR.getFecha(), dateFormatter);
-            }
-        } catch (Exception e) {
-            //System.out.println("Fecha inválida, usando actual: " + e.getMessage());
-        }
-
-        try {
-            if (ticketOCR.getHora() != null && !ticketOCR.getHora().isEmpty()) {
-                hora = LocalTime.parse(ticketOCR.getHora(), timeFormatter);
-            }
-        } catch (Exception e) {
-            //System.out.println("Hora inválida, usando actual: " + e.getMessage());
-        }
-
-        ticket.setExpenseDate(LocalDateTime.of(fecha, hora));
-        ticket.setTypeExpense(ExpenseClass.TICKET);
-
-        //System.out.println("Mappear3");
+        Ticket ticket = ocrTicketMapper.toTicket(ocrResult, user);
+        ticket.setCategory(categoriaService.getReference(1L));
         return ticket;
     }
-
-
 }
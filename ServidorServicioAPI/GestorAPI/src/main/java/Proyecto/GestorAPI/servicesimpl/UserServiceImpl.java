@@ -1,14 +1,23 @@
 package Proyecto.GestorAPI.servicesimpl;
 
+import Proyecto.GestorAPI.config.security.TokenRevocationRegistry;
+import Proyecto.GestorAPI.config.security.UserDetailsCache;
 import Proyecto.GestorAPI.exceptions.UserNotFoundException;
+import Proyecto.GestorAPI.models.DeletedUser;
 import Proyecto.GestorAPI.models.User;
+import Proyecto.GestorAPI.modelsDTO.user.UserTokenStateDto;
+import Proyecto.GestorAPI.repositories.DeletedUserRepository;
+import Proyecto.GestorAPI.repositories.StatementMovementRepository;
 import Proyecto.GestorAPI.repositories.UserRepository;
 import Proyecto.GestorAPI.config.security.oauth2.OAuth2Provider;
+import Proyecto.GestorAPI.services.SpentStatsService;
 import Proyecto.GestorAPI.services.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import static Proyecto.GestorAPI.controllers.securityController.MySecurityrController.isEmail;
@@ -20,6 +29,16 @@ public class UserServiceImpl implements UserService {
     // Inyección del repositorio de User para interactuar con la base de datos.
     private final UserRepository userRepository;
 
+    private final SpentStatsService spentStatsService;
+
+    private final StatementMovementRepository statementMovementRepository;
+
+    private final DeletedUserRepository deletedUserRepository;
+
+    private final UserDetailsCache userDetailsCache;
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
     /**
      * Obtiene todos los usuarios registrados.
      *
@@ -78,26 +97,50 @@ public class UserServiceImpl implements UserService {
      * Guarda un nuevo usuario o actualiza uno existente.
      *
      * Este método guarda un nuevo usuario en la base de datos o actualiza un usuario existente si el
-     * objeto `User` ya existe.
+     * objeto `User` ya existe. Invalida la caché de autenticación del usuario para que los
+     * cambios de rol o contraseña se apliquen en la siguiente petición.
+     *
+     * La versión de tokens se toma siempre de la base de datos y se incrementa si cambia la
+     * contraseña, el rol o el estado de la cuenta, revocando los JWT emitidos anteriormente.
      *
      * @param user El objeto `User` a guardar o actualizar.
      * @return El objeto `User` guardado o actualizado.
      */
     @Override
     public User saveUser(User user) {
-        return userRepository.save(user);
+        if (user.getId() != null) {
+            userRepository.findTokenState(user.getId()).ifPresent(previous -> {
+                boolean credentialsChanged = !Objects.equals(previous.password(), user.getPassword())
+                        || previous.role() != user.getRole()
+                        || previous.active() != user.isActive();
+                user.setTokenVersion(previous.tokenVersion() + (credentialsChanged ? 1 : 0));
+            });
+        }
+        User saved = userRepository.save(user);
+        userDetailsCache.evict(saved.getId(), saved.getUsername());
+        tokenRevocationRegistry.apply(new UserTokenStateDto(saved.getId(), saved.getPassword(), saved.getRole(),
+                saved.isActive(), saved.getTokenVersion(), saved.getUpdatedAt()));
+        return saved;
     }
 
     /**
      * Elimina un usuario.
      *
-     * Este método elimina un usuario de la base de datos.
+     * Este método elimina un usuario de la base de datos junto con su resumen mensual de gastos
+     * y los movimientos de extracto que importó, y deja una marca de usuario eliminado para que sus
+     * tokens JWT sigan revocados tras un reinicio y en otras instancias.
      *
      * @param user El objeto `User` a eliminar.
      */
     @Override
+    @Transactional
     public void deleteUser(User user) {
         userRepository.delete(user);
+        spentStatsService.deleteByUserId(user.getId());
+        statementMovementRepository.deleteByUserId(user.getId());
+        deletedUserRepository.save(new DeletedUser(user.getId()));
+        userDetailsCache.evict(user.getId(), user.getUsername());
+        tokenRevocationRegistry.revokeAll(user.getId());
     }
 
     /**
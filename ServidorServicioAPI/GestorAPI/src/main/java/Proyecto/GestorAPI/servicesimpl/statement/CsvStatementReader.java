@@ -0,0 +1,105 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import Proyecto.GestorAPI.servicesimpl.CsvReader;
+import Proyecto.GestorAPI.servicesimpl.TextNormalizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Extracto en CSV.
+ *
+ * Los bancos suelen añadir antes de la cabecera unas líneas con datos de la cuenta, así que la
+ * cabecera se busca entre los primeros registros: es el primero que tiene una columna de fecha y
+ * una de importe (o de cargo/abono). Los nombres de columna se comparan sin mayúsculas ni acentos.
+ */
+class CsvStatementReader implements StatementReader {
+
+    // Registros iniciales en los que se busca la cabecera
+    private static final int HEADER_SEARCH = 30;
+
+    private final CsvReader csv;
+    private int date = -1;
+    private int description = -1;
+    private int amount = -1;
+    private int debit = -1;
+    private int credit = -1;
+
+    CsvStatementReader(BufferedReader in) throws IOException {
+        this.csv = CsvReader.open(in);
+        for (int i = 0; i < HEADER_SEARCH; i++) {
+            List<String> record = csv.next();
+            if (record == null) {
+                break;
+            }
+            if (header(record)) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException(
+                "No se encontró la cabecera del extracto (columnas de fecha, concepto e importe o cargo/abono)");
+    }
+
+    /**
+     * Comprueba si el registro es la cabecera y, si lo es, localiza las columnas.
+     */
+    private boolean header(List<String> record) {
+        date = description = amount = debit = credit = -1;
+        for (int i = 0; i < record.size(); i++) {
+            String name = TextNormalizer.normalize(record.get(i));
+            if (date < 0 && (name.startsWith("fecha") || name.startsWith("f. ") || name.equals("date")
+                    || name.equals("booking date"))) {
+                date = i;
+            } else if (description < 0 && (name.startsWith("concepto") || name.startsWith("descripcion")
+                    || name.startsWith("description") || name.startsWith("movimiento") || name.startsWith("detalle"))) {
+                description = i;
+            } else if (amount < 0 && (name.startsWith("importe") || name.startsWith("cantidad") || name.startsWith("amount"))) {
+                amount = i;
+            } else if (debit < 0 && (name.startsWith("cargo") || name.equals("debe") || name.startsWith("debit"))) {
+                debit = i;
+            } else if (credit < 0 && (name.startsWith("abono") || name.equals("haber") || name.startsWith("credit"))) {
+                credit = i;
+            }
+        }
+        return date >= 0 && (amount >= 0 || debit >= 0 || credit >= 0);
+    }
+
+    @Override
+    public StatementLine next() throws IOException {
+        List<String> record;
+        do {
+            record = csv.next();
+            if (record == null) {
+                return null;
+            }
+            // Líneas de totales o pie sin fecha ni importe
+        } while (blank(record, date) && blank(record, amount) && blank(record, debit) && blank(record, credit));
+
+        long line = csv.records();
+        try {
+            double value;
+            if (amount >= 0 && !blank(record, amount)) {
+                value = StatementValues.amount(field(record, amount));
+            } else if (debit >= 0 && !blank(record, debit)) {
+                value = -Math.abs(StatementValues.amount(field(record, debit)));
+            } else if (credit >= 0 && !blank(record, credit)) {
+                value = Math.abs(StatementValues.amount(field(record, credit)));
+            } else {
+                return StatementLine.invalid(line, "Movimiento sin importe");
+            }
+            return StatementLine.of(line, StatementValues.date(field(record, date)), value,
+                    description >= 0 ? field(record, description) : null, null);
+        } catch (IllegalArgumentException e) {
+            return StatementLine.invalid(line, e.getMessage());
+        }
+    }
+
+    private static String field(List<String> record, int column) {
+        return column < record.size() ? record.get(column).trim() : "";
+    }
+
+    private static boolean blank(List<String> record, int column) {
+        return column < 0 || field(record, column).isEmpty();
+    }
+}
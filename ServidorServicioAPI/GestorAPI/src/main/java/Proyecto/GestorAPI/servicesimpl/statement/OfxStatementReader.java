@@ -0,0 +1,143 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Extracto en OFX.
+ *
+ * Se recorre el fichero etiqueta a etiqueta sin construir el árbol: admite tanto OFX 1.x (SGML, las
+ * etiquetas de valor no se cierran) como OFX 2.x (XML). De cada bloque {@code <STMTTRN>} se toman
+ * DTPOSTED, TRNAMT, NAME, MEMO, TRNTYPE y FITID (identificador del movimiento asignado por el banco);
+ * la cabecera y el resto de elementos se ignoran.
+ */
+class OfxStatementReader implements StatementReader {
+
+    // Longitud máxima de una etiqueta o de un valor; lo que exceda se descarta
+    private static final int MAX_TOKEN = 1024;
+
+    private final BufferedReader in;
+    private final StringBuilder token = new StringBuilder(64);
+    private long line = 1;
+
+    private String posted;
+    private String amount;
+    private String name;
+    private String memo;
+    private String kind;
+    private String fitid;
+    private long start;
+
+    OfxStatementReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public StatementLine next() throws IOException {
+        boolean inTransaction = false;
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                inTransaction = true;
+                posted = amount = name = memo = kind = fitid = null;
+                start = line;
+            } else if (tag.equals("/STMTTRN")) {
+                if (inTransaction) {
+                    return build();
+                }
+            } else if (inTransaction && !tag.startsWith("/")) {
+                String value = value();
+                switch (tag) {
+                    case "DTPOSTED" -> posted = value;
+                    case "TRNAMT" -> amount = value;
+                    case "NAME" -> name = value;
+                    case "MEMO" -> memo = value;
+                    case "TRNTYPE" -> kind = value;
+                    case "FITID" -> fitid = value;
+                    default -> {
+                        // Otros elementos de la transacción (CHECKNUM, REFNUM...) no se usan
+                    }
+                }
+            }
+        }
+        if (inTransaction) {
+            throw new IOException("bloque STMTTRN sin cerrar en la línea " + start);
+        }
+        return null;
+    }
+
+    private StatementLine build() {
+        try {
+            String description = name == null ? memo
+                    : (memo == null || memo.equalsIgnoreCase(name) ? name : name + " " + memo);
+            return StatementLine.of(start, StatementValues.date(posted), StatementValues.amount(amount),
+                    description, kind, fitid);
+        } catch (IllegalArgumentException e) {
+            return StatementLine.invalid(start, e.getMessage());
+        }
+    }
+
+    /**
+     * Avanza hasta la siguiente etiqueta y devuelve su nombre en mayúsculas (con '/' si es de cierre).
+     */
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // Texto fuera de etiquetas (cabecera OFX 1.x, espacios)
+        }
+        if (c == -1) {
+            return null;
+        }
+        token.setLength(0);
+        while ((c = read()) != -1 && c != '>') {
+            if (token.length() < MAX_TOKEN) {
+                token.append((char) c);
+            }
+        }
+        String tag = token.toString().trim();
+        int space = tag.indexOf(' ');
+        return (space > 0 ? tag.substring(0, space) : tag).toUpperCase();
+    }
+
+    /**
+     * Lee el valor de un elemento hasta la siguiente etiqueta, sin consumirla.
+     */
+    private String value() throws IOException {
+        token.setLength(0);
+        int c;
+        while (true) {
+            in.mark(1);
+            c = in.read();
+            if (c == -1 || c == '<') {
+                if (c == '<') {
+                    in.reset();
+                }
+                break;
+            }
+            if (c == '\n') {
+                line++;
+            }
+            if (token.length() < MAX_TOKEN) {
+                token.append((char) c);
+            }
+        }
+        String value = unescape(token.toString().trim());
+        return value.isEmpty() ? null : value;
+    }
+
+    private int read() throws IOException {
+        int c = in.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,69 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Extracto en QIF.
+ *
+ * Cada línea empieza por un código de campo y los registros terminan con {@code ^}. Se usan
+ * D (fecha), T/U (importe), P (beneficiario) y M (nota); las líneas de tipo ({@code !Type:Bank})
+ * y el resto de códigos se ignoran.
+ */
+class QifStatementReader implements StatementReader {
+
+    private final BufferedReader in;
+    private long line;
+
+    QifStatementReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public StatementLine next() throws IOException {
+        String date = null;
+        String amount = null;
+        String payee = null;
+        String memo = null;
+        long start = 0;
+        String text;
+        while ((text = in.readLine()) != null) {
+            line++;
+            if (text.isBlank() || text.charAt(0) == '!') {
+                continue;
+            }
+            if (start == 0) {
+                start = line;
+            }
+            String value = text.substring(1).trim();
+            switch (text.charAt(0)) {
+                case 'D' -> date = value;
+                case 'T', 'U' -> amount = value;
+                case 'P' -> payee = value;
+                case 'M' -> memo = value;
+                case '^' -> {
+                    if (date == null && amount == null) {
+                        // Registro vacío
+                        start = 0;
+                        continue;
+                    }
+                    return build(start, date, amount, payee, memo);
+                }
+                default -> {
+                    // N (número de cheque), L (categoría de Quicken), C (conciliado)...
+                }
+            }
+        }
+        // Último registro sin '^'
+        return date != null || amount != null ? build(start, date, amount, payee, memo) : null;
+    }
+
+    private static StatementLine build(long start, String date, String amount, String payee, String memo) {
+        try {
+            String description = payee == null ? memo : (memo == null ? payee : payee + " " + memo);
+            return StatementLine.of(start, StatementValues.date(date), StatementValues.amount(amount), description, null);
+        } catch (IllegalArgumentException e) {
+            return StatementLine.invalid(start, e.getMessage());
+        }
+    }
+}
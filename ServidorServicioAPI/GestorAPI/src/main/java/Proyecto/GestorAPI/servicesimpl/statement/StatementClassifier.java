@@ -0,0 +1,81 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import Proyecto.GestorAPI.models.StatementRule;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.servicesimpl.TextNormalizer;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Clasificación de movimientos a partir de las reglas de extracto.
+ *
+ * Se construye una vez por importación con las reglas activas ya ordenadas por prioridad; cada
+ * movimiento recorre las reglas hasta la primera cuyo patrón aparece en el concepto al principio
+ * de una palabra ("uber" coincide con "uber bv" o "ubereats", pero no con "suberbia"). Si ninguna
+ * coincide se usa el tipo de movimiento del banco (transferencia o recibo domiciliado en OFX) o,
+ * en su defecto, GASTO_GENERICO con la categoría por defecto.
+ */
+public class StatementClassifier {
+
+    /**
+     * Resultado de la clasificación.
+     *
+     * @param typeExpense Clase de gasto.
+     * @param categoriaId Categoría, o null si no hay categoría aplicable.
+     */
+    public record Classification(ExpenseClass typeExpense, Long categoriaId) {
+    }
+
+    private record CompiledRule(Pattern pattern, ExpenseClass typeExpense, Long categoriaId) {
+    }
+
+    private final List<CompiledRule> rules;
+    private final Long defaultCategoryId;
+
+    /**
+     * @param rules             Reglas activas en orden de evaluación.
+     * @param defaultCategoryId Categoría para los movimientos cuya regla no indica categoría.
+     */
+    public StatementClassifier(List<StatementRule> rules, Long defaultCategoryId) {
+        this.rules = rules.stream()
+                .filter(r -> r.getPattern() != null && !r.getPattern().isBlank())
+                .map(r -> new CompiledRule(compile(r.getPattern()), r.getTypeExpense(), r.getCategoriaId()))
+                .toList();
+        this.defaultCategoryId = defaultCategoryId;
+    }
+
+    /**
+     * Clasifica un movimiento.
+     *
+     * @param description Concepto del movimiento.
+     * @param kind        Tipo de movimiento del banco (TRNTYPE), o null.
+     * @return Clase de gasto y categoría.
+     */
+    public Classification classify(String description, String kind) {
+        String text = TextNormalizer.normalize(description);
+        for (CompiledRule rule : rules) {
+            if (rule.pattern().matcher(text).find()) {
+                return new Classification(rule.typeExpense(),
+                        rule.categoriaId() != null ? rule.categoriaId() : defaultCategoryId);
+            }
+        }
+        ExpenseClass type = ExpenseClass.GASTO_GENERICO;
+        if (kind != null) {
+            switch (kind.toUpperCase()) {
+                case "XFER" -> type = ExpenseClass.TRANSFERENCIA;
+                case "DIRECTDEBIT" -> type = ExpenseClass.FACTURA;
+                default -> {
+                }
+            }
+        }
+        return new Classification(type, defaultCategoryId);
+    }
+
+    /**
+     * Patrón normalizado que solo coincide al principio de una palabra del concepto.
+     */
+    private static Pattern compile(String pattern) {
+        return Pattern.compile("(?<![\\p{L}\\p{N}])" + Pattern.quote(TextNormalizer.normalize(pattern)));
+    }
+}
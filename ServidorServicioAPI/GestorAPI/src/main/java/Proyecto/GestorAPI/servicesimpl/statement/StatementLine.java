@@ -0,0 +1,68 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import Proyecto.GestorAPI.servicesimpl.TextNormalizer;
+
+import java.time.LocalDate;
+
+/**
+ * Movimiento de un extracto bancario ya normalizado.
+ *
+ * @param line        Posición del movimiento en el fichero (línea en OFX/QIF, registro en CSV).
+ * @param date        Fecha del movimiento.
+ * @param amount      Importe con signo (negativo = cargo, positivo = abono).
+ * @param description Concepto del movimiento.
+ * @param kind        Tipo de movimiento indicado por el banco (TRNTYPE de OFX), o null.
+ * @param sourceId    Identificador del movimiento para no importarlo dos veces: {@code fitid:} más el
+ *                    FITID de OFX, o {@code mov:} más la fecha, el importe en céntimos y el concepto
+ *                    normalizado cuando el formato no trae identificador (CSV, QIF, OFX sin FITID).
+ * @param error       Motivo por el que el movimiento no se pudo interpretar, o null.
+ */
+public record StatementLine(
+        long line,
+        LocalDate date,
+        double amount,
+        String description,
+        String kind,
+        String sourceId,
+        String error
+) {
+
+    private static final String BANK_ID = "fitid:";
+    private static final String CONTENT_ID = "mov:";
+
+    public static StatementLine of(long line, LocalDate date, double amount, String description, String kind) {
+        return of(line, date, amount, description, kind, null);
+    }
+
+    /**
+     * @param bankId Identificador asignado por el banco (FITID), o null para identificar el
+     *               movimiento por su contenido.
+     */
+    public static StatementLine of(long line, LocalDate date, double amount, String description, String kind,
+                                   String bankId) {
+        String sourceId = bankId != null && !bankId.isBlank()
+                ? BANK_ID + bankId.trim()
+                : CONTENT_ID + date + "|" + Math.round(amount * 100) + "|" + TextNormalizer.normalize(description);
+        return new StatementLine(line, date, amount, description, kind, sourceId, null);
+    }
+
+    public static StatementLine invalid(long line, String error) {
+        return new StatementLine(line, null, 0, null, null, null, error);
+    }
+
+    /**
+     * @return true si es un cargo (salida de dinero).
+     */
+    public boolean isDebit() {
+        return amount < 0;
+    }
+
+    /**
+     * @return true si el identificador sale del contenido del movimiento y no del banco: dos
+     * movimientos iguales del mismo día (dos cafés, dos recargas) tienen el mismo identificador y
+     * hay que distinguirlos por su orden de aparición.
+     */
+    public boolean isContentId() {
+        return sourceId != null && sourceId.startsWith(CONTENT_ID);
+    }
+}
@@ -0,0 +1,36 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import Proyecto.GestorAPI.services.StatementImportService.Format;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lector de movimientos de un extracto bancario, uno a uno y con memoria constante.
+ */
+public interface StatementReader {
+
+    /**
+     * Lee el siguiente movimiento.
+     *
+     * @return Movimiento, o null al final del extracto.
+     * @throws IOException si falla la lectura o el fichero no tiene el formato esperado.
+     */
+    StatementLine next() throws IOException;
+
+    /**
+     * Crea el lector adecuado para el formato.
+     *
+     * @param format Formato del extracto.
+     * @param in     Texto del extracto (no se cierra).
+     * @return Lector de movimientos.
+     * @throws IOException si falla la lectura de la cabecera.
+     */
+    static StatementReader open(Format format, BufferedReader in) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvStatementReader(in);
+            case OFX -> new OfxStatementReader(in);
+            case QIF -> new QifStatementReader(in);
+        };
+    }
+}
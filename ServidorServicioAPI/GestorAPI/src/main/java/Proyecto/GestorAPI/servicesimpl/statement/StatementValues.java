@@ -0,0 +1,116 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Normalización de los valores de los extractos bancarios: importes y fechas.
+ *
+ * Los bancos exportan con convenciones distintas (coma o punto decimal, separador de miles,
+ * signo al final o entre paréntesis, fechas día/mes o mes/día); aquí se reducen a un double con
+ * signo y un LocalDate. Los textos se normalizan con
+ * {@link Proyecto.GestorAPI.servicesimpl.TextNormalizer}.
+ */
+public final class StatementValues {
+
+    private StatementValues() {
+    }
+
+    /**
+     * Interpreta un importe.
+     *
+     * Si aparecen coma y punto, el último es el separador decimal. Si solo aparece uno de ellos
+     * una vez se toma como decimal (convención española: {@code 1,234} es 1.234); si se repite,
+     * es separador de miles. Admite símbolo de moneda, signo final ({@code 12,50-}) y paréntesis.
+     *
+     * @param raw Texto del importe.
+     * @return Importe con signo.
+     * @throws IllegalArgumentException si no es un número.
+     */
+    public static double amount(String raw) {
+        if (raw == null || raw.isBlank()) {
+            throw new IllegalArgumentException("Importe vacío");
+        }
+        String s = raw.replace("€", "").replace("EUR", "").replace(" ", "").replace("\u00A0", "").trim();
+        boolean negative = false;
+        if (s.startsWith("(") && s.endsWith(")")) {
+            negative = true;
+            s = s.substring(1, s.length() - 1);
+        }
+        if (s.endsWith("-")) {
+            negative = true;
+            s = s.substring(0, s.length() - 1);
+        }
+        int comma = s.lastIndexOf(',');
+        int dot = s.lastIndexOf('.');
+        if (comma >= 0 && dot >= 0) {
+            s = comma > dot ? s.replace(".", "").replace(',', '.') : s.replace(",", "");
+        } else if (comma >= 0) {
+            s = s.indexOf(',') != comma ? s.replace(",", "") : s.replace(',', '.');
+        } else if (dot >= 0 && s.indexOf('.') != dot) {
+            s = s.replace(".", "");
+        }
+        try {
+            double value = Double.parseDouble(s);
+            return negative ? -Math.abs(value) : value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Importe no válido: " + raw);
+        }
+    }
+
+    /**
+     * Interpreta una fecha.
+     *
+     * Formatos admitidos: {@code yyyyMMdd[hhmmss...]} (OFX), {@code yyyy-MM-dd}, y día, mes y año
+     * separados por {@code / - . '} con año de 2 o 4 cifras. Las fechas ambiguas se leen como
+     * día/mes; si el mes resultante no es válido se prueba mes/día (QIF exportado en formato EE. UU.).
+     * Se ignora la hora si la hay.
+     *
+     * @param raw Texto de la fecha.
+     * @return Fecha.
+     * @throws IllegalArgumentException si no es una fecha válida.
+     */
+    public static LocalDate date(String raw) {
+        if (raw == null || raw.isBlank()) {
+            throw new IllegalArgumentException("Fecha vacía");
+        }
+        String s = raw.trim();
+        int space = s.indexOf(' ');
+        if (space > 0) {
+            s = s.substring(0, space);
+        }
+        int t = s.indexOf('T');
+        if (t > 0) {
+            s = s.substring(0, t);
+        }
+        try {
+            if (s.length() >= 8 && isDigits(s, 8)) {
+                return LocalDate.of(Integer.parseInt(s.substring(0, 4)), Integer.parseInt(s.substring(4, 6)),
+                        Integer.parseInt(s.substring(6, 8)));
+            }
+            String[] parts = s.split("[/\\-.']");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Fecha no válida: " + raw);
+            }
+            int a = Integer.parseInt(parts[0].trim());
+            int b = Integer.parseInt(parts[1].trim());
+            int c = Integer.parseInt(parts[2].trim());
+            if (parts[0].trim().length() == 4) {
+                return LocalDate.of(a, b, c);
+            }
+            int year = c < 100 ? 2000 + c : c;
+            return b <= 12 ? LocalDate.of(year, b, a) : LocalDate.of(year, a, b);
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Fecha no válida: " + raw);
+        }
+    }
+
+    private static boolean isDigits(String s, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package Proyecto.GestorAPI.config.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+	@Test
+	void seAbreTrasElUmbralDeFallosSeguidos() {
+		CircuitBreaker breaker = new CircuitBreaker(3, 60_000);
+
+		assertThat(breaker.recordFailure()).isFalse();
+		assertThat(breaker.recordFailure()).isFalse();
+		assertThat(breaker.allowsCalls()).isTrue();
+
+		assertThat(breaker.recordFailure()).isTrue();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.ABIERTO);
+		assertThat(breaker.allowsCalls()).isFalse();
+		// Los fallos siguientes no lo vuelven a abrir
+		assertThat(breaker.recordFailure()).isFalse();
+	}
+
+	@Test
+	void unExitoReiniciaLosFallosSeguidos() {
+		CircuitBreaker breaker = new CircuitBreaker(2, 60_000);
+
+		breaker.recordFailure();
+		breaker.recordSuccess();
+		assertThat(breaker.recordFailure()).isFalse();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CERRADO);
+	}
+
+	@Test
+	void noPasaASemiabiertoAntesDelTiempoDeApertura() {
+		CircuitBreaker breaker = new CircuitBreaker(1, 60_000);
+		breaker.recordFailure();
+
+		assertThat(breaker.tryHalfOpen()).isFalse();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.ABIERTO);
+	}
+
+	@Test
+	void soloUnLlamanteHaceLaComprobacionDePrueba() {
+		CircuitBreaker breaker = new CircuitBreaker(1, 0);
+		breaker.recordFailure();
+
+		assertThat(breaker.tryHalfOpen()).isTrue();
+		assertThat(breaker.tryHalfOpen()).isFalse();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.SEMIABIERTO);
+		assertThat(breaker.allowsCalls()).isFalse();
+	}
+
+	@Test
+	void laComprobacionCorrectaCierraElCircuito() {
+		CircuitBreaker breaker = new CircuitBreaker(2, 0);
+		breaker.recordFailure();
+		breaker.recordFailure();
+		breaker.tryHalfOpen();
+
+		breaker.onProbeResult(true);
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CERRADO);
+		assertThat(breaker.allowsCalls()).isTrue();
+		// Los fallos anteriores no cuentan para la siguiente apertura
+		assertThat(breaker.recordFailure()).isFalse();
+	}
+
+	@Test
+	void laComprobacionFallidaLoVuelveAAbrir() {
+		CircuitBreaker breaker = new CircuitBreaker(1, 60_000);
+		breaker.recordFailure();
+		breaker.onProbeResult(false);
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.ABIERTO);
+		// El tiempo de apertura empieza de nuevo
+		assertThat(breaker.tryHalfOpen()).isFalse();
+	}
+}
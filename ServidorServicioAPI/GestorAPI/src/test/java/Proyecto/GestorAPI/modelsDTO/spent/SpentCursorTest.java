@@ -0,0 +1,57 @@
+package Proyecto.GestorAPI.modelsDTO.spent;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpentCursorTest {
+
+	@Test
+	void decodificaLoQueCodifica() {
+		SpentCursor cursor = new SpentCursor(LocalDateTime.of(2025, 5, 17, 18, 42, 7, 123_000_000), 9_876_543_210L);
+
+		assertThat(SpentCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void conservaLasFechasSinSegundos() {
+		// LocalDateTime#toString omite los segundos si son cero
+		SpentCursor cursor = new SpentCursor(LocalDateTime.of(2025, 1, 1, 0, 0), 1L);
+
+		assertThat(SpentCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void esAptoParaUrl() {
+		SpentCursor cursor = new SpentCursor(LocalDateTime.of(2025, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+		assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void sinCursorEsLaPrimeraPagina() {
+		assertThat(SpentCursor.decode(null)).isNull();
+		assertThat(SpentCursor.decode("  ")).isNull();
+	}
+
+	@Test
+	void rechazaCursoresMalFormados() {
+		assertThatThrownBy(() -> SpentCursor.decode("no es base64!"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> SpentCursor.decode(encode("2025-05-17T18:42")))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> SpentCursor.decode(encode("ayer|12")))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> SpentCursor.decode(encode("2025-05-17T18:42|doce")))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,84 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+	@Test
+	void leeCamposEntreComillasConSeparadoresSaltosYComillasDobladas() throws IOException {
+		List<List<String>> records = readAll("nombre,descripcion\n"
+				+ "\"Cena, con amigos\",\"Dijo \"\"hola\"\"\"\n"
+				+ "Taxi,\"Primera línea\nsegunda línea\"\n");
+
+		assertThat(records).containsExactly(
+				List.of("nombre", "descripcion"),
+				List.of("Cena, con amigos", "Dijo \"hola\""),
+				List.of("Taxi", "Primera línea\nsegunda línea"));
+	}
+
+	@Test
+	void admiteFinalesDeLineaCrlfYSaltaLineasVacias() throws IOException {
+		List<List<String>> records = readAll("a,b\r\n1,2\r\n\r\n3,\"4\r\n5\"\r\n");
+
+		assertThat(records).containsExactly(List.of("a", "b"), List.of("1", "2"), List.of("3", "4\r\n5"));
+	}
+
+	@Test
+	void ignoraLaMarcaBom() throws IOException {
+		CsvReader reader = CsvReader.open(new StringReader("\uFEFFfecha;importe\n01/05/2025;-3,50\n"));
+
+		assertThat(reader.separator()).isEqualTo(';');
+		assertThat(reader.next()).containsExactly("fecha", "importe");
+		assertThat(reader.next()).containsExactly("01/05/2025", "-3,50");
+		assertThat(reader.next()).isNull();
+	}
+
+	@Test
+	void detectaElSeparadorPorLaCabecera() throws IOException {
+		assertThat(CsvReader.open(new StringReader("a,b,c\n")).separator()).isEqualTo(',');
+		assertThat(CsvReader.open(new StringReader("a;b;c\n1,5;2,5;3\n")).separator()).isEqualTo(';');
+	}
+
+	@Test
+	void conservaLosCamposVaciosYElUltimoRegistroSinSalto() throws IOException {
+		List<List<String>> records = readAll("a,b,c\n,,\nx,,z");
+
+		assertThat(records).containsExactly(List.of("a", "b", "c"), List.of("", "", ""), List.of("x", "", "z"));
+	}
+
+	@Test
+	void cuentaLosRegistrosLeidos() throws IOException {
+		CsvReader reader = CsvReader.open(new StringReader("a\n1\n\n2\n"));
+		while (reader.next() != null) {
+			// Consumir
+		}
+
+		assertThat(reader.records()).isEqualTo(3);
+	}
+
+	@Test
+	void fallaConComillasSinCerrar() throws IOException {
+		CsvReader reader = CsvReader.open(new StringReader("a,b\n1,\"sin cerrar\n"));
+		reader.next();
+
+		assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("registro 2");
+	}
+
+	private static List<List<String>> readAll(String csv) throws IOException {
+		CsvReader reader = CsvReader.open(new StringReader(csv));
+		List<List<String>> records = new ArrayList<>();
+		List<String> record;
+		while ((record = reader.next()) != null) {
+			records.add(record);
+		}
+		return records;
+	}
+}
@@ -0,0 +1,48 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.LoginAttempt;
+import Proyecto.GestorAPI.repositories.LoginAttemptRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class LoginAttemptAuditWriterTest {
+
+	private final LoginAttemptRepository repository = mock(LoginAttemptRepository.class);
+	private final LoginAttemptAuditWriter writer = new LoginAttemptAuditWriter();
+
+	LoginAttemptAuditWriterTest() {
+		ReflectionTestUtils.setField(writer, "loginAttemptRepository", repository);
+		ReflectionTestUtils.setField(writer, "capacity", 100);
+		ReflectionTestUtils.setField(writer, "batchSize", 10);
+		// Intervalo largo: el último lote incompleto solo se guarda al interrumpir
+		ReflectionTestUtils.setField(writer, "flushIntervalMillis", 60_000L);
+		ReflectionTestUtils.setField(writer, "overflowPolicy", LoginAttemptAuditWriter.OverflowPolicy.DROP_NEWEST);
+		writer.start();
+	}
+
+	@AfterEach
+	void detener() throws InterruptedException {
+		writer.shutdown();
+	}
+
+	@Test
+	void alInterrumpirGuardaLoPendienteYTermina() throws InterruptedException {
+		for (int i = 0; i < 25; i++) {
+			assertThat(writer.submit(new LoginAttempt("usuario" + i, "10.0.0.1", Instant.now(), false))).isTrue();
+		}
+
+		Thread thread = (Thread) ReflectionTestUtils.getField(writer, "writer");
+		thread.interrupt();
+		thread.join(2000);
+
+		assertThat(thread.isAlive()).isFalse();
+		assertThat(writer.getWritten()).isEqualTo(25);
+		assertThat(writer.getPending()).isZero();
+	}
+}
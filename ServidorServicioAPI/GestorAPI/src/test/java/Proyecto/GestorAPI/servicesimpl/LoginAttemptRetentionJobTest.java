@@ -0,0 +1,55 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.repositories.LoginAttemptRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginAttemptRetentionJobTest {
+
+	private static final Instant CUTOFF = Instant.parse("2025-01-01T00:00:00Z");
+
+	private final LoginAttemptRepository repository = mock(LoginAttemptRepository.class);
+	private final LoginAttemptRetentionJob job = new LoginAttemptRetentionJob();
+
+	LoginAttemptRetentionJobTest() {
+		ReflectionTestUtils.setField(job, "loginAttemptRepository", repository);
+		ReflectionTestUtils.setField(job, "chunkSize", 100);
+		ReflectionTestUtils.setField(job, "pauseMillis", 0L);
+		ReflectionTestUtils.setField(job, "archiveDir", "");
+	}
+
+	@Test
+	void recorreLosRangosEntreLosLimitesConsultadosUnaVez() {
+		when(repository.findMinIdBefore(CUTOFF)).thenReturn(1L);
+		when(repository.findMaxIdBefore(CUTOFF)).thenReturn(250L);
+		when(repository.deleteRangeBefore(anyLong(), anyLong(), any())).thenReturn(100, 100, 50);
+
+		assertThat(job.purge(CUTOFF)).isEqualTo(250);
+
+		verify(repository, times(1)).findMinIdBefore(CUTOFF);
+		verify(repository, times(1)).findMaxIdBefore(CUTOFF);
+		verify(repository).deleteRangeBefore(1L, 100L, CUTOFF);
+		verify(repository).deleteRangeBefore(101L, 200L, CUTOFF);
+		verify(repository).deleteRangeBefore(201L, 250L, CUTOFF);
+	}
+
+	@Test
+	void sinRegistrosAntiguosNoBorraNada() {
+		when(repository.findMinIdBefore(CUTOFF)).thenReturn(null);
+
+		assertThat(job.purge(CUTOFF)).isZero();
+
+		verify(repository, never()).deleteRangeBefore(anyLong(), anyLong(), any());
+	}
+}
@@ -0,0 +1,124 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginThrottleTest {
+
+	private static final long WINDOW = Duration.ofMinutes(30).toMillis();
+
+	@Test
+	void bloqueaAlAlcanzarElMaximoDentroDeLaVentana() {
+		LoginThrottle throttle = new LoginThrottle(3, Duration.ofMinutes(30), 1000, null);
+
+		throttle.recordFailure("ana", 1_000);
+		throttle.recordFailure("ana", 2_000);
+		assertThat(throttle.isBlocked("ana", 2_500)).isFalse();
+
+		throttle.recordFailure("ana", 3_000);
+		assertThat(throttle.isBlocked("ana", 3_500)).isTrue();
+		assertThat(throttle.isBlocked("luis", 3_500)).isFalse();
+		// Se desbloquea cuando caduca el primer fallo de los tres
+		assertThat(throttle.remaining("ana", 3_500)).isEqualTo(1_000 + WINDOW - 3_500);
+	}
+
+	@Test
+	void losFallosCaducadosNoCuentan() {
+		LoginThrottle throttle = new LoginThrottle(3, Duration.ofMinutes(30), 1000, null);
+
+		throttle.recordFailure("ana", 1_000);
+		throttle.recordFailure("ana", 2_000);
+		throttle.recordFailure("ana", 1_000 + WINDOW + 1);
+		assertThat(throttle.isBlocked("ana", 1_000 + WINDOW + 2)).isFalse();
+
+		assertThat(throttle.isBlocked("ana", 3_000)).isFalse();
+		assertThat(throttle.remaining("ana", 2_000 + WINDOW + 1)).isZero();
+	}
+
+	@Test
+	void guardaSoloLosUltimosFallosYAdmiteDesorden() {
+		LoginThrottle throttle = new LoginThrottle(2, Duration.ofMinutes(30), 1000, null);
+
+		throttle.recordFailure("ana", 5_000);
+		throttle.recordFailure("ana", 4_000);
+		throttle.recordFailure("ana", 6_000);
+
+		// Cuentan los dos más recientes: 5000 y 6000
+		assertThat(throttle.remaining("ana", 7_000)).isEqualTo(5_000 + WINDOW - 7_000);
+	}
+
+	@Test
+	void sweepEliminaSoloLasClavesCaducadas() {
+		LoginThrottle throttle = new LoginThrottle(3, Duration.ofMinutes(30), 1000, null);
+		throttle.recordFailure("ana", 1_000);
+		throttle.recordFailure("luis", WINDOW);
+
+		assertThat(throttle.sweep(WINDOW + 1_000)).isEqualTo(1);
+		assertThat(throttle.size()).isEqualTo(1);
+	}
+
+	@Test
+	void unaFranjaLlenaNoDescartaClavesConFallosRecientes() {
+		// 16 claves por franja como mínimo: con 10000 claves nuevas todas las franjas se llenan
+		LoginThrottle throttle = new LoginThrottle(2, Duration.ofMinutes(30), 0, null);
+		throttle.recordFailure("victima", 1_000);
+		throttle.recordFailure("victima", 1_001);
+
+		for (int i = 0; i < 10_000; i++) {
+			throttle.recordFailure("relleno-" + i, 2_000);
+		}
+
+		assertThat(throttle.isBlocked("victima", 3_000)).isTrue();
+		assertThat(throttle.size()).isLessThanOrEqualTo(64 * 16);
+	}
+
+	@Test
+	void unaFranjaLlenaLiberaSitioConLasClavesCaducadas() {
+		LoginThrottle throttle = new LoginThrottle(2, Duration.ofMinutes(30), 0, null);
+		for (int i = 0; i < 10_000; i++) {
+			throttle.recordFailure("antigua-" + i, 1_000);
+		}
+
+		long later = 1_000 + WINDOW + 1;
+		assertThat(throttle.recordFailure("nueva", later)).isTrue();
+		throttle.recordFailure("nueva", later + 1);
+		assertThat(throttle.isBlocked("nueva", later + 2)).isTrue();
+	}
+
+	@Test
+	void conLaFranjaDesbordadaConsultaLaFuenteDeFallos() {
+		List<String> consultas = new ArrayList<>();
+		LoginThrottle throttle = new LoginThrottle(2, Duration.ofMinutes(30), 0, (key, since) -> {
+			consultas.add(key);
+			return key.equals("desbordada") ? List.of(2_000L, 2_500L) : List.of();
+		});
+		for (int i = 0; i < 10_000; i++) {
+			throttle.recordFailure("relleno-" + i, 2_000);
+		}
+		// La franja de la clave está llena de fallos recientes: no se guarda en memoria
+		assertThat(throttle.recordFailure("desbordada", 2_000)).isFalse();
+
+		assertThat(throttle.remaining("desbordada", 3_000)).isEqualTo(2_000 + WINDOW - 3_000);
+		assertThat(consultas).containsExactly("desbordada");
+
+		// Pasada la ventana del desbordamiento ya no se consulta
+		assertThat(throttle.isBlocked("desbordada", 2_000 + WINDOW + 1)).isFalse();
+		assertThat(consultas).hasSize(1);
+	}
+
+	@Test
+	void sinDesbordamientoNoConsultaLaFuenteDeFallos() {
+		LoginThrottle throttle = new LoginThrottle(2, Duration.ofMinutes(30), 1000, (key, since) -> {
+			throw new AssertionError("No debe consultarse");
+		});
+		throttle.recordFailure("ana", 1_000);
+
+		assertThat(throttle.isBlocked("ana", 2_000)).isFalse();
+		assertThat(throttle.isBlocked("luis", 2_000)).isFalse();
+	}
+}
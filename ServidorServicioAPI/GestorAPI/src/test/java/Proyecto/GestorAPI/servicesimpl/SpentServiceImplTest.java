@@ -0,0 +1,83 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentCursor;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentDto;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentFilterRequest;
+import Proyecto.GestorAPI.modelsDTO.spent.SpentPageDto;
+import Proyecto.GestorAPI.repositories.SubscriptionRepository;
+import Proyecto.GestorAPI.repositories.TicketRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpentServiceImplTest {
+
+	private static final LocalDateTime DATE = LocalDateTime.of(2025, 5, 17, 18, 42);
+	private static final SpentFilterRequest NO_FILTER = new SpentFilterRequest(null, null, null, null, null, null);
+
+	private final EntityManager entityManager = mock(EntityManager.class);
+	@SuppressWarnings("unchecked")
+	private final TypedQuery<SpentDto> query = mock(TypedQuery.class);
+	private final SpentServiceImpl service = new SpentServiceImpl();
+
+	SpentServiceImplTest() {
+		ReflectionTestUtils.setField(service, "entityManager", entityManager);
+		ReflectionTestUtils.setField(service, "ticketRepository", mock(TicketRepository.class));
+		ReflectionTestUtils.setField(service, "subscriptionRepository", mock(SubscriptionRepository.class));
+		when(entityManager.createQuery(anyString(), eq(SpentDto.class))).thenReturn(query);
+		when(query.setMaxResults(anyInt())).thenReturn(query);
+		when(query.setParameter(anyString(), any())).thenReturn(query);
+	}
+
+	@Test
+	void elCursorEnUnEmpateDeFechaSigueConLosIdsMenores() {
+		// Tres gastos con la misma fecha: la página anterior terminó en el id 40
+		when(query.getResultList()).thenReturn(List.of(spent(30L, DATE), spent(20L, DATE), spent(10L, DATE.minusDays(1))));
+
+		SpentPageDto page = service.getSpentsPage(7L, NO_FILTER, new SpentCursor(DATE, 40L), 2);
+
+		ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+		verify(entityManager).createQuery(jpql.capture(), eq(SpentDto.class));
+		assertThat(jpql.getValue())
+				.contains("(s.expenseDate < :cursorDate OR (s.expenseDate = :cursorDate AND s.spentId < :cursorId))")
+				.doesNotContain("(s.expenseDate, s.spentId)")
+				.endsWith("ORDER BY s.expenseDate DESC, s.spentId DESC");
+		verify(query).setParameter("cursorDate", DATE);
+		verify(query).setParameter("cursorId", 40L);
+		verify(query).setMaxResults(3);
+
+		// El siguiente cursor queda en el último gasto del empate
+		assertThat(page.hasMore()).isTrue();
+		assertThat(SpentCursor.decode(page.nextCursor())).isEqualTo(new SpentCursor(DATE, 20L));
+	}
+
+	@Test
+	void sinCursorNoFiltraPorFechaNiId() {
+		when(query.getResultList()).thenReturn(List.of());
+
+		service.getSpentsPage(7L, NO_FILTER, null, 2);
+
+		ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+		verify(entityManager).createQuery(jpql.capture(), eq(SpentDto.class));
+		assertThat(jpql.getValue()).doesNotContain(":cursorDate").doesNotContain(":cursorId");
+	}
+
+	private static SpentDto spent(Long id, LocalDateTime date) {
+		return new SpentDto(id, 7L, 1L, date, "Gasto " + id, null, 10.0, 2.1, ExpenseClass.GASTO_GENERICO, null);
+	}
+}
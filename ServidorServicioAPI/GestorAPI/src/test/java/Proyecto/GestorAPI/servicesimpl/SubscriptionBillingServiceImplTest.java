@@ -0,0 +1,94 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import Proyecto.GestorAPI.models.Subscription;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriptionBillingServiceImplTest {
+
+	// nextChargeAfter solo usa los datos de la subscripción
+	private final SubscriptionBillingServiceImpl billing = new SubscriptionBillingServiceImpl();
+
+	@Test
+	void elDia31CaeEnElUltimoDiaDeLosMesesCortos() {
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2025, 1, 31), 30, 31))
+				.isEqualTo(LocalDate.of(2025, 2, 28));
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2024, 1, 31), 30, 31))
+				.isEqualTo(LocalDate.of(2024, 2, 29));
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2025, 3, 31), 30, 31))
+				.isEqualTo(LocalDate.of(2025, 4, 30));
+	}
+
+	@Test
+	void trasUnMesCortoVuelveAlDiaDeRenovacion() {
+		// Sin arrastrar el 28 de febrero a los meses siguientes
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2025, 2, 28), 30, 31))
+				.isEqualTo(LocalDate.of(2025, 3, 31));
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2025, 4, 30), 30, 31))
+				.isEqualTo(LocalDate.of(2025, 5, 31));
+	}
+
+	@Test
+	void losMultiplosDe30SonMesesNaturales() {
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2025, 11, 30), 90, 31))
+				.isEqualTo(LocalDate.of(2026, 2, 28));
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2024, 2, 29), 360, 29))
+				.isEqualTo(LocalDate.of(2025, 2, 28));
+	}
+
+	@Test
+	void losDemasIntervalosSonDias() {
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2025, 1, 31), 7, 31))
+				.isEqualTo(LocalDate.of(2025, 2, 7));
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2025, 12, 31), 1, 31))
+				.isEqualTo(LocalDate.of(2026, 1, 1));
+		assertThat(SubscriptionBillingServiceImpl.nextCycle(LocalDate.of(2025, 12, 31), 0, 31))
+				.isEqualTo(LocalDate.of(2026, 1, 1));
+	}
+
+	@Test
+	void elSiguienteCargoEsPosteriorALaFecha() {
+		Subscription subscription = subscription(LocalDate.of(2025, 1, 31), 30, 31, null);
+
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 2, 27))).isEqualTo(LocalDate.of(2025, 2, 28));
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 2, 28))).isEqualTo(LocalDate.of(2025, 3, 31));
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 4, 30))).isEqualTo(LocalDate.of(2025, 5, 31));
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2026, 1, 31))).isEqualTo(LocalDate.of(2026, 2, 28));
+	}
+
+	@Test
+	void siEmpiezaMasTardeElSiguienteCargoEsElInicio() {
+		Subscription subscription = subscription(LocalDate.of(2025, 6, 30), 30, 31, null);
+
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 5, 1))).isEqualTo(LocalDate.of(2025, 6, 30));
+	}
+
+	@Test
+	void conIntervaloEnDiasSaltaDirectamenteAlCicloSiguiente() {
+		Subscription subscription = subscription(LocalDate.of(2025, 1, 1), 7, 1, null);
+
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 1, 14))).isEqualTo(LocalDate.of(2025, 1, 15));
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 1, 15))).isEqualTo(LocalDate.of(2025, 1, 22));
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 12, 31))).isEqualTo(LocalDate.of(2026, 1, 7));
+	}
+
+	@Test
+	void sinCiclosAntesDelFinNoHaySiguienteCargo() {
+		Subscription subscription = subscription(LocalDate.of(2025, 1, 31), 30, 31, LocalDate.of(2025, 3, 15));
+
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 2, 1))).isEqualTo(LocalDate.of(2025, 2, 28));
+		assertThat(billing.nextChargeAfter(subscription, LocalDate.of(2025, 2, 28))).isNull();
+	}
+
+	private static Subscription subscription(LocalDate start, int intervalTime, int restartDay, LocalDate end) {
+		Subscription subscription = new Subscription();
+		subscription.setStart(start.atTime(10, 0));
+		subscription.setEnd(end == null ? null : end.atStartOfDay());
+		subscription.setIntervalTime(intervalTime);
+		subscription.setRestartDay(restartDay);
+		return subscription;
+	}
+}
@@ -0,0 +1,20 @@
+package Proyecto.GestorAPI.servicesimpl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextNormalizerTest {
+
+	@Test
+	void normalizaTextosParaLasReglas() {
+		assertThat(TextNormalizer.normalize("  CAFETERÍA   Peñón\tMÁLAGA ")).isEqualTo("cafeteria penon malaga");
+		assertThat(TextNormalizer.normalize(null)).isEmpty();
+	}
+
+	@Test
+	void losNombresDeProductoUsanLaMismaNormalizacion() {
+		assertThat(ProductNames.normalize("LÉCHE  Entera")).isEqualTo(TextNormalizer.normalize("leche entera"));
+		assertThat(ProductNames.normalize("x".repeat(200))).hasSize(ProductNames.MAX_LENGTH);
+	}
+}
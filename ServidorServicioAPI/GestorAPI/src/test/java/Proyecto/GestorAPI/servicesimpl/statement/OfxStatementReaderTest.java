@@ -0,0 +1,112 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OfxStatementReaderTest {
+
+	@Test
+	void leeOfxSgmlConEtiquetasSinCerrar() throws IOException {
+		List<StatementLine> lines = readAll("""
+				OFXHEADER:100
+				DATA:OFXSGML
+
+				<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+				<STMTTRN>
+				<TRNTYPE>DEBIT
+				<DTPOSTED>20250517120000[+1:CET]
+				<TRNAMT>-23.40
+				<FITID>2025051700001
+				<NAME>MERCADONA
+				<MEMO>COMPRA TARJETA
+				</STMTTRN>
+				<STMTTRN>
+				<TRNTYPE>CREDIT
+				<DTPOSTED>20250518
+				<TRNAMT>1500.00
+				<FITID>2025051800002
+				<NAME>NOMINA
+				</STMTTRN>
+				</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+				""");
+
+		assertThat(lines).hasSize(2);
+		StatementLine debit = lines.get(0);
+		assertThat(debit.line()).isEqualTo(5);
+		assertThat(debit.date()).isEqualTo(LocalDate.of(2025, 5, 17));
+		assertThat(debit.amount()).isEqualTo(-23.40);
+		assertThat(debit.description()).isEqualTo("MERCADONA COMPRA TARJETA");
+		assertThat(debit.kind()).isEqualTo("DEBIT");
+		assertThat(debit.sourceId()).isEqualTo("fitid:2025051700001");
+		assertThat(debit.isContentId()).isFalse();
+		assertThat(debit.isDebit()).isTrue();
+		assertThat(lines.get(1).isDebit()).isFalse();
+	}
+
+	@Test
+	void leeOfxXmlYDesescapaLosValores() throws IOException {
+		List<StatementLine> lines = readAll("""
+				<?xml version="1.0" encoding="UTF-8"?>
+				<OFX><BANKTRANLIST>
+				<STMTTRN><TRNTYPE>POS</TRNTYPE><DTPOSTED>20250517</DTPOSTED><TRNAMT>-9.99</TRNAMT>
+				<NAME>H&amp;M</NAME><MEMO>H&amp;M</MEMO></STMTTRN>
+				</BANKTRANLIST></OFX>
+				""");
+
+		assertThat(lines).singleElement().satisfies(line -> {
+			// Si la nota repite el nombre no se duplica
+			assertThat(line.description()).isEqualTo("H&M");
+			assertThat(line.amount()).isEqualTo(-9.99);
+		});
+	}
+
+	@Test
+	void sinFitidIdentificaElMovimientoPorSuContenido() throws IOException {
+		List<StatementLine> lines = readAll("""
+				<STMTTRN><DTPOSTED>20250517<TRNAMT>-1.50<NAME>Cafetería  SOL</STMTTRN>
+				<STMTTRN><DTPOSTED>20250517<TRNAMT>-1.5<NAME>cafeteria sol</STMTTRN>
+				""");
+
+		assertThat(lines.get(0).isContentId()).isTrue();
+		assertThat(lines.get(0).sourceId()).isEqualTo("mov:2025-05-17|-150|cafeteria sol");
+		assertThat(lines.get(1).sourceId()).isEqualTo(lines.get(0).sourceId());
+	}
+
+	@Test
+	void marcaComoErroneosLosMovimientosNoValidos() throws IOException {
+		List<StatementLine> lines = readAll("""
+				<STMTTRN><DTPOSTED>ayer<TRNAMT>-1.50<NAME>X</STMTTRN>
+				<STMTTRN><DTPOSTED>20250517<NAME>SIN IMPORTE</STMTTRN>
+				<STMTTRN><DTPOSTED>20250517<TRNAMT>-2<NAME>OK</STMTTRN>
+				""");
+
+		assertThat(lines).extracting(StatementLine::error)
+				.containsExactly("Fecha no válida: ayer", "Importe vacío", null);
+	}
+
+	@Test
+	void fallaSiUnBloqueNoSeCierra() {
+		assertThatThrownBy(() -> readAll("<OFX>\n<STMTTRN><DTPOSTED>20250517<TRNAMT>-2\n"))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("línea 2");
+	}
+
+	private static List<StatementLine> readAll(String ofx) throws IOException {
+		StatementReader reader = new OfxStatementReader(new BufferedReader(new StringReader(ofx)));
+		List<StatementLine> lines = new ArrayList<>();
+		StatementLine line;
+		while ((line = reader.next()) != null) {
+			lines.add(line);
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,76 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QifStatementReaderTest {
+
+	@Test
+	void leeLosRegistrosHastaElSeparador() throws IOException {
+		List<StatementLine> lines = readAll("""
+				!Type:Bank
+				D17/05/2025
+				T-23,40
+				PMERCADONA
+				MCOMPRA TARJETA
+				N1234
+				^
+				D05/18'25
+				U1.500,00
+				PNOMINA
+				^
+				""");
+
+		assertThat(lines).hasSize(2);
+		StatementLine debit = lines.get(0);
+		assertThat(debit.line()).isEqualTo(2);
+		assertThat(debit.date()).isEqualTo(LocalDate.of(2025, 5, 17));
+		assertThat(debit.amount()).isEqualTo(-23.40);
+		assertThat(debit.description()).isEqualTo("MERCADONA COMPRA TARJETA");
+		assertThat(debit.kind()).isNull();
+		assertThat(debit.isContentId()).isTrue();
+
+		StatementLine credit = lines.get(1);
+		assertThat(credit.line()).isEqualTo(8);
+		assertThat(credit.date()).isEqualTo(LocalDate.of(2025, 5, 18));
+		assertThat(credit.amount()).isEqualTo(1500.00);
+		assertThat(credit.isDebit()).isFalse();
+	}
+
+	@Test
+	void admiteElUltimoRegistroSinSeparadorYRegistrosVacios() throws IOException {
+		List<StatementLine> lines = readAll("!Type:Bank\n^\n\nD01/05/2025\nT-5\nMSOLO NOTA");
+
+		assertThat(lines).singleElement().satisfies(line -> {
+			assertThat(line.description()).isEqualTo("SOLO NOTA");
+			assertThat(line.amount()).isEqualTo(-5);
+		});
+	}
+
+	@Test
+	void marcaComoErroneoElRegistroNoValidoYSigue() throws IOException {
+		List<StatementLine> lines = readAll("D32/13/2025\nT-5\n^\nD01/05/2025\nTcinco\n^\nD01/05/2025\nT-5\n^\n");
+
+		assertThat(lines).extracting(StatementLine::error)
+				.containsExactly("Fecha no válida: 32/13/2025", "Importe no válido: cinco", null);
+		assertThat(lines).extracting(StatementLine::line).containsExactly(1L, 4L, 7L);
+	}
+
+	private static List<StatementLine> readAll(String qif) throws IOException {
+		StatementReader reader = new QifStatementReader(new BufferedReader(new StringReader(qif)));
+		List<StatementLine> lines = new ArrayList<>();
+		StatementLine line;
+		while ((line = reader.next()) != null) {
+			lines.add(line);
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,43 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import Proyecto.GestorAPI.models.StatementRule;
+import Proyecto.GestorAPI.models.enums.ExpenseClass;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementClassifierTest {
+
+	private static final long DEFAULT_CATEGORY = 1L;
+	private static final long TRANSPORT = 2L;
+	private static final long PHONE = 3L;
+
+	private final StatementClassifier classifier = new StatementClassifier(List.of(
+			new StatementRule("uber", ExpenseClass.GASTO_GENERICO, TRANSPORT, 10),
+			new StatementRule("Orange", ExpenseClass.FACTURA, PHONE, 10),
+			new StatementRule("canal de isabel", ExpenseClass.FACTURA, null, 10)
+	), DEFAULT_CATEGORY);
+
+	@Test
+	void coincideAlPrincipioDeUnaPalabra() {
+		assertThat(classifier.classify("COMPRA TARJ. UBER *TRIP", null))
+				.isEqualTo(new StatementClassifier.Classification(ExpenseClass.GASTO_GENERICO, TRANSPORT));
+		assertThat(classifier.classify("UberEats Madrid", null))
+				.isEqualTo(new StatementClassifier.Classification(ExpenseClass.GASTO_GENERICO, TRANSPORT));
+		assertThat(classifier.classify("RECIBO ORANGE ESPAGNE", null))
+				.isEqualTo(new StatementClassifier.Classification(ExpenseClass.FACTURA, PHONE));
+		assertThat(classifier.classify("Recibo Canal de Isabel II", null))
+				.isEqualTo(new StatementClassifier.Classification(ExpenseClass.FACTURA, DEFAULT_CATEGORY));
+	}
+
+	@Test
+	void noCoincideDentroDeOtraPalabra() {
+		// "uber" y "orange" aparecen dentro de otras palabras
+		assertThat(classifier.classify("COMPRA SUBERBIA SL", null))
+				.isEqualTo(new StatementClassifier.Classification(ExpenseClass.GASTO_GENERICO, DEFAULT_CATEGORY));
+		assertThat(classifier.classify("FLORANGE DECORACION", "DIRECTDEBIT"))
+				.isEqualTo(new StatementClassifier.Classification(ExpenseClass.FACTURA, DEFAULT_CATEGORY));
+	}
+}
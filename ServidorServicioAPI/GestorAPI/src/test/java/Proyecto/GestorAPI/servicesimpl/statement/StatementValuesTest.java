@@ -0,0 +1,64 @@
+package Proyecto.GestorAPI.servicesimpl.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatementValuesTest {
+
+	@Test
+	void interpretaImportesConComaOPuntoDecimal() {
+		assertThat(StatementValues.amount("-23,40")).isEqualTo(-23.40);
+		assertThat(StatementValues.amount("-23.40")).isEqualTo(-23.40);
+		assertThat(StatementValues.amount("1.234,56")).isEqualTo(1234.56);
+		assertThat(StatementValues.amount("1,234.56")).isEqualTo(1234.56);
+		// Un único separador se toma como decimal (convención española)
+		assertThat(StatementValues.amount("1,234")).isEqualTo(1.234);
+		// Repetido, es separador de miles
+		assertThat(StatementValues.amount("1.234.567")).isEqualTo(1234567);
+		assertThat(StatementValues.amount("1,234,567")).isEqualTo(1234567);
+	}
+
+	@Test
+	void interpretaSignosYMoneda() {
+		assertThat(StatementValues.amount("12,50-")).isEqualTo(-12.50);
+		assertThat(StatementValues.amount("(12,50)")).isEqualTo(-12.50);
+		assertThat(StatementValues.amount("-12,50 €")).isEqualTo(-12.50);
+		assertThat(StatementValues.amount("EUR 1 000,00")).isEqualTo(1000.00);
+		assertThat(StatementValues.amount("+7")).isEqualTo(7);
+	}
+
+	@Test
+	void rechazaImportesNoNumericos() {
+		assertThatThrownBy(() -> StatementValues.amount(" ")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> StatementValues.amount("doce")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("doce");
+	}
+
+	@Test
+	void interpretaFechasOfxEIso() {
+		assertThat(StatementValues.date("20250517")).isEqualTo(LocalDate.of(2025, 5, 17));
+		assertThat(StatementValues.date("20250517120000[+1:CET]")).isEqualTo(LocalDate.of(2025, 5, 17));
+		assertThat(StatementValues.date("2025-05-17")).isEqualTo(LocalDate.of(2025, 5, 17));
+		assertThat(StatementValues.date("2025-05-17T10:30:00")).isEqualTo(LocalDate.of(2025, 5, 17));
+	}
+
+	@Test
+	void interpretaFechasDiaMesYMesDia() {
+		assertThat(StatementValues.date("05/04/2025")).isEqualTo(LocalDate.of(2025, 4, 5));
+		assertThat(StatementValues.date("5.4.25")).isEqualTo(LocalDate.of(2025, 4, 5));
+		assertThat(StatementValues.date("17-05-2025 10:30")).isEqualTo(LocalDate.of(2025, 5, 17));
+		// Mes no válido como día/mes: se lee mes/día (QIF en formato EE. UU.)
+		assertThat(StatementValues.date("5/17'25")).isEqualTo(LocalDate.of(2025, 5, 17));
+	}
+
+	@Test
+	void rechazaFechasNoValidas() {
+		assertThatThrownBy(() -> StatementValues.date("")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> StatementValues.date("31/02/2025")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> StatementValues.date("17 de mayo")).isInstanceOf(IllegalArgumentException.class);
+	}
+}
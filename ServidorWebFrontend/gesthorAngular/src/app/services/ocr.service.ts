@@ -1,7 +1,11 @@
 import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { Injectable } from '@angular/core';
 import { environment } from '../environments/environment';
-import { Observable } from 'rxjs';
+import { Observable, throwError, timer } from 'rxjs';
+import { exhaustMap, filter, map, switchMap, take, throwIfEmpty } from 'rxjs/operators';
+
+// Consultas de estado antes de dar el trabajo por perdido (1 s + 2 s por consulta, unos 5 minutos)
+const MAX_CONSULTAS_TRABAJO = 150;
 
 @Injectable({
   providedIn: 'root'
@@ -12,13 +16,35 @@ private baseUrl = `${environment.apiUrl}/api/ocr`;
 
   constructor(private http: HttpClient) { }
 
+  // El servidor encola la imagen y devuelve un trabajo; se consulta hasta que termina
   procesarTicketImagen(file: File): Observable<any> {
     const formData = new FormData();
     formData.append('archivo', file);
 
     return this.http.post<any>(`${this.baseUrl}/ticket`, formData, {
       headers: new HttpHeaders(),
-    });
+    }).pipe(
+      switchMap(job => this.esperarTrabajo(job.id))
+    );
+  }
+
+  consultarTrabajo(id: number): Observable<any> {
+    return this.http.get<any>(`${this.baseUrl}/jobs/${id}`);
+  }
+
+  private esperarTrabajo(id: number): Observable<any> {
+    // exhaustMap no lanza otra consulta mientras la anterior sigue en curso
+    return timer(1000, 2000).pipe(
+      take(MAX_CONSULTAS_TRABAJO),
+      exhaustMap(() => this.consultarTrabajo(id)),
+      filter(job => job.status === 'COMPLETADO' || job.status === 'ERROR'),
+      take(1),
+      throwIfEmpty(() => new Error('El ticket sigue pendiente de procesar, inténtalo más tarde')),
+      switchMap(job => job.status === 'ERROR'
+        ? throwError(() => new Error(job.error))
+        : [job]),
+      map(job => ({ ...job, spentId: job.ticketId }))
+    );
   }
 
   procesarTicketDigital(file: File): Observable<any> {